@@ -0,0 +1,202 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestThreadedConfigHistoricalPoll extends TestCase {
+    private static final AtomicInteger INVOCATIONS = new AtomicInteger();
+    private static final AtomicInteger CONCURRENT = new AtomicInteger();
+    private static final AtomicInteger MAX_CONCURRENT = new AtomicInteger();
+    private static volatile CountDownLatch gate;
+
+    private EPServiceProvider epService;
+
+    public void tearDown() {
+        if (epService != null) {
+            epService.destroy();
+        }
+    }
+
+    public void testOp() throws Exception {
+        if (SupportConfigFactory.skipTest(TestThreadedConfigHistoricalPoll.class)) {
+            return;
+        }
+        setupEngine(true);
+        assertNotNull(((EPServiceProviderSPI) epService).getThreadingService().getHistoricalPollThreadPool());
+        SupportUpdateListener listener = createStatement();
+
+        // duplicate lookup keys poll once, distinct lookup keys poll concurrently: each lookup waits for the others to start
+        gate = new CountDownLatch(3);
+        sendEvents(1, 2, 3, 2);
+        assertEquals(3, INVOCATIONS.get());
+        assertEquals(3, MAX_CONCURRENT.get());
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getNewDataListFlattened(), "c0,c1".split(","),
+                new Object[][]{{1, "p1"}, {2, "p2"}, {3, "p3"}, {2, "p2"}});
+        listener.reset();
+
+        // keys found in the cache do not poll
+        resetCounters();
+        sendEvents(3, 3, 4, 1);
+        assertEquals(1, INVOCATIONS.get());
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getNewDataListFlattened(), "c0,c1".split(","),
+                new Object[][]{{3, "p3"}, {3, "p3"}, {4, "p4"}, {1, "p1"}});
+    }
+
+    public void testAllPollThreadsBusy() throws Exception {
+        if (SupportConfigFactory.skipTest(TestThreadedConfigHistoricalPoll.class)) {
+            return;
+        }
+        setupEngine(true);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select h.p00 as c1 " +
+                "from SupportBean#length_batch(8) as s0, " +
+                "method:TestThreadedConfigHistoricalPoll.fetchDelayed(s0.intPrimitive) as h").addListener(listener);
+
+        // 8 lookups keep the joining thread and all 4 threads of the pool busy at the same time
+        gate = new CountDownLatch(5);
+        sendEvents(1, 2, 3, 4, 5, 6, 7, 8);
+        assertEquals(8, INVOCATIONS.get());
+        assertEquals(8, listener.getNewDataListFlattened().length);
+        assertEquals(5, MAX_CONCURRENT.get());
+    }
+
+    public void testVariableTarget() throws Exception {
+        if (SupportConfigFactory.skipTest(TestThreadedConfigHistoricalPoll.class)) {
+            return;
+        }
+        setupEngine(true);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select s0.intPrimitive as c0, h.p00 as c1 " +
+                "from SupportBean#length_batch(4) as s0, " +
+                "method:MyPollService.fetch(s0.intPrimitive) as h").addListener(listener);
+
+        // all lookups of a batch invoke the object that the variable holds for the joining thread
+        for (String name : new String[]{"B", "C", "D"}) {
+            epService.getEPRuntime().setVariableValue("MyPollService", new MyPollService(name));
+            sendEvents(1, 2, 3, 4);
+            EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getNewDataListFlattened(), "c0,c1".split(","),
+                    new Object[][]{{1, name + "1"}, {2, name + "2"}, {3, name + "3"}, {4, name + "4"}});
+            listener.reset();
+        }
+    }
+
+    public void testSequential() throws Exception {
+        setupEngine(false);
+        assertNull(((EPServiceProviderSPI) epService).getThreadingService().getHistoricalPollThreadPool());
+        SupportUpdateListener listener = createStatement();
+
+        sendEvents(1, 2, 3, 2);
+        assertEquals(1, MAX_CONCURRENT.get());
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getNewDataListFlattened(), "c0,c1".split(","),
+                new Object[][]{{1, "p1"}, {2, "p2"}, {3, "p3"}, {2, "p2"}});
+    }
+
+    public void testPollException() throws Exception {
+        if (SupportConfigFactory.skipTest(TestThreadedConfigHistoricalPoll.class)) {
+            return;
+        }
+        setupEngine(true);
+        createStatement();
+
+        try {
+            sendEvents(1, -1, 2, 3);
+            fail();
+        } catch (EPException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("Invalid id -1"));
+        }
+    }
+
+    private void setupEngine(boolean pollThreading) {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getThreading().setThreadPoolHistoricalPoll(pollThreading);
+        config.getEngineDefaults().getThreading().setThreadPoolHistoricalPollNumThreads(4);
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addImport(TestThreadedConfigHistoricalPoll.class.getName());
+        ConfigurationMethodRef methodRef = new ConfigurationMethodRef();
+        methodRef.setLRUCache(100);
+        config.addMethodRef(TestThreadedConfigHistoricalPoll.class, methodRef);
+        config.addVariable("MyPollService", MyPollService.class, new MyPollService("A"));
+        epService = EPServiceProviderManager.getProvider(TestThreadedConfigHistoricalPoll.class.getSimpleName(), config);
+        epService.initialize();
+        resetCounters();
+    }
+
+    private SupportUpdateListener createStatement() {
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select s0.intPrimitive as c0, h.p00 as c1 " +
+                "from SupportBean#length_batch(4) as s0, " +
+                "method:TestThreadedConfigHistoricalPoll.fetchDelayed(s0.intPrimitive) as h").addListener(listener);
+        return listener;
+    }
+
+    private void sendEvents(int... ids) {
+        for (int id : ids) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + id, id));
+        }
+    }
+
+    private static void resetCounters() {
+        INVOCATIONS.set(0);
+        CONCURRENT.set(0);
+        MAX_CONCURRENT.set(0);
+        gate = null;
+    }
+
+    public static SupportBean_S0[] fetchDelayed(int id) throws InterruptedException {
+        if (id < 0) {
+            throw new IllegalArgumentException("Invalid id " + id);
+        }
+        INVOCATIONS.incrementAndGet();
+        int concurrent = CONCURRENT.incrementAndGet();
+        while (true) {
+            int max = MAX_CONCURRENT.get();
+            if (concurrent <= max || MAX_CONCURRENT.compareAndSet(max, concurrent)) {
+                break;
+            }
+        }
+        try {
+            CountDownLatch current = gate;
+            if (current != null) {
+                current.countDown();
+                current.await(10, TimeUnit.SECONDS);
+            }
+            Thread.sleep(200);
+        } finally {
+            CONCURRENT.decrementAndGet();
+        }
+        return new SupportBean_S0[]{new SupportBean_S0(id, "p" + id)};
+    }
+
+    public static class MyPollService {
+        private final String name;
+
+        public MyPollService(String name) {
+            this.name = name;
+        }
+
+        public SupportBean_S0[] fetch(int id) throws InterruptedException {
+            Thread.sleep(20);
+            return new SupportBean_S0[]{new SupportBean_S0(id, name + id)};
+        }
+    }
+}
@@ -17,7 +17,10 @@ import com.espertech.esper.supportregression.epl.SupportStaticMethodLib;
 import com.espertech.esper.core.service.EPServiceProviderSPI;
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class TestThreadedConfigInbound extends TestCase
 {
@@ -100,6 +103,101 @@ public class TestThreadedConfigInbound extends TestCase
         epService.destroy();
     }
 
+    public void testRingBuffer() throws Exception
+    {
+        for (ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy strategy : new ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy[]{
+            ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.BUSY_SPIN,
+            ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.YIELD,
+            ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.PARK}) {
+            Configuration config = new Configuration();
+            config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+            config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+            config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(2);
+            config.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(100);
+            config.getEngineDefaults().getThreading().setThreadPoolRouteExec(true);
+            config.getEngineDefaults().getThreading().setThreadPoolOutbound(true);
+            config.getEngineDefaults().getThreading().setThreadPoolWaitStrategy(strategy);
+            config.addEventType("SupportBean", SupportBean.class);
+
+            EPServiceProvider epService = EPServiceProviderManager.getProvider(this.getClass().getSimpleName() + "_" + strategy, config);
+            epService.initialize();
+            SupportListenerTimerHRes listener = new SupportListenerTimerHRes();
+            epService.getEPAdministrator().createEPL("select * from SupportBean").addListener(listener);
+
+            // the inbound ring buffer reuses its work units for events sent through the runtime and through event senders
+            EventSender sender = epService.getEPRuntime().getEventSender("SupportBean");
+            for (int i = 0; i < 5000; i++) {
+                epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+                sender.sendEvent(new SupportBean("S" + i, i));
+            }
+
+            long deadline = System.currentTimeMillis() + 10000;
+            while (listener.getNewEvents().size() < 10000 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(strategy.name(), 10000, listener.getNewEvents().size());
+
+            EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+            assertEquals(0, spi.getThreadingService().getInboundQueue().size());
+            epService.destroy();
+        }
+    }
+
+    public void testKeyed() throws Exception
+    {
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(4);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundKeyProperty("theString");
+        Map<String, Object> mapType = new HashMap<String, Object>();
+        mapType.put("seq", Integer.class);
+        config.addEventType("MyMap", mapType);
+        config.addEventType("SupportBean", SupportBean.class);
+
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(this.getClass().getSimpleName(), config);
+        epService.initialize();
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        assertTrue(spi.getThreadingService().isInboundThreadingKeyed());
+
+        MyKeyedListener listener = new MyKeyedListener();
+        epService.getEPAdministrator().createEPL("select theString as key, intPrimitive as seq from SupportBean").addListener(listener);
+        epService.getEPAdministrator().createEPL("select 'MyMap' as key, seq from MyMap").addListener(listener);
+
+        int numKeys = 10;
+        int numPerKey = 1000;
+        EventSender sender = epService.getEPRuntime().getEventSender("SupportBean");
+        for (int i = 0; i < numPerKey; i++) {
+            for (int k = 0; k < numKeys; k++) {
+                if (k % 2 == 0) {
+                    epService.getEPRuntime().sendEvent(new SupportBean("K" + k, i));
+                } else {
+                    sender.sendEvent(new SupportBean("K" + k, i));
+                }
+            }
+            Map<String, Object> map = new HashMap<String, Object>();
+            map.put("seq", i);
+            epService.getEPRuntime().sendEvent(map, "MyMap");
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listener.getCount() < numPerKey * (numKeys + 1) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(numKeys + 1, listener.getSequences().size());
+        for (Map.Entry<String, List<Integer>> entry : listener.getSequences().entrySet()) {
+            List<Integer> sequence = entry.getValue();
+            assertEquals(numPerKey, sequence.size());
+            for (int i = 0; i < numPerKey; i++) {
+                assertEquals(entry.getKey(), i, (int) sequence.get(i));
+            }
+            assertEquals(entry.getKey(), 1, listener.getThreads().get(entry.getKey()).size());
+        }
+
+        epService.destroy();
+    }
+
     public static void sleepaLittle(long time) {
         try {
             Thread.sleep(time);
@@ -115,4 +213,40 @@ public class TestThreadedConfigInbound extends TestCase
 
     public static class MyEvent {
     }
+
+    public static class MyKeyedListener implements UpdateListener {
+        private final Map<String, List<Integer>> sequences = new HashMap<String, List<Integer>>();
+        private final Map<String, List<String>> threads = new HashMap<String, List<String>>();
+        private int count;
+
+        public synchronized void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            for (EventBean event : newEvents) {
+                String key = (String) event.get("key");
+                List<Integer> sequence = sequences.get(key);
+                if (sequence == null) {
+                    sequence = new ArrayList<Integer>();
+                    sequences.put(key, sequence);
+                    threads.put(key, new ArrayList<String>());
+                }
+                sequence.add((Integer) event.get("seq"));
+                String threadName = Thread.currentThread().getName();
+                if (!threads.get(key).contains(threadName)) {
+                    threads.get(key).add(threadName);
+                }
+                count++;
+            }
+        }
+
+        public synchronized int getCount() {
+            return count;
+        }
+
+        public synchronized Map<String, List<Integer>> getSequences() {
+            return sequences;
+        }
+
+        public synchronized Map<String, List<String>> getThreads() {
+            return threads;
+        }
+    }
 }
@@ -0,0 +1,175 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.supportregression.epl.SupportStaticMethodLib;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TestThreadedConfigNamedWindowDispatch extends TestCase {
+    private EPServiceProvider epService;
+
+    public void tearDown() {
+        if (epService != null) {
+            epService.destroy();
+        }
+    }
+
+    public void testOp() throws Exception {
+        if (SupportConfigFactory.skipTest(TestThreadedConfigNamedWindowDispatch.class)) {
+            return;
+        }
+        setupEngine();
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        assertNotNull(spi.getThreadingService().getNamedWindowDispatchThreadPool());
+
+        epService.getEPAdministrator().createEPL("create window MyWindow#keepall as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+
+        // consumers that take time to process
+        int countConsumers = 10;
+        RecordingListener[] listeners = new RecordingListener[countConsumers];
+        for (int i = 0; i < countConsumers; i++) {
+            listeners[i] = new RecordingListener();
+            epService.getEPAdministrator().createEPL("select theString, SupportStaticMethodLib.sleepReturnTrue(5) as slept from MyWindow").addListener(listeners[i]);
+        }
+
+        // consumer merging into another named window, with a consumer of its own
+        epService.getEPAdministrator().createEPL("create window MyWindowTwo#keepall as SupportBean");
+        epService.getEPAdministrator().createEPL("on MyWindow as mw merge MyWindowTwo as mwt where mw.theString = mwt.theString " +
+                "when not matched then insert select *");
+        RecordingListener listenerTwo = new RecordingListener();
+        epService.getEPAdministrator().createEPL("select theString from MyWindowTwo").addListener(listenerTwo);
+
+        // consumer inserting into a stream, with a consumer of its own
+        epService.getEPAdministrator().createEPL("insert into MyStream select theString from MyWindow");
+        RecordingListener listenerStream = new RecordingListener();
+        epService.getEPAdministrator().createEPL("select theString from MyStream").addListener(listenerStream);
+
+        int countEvents = 20;
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < countEvents; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+            expected.add("E" + i);
+
+            // the named window consumer, merge and insert-into results are available after the send returns
+            assertEquals(expected, listenerTwo.getReceived());
+            assertEquals(expected, listenerStream.getReceived());
+        }
+
+        // listeners of consumers executed by pool threads may receive results after the send returns
+        for (RecordingListener listener : listeners) {
+            listener.awaitCount(countEvents);
+            assertEquals(expected, listener.getReceived());
+        }
+        assertTrue(spi.getThreadingService().getNamedWindowDispatchThreadPool().getCompletedTaskCount() > 0);
+    }
+
+    public void testOrderMultithreaded() throws Exception {
+        if (SupportConfigFactory.skipTest(TestThreadedConfigNamedWindowDispatch.class)) {
+            return;
+        }
+        setupEngine();
+
+        epService.getEPAdministrator().createEPL("create window MyWindow#lastevent as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+
+        int countConsumers = 8;
+        RecordingListener[] listeners = new RecordingListener[countConsumers];
+        for (int i = 0; i < countConsumers; i++) {
+            listeners[i] = new RecordingListener();
+            epService.getEPAdministrator().createEPL("select irstream theString from MyWindow").addListener(listeners[i]);
+        }
+
+        int countThreads = 4;
+        final int countEvents = 1000;
+        ExecutorService threadPool = Executors.newFixedThreadPool(countThreads);
+        List<Future> futures = new ArrayList<Future>();
+        for (int i = 0; i < countThreads; i++) {
+            final String prefix = "T" + i + "_";
+            futures.add(threadPool.submit(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < countEvents; j++) {
+                        epService.getEPRuntime().sendEvent(new SupportBean(prefix + j, j));
+                    }
+                }
+            }));
+        }
+        threadPool.shutdown();
+        threadPool.awaitTermination(30, TimeUnit.SECONDS);
+        for (Future future : futures) {
+            future.get();
+        }
+
+        // each consumer receives the insert and remove stream of the named window in the same order
+        int expectedCount = countThreads * countEvents * 2 - 1;
+        listeners[0].awaitCount(expectedCount);
+        List<String> reference = listeners[0].getReceived();
+        assertEquals(expectedCount, reference.size());
+        for (int i = 1; i < countConsumers; i++) {
+            listeners[i].awaitCount(expectedCount);
+            assertEquals("Consumer " + i, reference, listeners[i].getReceived());
+        }
+    }
+
+    private void setupEngine() {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getThreading().setThreadPoolNamedWindowDispatch(true);
+        config.getEngineDefaults().getThreading().setThreadPoolNamedWindowDispatchNumThreads(4);
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addImport(SupportStaticMethodLib.class.getName());
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+    }
+
+    private static class RecordingListener implements UpdateListener {
+        private final List<String> received = new ArrayList<String>();
+
+        public synchronized void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            if (newEvents != null) {
+                for (EventBean event : newEvents) {
+                    received.add((String) event.get("theString"));
+                }
+            }
+            if (oldEvents != null) {
+                for (EventBean event : oldEvents) {
+                    received.add("-" + event.get("theString"));
+                }
+            }
+        }
+
+        public synchronized List<String> getReceived() {
+            return new ArrayList<String>(received);
+        }
+
+        public void awaitCount(int count) throws InterruptedException {
+            long start = System.currentTimeMillis();
+            while (System.currentTimeMillis() - start < 10000) {
+                synchronized (this) {
+                    if (received.size() >= count) {
+                        return;
+                    }
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+}
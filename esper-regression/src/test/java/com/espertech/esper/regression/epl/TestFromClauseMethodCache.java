@@ -15,6 +15,7 @@ import com.espertech.esper.client.scopetest.SupportUpdateListener;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import junit.framework.TestCase;
 import com.espertech.esper.client.*;
+import com.espertech.esper.client.metric.EngineMetric;
 import com.espertech.esper.client.time.CurrentTimeEvent;
 import com.espertech.esper.supportregression.bean.SupportBean;
 import com.espertech.esper.supportregression.client.SupportConfigFactory;
@@ -86,6 +87,70 @@ public class TestFromClauseMethodCache extends TestCase
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
     }
 
+    public void testConcurrentCache()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        ConfigurationMethodRef methodConfig = new ConfigurationMethodRef();
+        methodConfig.setConcurrentCache(3, 1);
+        config.addMethodRef(SupportStaticMethodInvocations.class.getName(), methodConfig);
+        config.addImport(SupportStaticMethodInvocations.class.getPackage().getName() + ".*");
+        config.getEngineDefaults().getMetricsReporting().setEnableMetricsReporting(true);
+        config.getEngineDefaults().getMetricsReporting().setThreading(false);
+        config.getEngineDefaults().getMetricsReporting().setEngineInterval(10000);
+
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+        sendTimer(1000);
+
+        SupportUpdateListener listenerMetric = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select * from " + EngineMetric.class.getName()).addListener(listenerMetric);
+
+        String joinStatement = "select id, p00, theString from " +
+                SupportBean.class.getName() + "()#length(100) as s1, " +
+                " method:SupportStaticMethodInvocations.fetchObjectLog(theString, intPrimitive)";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(joinStatement);
+        stmt.addListener(listener);
+
+        // set sleep off
+        SupportStaticMethodInvocations.getInvocationSizeReset();
+
+        String[] fields = new String[] {"id", "p00", "theString"};
+        sendBeanEvent("E1", 1);
+        sendBeanEvent("E2", 2);
+        sendBeanEvent("E3", 3);
+        assertEquals(3, SupportStaticMethodInvocations.getInvocationSizeReset());
+        listener.reset();
+
+        // should be cached
+        sendBeanEvent("E3", 3);
+        sendBeanEvent("E1", 1);
+        assertEquals(0, SupportStaticMethodInvocations.getInvocationSizeReset());
+        listener.reset();
+
+        // should not be cached, E3 accessed more often than E2 replaces E2
+        sendBeanEvent("E4", 4);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{4, "|E4|", "E4"});
+        assertEquals(1, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        sendBeanEvent("E2", 2);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{2, "|E2|", "E2"});
+        assertEquals(1, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        // should be cached
+        sendBeanEvent("E1", 1);
+        listener.reset();
+        sendBeanEvent("E3", 3);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{3, "|E3|", "E3"});
+        assertEquals(0, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        sendTimer(11000);
+        EPAssertionUtil.assertProps(listenerMetric.assertOneGetNewAndReset(), "dataCacheHitCount,dataCacheMissCount,dataCacheEvictionCount".split(","), new Object[]{4L, 5L, 2L});
+
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
     public void testExpiryCache()
     {
         Configuration config = SupportConfigFactory.getConfiguration();
@@ -15,6 +15,7 @@ import com.espertech.esper.client.EventSender;
 import com.espertech.esper.core.service.EPRuntimeEventSender;
 import com.espertech.esper.client.EventBean;
 
+import java.util.List;
 import java.util.Properties;
 
 public class MyPlugInPropertiesEventSender implements EventSender
@@ -38,6 +39,14 @@ public class MyPlugInPropertiesEventSender implements EventSender
         runtimeSender.processWrappedEvent(eventBean);
     }
 
+    public void sendEvents(List<?> events)
+    {
+        for (Object theEvent : events)
+        {
+            sendEvent(theEvent);
+        }
+    }
+
     public void route(Object theEvent)
     {
         if (!(theEvent instanceof Properties))
@@ -11,7 +11,9 @@
 package com.espertech.esper.regression.event;
 
 import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
 import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.supportregression.bean.SupportBean;
 import com.espertech.esper.supportregression.bean.SupportBean_G;
@@ -25,8 +27,11 @@ import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
 import org.apache.avro.generic.GenericData;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
 import static com.espertech.esper.supportregression.event.SupportEventInfra.*;
 
@@ -120,9 +125,67 @@ public class TestEventInfraEventSender extends TestCase {
             assertSame(underlying, listener.assertOneGetNewAndReset().getUnderlying());
         }
 
+        sender.sendEvents(Arrays.asList(correctUnderlyings));
+        EventBean[] received = listener.getNewDataListFlattened();
+        assertEquals(correctUnderlyings.length, listener.getNewDataList().size());
+        for (int i = 0; i < correctUnderlyings.length; i++) {
+            assertSame(correctUnderlyings[i], received[i].getUnderlying());
+        }
+        listener.reset();
+
+        // a null event object is rejected the same by sendEvent and sendEvents, and no event of the list is processed
+        try {
+            sender.sendEvent(null);
+            fail();
+        } catch (NullPointerException ex) {
+            assertEquals("No event object provided to sendEvent method", ex.getMessage());
+        }
+        List<Object> withNull = new ArrayList<Object>(Arrays.asList(correctUnderlyings));
+        withNull.add(null);
+        try {
+            sender.sendEvents(withNull);
+            fail();
+        } catch (NullPointerException ex) {
+            assertEquals("No event object provided to sendEvents method", ex.getMessage());
+        }
+        assertFalse(listener.isInvoked());
+
         stmt.destroy();
     }
 
+    public void testSendEventsNull() {
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select theString from SupportBean").addListener(listener);
+
+        // the same as sendEvent, a null event object is logged and skipped
+        epService.getEPRuntime().sendEvent((Object) null);
+        epService.getEPRuntime().sendEvents(Arrays.asList(new SupportBean("E1", 1), null, new SupportBean("E2", 2)));
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "theString".split(","), new Object[][]{{"E1"}, {"E2"}});
+    }
+
+    public void testSendEventsOrdering() {
+        epService.getEPAdministrator().createEPL("insert into MyStream select theString, intPrimitive from SupportBean");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select theString as c0, intPrimitive as c1 from SupportBean").addListener(listener);
+        epService.getEPAdministrator().createEPL("select theString as c0, intPrimitive * 10 as c1 from MyStream").addListener(listener);
+        SupportUpdateListener listenerTime = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select current_timestamp as c0, intPrimitive as c1 from SupportBean").addListener(listenerTime);
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epService.getEPRuntime().sendEvents(Arrays.asList(new SupportBean("E1", 1), new CurrentTimeEvent(1000), new SupportBean("E2", 2)));
+
+        // each event is processed completely, including insert-into, before the next event
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "c0,c1".split(","),
+                new Object[][]{{"E1", 1}, {"E1", 10}, {"E2", 2}, {"E2", 20}});
+        EPAssertionUtil.assertPropsPerRow(listenerTime.getNewDataListFlattened(), "c0,c1".split(","),
+                new Object[][]{{0L, 1}, {1000L, 2}});
+
+        // empty list is allowed
+        listener.reset();
+        epService.getEPRuntime().sendEvents(Collections.emptyList());
+        assertFalse(listener.isInvoked());
+    }
+
     private void runAssertionInvalid(String typename,
                                      Object incorrectUnderlying,
                                      String message) {
@@ -0,0 +1,104 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.epl.join.plan.NestedIterationNode;
+import com.espertech.esper.epl.join.plan.QueryPlan;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.supportregression.epl.SupportQueryPlanIndexHook;
+import com.espertech.esper.supportregression.util.IndexBackingTableInfo;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class TestInfraFAFCostBasedPlanning extends TestCase implements IndexBackingTableInfo
+{
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getLogging().setEnableQueryPlan(true);
+        config.getEngineDefaults().getExecution().setFireAndForgetCostBasedPlanning(true);
+        config.addEventType(SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        SupportQueryPlanIndexHook.reset();
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testJoinOrderAndReplan() {
+        epService.getEPAdministrator().createEPL("create window WA#keepall as SupportBean");
+        epService.getEPAdministrator().createEPL("create window WB#keepall as SupportBean");
+        epService.getEPAdministrator().createEPL("create window WC#keepall as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into WA select * from SupportBean(intPrimitive = 0)");
+        epService.getEPAdministrator().createEPL("insert into WB select * from SupportBean(intPrimitive = 1)");
+        epService.getEPAdministrator().createEPL("insert into WC select * from SupportBean(intPrimitive = 2)");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("K", 0));
+        for (int i = 0; i < 1000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean(i < 10 ? "K" : "B" + i, 1));
+        }
+        for (int i = 0; i < 10; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean(i == 0 ? "K" : "C" + i, 2));
+        }
+
+        EPOnDemandPreparedQuery query = epService.getEPRuntime().prepareQuery(INDEX_CALLBACK_HOOK +
+                "select * from WA as a, WB as b, WC as c where a.theString = b.theString and a.theString = c.theString");
+        SupportQueryPlanIndexHook.reset();
+
+        // planned for the current number of events: from WA look up the small WC before the large WB
+        assertEquals(10, query.execute().getArray().length);
+        assertNestingOrder(new int[]{2, 1});
+
+        // unchanged statistics do not plan again
+        assertEquals(10, query.execute().getArray().length);
+        assertTrue(SupportQueryPlanIndexHook.getAndResetJoins().isEmpty());
+
+        // drifted statistics plan again
+        for (int i = 0; i < 5000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("X" + i, 2));
+        }
+        assertEquals(10, query.execute().getArray().length);
+        assertNestingOrder(new int[]{1, 2});
+    }
+
+    public void testIndexChoice() {
+        epService.getEPAdministrator().createEPL("create window MyWindow#keepall as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+        epService.getEPAdministrator().createEPL("create index IdxString on MyWindow(theString)");
+        epService.getEPAdministrator().createEPL("create index IdxInt on MyWindow(intPrimitive)");
+        for (int i = 0; i < 100; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + (i % 2), i));
+        }
+        SupportQueryPlanIndexHook.reset();
+
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery(INDEX_CALLBACK_HOOK +
+                "select * from MyWindow where theString = 'E1' and intPrimitive = 3");
+        assertEquals(1, result.getArray().length);
+        SupportQueryPlanIndexHook.assertFAFAndReset("IdxInt", BACKING_SINGLE_DUPS);
+    }
+
+    private void assertNestingOrder(int[] expected) {
+        List<QueryPlan> plans = SupportQueryPlanIndexHook.getAndResetJoins();
+        assertEquals(1, plans.size());
+        NestedIterationNode node = (NestedIterationNode) plans.get(0).getExecNodeSpecs()[0];
+        assertTrue(Arrays.toString(node.getNestingOrder()), Arrays.equals(expected, node.getNestingOrder()));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.core.service.EPStatementSPI;
+import com.espertech.esper.epl.table.mgmt.TableRowLockStripes;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.bean.SupportBean_S1;
+import com.espertech.esper.supportregression.bean.SupportBean_S2;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import static com.espertech.esper.supportregression.util.SupportMessageAssertUtil.tryInvalid;
+
+public class TestTableLockStriping extends TestCase {
+    private EPServiceProviderSPI epService;
+    private SupportUpdateListener listener;
+
+    public void setUp() {
+        epService = (EPServiceProviderSPI) EPServiceProviderManager.getDefaultProvider(SupportConfigFactory.getConfiguration());
+        epService.initialize();
+        for (Class clazz : new Class[] {SupportBean.class, SupportBean_S0.class, SupportBean_S1.class, SupportBean_S2.class}) {
+            epService.getEPAdministrator().getConfiguration().addEventType(clazz);
+        }
+        listener = new SupportUpdateListener();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testLockStriping() {
+        epService.getEPAdministrator().createEPL("@LockStriping(4) create table MyTable as (k string primary key, iv int, total sum(int), cnt count(*))");
+        assertEquals(4, getState("MyTable").getRowLockStripes().getNumStripes());
+
+        epService.getEPAdministrator().createEPL("into table MyTable select sum(intPrimitive) as total, count(*) as cnt from SupportBean group by theString");
+        epService.getEPAdministrator().createEPL("on SupportBean_S0 merge MyTable where p00 = k " +
+                "when matched then update set iv = id " +
+                "when not matched then insert select p00 as k, id as iv");
+        epService.getEPAdministrator().createEPL("on SupportBean_S2 delete from MyTable where k = p20");
+        epService.getEPAdministrator().createEPL("select MyTable[p10].total as t0, MyTable[p11].total as t1, MyTable[p10].iv as iv0, " +
+                "(select sum(total) from MyTable) as sumtotal from SupportBean_S1").addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(5, "E1"));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(6, "E3"));
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 3));
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 1));
+
+        String[] fields = "k,iv,total,cnt".split(",");
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyTable").getArray(), fields, new Object[][]{
+            {"E1", 5, 13, 2L}, {"E2", null, 20, 1L}, {"E3", 6, 1, 1L}});
+
+        // two keys and a subquery within the same event
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(0, "E1", "E2"));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "t0,t1,iv0,sumtotal".split(","), new Object[]{13, 20, 5, 34});
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(0, "E3", "E4"));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "t0,t1,iv0,sumtotal".split(","), new Object[]{1, null, 6, 34});
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S2(0, "E1"));
+        epService.getEPRuntime().executeQuery("update MyTable set iv = 7 where k = 'E2'");
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 4));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyTable").getArray(), fields, new Object[][]{
+            {"E1", null, 4, 1L}, {"E2", 7, 20, 1L}, {"E3", 6, 1, 1L}});
+        assertEquals(0, epService.getServicesContext().getTableService().getTableExprEvaluatorContext().getLockHeldCount());
+    }
+
+    public void testRollupAndDefault() {
+        epService.getEPAdministrator().createEPL("@LockStriping create table MyTable as (k1 string primary key, k2 int primary key, total sum(int))");
+        assertEquals(16, getState("MyTable").getRowLockStripes().getNumStripes());
+        epService.getEPAdministrator().createEPL("into table MyTable select sum(intPrimitive) as total from SupportBean group by rollup(theString, intPrimitive)");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 20));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 10));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyTable").getArray(), "k1,k2,total".split(","), new Object[][]{
+            {null, null, 40}, {"E1", null, 30}, {"E2", null, 10}, {"E1", 10, 10}, {"E1", 20, 20}, {"E2", 10, 10}});
+    }
+
+    public void testSingleRowPerEvent() {
+        epService.getEPAdministrator().createEPL("@LockStriping create table MyTable as (k string primary key, total sum(int))");
+        assertSingleRowPerEvent(true, "into table MyTable select sum(intPrimitive) as total from SupportBean group by theString");
+        assertSingleRowPerEvent(true, "select MyTable[p10].total as t0 from SupportBean_S1");
+        assertSingleRowPerEvent(false, "select MyTable[p10].total as t0, MyTable[p11].total as t1 from SupportBean_S1");
+        assertSingleRowPerEvent(false, "into table MyTable select sum(intPrimitive) as total from SupportBean#length(2) group by theString");
+        assertSingleRowPerEvent(false, "into table MyTable select sum(intPrimitive) as total " +
+                "from SupportBean#lastevent, SupportBean_S0#lastevent group by theString");
+        assertSingleRowPerEvent(false, "select MyTable[p10].total as t0, (select sum(total) from MyTable) as sumtotal from SupportBean_S1");
+
+        // a statement addressing multiple rows within one event holds the table exclusively from the start
+        epService.getEPAdministrator().createEPL("into table MyTable select sum(intPrimitive) as total from SupportBean#length(2) group by theString");
+        for (int i = 0; i < 5; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+        }
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyTable").getArray(), "k,total".split(","), new Object[][]{
+            {"E0", null}, {"E1", null}, {"E2", null}, {"E3", 3}, {"E4", 4}});
+        assertEquals(0, epService.getServicesContext().getTableService().getTableExprEvaluatorContext().getLockHeldCount());
+    }
+
+    public void testInvalid() {
+        tryInvalid(epService, "@LockStriping(0) create table MyTable as (k string primary key, total sum(int))",
+                "Error starting statement: Lock striping requires a positive number of stripes but received 0");
+        tryInvalid(epService, "@LockStriping create table MyTable as (total sum(int))",
+                "Error starting statement: Lock striping requires a table that has primary key columns");
+        tryInvalid(epService, "@LockStriping @OffHeap create table MyTable as (k string primary key, lv long)",
+                "Error starting statement: Lock striping is not supported in combination with off-heap rows");
+    }
+
+    private void assertSingleRowPerEvent(boolean expected, String epl) {
+        EPStatementSPI stmt = (EPStatementSPI) epService.getEPAdministrator().createEPL(epl);
+        assertEquals(expected, TableRowLockStripes.isSingleRowPerEvent(stmt.getStatementContext().getStatementSpecCompiled(), "MyTable"));
+        stmt.destroy();
+    }
+
+    private TableStateInstance getState(String tableName) {
+        return epService.getServicesContext().getTableService().getTableMetadata(tableName).getState(-1);
+    }
+}
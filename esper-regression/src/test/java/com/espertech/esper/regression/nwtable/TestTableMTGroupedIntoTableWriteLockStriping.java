@@ -0,0 +1,219 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.regression.nwtable.TestTableMTGroupedAccessReadIntoTableWriteAggColConsistency.Local10ColEvent;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.bean.SupportBean_S1;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+public class TestTableMTGroupedIntoTableWriteLockStriping extends TestCase
+{
+    private static final Logger log = LoggerFactory.getLogger(TestTableMTGroupedIntoTableWriteLockStriping.class);
+
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(Local10ColEvent.class);
+        config.addEventType(SupportBean_S0.class);
+        config.addEventType(SupportBean_S1.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+    }
+
+    /**
+     * Table:
+     *   create table vartotal (key string primary key, tc0 sum(int) ... tc9 sum(int), flag int) with striped row locks
+     *
+     * - N writers each aggregate into their own groups, creating the rows as they go.
+     * - A reader pulls two groups per event, checking that the 10 values of each group are consistent.
+     * - A merger updates the plain column of groups, which requires the table exclusively.
+     * - At the end each group's totals reflect all events sent.
+     */
+    public void testMT() throws Exception
+    {
+        tryMT(4, 5, 5000);
+    }
+
+    private void tryMT(int numWriters, int numGroupsPerWriter, int numEventsPerWriter) throws Exception
+    {
+        StringBuilder cols = new StringBuilder();
+        StringBuilder into = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            cols.append(", tc").append(i).append(" sum(int)");
+            into.append(i == 0 ? "" : ", ").append("sum(c").append(i).append(") as tc").append(i);
+        }
+        epService.getEPAdministrator().createEPL("@LockStriping(8) create table vartotal (key string primary key, flag int" + cols + ")");
+        epService.getEPAdministrator().createEPL("into table vartotal select " + into + " from Local10ColEvent group by groupKey");
+        epService.getEPAdministrator().createEPL("on SupportBean_S0 merge vartotal where p00 = key when matched then update set flag = id");
+
+        WriteRunnable[] writers = new WriteRunnable[numWriters];
+        Thread[] writerThreads = new Thread[numWriters];
+        for (int i = 0; i < numWriters; i++) {
+            writers[i] = new WriteRunnable(epService, "W" + i, numGroupsPerWriter, numEventsPerWriter);
+            writerThreads[i] = new Thread(writers[i]);
+        }
+        ReadRunnable readRunnable = new ReadRunnable(epService, numWriters, numGroupsPerWriter);
+        Thread readThread = new Thread(readRunnable);
+
+        // start
+        readThread.start();
+        for (Thread thread : writerThreads) {
+            thread.start();
+        }
+
+        // merge until writers complete
+        int numMerges = 0;
+        for (Thread thread : writerThreads) {
+            while (thread.isAlive()) {
+                epService.getEPRuntime().sendEvent(new SupportBean_S0(numMerges, "W0_G" + (numMerges % numGroupsPerWriter)));
+                numMerges++;
+            }
+        }
+        readRunnable.setShutdown(true);
+
+        // join
+        log.info("Waiting for completion");
+        for (Thread thread : writerThreads) {
+            thread.join();
+        }
+        readThread.join();
+
+        for (WriteRunnable writer : writers) {
+            assertNull(writer.getException());
+        }
+        assertNull(readRunnable.getException());
+        assertTrue(readRunnable.numQueries > 10);
+
+        // each group received the values n, n + numGroups, n + 2 * numGroups, ...
+        int numEventsPerGroup = numEventsPerWriter / numGroupsPerWriter;
+        for (int w = 0; w < numWriters; w++) {
+            for (int g = 0; g < numGroupsPerWriter; g++) {
+                int expected = numEventsPerGroup * g + numGroupsPerWriter * numEventsPerGroup * (numEventsPerGroup - 1) / 2;
+                EventBean row = epService.getEPRuntime().executeQuery("select * from vartotal where key = 'W" + w + "_G" + g + "'").getArray()[0];
+                for (int i = 0; i < 10; i++) {
+                    assertEquals(expected, row.get("tc" + i));
+                }
+            }
+        }
+        System.out.println("Send " + numWriters * numEventsPerWriter + " events, performed " + readRunnable.numQueries + " reads and " + numMerges + " merges");
+    }
+
+    public static class WriteRunnable implements Runnable {
+
+        private final EPServiceProvider epService;
+        private final String prefix;
+        private final int numGroups;
+        private final int numEvents;
+
+        private RuntimeException exception;
+
+        public WriteRunnable(EPServiceProvider epService, String prefix, int numGroups, int numEvents) {
+            this.epService = epService;
+            this.prefix = prefix;
+            this.numGroups = numGroups;
+            this.numEvents = numEvents;
+        }
+
+        public void run() {
+            log.info("Started event send for write");
+
+            try {
+                for (int i = 0; i < numEvents; i++) {
+                    epService.getEPRuntime().sendEvent(new Local10ColEvent(prefix + "_G" + (i % numGroups), i));
+                }
+            }
+            catch (RuntimeException ex) {
+                log.error("Exception encountered: " + ex.getMessage(), ex);
+                exception = ex;
+            }
+
+            log.info("Completed event send for write");
+        }
+
+        public RuntimeException getException() {
+            return exception;
+        }
+    }
+
+    public static class ReadRunnable implements Runnable {
+
+        private final EPServiceProvider epService;
+        private final int numWriters;
+        private final int numGroups;
+
+        private RuntimeException exception;
+        private volatile boolean shutdown;
+        private int numQueries;
+
+        public ReadRunnable(EPServiceProvider epService, int numWriters, int numGroups) {
+            this.epService = epService;
+            this.numWriters = numWriters;
+            this.numGroups = numGroups;
+        }
+
+        public void setShutdown(boolean shutdown) {
+            this.shutdown = shutdown;
+        }
+
+        public void run() {
+            log.info("Started event send for read");
+
+            try {
+                String eplSelect = "select vartotal[p10] as out0, vartotal[p11] as out1 from SupportBean_S1";
+                SupportUpdateListener listener = new SupportUpdateListener();
+                epService.getEPAdministrator().createEPL(eplSelect).addListener(listener);
+
+                while (!shutdown) {
+                    String first = "W" + (numQueries % numWriters) + "_G" + (numQueries % numGroups);
+                    String second = "W" + ((numQueries + 1) % numWriters) + "_G" + (numQueries % numGroups);
+                    epService.getEPRuntime().sendEvent(new SupportBean_S1(0, first, second));
+                    EventBean event = listener.assertOneGetNewAndReset();
+                    assertEvent((Map) event.get("out0"));
+                    assertEvent((Map) event.get("out1"));
+                    numQueries++;
+                }
+            }
+            catch (RuntimeException ex) {
+                log.error("Exception encountered: " + ex.getMessage(), ex);
+                exception = ex;
+            }
+
+            log.info("Completed event send for read");
+        }
+
+        private void assertEvent(Map info) {
+            if (info == null) {
+                return;
+            }
+            Object tc0 = info.get("tc0");
+            for (int i = 1; i < 10; i++) {
+                assertEquals(tc0, info.get("tc" + i));
+            }
+        }
+
+        public RuntimeException getException() {
+            return exception;
+        }
+    }
+}
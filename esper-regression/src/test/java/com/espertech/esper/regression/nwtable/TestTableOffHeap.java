@@ -0,0 +1,110 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.EPOnDemandQueryResult;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
+import com.espertech.esper.epl.table.mgmt.TableStateInstanceGroupedOffHeapImpl;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.bean.SupportBean_S1;
+import com.espertech.esper.supportregression.bean.SupportBean_S2;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestTableOffHeap extends TestCase {
+    private EPServiceProviderSPI epService;
+    private SupportUpdateListener listener;
+
+    public void setUp() {
+        epService = (EPServiceProviderSPI) EPServiceProviderManager.getDefaultProvider(SupportConfigFactory.getConfiguration());
+        epService.initialize();
+        for (Class clazz : new Class[] {SupportBean.class, SupportBean_S0.class, SupportBean_S1.class, SupportBean_S2.class}) {
+            epService.getEPAdministrator().getConfiguration().addEventType(clazz);
+        }
+        listener = new SupportUpdateListener();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testOffHeap() {
+        epService.getEPAdministrator().createEPL("@OffHeap create table MyTable as (k string primary key, lv long, iv int, dv double, bv boolean, sv string, total sum(int))");
+        epService.getEPAdministrator().createEPL("into table MyTable select sum(intPrimitive) as total from SupportBean group by theString");
+        epService.getEPAdministrator().createEPL("on SupportBean_S0 merge MyTable where p00 = k " +
+                "when matched then update set lv = id, iv = id * 2, dv = id * 1.5, bv = id > 10, sv = p01 " +
+                "when not matched then insert select p00 as k, id as lv, id * 2 as iv, id * 1.5 as dv, id > 10 as bv, p01 as sv");
+        epService.getEPAdministrator().createEPL("create index MyIdx on MyTable(iv)");
+        epService.getEPAdministrator().createEPL("on SupportBean_S1 select k, lv, total from MyTable where iv = id").addListener(listener);
+        epService.getEPAdministrator().createEPL("on SupportBean_S2 delete from MyTable where k = p20");
+        assertTrue(getState("MyTable") instanceof TableStateInstanceGroupedOffHeapImpl);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 20));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(5, "E1", "x"));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(30, "E3", "y"));
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 3));
+
+        String[] fields = "k,lv,iv,dv,bv,sv,total".split(",");
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyTable").getArray(), fields, new Object[][]{
+            {"E1", 5L, 10, 7.5d, false, "x", 13}, {"E2", null, null, null, null, null, 20}, {"E3", 30L, 60, 45d, true, "y", null}});
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "k,lv,total".split(","), new Object[]{"E1", 5L, 13});
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(60));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "k,lv,total".split(","), new Object[]{"E3", 30L, null});
+
+        // update via fire-and-forget, secondary index reflects the new value
+        epService.getEPRuntime().executeQuery("update MyTable set iv = 61 where k = 'E3'");
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(60));
+        assertFalse(listener.isInvoked());
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(61));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "k,lv,total".split(","), new Object[]{"E3", 30L, null});
+
+        // delete, slot is reused
+        epService.getEPRuntime().sendEvent(new SupportBean_S2(0, "E1"));
+        TableStateInstanceGroupedOffHeapImpl state = (TableStateInstanceGroupedOffHeapImpl) getState("MyTable");
+        assertEquals(2, state.getStore().getNumRows());
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(7, "E4", "z"));
+        assertEquals(3, state.getStore().getNumRows());
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyTable").getArray(), fields, new Object[][]{
+            {"E2", null, null, null, null, null, 20}, {"E3", 30L, 61, 45d, true, "y", null}, {"E4", 7L, 14, 10.5d, false, "z", null}});
+
+        // many rows, materialized rows are bounded
+        for (int i = 0; i < 3000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("G" + i, i));
+        }
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("select count(*) as cnt, sum(total) as sumtotal from MyTable");
+        EPAssertionUtil.assertProps(result.getArray()[0], "cnt,sumtotal".split(","), new Object[]{3003L, 20 + 2999 * 3000 / 2});
+        assertTrue(state.getStore().getNumMaterialized() <= 1100);
+        assertTrue(state.getStore().getNumBytesAllocated() > 0);
+
+        epService.getEPRuntime().executeQuery("delete from MyTable");
+        assertEquals(0, state.getStore().getNumRows());
+    }
+
+    public void testNoFixedSizeColumn() {
+        epService.getEPAdministrator().createEPL("@OffHeap create table MyTable as (k string primary key, sv string)");
+        assertFalse(getState("MyTable") instanceof TableStateInstanceGroupedOffHeapImpl);
+    }
+
+    private TableStateInstance getState(String tableName) {
+        return epService.getServicesContext().getTableService().getTableMetadata(tableName).getState(-1);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.pattern;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.filter.FilterServiceSPI;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_A;
+import com.espertech.esper.supportregression.bean.SupportBean_B;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestPatternCorrelationIndex extends TestCase {
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+    private FilterServiceSPI filterService;
+
+    public void setUp() {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_A", SupportBean_A.class);
+        config.addEventType("SupportBean_B", SupportBean_B.class);
+        config.getEngineDefaults().getPatterns().setCorrelationIndex(true);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+        filterService = (FilterServiceSPI) ((EPServiceProviderSPI) epService).getFilterService();
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+        filterService = null;
+    }
+
+    public void testSingleKey() {
+        String[] fields = "a,b".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select a.id as a, b.id as b from pattern [every a=SupportBean_A -> b=SupportBean_B(id=a.id)]");
+        stmt.addListener(listener);
+        assertEquals(1, filterService.getFilterCountApprox());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E1"));
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E2"));
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E1"));
+        assertEquals(2, filterService.getFilterCountApprox());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_B("E3"));
+        assertFalse(listener.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_B("E1"));
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetDataListsFlattened().getFirst(), fields, new Object[][]{{"E1", "E1"}, {"E1", "E1"}});
+
+        epService.getEPRuntime().sendEvent(new SupportBean_B("E1"));
+        assertFalse(listener.isInvoked());
+        assertEquals(2, filterService.getFilterCountApprox());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_B("E2"));
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetDataListsFlattened().getFirst(), fields, new Object[][]{{"E2", "E2"}});
+        assertEquals(1, filterService.getFilterCountApprox());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E4"));
+        stmt.destroy();
+        assertEquals(0, filterService.getFilterCountApprox());
+    }
+
+    public void testMultiKeyWithCoercion() {
+        String[] fields = "a,b".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select a.theString as a, b.theString as b from pattern [" +
+                "every a=SupportBean(theString like 'A%') -> b=SupportBean(theString like 'B%', intPrimitive=a.intPrimitive, longPrimitive=a.intPrimitive)]");
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A1", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("A2", 20));
+        assertEquals(2, filterService.getFilterCountApprox());
+
+        sendSupportBean("B1", 10, 20);
+        sendSupportBean("X1", 10, 10);
+        assertFalse(listener.isInvoked());
+
+        sendSupportBean("B2", 20, 20);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetDataListsFlattened().getFirst(), fields, new Object[][]{{"A2", "B2"}});
+
+        sendSupportBean("B3", 10, 10);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetDataListsFlattened().getFirst(), fields, new Object[][]{{"A1", "B3"}});
+        assertEquals(1, filterService.getFilterCountApprox());
+
+        stmt.destroy();
+    }
+
+    public void testNotIndexed() {
+        String[] fields = "a,b".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select a.theString as a, b.theString as b from pattern [" +
+                "every a=SupportBean(theString like 'A%') -> b=SupportBean(theString like 'B%', intPrimitive > a.intPrimitive)]");
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A1", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("A2", 20));
+        assertEquals(3, filterService.getFilterCountApprox());
+
+        epService.getEPRuntime().sendEvent(new SupportBean("B1", 15));
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetDataListsFlattened().getFirst(), fields, new Object[][]{{"A1", "B1"}});
+
+        stmt.destroy();
+    }
+
+    private void sendSupportBean(String theString, int intPrimitive, long longPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.pattern;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPStatementSPI;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.pattern.pool.PatternStateNodeRecycler;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class TestPatternEveryWithinPerf extends TestCase {
+    private final static int NUM_ROUNDS = 2000;
+    private final static int NUM_ARRIVALS = 100;
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp() {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_S0", SupportBean_S0.class);
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+        epService.destroy();
+    }
+
+    public void testHighArrivalRate() {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        String epl = "select a.intPrimitive as aid, b.id as bid from pattern [every a=SupportBean -> b=SupportBean_S0(id=a.intPrimitive) where timer:within(5 sec)]";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+        PatternStateNodeRecycler recycler = ((EPStatementSPI) stmt).getStatementContext().getPatternSubexpressionPoolSvc().getStateNodeRecycler();
+
+        long startTime = System.currentTimeMillis();
+        for (int round = 0; round < NUM_ROUNDS; round++) {
+            long roundTime = round * 10000L;
+            epService.getEPRuntime().sendEvent(new CurrentTimeEvent(roundTime));
+            for (int i = 0; i < NUM_ARRIVALS; i++) {
+                epService.getEPRuntime().sendEvent(new SupportBean("A", round * NUM_ARRIVALS + i));
+            }
+            assertFalse(listener.isInvoked());
+
+            // one guarded subexpression matches, all others time out
+            int matchId = round * NUM_ARRIVALS + round % NUM_ARRIVALS;
+            epService.getEPRuntime().sendEvent(new SupportBean_S0(matchId));
+            EventBean received = listener.assertOneGetNewAndReset();
+            assertEquals(matchId, received.get("aid"));
+            assertEquals(matchId, received.get("bid"));
+
+            epService.getEPRuntime().sendEvent(new CurrentTimeEvent(roundTime + 5000));
+            epService.getEPRuntime().sendEvent(new SupportBean_S0(matchId + 1));
+            assertFalse(listener.isInvoked());
+        }
+        long delta = System.currentTimeMillis() - startTime;
+        log.info(".testHighArrivalRate delta=" + delta + " reused=" + recycler.getNumReused());
+
+        // every round after the first starts all its guarded subexpressions on state nodes of the round before
+        assertEquals((long) NUM_ROUNDS * NUM_ARRIVALS, recycler.getNumReleased());
+        assertEquals((long) (NUM_ROUNDS - 1) * NUM_ARRIVALS, recycler.getNumReused());
+        assertEquals(NUM_ARRIVALS, recycler.getNumFree());
+
+        stmt.destroy();
+    }
+
+    public void testRecycledGuardWithinRound() {
+        // the match of b on the first guard releases its node, the second guard then starts on that node
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        String epl = "select a.intPrimitive as aid, b.id as bid, c.id as cid from pattern [" +
+                "a=SupportBean -> b=SupportBean_S0(id=a.intPrimitive) where timer:within(5 sec) -> c=SupportBean_S0(id=b.id+1) where timer:within(5 sec)]";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+        PatternStateNodeRecycler recycler = ((EPStatementSPI) stmt).getStatementContext().getPatternSubexpressionPoolSvc().getStateNodeRecycler();
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 1));
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(4000));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1));
+        assertEquals(1, recycler.getNumReused());
+
+        // the first guard's timer was removed when b matched and does not quit the recycled node at 5 sec
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(5000));
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(8000));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(2));
+        EventBean received = listener.assertOneGetNewAndReset();
+        assertEquals(1, received.get("aid"));
+        assertEquals(1, received.get("bid"));
+        assertEquals(2, received.get("cid"));
+
+        stmt.destroy();
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(TestPatternEveryWithinPerf.class);
+}
@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.pattern;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class TestPatternFollowedByChainPerf extends TestCase {
+    private final static int CHAIN_LENGTH = 12;
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp() {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+        epService.destroy();
+    }
+
+    public void testDeepChain() {
+        // every s0=SupportBean(intPrimitive=0) -> s1=SupportBean(intPrimitive=1) -> ... with the round number in longPrimitive
+        StringBuilder pattern = new StringBuilder("every s0=SupportBean(intPrimitive=0)");
+        for (int i = 1; i < CHAIN_LENGTH; i++) {
+            pattern.append(" -> s").append(i).append("=SupportBean(intPrimitive=").append(i).append(")");
+        }
+        String epl = "select s0.longPrimitive as first, s" + (CHAIN_LENGTH - 1) + ".longPrimitive as last from pattern [" + pattern + "]";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+
+        int numRounds = 20000;
+        long startTime = System.currentTimeMillis();
+        for (int round = 0; round < numRounds; round++) {
+            for (int i = 0; i < CHAIN_LENGTH; i++) {
+                SupportBean bean = new SupportBean("E", i);
+                bean.setLongPrimitive(round);
+                epService.getEPRuntime().sendEvent(bean);
+            }
+            EventBean received = listener.assertOneGetNewAndReset();
+            assertEquals((long) round, received.get("first"));
+            assertEquals((long) round, received.get("last"));
+        }
+        long delta = System.currentTimeMillis() - startTime;
+        log.info(".testDeepChain delta=" + delta);
+
+        stmt.destroy();
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(TestPatternFollowedByChainPerf.class);
+}
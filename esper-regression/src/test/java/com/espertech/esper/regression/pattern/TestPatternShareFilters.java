@@ -0,0 +1,135 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.pattern;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.filter.FilterServiceSPI;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean_A;
+import com.espertech.esper.supportregression.bean.SupportBean_B;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestPatternShareFilters extends TestCase {
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+    private FilterServiceSPI filterService;
+
+    public void setUp() {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean_A", SupportBean_A.class);
+        config.addEventType("SupportBean_B", SupportBean_B.class);
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getPatterns().setShareFilters(true);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+        filterService = (FilterServiceSPI) ((EPServiceProviderSPI) epService).getFilterService();
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+        filterService = null;
+    }
+
+    public void testFollowedByShared() {
+        String[] fields = "a,b".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select a.id as a, b.id as b from pattern [every a=SupportBean_A -> b=SupportBean_B(id != 'X')]");
+        stmt.addListener(listener);
+        assertEquals(1, filterService.getFilterCountApprox());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("A1"));
+        epService.getEPRuntime().sendEvent(new SupportBean_A("A2"));
+        epService.getEPRuntime().sendEvent(new SupportBean_A("A3"));
+        assertEquals(2, filterService.getFilterCountApprox());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_B("X"));
+        assertFalse(listener.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_B("B1"));
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetDataListsFlattened().getFirst(), fields, new Object[][]{{"A1", "B1"}, {"A2", "B1"}, {"A3", "B1"}});
+        assertEquals(1, filterService.getFilterCountApprox());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("A4"));
+        epService.getEPRuntime().sendEvent(new SupportBean_B("B2"));
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetDataListsFlattened().getFirst(), fields, new Object[][]{{"A4", "B2"}});
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("A5"));
+        assertEquals(2, filterService.getFilterCountApprox());
+        stmt.destroy();
+        assertEquals(0, filterService.getFilterCountApprox());
+    }
+
+    public void testStartedBySameEvent() {
+        String[] fields = "a1,a2".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select a1.id as a1, a2.id as a2 from pattern [every a1=SupportBean_A -> a2=SupportBean_A]");
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E1"));
+        assertFalse(listener.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E2"));
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetDataListsFlattened().getFirst(), fields, new Object[][]{{"E1", "E2"}});
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E3"));
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetDataListsFlattened().getFirst(), fields, new Object[][]{{"E2", "E3"}});
+        assertEquals(2, filterService.getFilterCountApprox());
+
+        stmt.destroy();
+    }
+
+    public void testCorrelatedNotShared() {
+        String[] fields = "a,b".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select a.id as a, b.id as b from pattern [every a=SupportBean_A -> b=SupportBean_B(id = a.id)]");
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E1"));
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E2"));
+        assertEquals(3, filterService.getFilterCountApprox());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_B("E2"));
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetDataListsFlattened().getFirst(), fields, new Object[][]{{"E2", "E2"}});
+        assertEquals(2, filterService.getFilterCountApprox());
+
+        stmt.destroy();
+    }
+
+    public void testWithinGuardExpiry() {
+        String[] fields = "a,b".split(",");
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select a.id as a, b.id as b from pattern [every a=SupportBean_A -> (b=SupportBean_B where timer:within(10 sec))]");
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("A1"));
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(5000));
+        epService.getEPRuntime().sendEvent(new SupportBean_A("A2"));
+        assertEquals(2, filterService.getFilterCountApprox());
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(10000));
+        assertEquals(2, filterService.getFilterCountApprox());
+        epService.getEPRuntime().sendEvent(new SupportBean_B("B1"));
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetDataListsFlattened().getFirst(), fields, new Object[][]{{"A2", "B1"}});
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("A3"));
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(20000));
+        assertEquals(1, filterService.getFilterCountApprox());
+        epService.getEPRuntime().sendEvent(new SupportBean_B("B2"));
+        assertFalse(listener.isInvoked());
+
+        stmt.destroy();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.resultset;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+
+public class TestGroupByCompileHint extends TestCase {
+    private EPServiceProvider epService;
+
+    public void setUp() {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testRowPerGroup() {
+        runAssertionSameOutput("select theString, sum(intPrimitive) as total from SupportBean group by theString");
+        runAssertionSameOutput("select irstream theString, sum(intPrimitive) as total from SupportBean group by theString");
+        runAssertionSameOutput("select theString, intBoxed, count(*) as cnt from SupportBean group by theString, intBoxed");
+        runAssertionSameOutput("select theString, sum(intPrimitive) as total from SupportBean group by theString having sum(intPrimitive) > 3 and count(*) < 10");
+        runAssertionSameOutput("select irstream theString, avg(doublePrimitive) as a from SupportBean#length(4) group by theString having avg(doublePrimitive) * 2 > 3.5");
+        runAssertionSameOutput("select theString, sum(intPrimitive) as total from SupportBean group by theString order by sum(intPrimitive) desc limit 1 offset 1");
+        runAssertionSameOutput("select intPrimitive % 3 as k, count(*) as cnt from SupportBean group by intPrimitive % 3");
+        runAssertionSameOutput("select theString, sum(intPrimitive) as total from SupportBean#length_batch(3) group by theString");
+    }
+
+    public void testRowPerEvent() {
+        runAssertionSameOutput("select theString, intPrimitive, sum(intPrimitive) as total from SupportBean group by theString");
+        runAssertionSameOutput("select irstream theString, intPrimitive, sum(intPrimitive) as total from SupportBean group by theString");
+        runAssertionSameOutput("select theString, intPrimitive, count(*) as cnt from SupportBean group by theString having count(*) > 2");
+        runAssertionSameOutput("select irstream theString, intPrimitive, max(intPrimitive) as m from SupportBean#length(3) group by theString having max(intPrimitive) >= 2");
+        runAssertionSameOutput("select theString, intPrimitive, sum(intPrimitive) as total from SupportBean group by theString order by intPrimitive limit 0");
+    }
+
+    public void testSingleRemoveStreamEvent() {
+        // the removed event belongs to the same group as the arriving event
+        runAssertionSameOutput("select irstream theString, sum(intPrimitive) as total from SupportBean#unique(theString) group by theString");
+        runAssertionSameOutput("select irstream theString, intPrimitive, sum(intPrimitive) as total from SupportBean#unique(theString) group by theString");
+        // the removed event may belong to another group
+        runAssertionSameOutput("select irstream theString, sum(intPrimitive) as total, count(*) as cnt from SupportBean#length(2) group by theString");
+        runAssertionSameOutput("select theString, sum(intPrimitive) as total from SupportBean#length(3) group by theString having count(*) > 1");
+        runAssertionSameOutput("select irstream theString, sum(intPrimitive) as total from SupportBean#length(3) group by theString order by theString desc");
+        runAssertionSameOutput("select irstream theString, intPrimitive, sum(intPrimitive) as total from SupportBean#length(2) group by theString order by intPrimitive");
+        runAssertionSameOutput("select irstream intBoxed, count(*) as cnt from SupportBean#length(2) group by intBoxed");
+    }
+
+    public void testOutputRateAndRollupUnchanged() {
+        runAssertionSameOutput("select theString, sum(intPrimitive) as total from SupportBean group by theString output every 3 events");
+        runAssertionSameOutput("select theString, sum(intPrimitive) as total from SupportBean group by rollup(theString)");
+    }
+
+    private void runAssertionSameOutput(String epl) {
+        SupportUpdateListener listenerInterpreted = new SupportUpdateListener();
+        SupportUpdateListener listenerCompiled = new SupportUpdateListener();
+        EPStatement stmtInterpreted = epService.getEPAdministrator().createEPL(epl);
+        stmtInterpreted.addListener(listenerInterpreted);
+        EPStatement stmtCompiled = epService.getEPAdministrator().createEPL("@Hint('compile_resultset') " + epl);
+        stmtCompiled.addListener(listenerCompiled);
+        String[] fields = stmtInterpreted.getEventType().getPropertyNames();
+
+        Random random = new Random(100);
+        for (int i = 0; i < 200; i++) {
+            SupportBean bean = new SupportBean("E" + random.nextInt(4), random.nextInt(5));
+            bean.setIntBoxed(random.nextBoolean() ? null : random.nextInt(2));
+            bean.setDoublePrimitive(random.nextInt(6) / 2d);
+            epService.getEPRuntime().sendEvent(bean);
+
+            assertEquals(epl, listenerInterpreted.isInvoked(), listenerCompiled.isInvoked());
+            assertSameEvents(epl, fields, listenerInterpreted.getLastNewData(), listenerCompiled.getLastNewData());
+            assertSameEvents(epl, fields, listenerInterpreted.getLastOldData(), listenerCompiled.getLastOldData());
+            listenerInterpreted.reset();
+            listenerCompiled.reset();
+        }
+
+        assertEquals(toString(fields, stmtInterpreted.iterator()), toString(fields, stmtCompiled.iterator()));
+        stmtInterpreted.destroy();
+        stmtCompiled.destroy();
+    }
+
+    private static void assertSameEvents(String epl, String[] fields, EventBean[] expected, EventBean[] received) {
+        if (expected == null) {
+            assertNull(epl, received);
+            return;
+        }
+        assertNotNull(epl, received);
+        assertEquals(epl, toString(fields, Arrays.asList(expected).iterator()), toString(fields, Arrays.asList(received).iterator()));
+    }
+
+    private static String toString(String[] fields, Iterator<EventBean> events) {
+        StringBuilder builder = new StringBuilder();
+        while (events.hasNext()) {
+            EventBean event = events.next();
+            for (String field : fields) {
+                builder.append(field).append('=').append(event.get(field)).append(' ');
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+}
@@ -61,4 +61,43 @@ public class TestRowPatternRecognitionPerf extends TestCase {
         long delta = end - start;
         assertTrue("delta=" + delta, delta < 2000);
     }
+
+    public void testPerfManyPartialMatches()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("MyEvent", SupportRecogBean.class);
+        EPServiceProvider epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+
+        String text = "select * from MyEvent " +
+                "match_recognize (" +
+                "  measures A.theString as a_string, C.theString as c_string " +
+                "  pattern (A B* C) " +
+                "  define A as A.cat = '1'," +
+                "         B as B.cat != '3'," +
+                "         C as C.cat = '3'" +
+                ")";
+
+        EPStatement stmt = epService.getEPAdministrator().createEPL(text);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        // each A starts a partial match that stays active for all B events
+        for (int i = 0; i < 500; i++) {
+            epService.getEPRuntime().sendEvent(new SupportRecogBean("A" + i, "1", 0));
+        }
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 10000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportRecogBean("B" + i, "2", 0));
+        }
+        assertFalse(listener.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new SupportRecogBean("C", "3", 0));
+        assertEquals("A0", listener.assertOneGetNewAndReset().get("a_string"));
+
+        long end = System.currentTimeMillis();
+        long delta = end - start;
+        assertTrue("delta=" + delta, delta < 2000);
+    }
 }
\ No newline at end of file
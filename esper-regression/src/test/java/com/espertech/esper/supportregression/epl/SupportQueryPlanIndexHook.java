@@ -67,6 +67,12 @@ public class SupportQueryPlanIndexHook implements QueryPlanIndexHook {
         return copy;
     }
 
+    public static List<QueryPlan> getAndResetJoins() {
+        List<QueryPlan> copy = new ArrayList<QueryPlan>(joins);
+        reset();
+        return copy;
+    }
+
     public static QueryPlanIndexDescOnExpr getAndResetOnExpr() {
         QueryPlanIndexDescOnExpr onexpr = onexprs.get(0);
         reset();
@@ -0,0 +1,63 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client;
+
+import java.io.Serializable;
+
+/**
+ * Concurrent cache settings.
+ * <p>
+ * The concurrent cache divides its entries into segments that threads can access concurrently
+ * and admits new entries based on the frequency of access of the key, rather than on recency alone.
+ */
+public class ConfigurationConcurrentCache implements ConfigurationDataCache, Serializable {
+    /**
+     * Default number of segments.
+     */
+    public final static int DEFAULT_NUM_SEGMENTS = 16;
+
+    private int size;
+    private int numSegments;
+    private static final long serialVersionUID = -4093812283540166232L;
+
+    /**
+     * Ctor.
+     *
+     * @param size        is the maximum cache size
+     * @param numSegments is the number of segments
+     */
+    public ConfigurationConcurrentCache(int size, int numSegments) {
+        this.size = size;
+        this.numSegments = numSegments;
+    }
+
+    /**
+     * Returns the maximum cache size.
+     *
+     * @return max cache size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of segments.
+     *
+     * @return number of segments
+     */
+    public int getNumSegments() {
+        return numSegments;
+    }
+
+    public String toString() {
+        return "ConcurrentCacheDesc size=" + size + " numSegments=" + numSegments;
+    }
+}
@@ -196,6 +196,28 @@ public class ConfigurationDBRef implements Serializable {
         dataCacheDesc = new ConfigurationLRUCache(size);
     }
 
+    /**
+     * Configures a concurrent cache of the given size for the database, using the default number of segments.
+     * <p>
+     * The concurrent cache does not lock the whole cache when threads access it, and admits new entries based on
+     * the frequency of access of the key.
+     *
+     * @param size is the maximum number of entries before results are evicted
+     */
+    public void setConcurrentCache(int size) {
+        dataCacheDesc = new ConfigurationConcurrentCache(size, ConfigurationConcurrentCache.DEFAULT_NUM_SEGMENTS);
+    }
+
+    /**
+     * Configures a concurrent cache of the given size and number of segments for the database.
+     *
+     * @param size        is the maximum number of entries before results are evicted
+     * @param numSegments is the number of segments that threads can access concurrently
+     */
+    public void setConcurrentCache(int size, int numSegments) {
+        dataCacheDesc = new ConfigurationConcurrentCache(size, numSegments);
+    }
+
     /**
      * Configures an expiry-time cache of the given maximum age in seconds and purge interval in seconds.
      * <p>
@@ -300,14 +300,22 @@ public class ConfigurationEngineDefaults implements Serializable {
         private boolean isThreadPoolInbound;
         private boolean isThreadPoolRouteExec;
         private boolean isThreadPoolOutbound;
+        private boolean isThreadPoolNamedWindowDispatch;
+        private boolean isThreadPoolHistoricalPoll;
         private int threadPoolTimerExecNumThreads;
         private int threadPoolInboundNumThreads;
         private int threadPoolRouteExecNumThreads;
         private int threadPoolOutboundNumThreads;
+        private int threadPoolNamedWindowDispatchNumThreads;
+        private int threadPoolHistoricalPollNumThreads;
         private Integer threadPoolTimerExecCapacity;
         private Integer threadPoolInboundCapacity;
         private Integer threadPoolRouteExecCapacity;
         private Integer threadPoolOutboundCapacity;
+        private Integer threadPoolNamedWindowDispatchCapacity;
+        private Integer threadPoolHistoricalPollCapacity;
+        private String threadPoolInboundKeyProperty;
+        private ThreadPoolWaitStrategy threadPoolWaitStrategy;
 
         private boolean engineFairlock;
 
@@ -334,11 +342,16 @@ public class ConfigurationEngineDefaults implements Serializable {
             isThreadPoolOutbound = false;
             isThreadPoolRouteExec = false;
             isThreadPoolTimerExec = false;
+            isThreadPoolNamedWindowDispatch = false;
+            isThreadPoolHistoricalPoll = false;
 
             threadPoolTimerExecNumThreads = 2;
             threadPoolInboundNumThreads = 2;
             threadPoolRouteExecNumThreads = 2;
             threadPoolOutboundNumThreads = 2;
+            threadPoolNamedWindowDispatchNumThreads = 2;
+            threadPoolHistoricalPollNumThreads = 2;
+            threadPoolWaitStrategy = ThreadPoolWaitStrategy.BLOCKING;
         }
 
         /**
@@ -688,6 +701,27 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.threadPoolInboundCapacity = capacity;
         }
 
+        /**
+         * Returns the name of the event property that keys inbound events to inbound threads, or null if none defined (default).
+         * <p>
+         * When defined, each inbound thread has its own queue and all events that have the same key value
+         * are processed by the same thread in the order they were sent.
+         *
+         * @return key property name or null if none defined
+         */
+        public String getThreadPoolInboundKeyProperty() {
+            return threadPoolInboundKeyProperty;
+        }
+
+        /**
+         * Sets the name of the event property that keys inbound events to inbound threads, or null if none defined (default).
+         *
+         * @param threadPoolInboundKeyProperty key property name or null if none defined
+         */
+        public void setThreadPoolInboundKeyProperty(String threadPoolInboundKeyProperty) {
+            this.threadPoolInboundKeyProperty = threadPoolInboundKeyProperty;
+        }
+
         /**
          * Returns the capacity of the route execution queue, or null if none defined (the unbounded case, default).
          *
@@ -724,6 +758,144 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.threadPoolOutboundCapacity = capacity;
         }
 
+        /**
+         * Returns true for named window consumer dispatch threading enabled, the default is false for not enabled.
+         * <p>
+         * When enabled, the engine dispatches the delta stream of a named window to consuming statements
+         * using a thread pool, preserving the order of delivery to each consuming statement.
+         *
+         * @return indicator whether named window consumer dispatch threading is enabled
+         */
+        public boolean isThreadPoolNamedWindowDispatch() {
+            return isThreadPoolNamedWindowDispatch;
+        }
+
+        /**
+         * Set to true for named window consumer dispatch threading enabled, the default is false for not enabled.
+         *
+         * @param threadPoolNamedWindowDispatch indicator whether named window consumer dispatch threading is enabled
+         */
+        public void setThreadPoolNamedWindowDispatch(boolean threadPoolNamedWindowDispatch) {
+            isThreadPoolNamedWindowDispatch = threadPoolNamedWindowDispatch;
+        }
+
+        /**
+         * Returns the number of thread in the named window consumer dispatch thread pool.
+         *
+         * @return number of threads
+         */
+        public int getThreadPoolNamedWindowDispatchNumThreads() {
+            return threadPoolNamedWindowDispatchNumThreads;
+        }
+
+        /**
+         * Sets the number of threads in the thread pool for named window consumer dispatch threading.
+         *
+         * @param num number of threads
+         */
+        public void setThreadPoolNamedWindowDispatchNumThreads(int num) {
+            this.threadPoolNamedWindowDispatchNumThreads = num;
+        }
+
+        /**
+         * Returns the capacity of the named window consumer dispatch queue, or null if none defined (the unbounded case, default).
+         *
+         * @return capacity or null if none defined
+         */
+        public Integer getThreadPoolNamedWindowDispatchCapacity() {
+            return threadPoolNamedWindowDispatchCapacity;
+        }
+
+        /**
+         * Sets the capacity of the named window consumer dispatch queue, or null if none defined (the unbounded case, default).
+         *
+         * @param capacity capacity or null if none defined
+         */
+        public void setThreadPoolNamedWindowDispatchCapacity(Integer capacity) {
+            this.threadPoolNamedWindowDispatchCapacity = capacity;
+        }
+
+        /**
+         * Returns true for historical poll threading enabled, the default is false for not enabled.
+         * <p>
+         * When enabled, the engine executes the SQL queries and method invocations of historical streams
+         * that are required for a batch of lookup events concurrently using a thread pool,
+         * and joins the results back in the order of the lookup events.
+         * A poll for a single lookup event executes on the joining thread.
+         *
+         * @return indicator whether historical poll threading is enabled
+         */
+        public boolean isThreadPoolHistoricalPoll() {
+            return isThreadPoolHistoricalPoll;
+        }
+
+        /**
+         * Set to true for historical poll threading enabled, the default is false for not enabled.
+         *
+         * @param threadPoolHistoricalPoll indicator whether historical poll threading is enabled
+         */
+        public void setThreadPoolHistoricalPoll(boolean threadPoolHistoricalPoll) {
+            isThreadPoolHistoricalPoll = threadPoolHistoricalPoll;
+        }
+
+        /**
+         * Returns the number of thread in the historical poll thread pool.
+         *
+         * @return number of threads
+         */
+        public int getThreadPoolHistoricalPollNumThreads() {
+            return threadPoolHistoricalPollNumThreads;
+        }
+
+        /**
+         * Sets the number of threads in the thread pool for historical poll threading.
+         *
+         * @param num number of threads
+         */
+        public void setThreadPoolHistoricalPollNumThreads(int num) {
+            this.threadPoolHistoricalPollNumThreads = num;
+        }
+
+        /**
+         * Returns the capacity of the historical poll queue, or null if none defined (the unbounded case, default).
+         *
+         * @return capacity or null if none defined
+         */
+        public Integer getThreadPoolHistoricalPollCapacity() {
+            return threadPoolHistoricalPollCapacity;
+        }
+
+        /**
+         * Sets the capacity of the historical poll queue, or null if none defined (the unbounded case, default).
+         *
+         * @param capacity capacity or null if none defined
+         */
+        public void setThreadPoolHistoricalPollCapacity(Integer capacity) {
+            this.threadPoolHistoricalPollCapacity = capacity;
+        }
+
+        /**
+         * Returns the wait strategy of the queues of the inbound, outbound, timer and route execution thread pools
+         * (default is {@link ThreadPoolWaitStrategy#BLOCKING}).
+         *
+         * @return wait strategy
+         */
+        public ThreadPoolWaitStrategy getThreadPoolWaitStrategy() {
+            return threadPoolWaitStrategy;
+        }
+
+        /**
+         * Sets the wait strategy of the queues of the inbound, outbound, timer and route execution thread pools.
+         * <p>
+         * Any strategy other then {@link ThreadPoolWaitStrategy#BLOCKING} uses a preallocated ring buffer
+         * as the queue, bounded by the configured capacity.
+         *
+         * @param threadPoolWaitStrategy wait strategy
+         */
+        public void setThreadPoolWaitStrategy(ThreadPoolWaitStrategy threadPoolWaitStrategy) {
+            this.threadPoolWaitStrategy = threadPoolWaitStrategy;
+        }
+
         /**
          * Returns true if the engine-level lock is configured as a fair lock (default is false).
          * <p>
@@ -824,6 +996,32 @@ public class ConfigurationEngineDefaults implements Serializable {
              */
             SUSPEND
         }
+
+        /**
+         * Enumeration of wait strategies for thread pool queues.
+         */
+        public enum ThreadPoolWaitStrategy {
+            /**
+             * Linked or array-backed blocking queue that suspends waiting threads, the default.
+             */
+            BLOCKING,
+
+            /**
+             * Ring buffer with threads spinning while waiting, for lowest latency at the cost of a busy CPU per waiting thread.
+             * Threads that keep waiting after a bounded number of spins park for a short time between attempts.
+             */
+            BUSY_SPIN,
+
+            /**
+             * Ring buffer with threads yielding while waiting.
+             */
+            YIELD,
+
+            /**
+             * Ring buffer with threads parking for a short time while waiting.
+             */
+            PARK
+        }
     }
 
     /**
@@ -919,6 +1117,7 @@ public class ConfigurationEngineDefaults implements Serializable {
 
         private Configuration.PropertyResolutionStyle classPropertyResolutionStyle;
         private ConfigurationEventTypeLegacy.AccessorStyle defaultAccessorStyle;
+        private ConfigurationEventTypeLegacy.CodeGeneration defaultCodeGeneration;
         private EventUnderlyingType defaultEventRepresentation;
         private int anonymousCacheSize = 5;
         private AvroSettings avroSettings;
@@ -929,6 +1128,7 @@ public class ConfigurationEngineDefaults implements Serializable {
         public EventMeta() {
             this.classPropertyResolutionStyle = Configuration.PropertyResolutionStyle.getDefault();
             this.defaultAccessorStyle = ConfigurationEventTypeLegacy.AccessorStyle.JAVABEAN;
+            this.defaultCodeGeneration = ConfigurationEventTypeLegacy.CodeGeneration.ENABLED;
             this.defaultEventRepresentation = EventUnderlyingType.getDefault();
             this.avroSettings = new AvroSettings();
         }
@@ -951,6 +1151,24 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.defaultAccessorStyle = defaultAccessorStyle;
         }
 
+        /**
+         * Returns the default code generation for Java event classes, enabled unless changed.
+         *
+         * @return code generation enum
+         */
+        public ConfigurationEventTypeLegacy.CodeGeneration getDefaultCodeGeneration() {
+            return defaultCodeGeneration;
+        }
+
+        /**
+         * Sets the default code generation for Java event classes, which is enabled unless changed.
+         *
+         * @param defaultCodeGeneration code generation enum
+         */
+        public void setDefaultCodeGeneration(ConfigurationEventTypeLegacy.CodeGeneration defaultCodeGeneration) {
+            this.defaultCodeGeneration = defaultCodeGeneration;
+        }
+
         /**
          * Returns the property resolution style to use for resolving property names
          * of Java classes.
@@ -1268,6 +1486,8 @@ public class ConfigurationEngineDefaults implements Serializable {
         private static final long serialVersionUID = -7596853289989573800L;
         private Long maxSubexpressions;
         private boolean maxSubexpressionPreventStart = true;
+        private boolean shareFilters;
+        private boolean correlationIndex;
 
         /**
          * Returns the maximum number of subexpressions
@@ -1306,6 +1526,52 @@ public class ConfigurationEngineDefaults implements Serializable {
         public void setMaxSubexpressionPreventStart(boolean maxSubexpressionPreventStart) {
             this.maxSubexpressionPreventStart = maxSubexpressionPreventStart;
         }
+
+        /**
+         * Returns true to indicate that the filter state nodes of the same pattern filter share
+         * a single filter registration when the filter does not refer to prior matching events,
+         * false (the default) to register a filter per filter state node.
+         *
+         * @return indicator whether pattern filters are shared
+         */
+        public boolean isShareFilters() {
+            return shareFilters;
+        }
+
+        /**
+         * Set to true to indicate that the filter state nodes of the same pattern filter share
+         * a single filter registration when the filter does not refer to prior matching events,
+         * false (the default) to register a filter per filter state node.
+         *
+         * @param shareFilters indicator whether pattern filters are shared
+         */
+        public void setShareFilters(boolean shareFilters) {
+            this.shareFilters = shareFilters;
+        }
+
+        /**
+         * Returns true to indicate that the filter state nodes of the same pattern filter share
+         * a single filter registration and a hash index of pending matches when the filter compares
+         * event properties for equality to properties of prior matching events,
+         * false (the default) to register a filter per filter state node.
+         *
+         * @return indicator whether to use a correlation index
+         */
+        public boolean isCorrelationIndex() {
+            return correlationIndex;
+        }
+
+        /**
+         * Set to true to indicate that the filter state nodes of the same pattern filter share
+         * a single filter registration and a hash index of pending matches when the filter compares
+         * event properties for equality to properties of prior matching events,
+         * false (the default) to register a filter per filter state node.
+         *
+         * @param correlationIndex indicator whether to use a correlation index
+         */
+        public void setCorrelationIndex(boolean correlationIndex) {
+            this.correlationIndex = correlationIndex;
+        }
     }
 
     /**
@@ -1496,6 +1762,7 @@ public class ConfigurationEngineDefaults implements Serializable {
         private boolean selfSubselectPreeval;
         private boolean extendedAggregation;
         private boolean duckTyping;
+        private boolean codeGeneration;
         private MathContext mathContext;
         private TimeZone timeZone;
 
@@ -1638,6 +1905,26 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.duckTyping = duckTyping;
         }
 
+        /**
+         * Returns true to indicate that arithmetic, relational and logical expressions in select-clause and where-clause
+         * are compiled into generated evaluator classes, or false (the default) for interpreted evaluation.
+         *
+         * @return indicator
+         */
+        public boolean isCodeGeneration() {
+            return codeGeneration;
+        }
+
+        /**
+         * Set to true to indicate that arithmetic, relational and logical expressions in select-clause and where-clause
+         * are compiled into generated evaluator classes, or false (the default) for interpreted evaluation.
+         *
+         * @param codeGeneration indicator
+         */
+        public void setCodeGeneration(boolean codeGeneration) {
+            this.codeGeneration = codeGeneration;
+        }
+
         /**
          * Returns the math context for big decimal operations, or null to leave the math context undefined.
          *
@@ -1685,8 +1972,10 @@ public class ConfigurationEngineDefaults implements Serializable {
         private boolean allowIsolatedService;
         private ThreadingProfile threadingProfile = ThreadingProfile.NORMAL;
         private FilterServiceProfile filterServiceProfile = FilterServiceProfile.READMOSTLY;
+        private SchedulingServiceProfile schedulingServiceProfile = SchedulingServiceProfile.SORTED;
         private int filterServiceMaxFilterWidth = 16;
         private int declaredExprValueCacheSize = 1;
+        private boolean fireAndForgetCostBasedPlanning;
 
         private static final long serialVersionUID = 0L;
 
@@ -1811,6 +2100,24 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.filterServiceProfile = filterServiceProfile;
         }
 
+        /**
+         * Returns the scheduling service profile for tuning time-based operations.
+         *
+         * @return scheduling service profile
+         */
+        public SchedulingServiceProfile getSchedulingServiceProfile() {
+            return schedulingServiceProfile;
+        }
+
+        /**
+         * Set the scheduling service profile for tuning time-based operations.
+         *
+         * @param schedulingServiceProfile scheduling service profile
+         */
+        public void setSchedulingServiceProfile(SchedulingServiceProfile schedulingServiceProfile) {
+            this.schedulingServiceProfile = schedulingServiceProfile;
+        }
+
         /**
          * Returns the maximum width for breaking up "or" expression in filters to
          * subexpressions for reverse indexing.
@@ -1848,6 +2155,28 @@ public class ConfigurationEngineDefaults implements Serializable {
         public void setDeclaredExprValueCacheSize(int declaredExprValueCacheSize) {
             this.declaredExprValueCacheSize = declaredExprValueCacheSize;
         }
+
+        /**
+         * Returns indicator whether fire-and-forget query planning considers the cardinality and distinct-key
+         * statistics of named windows, tables and their indexes, default is false.
+         * Continuous statements are always planned by rules.
+         *
+         * @return cost-based planning indicator
+         */
+        public boolean isFireAndForgetCostBasedPlanning() {
+            return fireAndForgetCostBasedPlanning;
+        }
+
+        /**
+         * Sets indicator whether fire-and-forget query planning considers the cardinality and distinct-key
+         * statistics of named windows, tables and their indexes, default is false.
+         * Continuous statements are always planned by rules.
+         *
+         * @param fireAndForgetCostBasedPlanning cost-based planning indicator
+         */
+        public void setFireAndForgetCostBasedPlanning(boolean fireAndForgetCostBasedPlanning) {
+            this.fireAndForgetCostBasedPlanning = fireAndForgetCostBasedPlanning;
+        }
     }
 
     /**
@@ -1877,7 +2206,28 @@ public class ConfigurationEngineDefaults implements Serializable {
         /**
          * For very dynamic filters that come and go in a highly threaded environment.
          */
-        READWRITE
+        READWRITE,
+
+        /**
+         * For filters that come and go frequently while many threads evaluate events, evaluates events without locking.
+         */
+        LOCKFREE
+    }
+
+    /**
+     * Scheduling service profile.
+     */
+    public enum SchedulingServiceProfile {
+        /**
+         * Schedules kept sorted by time, the default.
+         */
+        SORTED,
+
+        /**
+         * Schedules kept in a hierarchical timing wheel, for a very large number of outstanding schedules
+         * that are frequently added and removed.
+         */
+        TIMINGWHEEL
     }
 
     /**
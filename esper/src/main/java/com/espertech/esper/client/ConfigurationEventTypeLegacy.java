@@ -72,7 +72,13 @@ public class ConfigurationEventTypeLegacy implements Serializable {
         /**
          * Dispables code generation.
          */
-        DISABLED
+        DISABLED,
+
+        /**
+         * Enables code generation and reads simple properties through functions generated by the lambda metafactory
+         * instead of CGLib fast methods, where the read method is accessible.
+         */
+        LAMBDA
     }
 
     /**
@@ -483,6 +483,11 @@ class ConfigurationParser {
             } else if (subElement.getNodeName().equals("lru-cache")) {
                 String size = getRequiredAttribute(subElement, "size");
                 configDBRef.setLRUCache(Integer.parseInt(size));
+            } else if (subElement.getNodeName().equals("concurrent-cache")) {
+                String size = getRequiredAttribute(subElement, "size");
+                String segments = getOptionalAttribute(subElement, "segments");
+                int numSegments = segments == null ? ConfigurationConcurrentCache.DEFAULT_NUM_SEGMENTS : Integer.parseInt(segments);
+                configDBRef.setConcurrentCache(Integer.parseInt(size), numSegments);
             }
         }
     }
@@ -507,6 +512,11 @@ class ConfigurationParser {
             } else if (subElement.getNodeName().equals("lru-cache")) {
                 String size = getRequiredAttribute(subElement, "size");
                 configMethodRef.setLRUCache(Integer.parseInt(size));
+            } else if (subElement.getNodeName().equals("concurrent-cache")) {
+                String size = getRequiredAttribute(subElement, "size");
+                String segments = getOptionalAttribute(subElement, "segments");
+                int numSegments = segments == null ? ConfigurationConcurrentCache.DEFAULT_NUM_SEGMENTS : Integer.parseInt(segments);
+                configMethodRef.setConcurrentCache(Integer.parseInt(size), numSegments);
             }
         }
     }
@@ -876,6 +886,12 @@ class ConfigurationParser {
             configuration.getEngineDefaults().getThreading().setEngineFairlock(isEngineFairlock);
         }
 
+        String waitStrategyStr = getOptionalAttribute(parentElement, "threadpool-wait-strategy");
+        if (waitStrategyStr != null) {
+            configuration.getEngineDefaults().getThreading().setThreadPoolWaitStrategy(
+                    ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.valueOf(waitStrategyStr.toUpperCase(Locale.ENGLISH)));
+        }
+
         DOMElementIterator nodeIterator = new DOMElementIterator(parentElement.getChildNodes());
         while (nodeIterator.hasNext()) {
             Element subElement = nodeIterator.next();
@@ -943,6 +959,10 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolInbound(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(result.getCapacity());
+                String keyProperty = getOptionalAttribute(subElement, "key-property");
+                if (keyProperty != null) {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolInboundKeyProperty(keyProperty);
+                }
             }
             if (subElement.getNodeName().equals("threadpool-outbound")) {
                 ThreadPoolConfig result = parseThreadPoolConfig(subElement);
@@ -962,6 +982,18 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecCapacity(result.getCapacity());
             }
+            if (subElement.getNodeName().equals("threadpool-namedwindowdispatch")) {
+                ThreadPoolConfig result = parseThreadPoolConfig(subElement);
+                configuration.getEngineDefaults().getThreading().setThreadPoolNamedWindowDispatch(result.isEnabled());
+                configuration.getEngineDefaults().getThreading().setThreadPoolNamedWindowDispatchNumThreads(result.getNumThreads());
+                configuration.getEngineDefaults().getThreading().setThreadPoolNamedWindowDispatchCapacity(result.getCapacity());
+            }
+            if (subElement.getNodeName().equals("threadpool-historicalpoll")) {
+                ThreadPoolConfig result = parseThreadPoolConfig(subElement);
+                configuration.getEngineDefaults().getThreading().setThreadPoolHistoricalPoll(result.isEnabled());
+                configuration.getEngineDefaults().getThreading().setThreadPoolHistoricalPollNumThreads(result.getNumThreads());
+                configuration.getEngineDefaults().getThreading().setThreadPoolHistoricalPollCapacity(result.getCapacity());
+            }
         }
     }
 
@@ -1059,6 +1091,14 @@ class ConfigurationParser {
                     configuration.getEngineDefaults().getPatterns().setMaxSubexpressionPreventStart(Boolean.parseBoolean(preventText));
                 }
             }
+            if (subElement.getNodeName().equals("share-filters")) {
+                String valueText = getRequiredAttribute(subElement, "enabled");
+                configuration.getEngineDefaults().getPatterns().setShareFilters(Boolean.parseBoolean(valueText));
+            }
+            if (subElement.getNodeName().equals("correlation-index")) {
+                String valueText = getRequiredAttribute(subElement, "enabled");
+                configuration.getEngineDefaults().getPatterns().setCorrelationIndex(Boolean.parseBoolean(valueText));
+            }
         }
     }
 
@@ -1235,6 +1275,11 @@ class ConfigurationParser {
             boolean duckTyping = Boolean.parseBoolean(duckTypingStr);
             configuration.getEngineDefaults().getExpression().setDuckTyping(duckTyping);
         }
+        String codeGenerationStr = getOptionalAttribute(parentElement, "code-generation");
+        if (codeGenerationStr != null) {
+            boolean codeGeneration = Boolean.parseBoolean(codeGenerationStr);
+            configuration.getEngineDefaults().getExpression().setCodeGeneration(codeGeneration);
+        }
         String mathContextStr = getOptionalAttribute(parentElement, "math-context");
         if (mathContextStr != null) {
             try {
@@ -1278,6 +1323,11 @@ class ConfigurationParser {
             ConfigurationEngineDefaults.FilterServiceProfile profile = ConfigurationEngineDefaults.FilterServiceProfile.valueOf(filterServiceProfileStr.toUpperCase(Locale.ENGLISH));
             configuration.getEngineDefaults().getExecution().setFilterServiceProfile(profile);
         }
+        String schedulingServiceProfileStr = getOptionalAttribute(parentElement, "scheduling-service-profile");
+        if (schedulingServiceProfileStr != null) {
+            ConfigurationEngineDefaults.SchedulingServiceProfile profile = ConfigurationEngineDefaults.SchedulingServiceProfile.valueOf(schedulingServiceProfileStr.toUpperCase(Locale.ENGLISH));
+            configuration.getEngineDefaults().getExecution().setSchedulingServiceProfile(profile);
+        }
         String filterServiceMaxFilterWidthStr = getOptionalAttribute(parentElement, "filter-service-max-filter-width");
         if (filterServiceMaxFilterWidthStr != null) {
             configuration.getEngineDefaults().getExecution().setFilterServiceMaxFilterWidth(Integer.parseInt(filterServiceMaxFilterWidthStr));
@@ -1291,6 +1341,10 @@ class ConfigurationParser {
         if (declExprValueCacheSizeStr != null) {
             configuration.getEngineDefaults().getExecution().setDeclaredExprValueCacheSize(Integer.parseInt(declExprValueCacheSizeStr));
         }
+        String fafCostBasedPlanningStr = getOptionalAttribute(parentElement, "fire-and-forget-cost-based-planning");
+        if (fafCostBasedPlanningStr != null) {
+            configuration.getEngineDefaults().getExecution().setFireAndForgetCostBasedPlanning(Boolean.parseBoolean(fafCostBasedPlanningStr));
+        }
     }
 
     private static void handleDefaultScriptConfig(Configuration configuration, Element parentElement) {
@@ -1354,6 +1408,13 @@ class ConfigurationParser {
                     ConfigurationEventTypeLegacy.AccessorStyle value = ConfigurationEventTypeLegacy.AccessorStyle.valueOf(accessorStyleText.toUpperCase(Locale.ENGLISH));
                     configuration.getEngineDefaults().getEventMeta().setDefaultAccessorStyle(value);
                 }
+
+                Node codeGenerationNode = subElement.getAttributes().getNamedItem("code-generation");
+                if (codeGenerationNode != null) {
+                    String codeGenerationText = codeGenerationNode.getTextContent();
+                    ConfigurationEventTypeLegacy.CodeGeneration value = ConfigurationEventTypeLegacy.CodeGeneration.valueOf(codeGenerationText.toUpperCase(Locale.ENGLISH));
+                    configuration.getEngineDefaults().getEventMeta().setDefaultCodeGeneration(value);
+                }
             }
 
             if (subElement.getNodeName().equals("event-representation")) {
@@ -37,6 +37,24 @@ public interface EPRuntime {
      */
     public void sendEvent(Object object) throws EPException;
 
+    /**
+     * Send a list of events represented by plain Java objects to the event stream processing runtime.
+     * <p>
+     * Events are processed in list order and each event is processed completely, including
+     * listener dispatch and any events routed or inserted-into as a result, before the next event in the list,
+     * the same as when calling {@link #sendEvent(Object)} for each event.
+     * Per-event fixed processing costs are incurred once per list and not once per event.
+     * <p>
+     * The list may also contain time events such as {@link com.espertech.esper.client.time.CurrentTimeEvent}.
+     * The same as {@link #sendEvent(Object)}, a null event object is logged and skipped.
+     * When inbound threading is enabled the list is processed as a single unit of work and
+     * the application should not modify the list after the call.
+     *
+     * @param events is the list of events to send to the runtime
+     * @throws EPException is thrown when the processing of an event lead to an error
+     */
+    public void sendEvents(List<?> events) throws EPException;
+
     /**
      * Send a map containing event property values to the event stream processing runtime.
      * <p>
@@ -10,6 +10,8 @@
  */
 package com.espertech.esper.client;
 
+import java.util.List;
+
 /**
  * Returns a facility to process event objects that are of a known type.
  * <p>
@@ -32,6 +34,21 @@ public interface EventSender {
      */
     public void sendEvent(Object theEvent) throws EPException;
 
+    /**
+     * Processes a list of event objects in list order.
+     * <p>
+     * Each event is processed completely, including listener dispatch, before the next event in the list,
+     * the same as when calling {@link #sendEvent(Object)} for each event, however per-event fixed processing costs are
+     * incurred once per list and not once per event.
+     * <p>
+     * The same as {@link #sendEvent(Object)}, a null event object is rejected by throwing {@link NullPointerException},
+     * in which case no event of the list is processed.
+     *
+     * @param events to process
+     * @throws EPException if a runtime error occured.
+     */
+    public void sendEvents(List<?> events) throws EPException;
+
     /**
      * Route the event object back to the event stream processing runtime for internal dispatching,
      * to avoid the possibility of a stack overflow due to nested calls to sendEvent.
@@ -27,7 +27,7 @@ public class BuiltinAnnotation {
     static {
         for (Class clazz : new Class[]{Audit.class, Description.class, Drop.class, Durable.class, EventRepresentation.class,
             ExternalDW.class, ExternalDWKey.class, ExternalDWListener.class, ExternalDWQuery.class, ExternalDWSetting.class,
-            ExternalDWValue.class, Hint.class, Hook.class, IterableUnbound.class, Name.class, NoLock.class, Overflow.class,
+            ExternalDWValue.class, Hint.class, Hook.class, IterableUnbound.class, LockStriping.class, Name.class, NoLock.class, OffHeap.class, Overflow.class,
             Priority.class, Resilient.class, Tag.class, Transient.class
         }) {
             BUILTIN.put(clazz.getSimpleName().toLowerCase(Locale.ENGLISH), clazz);
@@ -105,7 +105,12 @@ public enum HintEnum {
     /**
      * For use with output rate limiting to enable certain optimization that may however change output.
      */
-    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false);
+    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false),
+
+    /**
+     * For use with group-by to compile group-by and having expressions and use a result set processor specialized for the statement.
+     */
+    COMPILE_RESULTSET("COMPILE_RESULTSET", false, false, false);
 
     private final String value;
     private final boolean acceptsParameters;
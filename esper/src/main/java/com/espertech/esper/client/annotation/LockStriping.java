@@ -0,0 +1,30 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.annotation;
+
+/**
+ * Annotation for use with create-table to protect the rows of a table that has primary key columns by striped row locks
+ * instead of only the table-level lock.
+ * <p>
+ * Statements that address at most one row of the table per event lock the stripe that the primary key hashes to.
+ * These are statements that consume a single filter stream without data window and either aggregate into the table,
+ * without rollup, or have a single table-access expression for the table that provides the primary key.
+ * All other statements and operations on the table, such as on-merge, on-update, on-delete, insert-into, joins, subqueries
+ * and fire-and-forget queries, obtain the table exclusively.
+ */
+public @interface LockStriping {
+    /**
+     * Number of stripes, rounded up to the next power of two.
+     *
+     * @return stripes
+     */
+    public int value() default 16;
+}
@@ -0,0 +1,20 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.annotation;
+
+/**
+ * Annotation for use with create-table to keep the rows of a table that has primary key columns outside of the Java heap.
+ * <p>
+ * Plain columns of type long, int, double, float, short, byte, char or boolean are kept in direct memory. Other columns
+ * and aggregation state remain on heap.
+ */
+public @interface OffHeap {
+}
@@ -18,6 +18,9 @@ public class EngineMetric extends MetricEvent {
     private final long inputCount;
     private final long inputCountDelta;
     private final long scheduleDepth;
+    private final long dataCacheHitCount;
+    private final long dataCacheMissCount;
+    private final long dataCacheEvictionCount;
 
     /**
      * Ctor.
@@ -29,11 +32,30 @@ public class EngineMetric extends MetricEvent {
      * @param scheduleDepth   schedule depth
      */
     public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth) {
+        this(engineURI, timestamp, inputCount, inputCountDelta, scheduleDepth, 0, 0, 0);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param engineURI              engine URI
+     * @param timestamp              engine timestamp
+     * @param inputCount             number of input events
+     * @param inputCountDelta        number of input events since last
+     * @param scheduleDepth          schedule depth
+     * @param dataCacheHitCount      number of concurrent data cache hits
+     * @param dataCacheMissCount     number of concurrent data cache misses
+     * @param dataCacheEvictionCount number of concurrent data cache evictions
+     */
+    public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth, long dataCacheHitCount, long dataCacheMissCount, long dataCacheEvictionCount) {
         super(engineURI);
         this.timestamp = timestamp;
         this.inputCount = inputCount;
         this.inputCountDelta = inputCountDelta;
         this.scheduleDepth = scheduleDepth;
+        this.dataCacheHitCount = dataCacheHitCount;
+        this.dataCacheMissCount = dataCacheMissCount;
+        this.dataCacheEvictionCount = dataCacheEvictionCount;
     }
 
     /**
@@ -71,4 +93,31 @@ public class EngineMetric extends MetricEvent {
     public long getInputCountDelta() {
         return inputCountDelta;
     }
+
+    /**
+     * Returns the number of hits of concurrent data caches of historical streams since engine initialization cumulative.
+     *
+     * @return hit count
+     */
+    public long getDataCacheHitCount() {
+        return dataCacheHitCount;
+    }
+
+    /**
+     * Returns the number of misses of concurrent data caches of historical streams since engine initialization cumulative.
+     *
+     * @return miss count
+     */
+    public long getDataCacheMissCount() {
+        return dataCacheMissCount;
+    }
+
+    /**
+     * Returns the number of entries evicted from concurrent data caches of historical streams since engine initialization cumulative.
+     *
+     * @return eviction count
+     */
+    public long getDataCacheEvictionCount() {
+        return dataCacheEvictionCount;
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map based on a ConcurrentHashMap that, unlike ConcurrentHashMap, allows a null key.
+ * The null key is stored under a marker key. Null values are not allowed.
+ */
+public class NullKeyConcurrentHashMap<K, V> extends AbstractMap<K, V> {
+    private static final Object NULL_KEY = new Object();
+
+    private final ConcurrentHashMap<Object, V> map = new ConcurrentHashMap<Object, V>();
+
+    public V get(Object key) {
+        return map.get(key == null ? NULL_KEY : key);
+    }
+
+    public V put(K key, V value) {
+        return map.put(key == null ? NULL_KEY : key, value);
+    }
+
+    public V remove(Object key) {
+        return map.remove(key == null ? NULL_KEY : key);
+    }
+
+    public boolean containsKey(Object key) {
+        return map.containsKey(key == null ? NULL_KEY : key);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    public Collection<V> values() {
+        return map.values();
+    }
+
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            public Iterator<Entry<K, V>> iterator() {
+                final Iterator<Entry<Object, V>> it = map.entrySet().iterator();
+                return new Iterator<Entry<K, V>>() {
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    public Entry<K, V> next() {
+                        Entry<Object, V> entry = it.next();
+                        K key = entry.getKey() == NULL_KEY ? null : (K) entry.getKey();
+                        return new SimpleImmutableEntry<K, V>(key, entry.getValue());
+                    }
+
+                    public void remove() {
+                        it.remove();
+                    }
+                };
+            }
+
+            public int size() {
+                return map.size();
+            }
+        };
+    }
+}
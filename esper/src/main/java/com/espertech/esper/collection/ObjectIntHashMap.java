@@ -0,0 +1,282 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Open-addressing hash map from object key to primitive int value, with linear probing and backward-shift removal.
+ * <p>
+ * Keys and values are held in two parallel arrays and no entry object is allocated per key.
+ * The null key is allowed. Not thread-safe.
+ */
+public class ObjectIntHashMap {
+    private static final Object NULL_KEY = new Object();
+    private static final int MIN_CAPACITY = 8;
+
+    private Object[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * Ctor.
+     */
+    public ObjectIntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param expectedSize expected number of entries
+     */
+    public ObjectIntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the value for the key, or the default value if the key is not found.
+     *
+     * @param key          key, may be null
+     * @param defaultValue to return when not found
+     * @return value or default value
+     */
+    public int get(Object key, int defaultValue) {
+        Object k = key == null ? NULL_KEY : key;
+        int index = hash(k) & mask;
+        while (true) {
+            Object existing = keys[index];
+            if (existing == null) {
+                return defaultValue;
+            }
+            if (existing == k || existing.equals(k)) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns true if the key is found.
+     *
+     * @param key key, may be null
+     * @return indicator
+     */
+    public boolean containsKey(Object key) {
+        Object k = key == null ? NULL_KEY : key;
+        int index = hash(k) & mask;
+        while (true) {
+            Object existing = keys[index];
+            if (existing == null) {
+                return false;
+            }
+            if (existing == k || existing.equals(k)) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Puts a value for the key, replacing any existing value.
+     *
+     * @param key   key, may be null
+     * @param value value
+     */
+    public void put(Object key, int value) {
+        Object k = key == null ? NULL_KEY : key;
+        int index = hash(k) & mask;
+        while (true) {
+            Object existing = keys[index];
+            if (existing == null) {
+                keys[index] = k;
+                values[index] = value;
+                if (++size > resizeThreshold) {
+                    rehash(keys.length << 1);
+                }
+                return;
+            }
+            if (existing == k || existing.equals(k)) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Removes the key, returning its value or the default value if the key is not found.
+     *
+     * @param key          key, may be null
+     * @param defaultValue to return when not found
+     * @return removed value or default value
+     */
+    public int remove(Object key, int defaultValue) {
+        Object k = key == null ? NULL_KEY : key;
+        int index = hash(k) & mask;
+        while (true) {
+            Object existing = keys[index];
+            if (existing == null) {
+                return defaultValue;
+            }
+            if (existing == k || existing.equals(k)) {
+                int value = values[index];
+                shiftBack(index);
+                size--;
+                return value;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true when empty.
+     *
+     * @return indicator
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    /**
+     * Returns a new list of the keys.
+     *
+     * @return keys
+     */
+    public List<Object> keyList() {
+        List<Object> result = new ArrayList<Object>(size);
+        for (Object key : keys) {
+            if (key != null) {
+                result.add(key == NULL_KEY ? null : key);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of slots of the table, for use with {@link #isSlotUsed(int)}, {@link #keyAt(int)} and {@link #valueAt(int)}
+     * to iterate over entries without allocation.
+     *
+     * @return slot count
+     */
+    public int slotCount() {
+        return keys.length;
+    }
+
+    /**
+     * Returns true if the slot holds an entry.
+     *
+     * @param slot slot number
+     * @return indicator
+     */
+    public boolean isSlotUsed(int slot) {
+        return keys[slot] != null;
+    }
+
+    /**
+     * Returns the key held by a used slot.
+     *
+     * @param slot slot number
+     * @return key
+     */
+    public Object keyAt(int slot) {
+        Object key = keys[slot];
+        return key == NULL_KEY ? null : key;
+    }
+
+    /**
+     * Returns the value held by a used slot.
+     *
+     * @param slot slot number
+     * @return value
+     */
+    public int valueAt(int slot) {
+        return values[slot];
+    }
+
+    private void shiftBack(int index) {
+        int free = index;
+        int next = (index + 1) & mask;
+        while (keys[next] != null) {
+            int desired = hash(keys[next]) & mask;
+            // move the entry into the free slot unless its desired slot lies cyclically in (free, next]
+            if (((next - desired) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[free] = null;
+    }
+
+    private void rehash(int newCapacity) {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object k = oldKeys[i];
+            if (k == null) {
+                continue;
+            }
+            int index = hash(k) & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = k;
+            values[index] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (capacity >> 1) + (capacity >> 2);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
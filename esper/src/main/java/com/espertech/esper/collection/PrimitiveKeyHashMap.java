@@ -0,0 +1,455 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import java.util.*;
+
+/**
+ * Base class for open-addressing hash maps that keep keys of one type, such as long, int or string, in a specialized
+ * key array, for use as a drop-in replacement of {@link HashMap} for single-column keys.
+ * <p>
+ * Keys are held in a key array specific to the subclass and values in a parallel value array, using linear probing
+ * and removal markers. Thereby no entry object is allocated per key and primitive keys are not held boxed.
+ * Hash codes are the same as the key's {@link Object#hashCode()} and the table grows at the same load factor as a {@link HashMap}.
+ * Keys that are not of the native key type of the map, including the null key, are held in a regular hash map
+ * so that the map accepts any key and behaves the same as a {@link HashMap}, i.e. keys of different classes are not equal.
+ * <p>
+ * Iteration order is unspecified, the same as for {@link HashMap}, and may differ from that of a {@link HashMap} holding the same keys.
+ * Not thread-safe. Iterators are fail-fast the same as {@link HashMap} iterators.
+ */
+public abstract class PrimitiveKeyHashMap<V> extends AbstractMap<Object, V> {
+    private static final Object REMOVED = new Object();
+    private static final Object NULL_VALUE = new Object();
+    private static final int MIN_CAPACITY = 16;
+
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int used;
+    private int resizeThreshold;
+    private int modCount;
+    private HashMap<Object, V> otherKeys;
+
+    /**
+     * Returns true if the key is of the native key type of the map.
+     *
+     * @param key to check, may be null
+     * @return indicator
+     */
+    protected abstract boolean isNativeKey(Object key);
+
+    /**
+     * Returns the hash of a native key.
+     *
+     * @param key native key
+     * @return hash
+     */
+    protected abstract int nativeHash(Object key);
+
+    /**
+     * Compares a native key to the key held by a slot.
+     *
+     * @param slot slot
+     * @param key  native key
+     * @return true for equal keys
+     */
+    protected abstract boolean nativeKeyEquals(int slot, Object key);
+
+    /**
+     * Sets the key of a slot.
+     *
+     * @param slot slot
+     * @param key  native key
+     */
+    protected abstract void setNativeKey(int slot, Object key);
+
+    /**
+     * Clears the key of a slot.
+     *
+     * @param slot slot
+     */
+    protected abstract void clearNativeKey(int slot);
+
+    /**
+     * Returns the key of a slot as an object.
+     *
+     * @param slot slot
+     * @return key
+     */
+    protected abstract Object getNativeKey(int slot);
+
+    /**
+     * Allocates a new key array, returning the prior key array.
+     *
+     * @param capacity new capacity
+     * @return prior key array or null if none
+     */
+    protected abstract Object allocateKeys(int capacity);
+
+    /**
+     * Returns the hash of a key of a prior key array.
+     *
+     * @param priorKeys prior key array
+     * @param slot      slot in prior key array
+     * @return hash
+     */
+    protected abstract int priorKeyHash(Object priorKeys, int slot);
+
+    /**
+     * Copies a key from a prior key array to the current key array.
+     *
+     * @param priorKeys prior key array
+     * @param priorSlot slot in prior key array
+     * @param slot      slot in current key array
+     */
+    protected abstract void copyPriorKey(Object priorKeys, int priorSlot, int slot);
+
+    /**
+     * Ctor.
+     */
+    protected PrimitiveKeyHashMap() {
+    }
+
+    /**
+     * Allocates the arrays, to be called by subclass constructors.
+     */
+    protected void init() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns a new map for the key type: specialized for long, int and string keys and a {@link HashMap} for other key types.
+     *
+     * @param keyType key type or null if not known
+     * @param <V>     value type
+     * @return map
+     */
+    public static <V> Map<Object, V> newMap(Class keyType) {
+        if (keyType == Long.class || keyType == long.class) {
+            return new PrimitiveKeyHashMapLong<V>();
+        }
+        if (keyType == Integer.class || keyType == int.class) {
+            return new PrimitiveKeyHashMapInt<V>();
+        }
+        if (keyType == String.class) {
+            return new PrimitiveKeyHashMapString<V>();
+        }
+        return new HashMap<Object, V>();
+    }
+
+    public int size() {
+        return otherKeys == null ? size : size + otherKeys.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(Object key) {
+        if (!isNativeKey(key)) {
+            return otherKeys != null && otherKeys.containsKey(key);
+        }
+        return find(key) != -1;
+    }
+
+    public V get(Object key) {
+        if (!isNativeKey(key)) {
+            return otherKeys == null ? null : otherKeys.get(key);
+        }
+        int slot = find(key);
+        return slot == -1 ? null : unmaskNull(values[slot]);
+    }
+
+    public V put(Object key, V value) {
+        if (!isNativeKey(key)) {
+            if (otherKeys == null) {
+                otherKeys = new HashMap<Object, V>();
+            }
+            int sizeBefore = otherKeys.size();
+            V prior = otherKeys.put(key, value);
+            if (otherKeys.size() != sizeBefore) {
+                modCount++;
+            }
+            return prior;
+        }
+
+        int index = nativeHash(key) & mask;
+        int removedSlot = -1;
+        while (true) {
+            Object existing = values[index];
+            if (existing == null) {
+                break;
+            }
+            if (existing == REMOVED) {
+                if (removedSlot == -1) {
+                    removedSlot = index;
+                }
+            } else if (nativeKeyEquals(index, key)) {
+                values[index] = maskNull(value);
+                return unmaskNull(existing);
+            }
+            index = (index + 1) & mask;
+        }
+
+        if (removedSlot != -1) {
+            index = removedSlot;
+        } else {
+            used++;
+        }
+        setNativeKey(index, key);
+        values[index] = maskNull(value);
+        size++;
+        modCount++;
+        if (used > resizeThreshold) {
+            rehash(size > (resizeThreshold >> 1) ? values.length << 1 : values.length);
+        }
+        return null;
+    }
+
+    public V remove(Object key) {
+        if (!isNativeKey(key)) {
+            if (otherKeys == null || !otherKeys.containsKey(key)) {
+                return null;
+            }
+            modCount++;
+            return otherKeys.remove(key);
+        }
+        int slot = find(key);
+        if (slot == -1) {
+            return null;
+        }
+        V value = unmaskNull(values[slot]);
+        removeSlot(slot);
+        return value;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        used = 0;
+        otherKeys = null;
+        modCount++;
+    }
+
+    public Set<Entry<Object, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    private int find(Object key) {
+        int index = nativeHash(key) & mask;
+        while (true) {
+            Object existing = values[index];
+            if (existing == null) {
+                return -1;
+            }
+            if (existing != REMOVED && nativeKeyEquals(index, key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void removeSlot(int slot) {
+        values[slot] = REMOVED;
+        clearNativeKey(slot);
+        size--;
+        modCount++;
+    }
+
+    private void rehash(int capacity) {
+        Object[] priorValues = values;
+        Object priorKeys = allocate(capacity);
+        used = size;
+        for (int i = 0; i < priorValues.length; i++) {
+            Object value = priorValues[i];
+            if (value == null || value == REMOVED) {
+                continue;
+            }
+            int index = priorKeyHash(priorKeys, i) & mask;
+            while (values[index] != null) {
+                index = (index + 1) & mask;
+            }
+            copyPriorKey(priorKeys, i, index);
+            values[index] = value;
+        }
+    }
+
+    private Object allocate(int capacity) {
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (capacity >> 1) + (capacity >> 2);
+        return allocateKeys(capacity);
+    }
+
+    private static Object maskNull(Object value) {
+        return value == null ? NULL_VALUE : value;
+    }
+
+    private V unmaskNull(Object value) {
+        return value == NULL_VALUE ? null : (V) value;
+    }
+
+    /**
+     * Spreads the bits of a hash code the same way as {@link HashMap} does, so that keys that differ only in their high bits
+     * do not all probe the same slots of a small table.
+     *
+     * @param h hash code
+     * @return spread hash
+     */
+    protected static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private class EntrySet extends AbstractSet<Entry<Object, V>> {
+        public Iterator<Entry<Object, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        public int size() {
+            return PrimitiveKeyHashMap.this.size();
+        }
+
+        public void clear() {
+            PrimitiveKeyHashMap.this.clear();
+        }
+    }
+
+    private class EntryIterator implements Iterator<Entry<Object, V>> {
+        private final Object[] iteratedValues = values;
+        private int expectedModCount = modCount;
+        private int nextSlot;
+        private int lastSlot = -1;
+        private boolean lastFromOther;
+        private Iterator<Entry<Object, V>> otherIterator;
+
+        private EntryIterator() {
+            advance();
+        }
+
+        public boolean hasNext() {
+            if (nextSlot < iteratedValues.length) {
+                return true;
+            }
+            if (otherIterator == null) {
+                if (otherKeys == null) {
+                    return false;
+                }
+                otherIterator = otherKeys.entrySet().iterator();
+            }
+            return otherIterator.hasNext();
+        }
+
+        public Entry<Object, V> next() {
+            checkModCount();
+            if (nextSlot < iteratedValues.length) {
+                lastSlot = nextSlot;
+                nextSlot++;
+                advance();
+                return new SlotEntry(lastSlot);
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastSlot = -1;
+            Entry<Object, V> entry = otherIterator.next();
+            lastFromOther = true;
+            return entry;
+        }
+
+        public void remove() {
+            checkModCount();
+            if (lastSlot != -1) {
+                removeSlot(lastSlot);
+                lastSlot = -1;
+                expectedModCount = modCount;
+            } else if (lastFromOther) {
+                otherIterator.remove();
+                lastFromOther = false;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+
+        private void checkModCount() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        private void advance() {
+            while (nextSlot < iteratedValues.length) {
+                Object value = iteratedValues[nextSlot];
+                if (value != null && value != REMOVED) {
+                    return;
+                }
+                nextSlot++;
+            }
+        }
+    }
+
+    private class SlotEntry implements Entry<Object, V> {
+        private final Object key;
+        private final Object[] entryValues;
+        private final int slot;
+        private V value;
+
+        private SlotEntry(int slot) {
+            this.slot = slot;
+            this.key = getNativeKey(slot);
+            this.entryValues = values;
+            this.value = unmaskNull(values[slot]);
+        }
+
+        public Object getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            // read the slot while it still holds this entry, a rehash or removal detaches the entry
+            if (isAttached()) {
+                value = unmaskNull(values[slot]);
+            }
+            return value;
+        }
+
+        public V setValue(V value) {
+            V prior = getValue();
+            if (isAttached()) {
+                values[slot] = maskNull(value);
+            }
+            this.value = value;
+            return prior;
+        }
+
+        private boolean isAttached() {
+            Object current = entryValues[slot];
+            return entryValues == values && current != null && current != REMOVED && nativeKeyEquals(slot, key);
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry other = (Entry) o;
+            V value = getValue();
+            return key.equals(other.getKey()) && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+        }
+
+        public int hashCode() {
+            V value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
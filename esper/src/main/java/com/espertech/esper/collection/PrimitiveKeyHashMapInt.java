@@ -0,0 +1,62 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+/**
+ * Open-addressing hash map specialized for {@link Integer} keys, see {@link PrimitiveKeyHashMap}.
+ */
+public class PrimitiveKeyHashMapInt<V> extends PrimitiveKeyHashMap<V> {
+    private int[] keys;
+
+    /**
+     * Ctor.
+     */
+    public PrimitiveKeyHashMapInt() {
+        init();
+    }
+
+    protected boolean isNativeKey(Object key) {
+        return key instanceof Integer;
+    }
+
+    protected int nativeHash(Object key) {
+        return spread((Integer) key);
+    }
+
+    protected boolean nativeKeyEquals(int slot, Object key) {
+        return keys[slot] == (Integer) key;
+    }
+
+    protected void setNativeKey(int slot, Object key) {
+        keys[slot] = (Integer) key;
+    }
+
+    protected void clearNativeKey(int slot) {
+    }
+
+    protected Object getNativeKey(int slot) {
+        return keys[slot];
+    }
+
+    protected Object allocateKeys(int capacity) {
+        int[] prior = keys;
+        keys = new int[capacity];
+        return prior;
+    }
+
+    protected int priorKeyHash(Object priorKeys, int slot) {
+        return spread(((int[]) priorKeys)[slot]);
+    }
+
+    protected void copyPriorKey(Object priorKeys, int priorSlot, int slot) {
+        keys[slot] = ((int[]) priorKeys)[priorSlot];
+    }
+}
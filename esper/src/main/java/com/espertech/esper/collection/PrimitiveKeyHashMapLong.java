@@ -0,0 +1,66 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+/**
+ * Open-addressing hash map specialized for {@link Long} keys, see {@link PrimitiveKeyHashMap}.
+ */
+public class PrimitiveKeyHashMapLong<V> extends PrimitiveKeyHashMap<V> {
+    private long[] keys;
+
+    /**
+     * Ctor.
+     */
+    public PrimitiveKeyHashMapLong() {
+        init();
+    }
+
+    protected boolean isNativeKey(Object key) {
+        return key instanceof Long;
+    }
+
+    protected int nativeHash(Object key) {
+        return hash((Long) key);
+    }
+
+    protected boolean nativeKeyEquals(int slot, Object key) {
+        return keys[slot] == (Long) key;
+    }
+
+    protected void setNativeKey(int slot, Object key) {
+        keys[slot] = (Long) key;
+    }
+
+    protected void clearNativeKey(int slot) {
+    }
+
+    protected Object getNativeKey(int slot) {
+        return keys[slot];
+    }
+
+    protected Object allocateKeys(int capacity) {
+        long[] prior = keys;
+        keys = new long[capacity];
+        return prior;
+    }
+
+    protected int priorKeyHash(Object priorKeys, int slot) {
+        return hash(((long[]) priorKeys)[slot]);
+    }
+
+    protected void copyPriorKey(Object priorKeys, int priorSlot, int slot) {
+        keys[slot] = ((long[]) priorKeys)[priorSlot];
+    }
+
+    private static int hash(long key) {
+        return spread(Long.hashCode(key));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+/**
+ * Open-addressing hash map specialized for {@link String} keys, see {@link PrimitiveKeyHashMap}.
+ * <p>
+ * Key comparison first compares by reference, which succeeds without comparing characters when the lookup uses the same
+ * string instance as the one that was added, such as a property value of the same event.
+ */
+public class PrimitiveKeyHashMapString<V> extends PrimitiveKeyHashMap<V> {
+    private String[] keys;
+
+    /**
+     * Ctor.
+     */
+    public PrimitiveKeyHashMapString() {
+        init();
+    }
+
+    protected boolean isNativeKey(Object key) {
+        return key instanceof String;
+    }
+
+    protected int nativeHash(Object key) {
+        return spread(key.hashCode());
+    }
+
+    protected boolean nativeKeyEquals(int slot, Object key) {
+        String existing = keys[slot];
+        return existing == key || existing.equals(key);
+    }
+
+    protected void setNativeKey(int slot, Object key) {
+        keys[slot] = (String) key;
+    }
+
+    protected void clearNativeKey(int slot) {
+        keys[slot] = null;
+    }
+
+    protected Object getNativeKey(int slot) {
+        return keys[slot];
+    }
+
+    protected Object allocateKeys(int capacity) {
+        String[] prior = keys;
+        keys = new String[capacity];
+        return prior;
+    }
+
+    protected int priorKeyHash(Object priorKeys, int slot) {
+        return spread(((String[]) priorKeys)[slot].hashCode());
+    }
+
+    protected void copyPriorKey(Object priorKeys, int priorSlot, int slot) {
+        keys[slot] = ((String[]) priorKeys)[priorSlot];
+    }
+}
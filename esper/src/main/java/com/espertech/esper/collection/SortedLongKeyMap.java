@@ -0,0 +1,257 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted map of primitive long keys to values.
+ * <p>
+ * Entries are kept in key order in a list of blocks, each block holding sorted arrays of keys and values.
+ * Lookups are binary searches without boxing, additions and removals shift at most one block,
+ * and in-order iteration is over plain arrays: use {@link #getBlockCount()}, {@link #getBlockSize(int)},
+ * {@link #getBlockKeys(int)} and {@link #getBlockValues(int)}, starting at the position returned by
+ * {@link #findBlock(long)} and {@link #findInBlock(int, long)} if required.
+ * <p>
+ * Not thread-safe.
+ */
+public final class SortedLongKeyMap<V> {
+    private static final int BLOCK_SIZE = 128;
+
+    private long[][] keys;
+    private Object[][] values;
+    private int[] sizes;
+    private int blockCount;
+    private int size;
+
+    /**
+     * Ctor.
+     */
+    public SortedLongKeyMap() {
+        keys = new long[4][];
+        values = new Object[4][];
+        sizes = new int[4];
+    }
+
+    /**
+     * Returns the value for the key, or null if not found.
+     *
+     * @param key to look up
+     * @return value or null
+     */
+    public V get(long key) {
+        if (size == 0) {
+            return null;
+        }
+        int block = findBlock(key);
+        int index = Arrays.binarySearch(keys[block], 0, sizes[block], key);
+        return index < 0 ? null : (V) values[block][index];
+    }
+
+    /**
+     * Adds or replaces the value for the key.
+     *
+     * @param key   key
+     * @param value value
+     * @return previous value or null if none
+     */
+    public V put(long key, V value) {
+        if (blockCount == 0) {
+            insertBlock(0);
+        }
+        int block = findBlock(key);
+        int index = Arrays.binarySearch(keys[block], 0, sizes[block], key);
+        if (index >= 0) {
+            V previous = (V) values[block][index];
+            values[block][index] = value;
+            return previous;
+        }
+
+        int insertAt = -(index + 1);
+        if (sizes[block] == BLOCK_SIZE) {
+            splitBlock(block);
+            if (insertAt > sizes[block]) {
+                insertAt -= sizes[block];
+                block++;
+            }
+        }
+
+        int blockSize = sizes[block];
+        System.arraycopy(keys[block], insertAt, keys[block], insertAt + 1, blockSize - insertAt);
+        System.arraycopy(values[block], insertAt, values[block], insertAt + 1, blockSize - insertAt);
+        keys[block][insertAt] = key;
+        values[block][insertAt] = value;
+        sizes[block]++;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the key.
+     *
+     * @param key to remove
+     * @return removed value or null if not found
+     */
+    public V remove(long key) {
+        if (size == 0) {
+            return null;
+        }
+        int block = findBlock(key);
+        int index = Arrays.binarySearch(keys[block], 0, sizes[block], key);
+        if (index < 0) {
+            return null;
+        }
+
+        V previous = (V) values[block][index];
+        int blockSize = sizes[block];
+        System.arraycopy(keys[block], index + 1, keys[block], index, blockSize - index - 1);
+        System.arraycopy(values[block], index + 1, values[block], index, blockSize - index - 1);
+        values[block][blockSize - 1] = null;
+        sizes[block]--;
+        size--;
+        if (sizes[block] == 0) {
+            removeBlock(block);
+        }
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the lowest key.
+     *
+     * @return key
+     * @throws NoSuchElementException if empty
+     */
+    public long firstKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return keys[0][0];
+    }
+
+    /**
+     * Returns the highest key.
+     *
+     * @return key
+     * @throws NoSuchElementException if empty
+     */
+    public long lastKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return keys[blockCount - 1][sizes[blockCount - 1] - 1];
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        for (int i = 0; i < blockCount; i++) {
+            keys[i] = null;
+            values[i] = null;
+            sizes[i] = 0;
+        }
+        blockCount = 0;
+        size = 0;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    public int getBlockSize(int block) {
+        return sizes[block];
+    }
+
+    public long[] getBlockKeys(int block) {
+        return keys[block];
+    }
+
+    public Object[] getBlockValues(int block) {
+        return values[block];
+    }
+
+    /**
+     * Returns the block that holds the key if present, i.e. the last block with a first key less or equal to the key,
+     * or the first block if there is none. Requires a non-empty map.
+     *
+     * @param key to find
+     * @return block number
+     */
+    public int findBlock(long key) {
+        int low = 1;
+        int high = blockCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid][0] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * Returns the position of the key in the block, as returned by {@link Arrays#binarySearch(long[], int, int, long)}.
+     *
+     * @param block block number
+     * @param key   to find
+     * @return index if found, or (-(insertion point) - 1)
+     */
+    public int findInBlock(int block, long key) {
+        return Arrays.binarySearch(keys[block], 0, sizes[block], key);
+    }
+
+    private void splitBlock(int block) {
+        insertBlock(block + 1);
+        int half = BLOCK_SIZE >> 1;
+        System.arraycopy(keys[block], half, keys[block + 1], 0, BLOCK_SIZE - half);
+        System.arraycopy(values[block], half, values[block + 1], 0, BLOCK_SIZE - half);
+        Arrays.fill(values[block], half, BLOCK_SIZE, null);
+        sizes[block] = half;
+        sizes[block + 1] = BLOCK_SIZE - half;
+    }
+
+    private void insertBlock(int block) {
+        if (blockCount == keys.length) {
+            int capacity = keys.length << 1;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+        System.arraycopy(keys, block, keys, block + 1, blockCount - block);
+        System.arraycopy(values, block, values, block + 1, blockCount - block);
+        System.arraycopy(sizes, block, sizes, block + 1, blockCount - block);
+        keys[block] = new long[BLOCK_SIZE];
+        values[block] = new Object[BLOCK_SIZE];
+        sizes[block] = 0;
+        blockCount++;
+    }
+
+    private void removeBlock(int block) {
+        System.arraycopy(keys, block + 1, keys, block, blockCount - block - 1);
+        System.arraycopy(values, block + 1, values, block, blockCount - block - 1);
+        System.arraycopy(sizes, block + 1, sizes, block, blockCount - block - 1);
+        blockCount--;
+        keys[blockCount] = null;
+        values[blockCount] = null;
+        sizes[blockCount] = 0;
+    }
+}
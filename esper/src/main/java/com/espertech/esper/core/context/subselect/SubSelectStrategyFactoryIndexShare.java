@@ -144,7 +144,7 @@ public class SubSelectStrategyFactoryIndexShare implements SubSelectStrategyFact
         } else {
             TableStateInstance state = tableService.getState(optionalTableMetadata.getTableName(), agentInstanceContext.getAgentInstanceId());
             Lock lock = agentInstanceContext.getStatementContext().isWritesToTables() ?
-                    state.getTableLevelRWLock().writeLock() : state.getTableLevelRWLock().readLock();
+                    state.getTableLevelLockWrite() : state.getTableLevelLockRead();
             if (queryPlan == null) {
                 subqueryLookup = new SubordFullTableScanTableLookupStrategy(lock, state.getIterableTableScan());
             } else {
@@ -46,6 +46,7 @@ import com.espertech.esper.epl.variable.VariableReader;
 import com.espertech.esper.event.util.EventRendererImpl;
 import com.espertech.esper.filter.FilterHandle;
 import com.espertech.esper.filter.FilterHandleCallback;
+import com.espertech.esper.filter.FilterServiceSPI;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.metrics.jmx.JmxGetter;
 import com.espertech.esper.schedule.*;
@@ -195,6 +196,10 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+            if (services.getThreadingService().isInboundThreadingKeyed() || services.getThreadingService().isInboundUnitPreallocated()) {
+                services.getThreadingService().submitInboundWrapped(wrapEventAvro(avroGenericDataDotRecord, avroEventTypeName), this);
+                return;
+            }
             services.getThreadingService().submitInbound(new InboundUnitSendAvro(avroGenericDataDotRecord, avroEventTypeName, services, this));
         } else {
             // Process event
@@ -217,12 +222,43 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
-            services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, this));
+            if (services.getThreadingService().isInboundThreadingKeyed() && !(theEvent instanceof TimerEvent)) {
+                EventBean eventBean = theEvent instanceof EventBean ? (EventBean) theEvent : wrapEvent(theEvent);
+                services.getThreadingService().submitInboundWrapped(eventBean, this);
+                return;
+            }
+            services.getThreadingService().submitInboundEvent(theEvent, this);
         } else {
             processEvent(theEvent);
         }
     }
 
+    public void sendEvents(List<?> events) throws EPException {
+        if (events == null) {
+            throw new IllegalArgumentException("Invalid null event list");
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+            log.debug(".sendEvents Processing " + events.size() + " events");
+        }
+
+        // Process events
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+            if (services.getThreadingService().isInboundThreadingKeyed()) {
+                for (Object theEvent : events) {
+                    sendEvent(theEvent);
+                }
+                return;
+            }
+            services.getThreadingService().submitInbound(new InboundUnitSendEvents(events, this));
+        } else {
+            processEvents(events);
+        }
+    }
+
     public void sendEvent(org.w3c.dom.Node document) throws EPException {
         if (document == null) {
             log.error(".sendEvent Null object supplied");
@@ -235,6 +271,10 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+            if (services.getThreadingService().isInboundThreadingKeyed() || services.getThreadingService().isInboundUnitPreallocated()) {
+                services.getThreadingService().submitInboundWrapped(wrapEvent(document), this);
+                return;
+            }
             services.getThreadingService().submitInbound(new InboundUnitSendDOM(document, services, this));
         } else {
             // Get it wrapped up, process event
@@ -272,6 +312,10 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+            if (services.getThreadingService().isInboundThreadingKeyed() || services.getThreadingService().isInboundUnitPreallocated()) {
+                services.getThreadingService().submitInboundWrapped(wrapEvent(map, mapEventTypeName), this);
+                return;
+            }
             services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, services, this));
         } else {
             // Process event
@@ -290,6 +334,10 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+            if (services.getThreadingService().isInboundThreadingKeyed() || services.getThreadingService().isInboundUnitPreallocated()) {
+                services.getThreadingService().submitInboundWrapped(wrapEvent(propertyValues, objectArrayEventTypeName), this);
+                return;
+            }
             services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, objectArrayEventTypeName, services, this));
         } else {
             // Process event
@@ -427,11 +475,56 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         processWrappedEvent(eventBean);
     }
 
+    /**
+     * Process a list of unwrapped events in the order provided, obtaining the thread-local
+     * processing state once for the whole list.
+     *
+     * @param events to process
+     */
+    public void processEvents(List<?> events) {
+        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
+        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+
+        for (Object theEvent : events) {
+            if (theEvent == null) {
+                log.error(".sendEvents Null object supplied");
+                continue;
+            }
+            if (theEvent instanceof TimerEvent) {
+                processTimeEvent((TimerEvent) theEvent);
+                continue;
+            }
+
+            EventBean eventBean;
+            if (theEvent instanceof EventBean) {
+                eventBean = (EventBean) theEvent;
+            } else {
+                eventBean = wrapEvent(theEvent);
+            }
+            processWrappedEvent(eventBean, matches, stmtCallbacks, queues);
+        }
+    }
+
     public EventBean wrapEvent(Object theEvent) {
         return services.getEventAdapterService().adapterForBean(theEvent);
     }
 
     public void processWrappedEvent(EventBean eventBean) {
+        processWrappedEvent(eventBean, matchesArrayThreadLocal.get(), matchesPerStmtThreadLocal.get(), threadWorkQueue.getThreadQueue());
+    }
+
+    public void processWrappedEvents(EventBean[] eventBeans) {
+        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
+        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+
+        for (EventBean eventBean : eventBeans) {
+            processWrappedEvent(eventBean, matches, stmtCallbacks, queues);
+        }
+    }
+
+    private void processWrappedEvent(EventBean eventBean, ArrayBackedCollection<FilterHandle> matches, Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks, DualWorkQueue queues) {
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qStimulantEvent(eventBean, services.getEngineURI());
         }
@@ -449,9 +542,10 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
         services.getEventProcessingRWLock().acquireReadLock();
         try {
-            processMatches(eventBean);
+            processMatches(eventBean, matches, stmtCallbacks);
         } catch (RuntimeException ex) {
-            matchesArrayThreadLocal.get().clear();
+            matches.clear();
+            stmtCallbacks.clear();
             throw new EPException(ex);
         } finally {
             services.getEventProcessingRWLock().releaseReadLock();
@@ -465,7 +559,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         dispatch();
 
         // Work off the event queue if any events accumulated in there via a route() or insert-into
-        processThreadWorkQueue();
+        processThreadWorkQueue(queues);
 
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().aStimulantEvent();
@@ -730,8 +824,10 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
      * Works off the thread's work queue.
      */
     public void processThreadWorkQueue() {
-        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+        processThreadWorkQueue(threadWorkQueue.getThreadQueue());
+    }
 
+    private void processThreadWorkQueue(DualWorkQueue queues) {
         if (queues.getFrontQueue().isEmpty()) {
             boolean haveDispatched = services.getNamedWindowDispatchService().dispatch();
             if (haveDispatched) {
@@ -861,8 +957,19 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     }
 
     protected void processMatches(EventBean theEvent) {
+        processMatches(theEvent, matchesArrayThreadLocal.get(), matchesPerStmtThreadLocal.get());
+    }
+
+    /**
+     * Evaluate filters for the event and process statement matches, using the collections provided
+     * as working storage.
+     *
+     * @param theEvent      to process
+     * @param matches       thread-local collection receiving filter matches
+     * @param stmtCallbacks thread-local map for sorting matches per statement
+     */
+    protected void processMatches(EventBean theEvent, ArrayBackedCollection<FilterHandle> matches, Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks) {
         // get matching filters
-        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
         long version = services.getFilterService().evaluate(theEvent, matches);
 
         if (ThreadLogUtil.ENABLED_TRACE) {
@@ -884,7 +991,6 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             return;
         }
 
-        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
         Object[] matchArray = matches.getArray();
         int entryCount = matches.size();
 
@@ -980,6 +1086,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             InstrumentationHelper.get().qTimeCP(handle, services.getSchedulingService().getTime());
         }
         handle.getStatementAgentInstanceLock().acquireWriteLock();
+        services.getFilterService().beginDeferredChanges(handle);
         try {
             if (!handle.isDestroyed()) {
                 if (handle.isHasVariables()) {
@@ -1005,7 +1112,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             if (handle.isHasTableAccess()) {
                 services.getTableService().getTableExprEvaluatorContext().releaseAcquiredLocks();
             }
-            handle.getStatementAgentInstanceLock().releaseWriteLock();
+            endDeferredChangesAndRelease(services.getFilterService(), handle.getStatementAgentInstanceLock());
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aTimeCP();
             }
@@ -1024,6 +1131,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
         StatementAgentInstanceLock statementLock = handle.getAgentInstanceHandle().getStatementAgentInstanceLock();
         statementLock.acquireWriteLock();
+        services.getFilterService().beginDeferredChanges(handle.getAgentInstanceHandle());
         try {
             if (!handle.getAgentInstanceHandle().isDestroyed()) {
                 if (handle.getAgentInstanceHandle().isHasVariables()) {
@@ -1039,7 +1147,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             if (handle.getAgentInstanceHandle().isHasTableAccess()) {
                 services.getTableService().getTableExprEvaluatorContext().releaseAcquiredLocks();
             }
-            handle.getAgentInstanceHandle().getStatementAgentInstanceLock().releaseWriteLock();
+            endDeferredChangesAndRelease(services.getFilterService(), handle.getAgentInstanceHandle().getStatementAgentInstanceLock());
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aTimeCP();
             }
@@ -1059,6 +1167,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             InstrumentationHelper.get().qEventCP(theEvent, handle, services.getSchedulingService().getTime());
         }
         handle.getStatementAgentInstanceLock().acquireWriteLock();
+        services.getFilterService().beginDeferredChanges(handle);
         try {
             if (handle.isHasVariables()) {
                 services.getVariableService().setLocalVersion();
@@ -1089,7 +1198,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             if (handle.isHasTableAccess()) {
                 services.getTableService().getTableExprEvaluatorContext().releaseAcquiredLocks();
             }
-            handle.getStatementAgentInstanceLock().releaseWriteLock();
+            endDeferredChangesAndRelease(services.getFilterService(), handle.getStatementAgentInstanceLock());
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aEventCP();
             }
@@ -1109,6 +1218,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             InstrumentationHelper.get().qEventCP(theEvent, handle, services.getSchedulingService().getTime());
         }
         handle.getStatementAgentInstanceLock().acquireWriteLock();
+        services.getFilterService().beginDeferredChanges(handle);
         try {
             if (handle.isHasVariables()) {
                 services.getVariableService().setLocalVersion();
@@ -1133,13 +1243,28 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             if (handle.isHasTableAccess()) {
                 services.getTableService().getTableExprEvaluatorContext().releaseAcquiredLocks();
             }
-            handleCallback.getAgentInstanceHandle().getStatementAgentInstanceLock().releaseWriteLock();
+            endDeferredChangesAndRelease(services.getFilterService(), handleCallback.getAgentInstanceHandle().getStatementAgentInstanceLock());
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aEventCP();
             }
         }
     }
 
+    /**
+     * Publishes the filter changes deferred while the statement lock was held and releases the lock,
+     * also when publishing fails.
+     *
+     * @param filterService filter service
+     * @param lock          statement lock held by the current thread
+     */
+    protected static void endDeferredChangesAndRelease(FilterServiceSPI filterService, StatementAgentInstanceLock lock) {
+        try {
+            filterService.endDeferredChanges();
+        } finally {
+            lock.releaseWriteLock();
+        }
+    }
+
     protected void handleFilterFault(EPStatementAgentInstanceHandle faultingHandle, EventBean theEvent) {
         ArrayDeque<FilterHandle> callbacksForStatement = new ArrayDeque<FilterHandle>();
         long version = services.getFilterService().evaluate(theEvent, callbacksForStatement, faultingHandle.getStatementId());
@@ -1210,6 +1335,15 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    /**
+     * Returns the per-thread work queue of events routed by insert-into and by the route method.
+     *
+     * @return work queue
+     */
+    public ThreadWorkQueue getThreadWorkQueue() {
+        return threadWorkQueue;
+    }
+
     public boolean isExternalClockingEnabled() {
         return isUsingExternalClocking;
     }
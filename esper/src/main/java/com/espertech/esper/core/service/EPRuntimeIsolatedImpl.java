@@ -196,6 +196,17 @@ public class EPRuntimeIsolatedImpl implements EPRuntimeIsolatedSPI, InternalEven
         processThreadWorkQueue();
     }
 
+    /**
+     * Process wrapped events in array order.
+     *
+     * @param eventBeans to process
+     */
+    public void processWrappedEvents(EventBean[] eventBeans) {
+        for (EventBean eventBean : eventBeans) {
+            processWrappedEvent(eventBean);
+        }
+    }
+
     private void processTimeEvent(TimerEvent theEvent) {
         if (theEvent instanceof TimerControlEvent) {
             TimerControlEvent tce = (TimerControlEvent) theEvent;
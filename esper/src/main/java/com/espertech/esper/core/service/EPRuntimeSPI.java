@@ -99,6 +99,8 @@ public interface EPRuntimeSPI extends EPRuntime {
 
     public void processWrappedEvent(EventBean eventBean);
 
+    public void processWrappedEvents(EventBean[] eventBeans);
+
     public String getEngineURI();
 
     /**
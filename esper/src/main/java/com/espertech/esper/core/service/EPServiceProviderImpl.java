@@ -392,7 +392,9 @@ public class EPServiceProviderImpl implements EPServiceProviderSPI {
                 configSnapshot.getEngineDefaults().getThreading().isThreadPoolTimerExec() ||
                 configSnapshot.getEngineDefaults().getThreading().isThreadPoolInbound() ||
                 configSnapshot.getEngineDefaults().getThreading().isThreadPoolRouteExec() ||
-                configSnapshot.getEngineDefaults().getThreading().isThreadPoolOutbound());
+                configSnapshot.getEngineDefaults().getThreading().isThreadPoolOutbound() ||
+                configSnapshot.getEngineDefaults().getThreading().isThreadPoolNamedWindowDispatch() ||
+                configSnapshot.getEngineDefaults().getThreading().isThreadPoolHistoricalPoll());
 
         if (engine != null) {
             engine.getServices().getTimerService().stopInternalClock(false);
@@ -32,6 +32,7 @@ import com.espertech.esper.epl.script.AgentInstanceScriptContext;
 import com.espertech.esper.epl.spec.*;
 import com.espertech.esper.filter.FilterServiceSPI;
 import com.espertech.esper.pattern.*;
+import com.espertech.esper.pattern.pool.PatternStateNodeRecycler;
 import com.espertech.esper.pattern.pool.PatternSubexpressionPoolStmtHandler;
 import com.espertech.esper.pattern.pool.PatternSubexpressionPoolStmtSvc;
 import com.espertech.esper.rowregex.MatchRecognizeStatePoolStmtHandler;
@@ -197,11 +198,13 @@ public class StatementContextFactoryDefault implements StatementContextFactory {
         }
 
         boolean countSubexpressions = engineServices.getConfigSnapshot().getEngineDefaults().getPatterns().getMaxSubexpressions() != null;
-        PatternSubexpressionPoolStmtSvc patternSubexpressionPoolStmtSvc = null;
+        PatternSubexpressionPoolStmtSvc patternSubexpressionPoolStmtSvc;
         if (countSubexpressions) {
             PatternSubexpressionPoolStmtHandler stmtCounter = new PatternSubexpressionPoolStmtHandler();
-            patternSubexpressionPoolStmtSvc = new PatternSubexpressionPoolStmtSvc(engineServices.getPatternSubexpressionPoolSvc(), stmtCounter);
+            patternSubexpressionPoolStmtSvc = new PatternSubexpressionPoolStmtSvc(engineServices.getPatternSubexpressionPoolSvc(), stmtCounter, new PatternStateNodeRecycler());
             engineServices.getPatternSubexpressionPoolSvc().addPatternContext(statementName, stmtCounter);
+        } else {
+            patternSubexpressionPoolStmtSvc = new PatternSubexpressionPoolStmtSvc(null, null, new PatternStateNodeRecycler());
         }
 
         boolean countMatchRecogStates = engineServices.getConfigSnapshot().getEngineDefaults().getMatchRecognize().getMaxStates() != null;
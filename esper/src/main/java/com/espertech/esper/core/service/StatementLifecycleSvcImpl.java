@@ -374,8 +374,10 @@ public class StatementLifecycleSvcImpl implements StatementLifecycleSvc {
         eventProcessingRWLock.acquireWriteLock();
         try {
             // create statement - may fail for parser and simple validation errors
-            boolean preserveDispatchOrder = services.getEngineSettingsService().getEngineSettings().getThreading().isListenerDispatchPreserveOrder()
-                    && !stateless;
+            // stateless statements may receive named window results from multiple consumer dispatch threads
+            ConfigurationEngineDefaults.Threading threading = services.getEngineSettingsService().getEngineSettings().getThreading();
+            boolean preserveDispatchOrder = threading.isListenerDispatchPreserveOrder()
+                    && (!stateless || threading.isThreadPoolNamedWindowDispatch());
             boolean isSpinLocks = services.getEngineSettingsService().getEngineSettings().getThreading().getListenerDispatchLocking() == ConfigurationEngineDefaults.Threading.Locking.SPIN;
             long blockingTimeout = services.getEngineSettingsService().getEngineSettings().getThreading().getListenerDispatchTimeout();
             long timeLastStateChange = services.getSchedulingService().getTime();
@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.core.service;
 
+import com.espertech.esper.epl.join.plan.QueryPlanStatistics;
 import com.espertech.esper.epl.table.mgmt.TableMetadata;
 import com.espertech.esper.epl.virtualdw.VirtualDWViewProviderForAgentInstance;
 import com.espertech.esper.view.ViewFactoryChain;
@@ -32,6 +33,7 @@ public class StreamJoinAnalysisResult {
     private String[][][] uniqueKeys;
     private TableMetadata[] tablesPerStream;
     private boolean unidirectionalAll;
+    private QueryPlanStatistics statistics;
 
     /**
      * Ctor.
@@ -165,6 +167,24 @@ public class StreamJoinAnalysisResult {
         return tablesPerStream;
     }
 
+    /**
+     * Returns cardinality statistics for cost-based planning of a fire-and-forget join, or null when planning by rules.
+     *
+     * @return statistics
+     */
+    public QueryPlanStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Sets cardinality statistics for cost-based planning of a fire-and-forget join.
+     *
+     * @param statistics statistics or null to plan by rules
+     */
+    public void setStatistics(QueryPlanStatistics statistics) {
+        this.statistics = statistics;
+    }
+
     public void addUniquenessInfo(ViewFactoryChain[] unmaterializedViewChain, Annotation[] annotations) {
         for (int i = 0; i < unmaterializedViewChain.length; i++) {
             if (unmaterializedViewChain[i].getDataWindowViewFactoryCount() > 0) {
@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.core.start;
 
+import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.context.ContextPartitionSelector;
@@ -28,6 +29,7 @@ import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.expression.table.ExprTableAccessNode;
 import com.espertech.esper.epl.join.base.*;
+import com.espertech.esper.epl.join.plan.QueryPlanStatistics;
 import com.espertech.esper.epl.spec.NamedWindowConsumerStreamSpec;
 import com.espertech.esper.epl.spec.StatementSpecCompiled;
 import com.espertech.esper.epl.spec.StreamSpecCompiled;
@@ -63,6 +65,14 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
     private JoinSetComposerPrototype joinSetComposerPrototype;
     private final FilterSpecCompiled[] filters;
     private boolean hasTableAccess;
+    private final boolean costBasedPlanning;
+    private EventType[] joinTypesPerStream;
+    private String[] joinNamesPerStream;
+    private StreamJoinAnalysisResult joinAnalysisResult;
+    private boolean joinHasAggregations;
+    private boolean joinQueryPlanLogging;
+    private StatementContext joinStatementContext;
+    private QueryPlanStatistics plannedStatistics;
 
     /**
      * Ctor.
@@ -89,6 +99,7 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
 
         this.statementSpec = statementSpec;
         this.services = services;
+        this.costBasedPlanning = services.getConfigSnapshot().getEngineDefaults().getExecution().isFireAndForgetCostBasedPlanning();
 
         EPPreparedExecuteMethodHelper.validateFAFQuery(statementSpec);
 
@@ -170,13 +181,43 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
                 streamJoinAnalysisResult.getUniqueKeys()[i] = uniqueIndexes;
             }
 
-            boolean hasAggregations = !resultSetProcessorPrototype.getAggregationServiceFactoryDesc().getExpressions().isEmpty();
-            joinSetComposerPrototype = JoinSetComposerPrototypeFactory.makeComposerPrototype(null, -1,
-                    statementSpec.getOuterJoinDescList(), statementSpec.getFilterRootNode(), typesPerStream, namesPerStream,
-                    streamJoinAnalysisResult, queryPlanLogging, statementContext, new HistoricalViewableDesc(numStreams), agentInstanceContext, false, hasAggregations, services.getTableService(), true, services.getEventTableIndexService().allowInitIndex(false));
+            joinTypesPerStream = typesPerStream;
+            joinNamesPerStream = namesPerStream;
+            joinAnalysisResult = streamJoinAnalysisResult;
+            joinHasAggregations = !resultSetProcessorPrototype.getAggregationServiceFactoryDesc().getExpressions().isEmpty();
+            joinQueryPlanLogging = queryPlanLogging;
+            joinStatementContext = statementContext;
+            joinSetComposerPrototype = makeJoinPrototype(null);
         }
     }
 
+    private JoinSetComposerPrototype makeJoinPrototype(QueryPlanStatistics statistics) throws ExprValidationException {
+        joinAnalysisResult.setStatistics(statistics);
+        return JoinSetComposerPrototypeFactory.makeComposerPrototype(null, -1,
+                statementSpec.getOuterJoinDescList(), statementSpec.getFilterRootNode(), joinTypesPerStream, joinNamesPerStream,
+                joinAnalysisResult, joinQueryPlanLogging, joinStatementContext, new HistoricalViewableDesc(joinTypesPerStream.length), agentInstanceContext, false, joinHasAggregations, services.getTableService(), true, services.getEventTableIndexService().allowInitIndex(false));
+    }
+
+    /**
+     * Returns the join plan for the number of events per stream, planning when executing first and planning again
+     * when the number of events of any stream drifted significantly from the number of events that were planned for.
+     *
+     * @param cardinalities number of events per stream
+     * @return join plan
+     */
+    private synchronized JoinSetComposerPrototype getCostBasedJoinPrototype(long[] cardinalities) {
+        if (plannedStatistics == null || plannedStatistics.isDrifted(cardinalities)) {
+            QueryPlanStatistics statistics = new QueryPlanStatistics(cardinalities);
+            try {
+                joinSetComposerPrototype = makeJoinPrototype(statistics);
+            } catch (ExprValidationException ex) {
+                throw new EPException("Failed to plan join: " + ex.getMessage(), ex);
+            }
+            plannedStatistics = statistics;
+        }
+        return joinSetComposerPrototype;
+    }
+
     /**
      * Returns the event type of the prepared statement.
      *
@@ -315,7 +356,16 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
                 viewablePerStream[i] = instance.getTailViewInstance();
             }
 
-            JoinSetComposerDesc joinSetComposerDesc = joinSetComposerPrototype.create(viewablePerStream, true, agentInstanceContext, false);
+            JoinSetComposerPrototype prototype = joinSetComposerPrototype;
+            if (costBasedPlanning) {
+                long[] cardinalities = new long[numStreams];
+                for (int i = 0; i < numStreams; i++) {
+                    cardinalities[i] = snapshots[i].size();
+                }
+                prototype = getCostBasedJoinPrototype(cardinalities);
+            }
+
+            JoinSetComposerDesc joinSetComposerDesc = prototype.create(viewablePerStream, true, agentInstanceContext, false);
             JoinSetComposer joinComposer = joinSetComposerDesc.getJoinSetComposer();
             JoinSetFilter joinFilter;
             if (joinSetComposerDesc.getPostJoinFilterEvaluator() != null) {
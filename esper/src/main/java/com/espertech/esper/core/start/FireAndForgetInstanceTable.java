@@ -38,7 +38,7 @@ public class FireAndForgetInstanceTable extends FireAndForgetInstance {
     }
 
     public EventBean[] processInsert(EPPreparedExecuteIUDSingleStreamExecInsert insert) {
-        ExprTableEvalLockUtil.obtainLockUnless(instance.getTableLevelRWLock().writeLock(), insert.getServices().getTableService().getTableExprEvaluatorContext());
+        ExprTableEvalLockUtil.obtainLockUnless(instance.getTableLevelLockWrite(), insert.getServices().getTableService().getTableExprEvaluatorContext());
         EventBean theEvent = insert.getInsertHelper().process(new EventBean[0], true, true, insert.getExprEvaluatorContext());
         AggregationRowPair aggs = instance.getTableMetadata().getRowFactory().makeAggs(insert.getExprEvaluatorContext().getAgentInstanceId(), null, null, instance.getAggregationServicePassThru());
         ((Object[]) theEvent.getUnderlying())[0] = aggs;
@@ -47,7 +47,7 @@ public class FireAndForgetInstanceTable extends FireAndForgetInstance {
     }
 
     public EventBean[] processDelete(EPPreparedExecuteIUDSingleStreamExecDelete delete) {
-        ExprTableEvalLockUtil.obtainLockUnless(instance.getTableLevelRWLock().writeLock(), delete.getServices().getTableService().getTableExprEvaluatorContext());
+        ExprTableEvalLockUtil.obtainLockUnless(instance.getTableLevelLockWrite(), delete.getServices().getTableService().getTableExprEvaluatorContext());
 
         if (delete.getOptionalWhereClause() == null) {
             instance.clearInstance();
@@ -62,7 +62,7 @@ public class FireAndForgetInstanceTable extends FireAndForgetInstance {
     }
 
     public EventBean[] processUpdate(EPPreparedExecuteIUDSingleStreamExecUpdate update) {
-        ExprTableEvalLockUtil.obtainLockUnless(instance.getTableLevelRWLock().writeLock(), update.getServices().getTableService().getTableExprEvaluatorContext());
+        ExprTableEvalLockUtil.obtainLockUnless(instance.getTableLevelLockWrite(), update.getServices().getTableService().getTableExprEvaluatorContext());
         Collection<EventBean> events = snapshotAndApplyFilter(update.getFilter(), update.getAnnotations(), update.getOptionalWhereClause(), instance.getAgentInstanceContext());
 
         if (events != null && events.isEmpty()) {
@@ -79,7 +79,7 @@ public class FireAndForgetInstanceTable extends FireAndForgetInstance {
     }
 
     public Collection<EventBean> snapshotBestEffort(EPPreparedExecuteMethodQuery query, FilterSpecCompiled filter, Annotation[] annotations) {
-        ExprTableEvalLockUtil.obtainLockUnless(instance.getTableLevelRWLock().readLock(), query.getAgentInstanceContext());
+        ExprTableEvalLockUtil.obtainLockUnless(instance.getTableLevelLockRead(), query.getAgentInstanceContext());
         Collection<EventBean> events = snapshotNullWhenNoIndex(filter, annotations, null, null);
         if (events != null) {
             return events;
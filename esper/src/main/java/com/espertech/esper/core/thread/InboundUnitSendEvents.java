@@ -0,0 +1,45 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.core.service.EPRuntimeImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Inbound unit for a batch of unwrapped events.
+ */
+public class InboundUnitSendEvents implements InboundUnitRunnable {
+    private static final Logger log = LoggerFactory.getLogger(InboundUnitSendEvents.class);
+    private final List<?> events;
+    private final EPRuntimeImpl runtime;
+
+    /**
+     * Ctor.
+     *
+     * @param events  to process
+     * @param runtime to process events
+     */
+    public InboundUnitSendEvents(List<?> events, EPRuntimeImpl runtime) {
+        this.events = events;
+        this.runtime = runtime;
+    }
+
+    public void run() {
+        try {
+            runtime.processEvents(events);
+        } catch (RuntimeException e) {
+            log.error("Unexpected error processing unwrapped event batch: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.service.EPRuntimeEventSender;
+import com.espertech.esper.core.service.EPRuntimeImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Inbound work unit preallocated per slot of a ring buffer, processing either an unwrapped or a wrapped event.
+ */
+public class InboundUnitSendSlot extends RingBufferSlotUnit implements InboundUnitRunnable {
+    private static final Logger log = LoggerFactory.getLogger(InboundUnitSendSlot.class);
+    private Object theEvent;
+    private EPRuntimeImpl runtime;
+    private EventBean eventBean;
+    private EPRuntimeEventSender sender;
+
+    /**
+     * Sets an unwrapped event.
+     *
+     * @param theEvent to process
+     * @param runtime  to process event
+     */
+    public void setEvent(Object theEvent, EPRuntimeImpl runtime) {
+        this.theEvent = theEvent;
+        this.runtime = runtime;
+    }
+
+    /**
+     * Sets a wrapped event.
+     *
+     * @param eventBean inbound event, wrapped
+     * @param sender    to process
+     */
+    public void setWrapped(EventBean eventBean, EPRuntimeEventSender sender) {
+        this.eventBean = eventBean;
+        this.sender = sender;
+    }
+
+    protected void process() {
+        try {
+            if (eventBean != null) {
+                sender.processWrappedEvent(eventBean);
+            } else {
+                runtime.processEvent(theEvent);
+            }
+        } catch (RuntimeException e) {
+            log.error("Unexpected error processing event: " + e.getMessage(), e);
+        }
+    }
+
+    protected void clear() {
+        theEvent = null;
+        runtime = null;
+        eventBean = null;
+        sender = null;
+    }
+}
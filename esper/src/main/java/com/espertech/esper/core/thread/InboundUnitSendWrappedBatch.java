@@ -0,0 +1,62 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.service.EPRuntimeEventSender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Inbound unit for a batch of wrapped events.
+ */
+public class InboundUnitSendWrappedBatch implements InboundUnitRunnable {
+    private static final Logger log = LoggerFactory.getLogger(InboundUnitSendWrappedBatch.class);
+    private final EventBean[] eventBeans;
+    private final EPRuntimeEventSender runtime;
+
+    /**
+     * Ctor.
+     *
+     * @param eventBeans inbound events, wrapped
+     * @param runtime    to process
+     */
+    public InboundUnitSendWrappedBatch(EventBean[] eventBeans, EPRuntimeEventSender runtime) {
+        this.eventBeans = eventBeans;
+        this.runtime = runtime;
+    }
+
+    /**
+     * Returns the wrapped events.
+     *
+     * @return events
+     */
+    public EventBean[] getEventBeans() {
+        return eventBeans;
+    }
+
+    /**
+     * Returns the runtime.
+     *
+     * @return runtime
+     */
+    public EPRuntimeEventSender getRuntime() {
+        return runtime;
+    }
+
+    public void run() {
+        try {
+            runtime.processWrappedEvents(eventBeans);
+        } catch (RuntimeException e) {
+            log.error("Unexpected error processing wrapped event batch: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Bounded blocking queue backed by a preallocated ring buffer of slots, for use as the work queue of engine thread pools.
+ * <p>
+ * Unlike a linked blocking queue no node is allocated per element: each slot carries a sequence number that
+ * tells producers and consumers whether the slot is free or filled, and slots are reused as the sequence wraps.
+ * Producers and consumers claim slots by compare-and-set on the respective cursor and therefore
+ * multiple threads may send events and multiple pool threads may take work units.
+ * <p>
+ * When constructed with a slot unit factory, each slot also carries a preallocated {@link RingBufferSlotUnit}:
+ * producers {@link #claim()} the unit of the next free slot, fill it and {@link #publish(RingBufferSlotUnit)} it,
+ * so that no work unit is allocated per element. Such a slot becomes free only when its unit has run and not already
+ * when the unit is taken, therefore a unit is never refilled while a pool thread executes it.
+ * Elements other than slot units can still be offered.
+ * <p>
+ * Threads that find the buffer full (producers) or empty (consumers) wait according to the configured wait strategy
+ * and respond to interruption, as required by thread pool shutdown.
+ * The busy-spin strategy spins for a bounded number of attempts and then parks between attempts,
+ * so that idle pool threads do not keep a CPU busy indefinitely.
+ */
+public class RingBufferBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+    private static final long PARK_NANOS = 50000;
+    private static final int YIELD_TRIES = 100;
+    private static final int BUSY_SPIN_TRIES = 1 << 20;
+
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong producerCursor = new AtomicLong();
+    private final AtomicLong consumerCursor = new AtomicLong();
+    private final ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy waitStrategy;
+    private final RingBufferSlotUnit[] slotUnits;
+
+    /**
+     * Ctor.
+     *
+     * @param capacity     minimum capacity, rounded up to the next power of two
+     * @param waitStrategy for waiting when the buffer is full or empty
+     */
+    public RingBufferBlockingQueue(int capacity, ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy waitStrategy) {
+        this(capacity, waitStrategy, null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param capacity         minimum capacity, rounded up to the next power of two
+     * @param waitStrategy     for waiting when the buffer is full or empty
+     * @param slotUnitFactory  factory for the unit preallocated per slot, or null when units are not preallocated
+     */
+    public RingBufferBlockingQueue(int capacity, ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy waitStrategy, Supplier<? extends RingBufferSlotUnit> slotUnitFactory) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+        if (slotUnitFactory == null) {
+            this.slotUnits = null;
+        } else {
+            this.slotUnits = new RingBufferSlotUnit[size];
+            for (int i = 0; i < size; i++) {
+                slotUnits[i] = slotUnitFactory.get();
+                slotUnits[i].assign(this);
+            }
+        }
+    }
+
+    /**
+     * Claims the next free slot and returns its preallocated unit, waiting while the buffer is full.
+     * The caller must fill the unit and then {@link #publish(RingBufferSlotUnit)} it.
+     *
+     * @return unit of the claimed slot
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public RingBufferSlotUnit claim() throws InterruptedException {
+        if (slotUnits == null) {
+            throw new IllegalStateException("Queue does not preallocate slot units");
+        }
+        int attempt = 0;
+        while (true) {
+            long pos = producerCursor.get();
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (producerCursor.compareAndSet(pos, pos + 1)) {
+                    RingBufferSlotUnit unit = slotUnits[index];
+                    unit.setSequence(pos);
+                    return unit;
+                }
+            } else if (diff < 0) {
+                attempt = waitFor(attempt);
+            }
+        }
+    }
+
+    /**
+     * Publishes a claimed and filled unit, making it available to consumers.
+     *
+     * @param unit claimed unit
+     */
+    public void publish(RingBufferSlotUnit unit) {
+        long pos = unit.getSequence();
+        int index = (int) pos & mask;
+        slots[index] = unit;
+        sequences.lazySet(index, pos + 1);
+    }
+
+    /**
+     * Frees the slot of a unit that has run or was discarded.
+     *
+     * @param unit to release
+     */
+    void release(RingBufferSlotUnit unit) {
+        long pos = unit.getSequence();
+        sequences.lazySet((int) pos & mask, pos + mask + 1);
+    }
+
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        while (true) {
+            long pos = producerCursor.get();
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (producerCursor.compareAndSet(pos, pos + 1)) {
+                    slots[index] = e;
+                    sequences.lazySet(index, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+        }
+    }
+
+    public E poll() {
+        while (true) {
+            long pos = consumerCursor.get();
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (consumerCursor.compareAndSet(pos, pos + 1)) {
+                    E e = (E) slots[index];
+                    slots[index] = null;
+                    if (slotUnits == null || e != slotUnits[index]) {
+                        sequences.lazySet(index, pos + mask + 1);
+                    }
+                    return e;
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+        }
+    }
+
+    public E peek() {
+        long pos = consumerCursor.get();
+        int index = (int) pos & mask;
+        if (sequences.get(index) != pos + 1) {
+            return null;
+        }
+        return (E) slots[index];
+    }
+
+    public void put(E e) throws InterruptedException {
+        int attempt = 0;
+        while (!offer(e)) {
+            attempt = waitFor(attempt);
+        }
+    }
+
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int attempt = 0;
+        while (!offer(e)) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            attempt = waitFor(attempt);
+        }
+        return true;
+    }
+
+    public E take() throws InterruptedException {
+        int attempt = 0;
+        while (true) {
+            E e = poll();
+            if (e != null) {
+                return e;
+            }
+            attempt = waitFor(attempt);
+        }
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int attempt = 0;
+        while (true) {
+            E e = poll();
+            if (e != null) {
+                return e;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return null;
+            }
+            attempt = waitFor(attempt);
+        }
+    }
+
+    /**
+     * Removes all elements, releasing the slots of units that are removed without having run.
+     */
+    public void clear() {
+        E e;
+        while ((e = poll()) != null) {
+            if (e instanceof RingBufferSlotUnit && ((RingBufferSlotUnit) e).getQueue() == this) {
+                ((RingBufferSlotUnit) e).discard();
+            }
+        }
+    }
+
+    public int remainingCapacity() {
+        return slots.length - size();
+    }
+
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        int count = 0;
+        while (count < maxElements) {
+            E e = poll();
+            if (e == null) {
+                break;
+            }
+            c.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    public int size() {
+        while (true) {
+            long consumed = consumerCursor.get();
+            long produced = producerCursor.get();
+            if (consumed == consumerCursor.get()) {
+                long size = produced - consumed;
+                if (size < 0) {
+                    return 0;
+                }
+                return size > slots.length ? slots.length : (int) size;
+            }
+        }
+    }
+
+    /**
+     * Returns a weakly-consistent iterator over a snapshot of the elements, not supporting removal.
+     *
+     * @return iterator
+     */
+    public Iterator<E> iterator() {
+        List<E> snapshot = new ArrayList<E>();
+        long pos = consumerCursor.get();
+        long end = producerCursor.get();
+        for (; pos < end; pos++) {
+            int index = (int) pos & mask;
+            Object e = slots[index];
+            if (sequences.get(index) == pos + 1 && e != null) {
+                snapshot.add((E) e);
+            }
+        }
+        final Iterator<E> it = snapshot.iterator();
+        return new Iterator<E>() {
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            public E next() {
+                return it.next();
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException("Remove not supported");
+            }
+        };
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    private int waitFor(int attempt) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        switch (waitStrategy) {
+            case BUSY_SPIN:
+                if (attempt < BUSY_SPIN_TRIES) {
+                    return attempt + 1;
+                }
+                LockSupport.parkNanos(this, PARK_NANOS);
+                return attempt;
+            case YIELD:
+                Thread.yield();
+                return attempt;
+            default:
+                if (attempt < YIELD_TRIES) {
+                    Thread.yield();
+                    return attempt + 1;
+                }
+                LockSupport.parkNanos(this, PARK_NANOS);
+                return attempt;
+        }
+    }
+}
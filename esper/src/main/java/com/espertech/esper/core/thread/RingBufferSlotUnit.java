@@ -0,0 +1,64 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+/**
+ * Work unit that is preallocated for a slot of a {@link RingBufferBlockingQueue} and reused each time the slot is filled.
+ * <p>
+ * The slot is released for reuse only after the unit has run, so that a producer never refills a unit
+ * that a pool thread is still executing.
+ */
+public abstract class RingBufferSlotUnit implements Runnable {
+    private RingBufferBlockingQueue<?> queue;
+    private long sequence;
+
+    /**
+     * Performs the work of the unit.
+     */
+    protected abstract void process();
+
+    /**
+     * Clears references held by the unit, before the slot is reused.
+     */
+    protected abstract void clear();
+
+    public final void run() {
+        try {
+            process();
+        } finally {
+            discard();
+        }
+    }
+
+    /**
+     * Clears the unit and releases its slot, without performing the work.
+     */
+    protected final void discard() {
+        clear();
+        queue.release(this);
+    }
+
+    void assign(RingBufferBlockingQueue<?> queue) {
+        this.queue = queue;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    RingBufferBlockingQueue<?> getQueue() {
+        return queue;
+    }
+}
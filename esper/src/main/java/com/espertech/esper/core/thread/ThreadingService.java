@@ -10,6 +10,8 @@
  */
 package com.espertech.esper.core.thread;
 
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.service.EPRuntimeEventSender;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 
@@ -54,6 +56,15 @@ public interface ThreadingService {
      */
     public boolean isInboundThreading();
 
+    /**
+     * Returns true when inbound threading assigns events to inbound threads by key property value, i.e.
+     * each inbound thread has its own queue and events of the same key are processed in order.
+     * Callers that submit unwrapped events should wrap the events before submitting so that the key can be obtained.
+     *
+     * @return indicator
+     */
+    public boolean isInboundThreadingKeyed();
+
     /**
      * Submit inbound work unit.
      *
@@ -61,6 +72,30 @@ public interface ThreadingService {
      */
     public void submitInbound(InboundUnitRunnable unit);
 
+    /**
+     * Returns true when the inbound work queue preallocates a work unit per slot, i.e. submitting events individually
+     * through {@link #submitInboundEvent} or {@link #submitInboundWrapped} does not allocate a work unit per event.
+     *
+     * @return indicator
+     */
+    public boolean isInboundUnitPreallocated();
+
+    /**
+     * Submit an unwrapped inbound event, reusing a preallocated work unit if available.
+     *
+     * @param theEvent event to process
+     * @param runtime  runtime to process the event
+     */
+    public void submitInboundEvent(Object theEvent, EPRuntimeImpl runtime);
+
+    /**
+     * Submit a wrapped inbound event, reusing a preallocated work unit if available.
+     *
+     * @param theEvent event to process
+     * @param sender   sender to process the event
+     */
+    public void submitInboundWrapped(EventBean theEvent, EPRuntimeEventSender sender);
+
     /**
      * Returns true for route execution threading enabled.
      *
@@ -75,6 +110,34 @@ public interface ThreadingService {
      */
     public void submitRoute(RouteUnitRunnable unit);
 
+    /**
+     * Returns true for named window consumer dispatch threading enabled.
+     *
+     * @return indicator
+     */
+    public boolean isNamedWindowDispatchThreading();
+
+    /**
+     * Submit named window consumer dispatch work unit.
+     *
+     * @param unit unit of work
+     */
+    public void submitNamedWindowDispatch(NamedWindowDispatchUnitRunnable unit);
+
+    /**
+     * Returns true for historical poll threading enabled.
+     *
+     * @return indicator
+     */
+    public boolean isHistoricalPollThreading();
+
+    /**
+     * Submit historical poll work unit.
+     *
+     * @param unit unit of work
+     */
+    public void submitHistoricalPoll(HistoricalPollUnitRunnable unit);
+
     /**
      * Returns true for outbound threading enabled.
      *
@@ -117,6 +180,34 @@ public interface ThreadingService {
      */
     public ThreadPoolExecutor getRouteThreadPool();
 
+    /**
+     * Returns the named window consumer dispatch queue.
+     *
+     * @return queue
+     */
+    public BlockingQueue<Runnable> getNamedWindowDispatchQueue();
+
+    /**
+     * Returns the named window consumer dispatch thread pool
+     *
+     * @return thread pool
+     */
+    public ThreadPoolExecutor getNamedWindowDispatchThreadPool();
+
+    /**
+     * Returns the historical poll queue.
+     *
+     * @return queue
+     */
+    public BlockingQueue<Runnable> getHistoricalPollQueue();
+
+    /**
+     * Returns the historical poll thread pool
+     *
+     * @return thread pool
+     */
+    public ThreadPoolExecutor getHistoricalPollThreadPool();
+
     /**
      * Returns the timer queue.
      *
@@ -132,14 +223,14 @@ public interface ThreadingService {
     public ThreadPoolExecutor getTimerThreadPool();
 
     /**
-     * Returns the inbound queue.
+     * Returns the inbound queue, or for keyed inbound threading the queue of the first inbound thread.
      *
      * @return queue
      */
     public BlockingQueue<Runnable> getInboundQueue();
 
     /**
-     * Returns the inbound thread pool
+     * Returns the inbound thread pool, or for keyed inbound threading the pool of the first inbound thread.
      *
      * @return thread pool
      */
@@ -11,34 +11,54 @@
 package com.espertech.esper.core.thread;
 
 import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.service.EPRuntimeEventSender;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.function.Supplier;
 
 /**
  * Implementation for engine-level threading.
  */
 public class ThreadingServiceImpl implements ThreadingService {
     private static final Logger log = LoggerFactory.getLogger(ThreadingServiceImpl.class);
+    private static final int DEFAULT_RING_BUFFER_CAPACITY = 16384;
 
     private final ConfigurationEngineDefaults.Threading config;
     private final boolean isTimerThreading;
     private final boolean isInboundThreading;
     private final boolean isRouteThreading;
     private final boolean isOutboundThreading;
+    private final boolean isNamedWindowDispatchThreading;
+    private final boolean isHistoricalPollThreading;
+    private final String inboundKeyProperty;
 
     private BlockingQueue<Runnable> timerQueue;
     private BlockingQueue<Runnable> inboundQueue;
     private BlockingQueue<Runnable> routeQueue;
     private BlockingQueue<Runnable> outboundQueue;
+    private BlockingQueue<Runnable> namedWindowDispatchQueue;
+    private BlockingQueue<Runnable> historicalPollQueue;
 
     private ThreadPoolExecutor timerThreadPool;
     private ThreadPoolExecutor inboundThreadPool;
     private ThreadPoolExecutor routeThreadPool;
     private ThreadPoolExecutor outboundThreadPool;
+    private ThreadPoolExecutor namedWindowDispatchThreadPool;
+    private ThreadPoolExecutor historicalPollThreadPool;
+
+    private BlockingQueue<Runnable>[] inboundLaneQueues;
+    private ThreadPoolExecutor[] inboundLaneThreadPools;
+    private boolean isInboundUnitPreallocated;
+    private final ConcurrentHashMap<EventType, EventPropertyGetter> inboundKeyGetters = new ConcurrentHashMap<EventType, EventPropertyGetter>();
 
     /**
      * Ctor.
@@ -52,11 +72,17 @@ public class ThreadingServiceImpl implements ThreadingService {
             isInboundThreading = threadingConfig.isThreadPoolInbound();
             isRouteThreading = threadingConfig.isThreadPoolRouteExec();
             isOutboundThreading = threadingConfig.isThreadPoolOutbound();
+            isNamedWindowDispatchThreading = threadingConfig.isThreadPoolNamedWindowDispatch();
+            isHistoricalPollThreading = threadingConfig.isThreadPoolHistoricalPoll();
+            inboundKeyProperty = isInboundThreading ? threadingConfig.getThreadPoolInboundKeyProperty() : null;
         } else {
             isTimerThreading = false;
             isInboundThreading = false;
             isRouteThreading = false;
             isOutboundThreading = false;
+            isNamedWindowDispatchThreading = false;
+            isHistoricalPollThreading = false;
+            inboundKeyProperty = null;
         }
     }
 
@@ -68,6 +94,10 @@ public class ThreadingServiceImpl implements ThreadingService {
         return isInboundThreading;
     }
 
+    public boolean isInboundThreadingKeyed() {
+        return inboundKeyProperty != null;
+    }
+
     public boolean isTimerThreading() {
         return isTimerThreading;
     }
@@ -76,9 +106,27 @@ public class ThreadingServiceImpl implements ThreadingService {
         return isOutboundThreading;
     }
 
+    public boolean isNamedWindowDispatchThreading() {
+        return isNamedWindowDispatchThreading;
+    }
+
+    public boolean isHistoricalPollThreading() {
+        return isHistoricalPollThreading;
+    }
+
     public void initThreading(EPServicesContext services, EPRuntimeImpl runtime) {
-        if (isInboundThreading) {
-            inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
+        if (isInboundThreading && inboundKeyProperty != null) {
+            int numLanes = Math.max(1, config.getThreadPoolInboundNumThreads());
+            inboundLaneQueues = new BlockingQueue[numLanes];
+            inboundLaneThreadPools = new ThreadPoolExecutor[numLanes];
+            for (int i = 0; i < numLanes; i++) {
+                inboundLaneQueues[i] = makeInboundQueue();
+                inboundLaneThreadPools[i] = getThreadPool(services.getEngineURI(), "Inbound-" + i, inboundLaneQueues[i], 1);
+            }
+            inboundQueue = inboundLaneQueues[0];
+            inboundThreadPool = inboundLaneThreadPools[0];
+        } else if (isInboundThreading) {
+            inboundQueue = makeInboundQueue();
             inboundThreadPool = getThreadPool(services.getEngineURI(), "Inbound", inboundQueue, config.getThreadPoolInboundNumThreads());
         }
 
@@ -96,9 +144,52 @@ public class ThreadingServiceImpl implements ThreadingService {
             outboundQueue = makeQueue(config.getThreadPoolOutboundCapacity());
             outboundThreadPool = getThreadPool(services.getEngineURI(), "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads());
         }
+
+        if (isNamedWindowDispatchThreading) {
+            // isolated runtimes have their own work queues, for which the consumer dispatch does not hand off results
+            if (services.getConfigSnapshot().getEngineDefaults().getExecution().isAllowIsolatedService()) {
+                log.info("Named window consumer dispatch threading is not available when isolated service is allowed, dispatching sequentially");
+            } else {
+                namedWindowDispatchQueue = makeQueue(config.getThreadPoolNamedWindowDispatchCapacity());
+                namedWindowDispatchThreadPool = getThreadPool(services.getEngineURI(), "NamedWindowDispatch", namedWindowDispatchQueue, config.getThreadPoolNamedWindowDispatchNumThreads());
+                services.getNamedWindowDispatchService().setConsumerDispatchThreading(this, runtime, config);
+            }
+        }
+
+        if (isHistoricalPollThreading) {
+            historicalPollQueue = makeQueue(config.getThreadPoolHistoricalPollCapacity());
+            historicalPollThreadPool = getThreadPool(services.getEngineURI(), "HistoricalPoll", historicalPollQueue, config.getThreadPoolHistoricalPollNumThreads());
+        }
+    }
+
+    private BlockingQueue<Runnable> makeInboundQueue() {
+        BlockingQueue<Runnable> queue = makeQueue(config.getThreadPoolInboundCapacity(), true);
+        isInboundUnitPreallocated = queue instanceof RingBufferBlockingQueue;
+        return queue;
     }
 
     private BlockingQueue<Runnable> makeQueue(Integer threadPoolTimerExecCapacity) {
+        return makeQueue(threadPoolTimerExecCapacity, false);
+    }
+
+    private BlockingQueue<Runnable> makeQueue(Integer threadPoolTimerExecCapacity, boolean inboundSlotUnits) {
+        ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy waitStrategy = config.getThreadPoolWaitStrategy();
+        if (waitStrategy != null && waitStrategy != ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.BLOCKING) {
+            int capacity = DEFAULT_RING_BUFFER_CAPACITY;
+            if ((threadPoolTimerExecCapacity != null) &&
+                    (threadPoolTimerExecCapacity > 0) &&
+                    (threadPoolTimerExecCapacity != Integer.MAX_VALUE)) {
+                capacity = threadPoolTimerExecCapacity;
+            }
+            if (inboundSlotUnits) {
+                return new RingBufferBlockingQueue<Runnable>(capacity, waitStrategy, new Supplier<RingBufferSlotUnit>() {
+                    public RingBufferSlotUnit get() {
+                        return new InboundUnitSendSlot();
+                    }
+                });
+            }
+            return new RingBufferBlockingQueue<Runnable>(capacity, waitStrategy);
+        }
         if ((threadPoolTimerExecCapacity == null) ||
                 (threadPoolTimerExecCapacity <= 0) ||
                 (threadPoolTimerExecCapacity == Integer.MAX_VALUE)) {
@@ -118,12 +209,99 @@ public class ThreadingServiceImpl implements ThreadingService {
 
     public void submitInbound(InboundUnitRunnable unit) {
         try {
-            inboundQueue.put(unit);
+            if (inboundLaneQueues == null) {
+                inboundQueue.put(unit);
+            } else if (unit instanceof InboundUnitSendWrapped) {
+                inboundLaneQueues[getInboundLane(((InboundUnitSendWrapped) unit).getEventBean())].put(unit);
+            } else if (unit instanceof InboundUnitSendWrappedBatch) {
+                submitInboundBatch((InboundUnitSendWrappedBatch) unit);
+            } else {
+                inboundLaneQueues[0].put(unit);
+            }
+        } catch (InterruptedException e) {
+            log.info("Submit interrupted:" + e);
+        }
+    }
+
+    public boolean isInboundUnitPreallocated() {
+        return isInboundUnitPreallocated;
+    }
+
+    public void submitInboundEvent(Object theEvent, EPRuntimeImpl runtime) {
+        if (!isInboundUnitPreallocated) {
+            submitInbound(new InboundUnitSendEvent(theEvent, runtime));
+            return;
+        }
+        try {
+            InboundUnitSendSlot unit = claimInbound(inboundQueue);
+            unit.setEvent(theEvent, runtime);
+            unit.getQueue().publish(unit);
         } catch (InterruptedException e) {
             log.info("Submit interrupted:" + e);
         }
     }
 
+    public void submitInboundWrapped(EventBean theEvent, EPRuntimeEventSender sender) {
+        if (!isInboundUnitPreallocated) {
+            submitInbound(new InboundUnitSendWrapped(theEvent, sender));
+            return;
+        }
+        try {
+            BlockingQueue<Runnable> queue = inboundLaneQueues == null ? inboundQueue : inboundLaneQueues[getInboundLane(theEvent)];
+            InboundUnitSendSlot unit = claimInbound(queue);
+            unit.setWrapped(theEvent, sender);
+            unit.getQueue().publish(unit);
+        } catch (InterruptedException e) {
+            log.info("Submit interrupted:" + e);
+        }
+    }
+
+    private static InboundUnitSendSlot claimInbound(BlockingQueue<Runnable> queue) throws InterruptedException {
+        return (InboundUnitSendSlot) ((RingBufferBlockingQueue<Runnable>) queue).claim();
+    }
+
+    private void submitInboundBatch(InboundUnitSendWrappedBatch batch) throws InterruptedException {
+        EventBean[] events = batch.getEventBeans();
+        List<EventBean>[] perLane = new List[inboundLaneQueues.length];
+        for (EventBean event : events) {
+            int lane = getInboundLane(event);
+            if (perLane[lane] == null) {
+                perLane[lane] = new ArrayList<EventBean>(4);
+            }
+            perLane[lane].add(event);
+        }
+        for (int i = 0; i < perLane.length; i++) {
+            if (perLane[i] == null) {
+                continue;
+            }
+            if (perLane[i].size() == events.length) {
+                inboundLaneQueues[i].put(batch);
+                return;
+            }
+            EventBean[] laneEvents = perLane[i].toArray(new EventBean[perLane[i].size()]);
+            inboundLaneQueues[i].put(new InboundUnitSendWrappedBatch(laneEvents, batch.getRuntime()));
+        }
+    }
+
+    private int getInboundLane(EventBean event) {
+        EventType type = event.getEventType();
+        EventPropertyGetter getter = inboundKeyGetters.get(type);
+        if (getter == null) {
+            getter = type.getGetter(inboundKeyProperty);
+            if (getter == null) {
+                getter = new EventTypeNameKeyGetter(type.getName());
+            }
+            inboundKeyGetters.put(type, getter);
+        }
+        Object key = getter.get(event);
+        if (key == null) {
+            return 0;
+        }
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % inboundLaneQueues.length;
+    }
+
     public void submitOutbound(OutboundUnitRunnable unit) {
         try {
             outboundQueue.put(unit);
@@ -132,6 +310,22 @@ public class ThreadingServiceImpl implements ThreadingService {
         }
     }
 
+    public void submitNamedWindowDispatch(NamedWindowDispatchUnitRunnable unit) {
+        try {
+            namedWindowDispatchQueue.put(unit);
+        } catch (InterruptedException e) {
+            log.info("Submit interrupted:" + e);
+        }
+    }
+
+    public void submitHistoricalPoll(HistoricalPollUnitRunnable unit) {
+        try {
+            historicalPollQueue.put(unit);
+        } catch (InterruptedException e) {
+            log.info("Submit interrupted:" + e);
+        }
+    }
+
     public void submitTimerWork(TimerUnit unit) {
         try {
             timerQueue.put(unit);
@@ -156,6 +350,22 @@ public class ThreadingServiceImpl implements ThreadingService {
         return routeThreadPool;
     }
 
+    public BlockingQueue<Runnable> getNamedWindowDispatchQueue() {
+        return namedWindowDispatchQueue;
+    }
+
+    public ThreadPoolExecutor getNamedWindowDispatchThreadPool() {
+        return namedWindowDispatchThreadPool;
+    }
+
+    public BlockingQueue<Runnable> getHistoricalPollQueue() {
+        return historicalPollQueue;
+    }
+
+    public ThreadPoolExecutor getHistoricalPollThreadPool() {
+        return historicalPollThreadPool;
+    }
+
     public BlockingQueue<Runnable> getTimerQueue() {
         return timerQueue;
     }
@@ -182,14 +392,27 @@ public class ThreadingServiceImpl implements ThreadingService {
         if (outboundThreadPool != null) {
             stopPool(outboundThreadPool, outboundQueue, "Outbound");
         }
-        if (inboundThreadPool != null) {
+        if (namedWindowDispatchThreadPool != null) {
+            stopPool(namedWindowDispatchThreadPool, namedWindowDispatchQueue, "NamedWindowDispatch");
+        }
+        if (historicalPollThreadPool != null) {
+            stopPool(historicalPollThreadPool, historicalPollQueue, "HistoricalPoll");
+        }
+        if (inboundLaneThreadPools != null) {
+            for (int i = 0; i < inboundLaneThreadPools.length; i++) {
+                stopPool(inboundLaneThreadPools[i], inboundLaneQueues[i], "Inbound-" + i);
+            }
+        } else if (inboundThreadPool != null) {
             stopPool(inboundThreadPool, inboundQueue, "Inbound");
         }
 
         timerThreadPool = null;
         routeThreadPool = null;
         outboundThreadPool = null;
+        namedWindowDispatchThreadPool = null;
+        historicalPollThreadPool = null;
         inboundThreadPool = null;
+        inboundLaneThreadPools = null;
     }
 
     private ThreadPoolExecutor getThreadPool(String engineURI, String name, BlockingQueue<Runnable> queue, int numThreads) {
@@ -233,4 +456,27 @@ public class ThreadingServiceImpl implements ThreadingService {
             log.error("Interruped awaiting termination", e);
         }
     }
+
+    /**
+     * Key for event types that do not have the key property: all such events of the same type share a thread.
+     */
+    private static class EventTypeNameKeyGetter implements EventPropertyGetter {
+        private final String eventTypeName;
+
+        private EventTypeNameKeyGetter(String eventTypeName) {
+            this.eventTypeName = eventTypeName;
+        }
+
+        public Object get(EventBean eventBean) {
+            return eventTypeName;
+        }
+
+        public boolean isExistsProperty(EventBean eventBean) {
+            return false;
+        }
+
+        public Object getFragment(EventBean eventBean) {
+            return null;
+        }
+    }
 }
@@ -11,13 +11,13 @@
 package com.espertech.esper.epl.agg.service;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.PrimitiveKeyHashMap;
 import com.espertech.esper.epl.agg.access.AggregationAccessorSlotPair;
 import com.espertech.esper.epl.agg.access.AggregationState;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -38,11 +38,13 @@ public class AggSvcGroupByAccessOnlyImpl implements AggregationService, Aggregat
      * @param accessors      accessor definitions
      * @param accessAggSpecs access agg specs
      * @param isJoin         true for join, false for single-stream
+     * @param groupKeyType   type of group key values or null if not known, for use of a map specialized for long, int and string keys
      */
     public AggSvcGroupByAccessOnlyImpl(AggregationAccessorSlotPair[] accessors,
                                        AggregationStateFactory[] accessAggSpecs,
-                                       boolean isJoin) {
-        this.accessMap = new HashMap<Object, AggregationState[]>();
+                                       boolean isJoin,
+                                       Class groupKeyType) {
+        this.accessMap = PrimitiveKeyHashMap.newMap(groupKeyType);
         this.accessors = accessors;
         this.accessAggSpecs = accessAggSpecs;
         this.isJoin = isJoin;
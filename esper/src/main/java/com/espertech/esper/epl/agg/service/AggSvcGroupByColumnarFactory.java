@@ -0,0 +1,126 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.agg.aggregator.*;
+import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryAvg;
+import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryCount;
+import com.espertech.esper.epl.agg.factory.AggregationMethodFactoryMinMax;
+import com.espertech.esper.epl.agg.factory.AggregationMethodFactorySum;
+import com.espertech.esper.epl.core.EngineImportService;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.methodagg.ExprMinMaxAggrNode;
+import com.espertech.esper.type.MinMaxTypeEnum;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Factory for the columnar aggregation service for handling aggregation with grouping by group-keys,
+ * applicable when all aggregation functions are simple numeric aggregations.
+ */
+public class AggSvcGroupByColumnarFactory extends AggregationServiceFactoryBase {
+    private final AggSvcGroupByColumnarKind[] kinds;
+    private final Class[] resultTypes;
+    private final boolean refcounted;
+
+    /**
+     * Ctor.
+     *
+     * @param evaluators  - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes  - collect the aggregation state that evaluators evaluate to
+     * @param kinds       - columnar kind per aggregation function, see {@link #getColumnarKinds(AggregationMethodFactory[])}
+     * @param refcounted  - true to remove groups that have no more rows
+     */
+    public AggSvcGroupByColumnarFactory(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes, AggSvcGroupByColumnarKind[] kinds, boolean refcounted) {
+        super(evaluators, prototypes);
+        this.kinds = kinds;
+        this.refcounted = refcounted;
+        this.resultTypes = new Class[prototypes.length];
+        for (int i = 0; i < prototypes.length; i++) {
+            resultTypes[i] = JavaClassHelper.getBoxedType(prototypes[i].getResultType());
+        }
+    }
+
+    public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
+        return new AggSvcGroupByColumnarImpl(evaluators, aggregators, kinds, resultTypes, refcounted);
+    }
+
+    /**
+     * Returns the columnar kind for each aggregation function, or null if any aggregation function
+     * is not a simple numeric aggregation that can be kept in primitive columns.
+     * <p>
+     * Supported are sum, avg and count, and min and max without data windows (min-max ever), all
+     * without distinct and without filter, for numeric values other then big decimal and big integer.
+     *
+     * @param aggregators aggregation function factories
+     * @return kinds or null if not supported
+     */
+    public static AggSvcGroupByColumnarKind[] getColumnarKinds(AggregationMethodFactory[] aggregators) {
+        if (aggregators.length == 0) {
+            return null;
+        }
+        AggSvcGroupByColumnarKind[] kinds = new AggSvcGroupByColumnarKind[aggregators.length];
+        for (int i = 0; i < aggregators.length; i++) {
+            kinds[i] = getColumnarKind(aggregators[i]);
+            if (kinds[i] == null) {
+                return null;
+            }
+        }
+        return kinds;
+    }
+
+    private static AggSvcGroupByColumnarKind getColumnarKind(AggregationMethodFactory factory) {
+        if (!(factory instanceof AggregationMethodFactorySum) &&
+                !(factory instanceof AggregationMethodFactoryAvg) &&
+                !(factory instanceof AggregationMethodFactoryCount) &&
+                !(factory instanceof AggregationMethodFactoryMinMax)) {
+            return null;
+        }
+
+        // the prototype aggregator reflects type, distinct and filter
+        Class aggregatorClass = factory.make().getClass();
+        if (aggregatorClass == AggregatorSumInteger.class) {
+            return AggSvcGroupByColumnarKind.SUM_INTEGER;
+        }
+        if (aggregatorClass == AggregatorSumNumInteger.class) {
+            return AggSvcGroupByColumnarKind.SUM_NUMINTEGER;
+        }
+        if (aggregatorClass == AggregatorSumLong.class) {
+            return AggSvcGroupByColumnarKind.SUM_LONG;
+        }
+        if (aggregatorClass == AggregatorSumDouble.class) {
+            return AggSvcGroupByColumnarKind.SUM_DOUBLE;
+        }
+        if (aggregatorClass == AggregatorSumFloat.class) {
+            return AggSvcGroupByColumnarKind.SUM_FLOAT;
+        }
+        if (aggregatorClass == AggregatorAvg.class) {
+            return AggSvcGroupByColumnarKind.AVG;
+        }
+        if (aggregatorClass == AggregatorCount.class) {
+            return AggSvcGroupByColumnarKind.COUNT;
+        }
+        if (aggregatorClass == AggregatorCountNonNull.class) {
+            return AggSvcGroupByColumnarKind.COUNT_NONNULL;
+        }
+        if (aggregatorClass == AggregatorMinMaxEver.class) {
+            boolean max = ((ExprMinMaxAggrNode) factory.getAggregationExpression()).getMinMaxTypeEnum() == MinMaxTypeEnum.MAX;
+            Class type = JavaClassHelper.getBoxedType(factory.getResultType());
+            if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class) {
+                return max ? AggSvcGroupByColumnarKind.MAX_EVER_INTEGRAL : AggSvcGroupByColumnarKind.MIN_EVER_INTEGRAL;
+            }
+            if (type == Double.class || type == Float.class) {
+                return max ? AggSvcGroupByColumnarKind.MAX_EVER_FLOATING : AggSvcGroupByColumnarKind.MIN_EVER_FLOATING;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,426 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.ObjectIntHashMap;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation for handling aggregation with grouping by group-keys that keeps aggregation state in primitive columns.
+ * <p>
+ * Each group is assigned a slot number via an open-addressing map from group key to slot. For each aggregation function
+ * the service keeps a column of data point counts and, depending on the kind of aggregation,
+ * a column of long or double values, all indexed by slot. Thereby there is no aggregator object per group and function.
+ * <p>
+ * When reference-counting the service removes a group when its number of rows returns to zero and reuses the slot.
+ */
+public class AggSvcGroupByColumnarImpl extends AggregationServiceBaseGrouped {
+    private static final Logger log = LoggerFactory.getLogger(AggSvcGroupByColumnarImpl.class);
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final AggSvcGroupByColumnarKind[] kinds;
+    private final Class[] resultTypes;
+    private final boolean refcounted;
+    private final ObjectIntHashMap slotPerGroup;
+
+    private long[][] counts;
+    private long[][] longValues;
+    private double[][] doubleValues;
+    private int[] refcounts;
+    private int capacity;
+    private int nextSlot;
+    private int[] freeSlots;
+    private int numFreeSlots;
+
+    private final List<Object> removedKeys;
+
+    // current slot for random access, or -1 for a group that has no state
+    private int currentSlot = -1;
+    private Object currentGroupKey;
+
+    /**
+     * Ctor.
+     *
+     * @param evaluators  - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes  - aggregation function factories
+     * @param kinds       - columnar kind per aggregation function
+     * @param resultTypes - boxed result type per aggregation function
+     * @param refcounted  - true to remove groups that have no more rows
+     */
+    public AggSvcGroupByColumnarImpl(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes, AggSvcGroupByColumnarKind[] kinds, Class[] resultTypes, boolean refcounted) {
+        super(evaluators, prototypes);
+        this.kinds = kinds;
+        this.resultTypes = resultTypes;
+        this.refcounted = refcounted;
+        this.slotPerGroup = new ObjectIntHashMap();
+        this.removedKeys = refcounted ? new ArrayList<Object>() : null;
+        this.counts = new long[kinds.length][];
+        this.longValues = new long[kinds.length][];
+        this.doubleValues = new double[kinds.length][];
+        allocate(INITIAL_CAPACITY);
+        this.freeSlots = new int[INITIAL_CAPACITY];
+    }
+
+    public void clearResults(ExprEvaluatorContext exprEvaluatorContext) {
+        slotPerGroup.clear();
+        nextSlot = 0;
+        numFreeSlots = 0;
+        if (removedKeys != null) {
+            removedKeys.clear();
+        }
+        currentSlot = -1;
+    }
+
+    public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(true, aggregators.length, 0, groupByKey);
+        }
+        if (refcounted) {
+            handleRemovedKeys();
+        }
+
+        int slot = slotPerGroup.get(groupByKey, -1);
+        if (slot == -1) {
+            slot = allocateSlot(groupByKey);
+        } else if (refcounted) {
+            refcounts[slot]++;
+        }
+
+        currentSlot = slot;
+        for (int i = 0; i < evaluators.length; i++) {
+            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+            enter(i, slot, columnResult);
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(true);
+        }
+    }
+
+    public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(false, aggregators.length, 0, groupByKey);
+        }
+        int slot = slotPerGroup.get(groupByKey, -1);
+        if (slot == -1) {
+            slot = allocateSlot(groupByKey);
+        }
+
+        currentSlot = slot;
+        for (int i = 0; i < evaluators.length; i++) {
+            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
+            leave(i, slot, columnResult);
+        }
+
+        if (refcounted) {
+            refcounts[slot]--;
+            if (refcounts[slot] <= 0) {
+                removedKeys.add(groupByKey);
+            }
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(false);
+        }
+    }
+
+    public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel) {
+        int slot = slotPerGroup.get(groupByKey, -1);
+        if (slot == -1 && !refcounted) {
+            slot = allocateSlot(groupByKey);
+        }
+        currentSlot = slot;
+        currentGroupKey = groupByKey;
+    }
+
+    public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+        int slot = currentSlot;
+        AggSvcGroupByColumnarKind kind = kinds[column];
+        if (kind == AggSvcGroupByColumnarKind.COUNT || kind == AggSvcGroupByColumnarKind.COUNT_NONNULL) {
+            return slot == -1 ? 0L : counts[column][slot];
+        }
+        if (slot == -1) {
+            return null;
+        }
+        long numDataPoints = counts[column][slot];
+        if (numDataPoints == 0) {
+            return null;
+        }
+        switch (kind) {
+            case SUM_INTEGER:
+            case SUM_NUMINTEGER:
+                return (int) longValues[column][slot];
+            case SUM_LONG:
+                return longValues[column][slot];
+            case SUM_DOUBLE:
+                return doubleValues[column][slot];
+            case SUM_FLOAT:
+                return (float) doubleValues[column][slot];
+            case AVG:
+                return doubleValues[column][slot] / numDataPoints;
+            case MIN_EVER_INTEGRAL:
+            case MAX_EVER_INTEGRAL:
+                return boxIntegral(longValues[column][slot], resultTypes[column]);
+            default:
+                return boxFloating(doubleValues[column][slot], resultTypes[column]);
+        }
+    }
+
+    public Collection<EventBean> getCollectionOfEvents(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public Collection<Object> getCollectionScalar(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public EventBean getEventBean(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public void setRemovedCallback(AggregationRowRemovedCallback callback) {
+        // not applicable
+    }
+
+    public void accept(AggregationServiceVisitor visitor) {
+        visitor.visitAggregations(slotPerGroup.size(), slotPerGroup);
+    }
+
+    public void acceptGroupDetail(AggregationServiceVisitorWGroupDetail visitor) {
+        visitor.visitGrouped(slotPerGroup.size());
+        for (int i = 0; i < slotPerGroup.slotCount(); i++) {
+            if (slotPerGroup.isSlotUsed(i)) {
+                visitor.visitGroup(slotPerGroup.keyAt(i), slotPerGroup.valueAt(i));
+            }
+        }
+    }
+
+    public boolean isGrouped() {
+        return true;
+    }
+
+    public Object getGroupKey(int agentInstanceId) {
+        return currentGroupKey;
+    }
+
+    public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        if (refcounted) {
+            handleRemovedKeys();
+        }
+        return slotPerGroup.keyList();
+    }
+
+    /**
+     * Returns the number of groups.
+     *
+     * @return group count
+     */
+    public int getNumGroups() {
+        return slotPerGroup.size();
+    }
+
+    private void enter(int column, int slot, Object value) {
+        AggSvcGroupByColumnarKind kind = kinds[column];
+        if (kind == AggSvcGroupByColumnarKind.COUNT) {
+            counts[column][slot]++;
+            return;
+        }
+        if (value == null) {
+            return;
+        }
+        long numDataPoints = counts[column][slot]++;
+        switch (kind) {
+            case SUM_INTEGER:
+            case SUM_NUMINTEGER:
+                longValues[column][slot] = (int) longValues[column][slot] + ((Number) value).intValue();
+                break;
+            case SUM_LONG:
+                longValues[column][slot] += (Long) value;
+                break;
+            case SUM_DOUBLE:
+                doubleValues[column][slot] += (Double) value;
+                break;
+            case SUM_FLOAT:
+                doubleValues[column][slot] = (float) doubleValues[column][slot] + (Float) value;
+                break;
+            case AVG:
+                doubleValues[column][slot] += ((Number) value).doubleValue();
+                break;
+            case MIN_EVER_INTEGRAL:
+            case MAX_EVER_INTEGRAL: {
+                long current = longValues[column][slot];
+                long entered = ((Number) value).longValue();
+                if (numDataPoints == 0 ||
+                        (kind == AggSvcGroupByColumnarKind.MAX_EVER_INTEGRAL ? entered > current : entered < current)) {
+                    longValues[column][slot] = entered;
+                }
+                break;
+            }
+            case MIN_EVER_FLOATING:
+            case MAX_EVER_FLOATING: {
+                double current = doubleValues[column][slot];
+                double entered = ((Number) value).doubleValue();
+                int compared = Double.compare(entered, current);
+                if (numDataPoints == 0 ||
+                        (kind == AggSvcGroupByColumnarKind.MAX_EVER_FLOATING ? compared > 0 : compared < 0)) {
+                    doubleValues[column][slot] = entered;
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private void leave(int column, int slot, Object value) {
+        AggSvcGroupByColumnarKind kind = kinds[column];
+        if (kind == AggSvcGroupByColumnarKind.COUNT) {
+            if (counts[column][slot] > 0) {
+                counts[column][slot]--;
+            }
+            return;
+        }
+        if (value == null) {
+            return;
+        }
+        if (kind == AggSvcGroupByColumnarKind.COUNT_NONNULL) {
+            if (counts[column][slot] > 0) {
+                counts[column][slot]--;
+            }
+            return;
+        }
+        if (kind == AggSvcGroupByColumnarKind.MIN_EVER_INTEGRAL || kind == AggSvcGroupByColumnarKind.MAX_EVER_INTEGRAL ||
+                kind == AggSvcGroupByColumnarKind.MIN_EVER_FLOATING || kind == AggSvcGroupByColumnarKind.MAX_EVER_FLOATING) {
+            // no-op, this is designed to handle min-max ever
+            log.warn(".leave Received remove stream, none was expected");
+            return;
+        }
+
+        if (counts[column][slot] <= 1) {
+            clearColumn(column, slot);
+            return;
+        }
+        counts[column][slot]--;
+        switch (kind) {
+            case SUM_INTEGER:
+            case SUM_NUMINTEGER:
+                longValues[column][slot] = (int) longValues[column][slot] - ((Number) value).intValue();
+                break;
+            case SUM_LONG:
+                longValues[column][slot] -= (Long) value;
+                break;
+            case SUM_DOUBLE:
+                doubleValues[column][slot] -= (Double) value;
+                break;
+            case SUM_FLOAT:
+                doubleValues[column][slot] = (float) doubleValues[column][slot] - (Float) value;
+                break;
+            case AVG:
+                doubleValues[column][slot] -= ((Number) value).doubleValue();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private int allocateSlot(Object groupByKey) {
+        int slot;
+        if (numFreeSlots > 0) {
+            slot = freeSlots[--numFreeSlots];
+        } else {
+            if (nextSlot == capacity) {
+                allocate(capacity << 1);
+            }
+            slot = nextSlot++;
+        }
+        for (int i = 0; i < kinds.length; i++) {
+            clearColumn(i, slot);
+        }
+        if (refcounted) {
+            refcounts[slot] = 1;
+        }
+        slotPerGroup.put(groupByKey, slot);
+        return slot;
+    }
+
+    private void clearColumn(int column, int slot) {
+        counts[column][slot] = 0;
+        if (longValues[column] != null) {
+            longValues[column][slot] = 0;
+        }
+        if (doubleValues[column] != null) {
+            doubleValues[column][slot] = 0;
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        for (int i = 0; i < kinds.length; i++) {
+            counts[i] = counts[i] == null ? new long[newCapacity] : Arrays.copyOf(counts[i], newCapacity);
+            if (kinds[i].isLongColumn()) {
+                longValues[i] = longValues[i] == null ? new long[newCapacity] : Arrays.copyOf(longValues[i], newCapacity);
+            }
+            if (kinds[i].isDoubleColumn()) {
+                doubleValues[i] = doubleValues[i] == null ? new double[newCapacity] : Arrays.copyOf(doubleValues[i], newCapacity);
+            }
+        }
+        if (refcounted) {
+            refcounts = refcounts == null ? new int[newCapacity] : Arrays.copyOf(refcounts, newCapacity);
+        }
+        capacity = newCapacity;
+    }
+
+    private void handleRemovedKeys() {
+        // we collect removed keys lazily on the next enter to reduce the chance of empty-group queries creating empty aggregators temporarily
+        if (removedKeys.isEmpty()) {
+            return;
+        }
+        for (Object removedKey : removedKeys) {
+            int slot = slotPerGroup.remove(removedKey, -1);
+            if (slot == -1) {
+                continue;
+            }
+            if (numFreeSlots == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlots.length << 1);
+            }
+            freeSlots[numFreeSlots++] = slot;
+        }
+        removedKeys.clear();
+        currentSlot = -1;
+    }
+
+    private static Object boxIntegral(long value, Class resultType) {
+        if (resultType == Integer.class) {
+            return (int) value;
+        }
+        if (resultType == Short.class) {
+            return (short) value;
+        }
+        if (resultType == Byte.class) {
+            return (byte) value;
+        }
+        return value;
+    }
+
+    private static Object boxFloating(double value, Class resultType) {
+        if (resultType == Float.class) {
+            return (float) value;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service;
+
+/**
+ * Kinds of aggregation functions that the columnar grouped aggregation service keeps in primitive columns.
+ * <p>
+ * Each kind mirrors the state and value semantics of the corresponding aggregator: the sum, average and
+ * count kinds behave as {@link com.espertech.esper.epl.agg.aggregator.AggregatorSumInteger} and friends,
+ * the min-max kinds behave as {@link com.espertech.esper.epl.agg.aggregator.AggregatorMinMaxEver}.
+ */
+public enum AggSvcGroupByColumnarKind {
+    /**
+     * Sum of integer values, wrapping on overflow, value column is long.
+     */
+    SUM_INTEGER(true, false),
+
+    /**
+     * Sum of any number as integer values, wrapping on overflow, value column is long.
+     */
+    SUM_NUMINTEGER(true, false),
+
+    /**
+     * Sum of long values, value column is long.
+     */
+    SUM_LONG(true, false),
+
+    /**
+     * Sum of double values, value column is double.
+     */
+    SUM_DOUBLE(false, true),
+
+    /**
+     * Sum of float values computed in float precision, value column is double.
+     */
+    SUM_FLOAT(false, true),
+
+    /**
+     * Average of any number, value column is double.
+     */
+    AVG(false, true),
+
+    /**
+     * Count of all values including null.
+     */
+    COUNT(false, false),
+
+    /**
+     * Count of non-null values.
+     */
+    COUNT_NONNULL(false, false),
+
+    /**
+     * Minimum ever of integral values, value column is long.
+     */
+    MIN_EVER_INTEGRAL(true, false),
+
+    /**
+     * Maximum ever of integral values, value column is long.
+     */
+    MAX_EVER_INTEGRAL(true, false),
+
+    /**
+     * Minimum ever of floating-point values, value column is double.
+     */
+    MIN_EVER_FLOATING(false, true),
+
+    /**
+     * Maximum ever of floating-point values, value column is double.
+     */
+    MAX_EVER_FLOATING(false, true);
+
+    private final boolean longColumn;
+    private final boolean doubleColumn;
+
+    AggSvcGroupByColumnarKind(boolean longColumn, boolean doubleColumn) {
+        this.longColumn = longColumn;
+        this.doubleColumn = doubleColumn;
+    }
+
+    /**
+     * Returns true if the kind keeps its value in a long column.
+     *
+     * @return indicator
+     */
+    public boolean isLongColumn() {
+        return longColumn;
+    }
+
+    /**
+     * Returns true if the kind keeps its value in a double column.
+     *
+     * @return indicator
+     */
+    public boolean isDoubleColumn() {
+        return doubleColumn;
+    }
+}
@@ -19,6 +19,7 @@ import com.espertech.esper.epl.expression.core.ExprEvaluator;
  * Implementation for handling aggregation with grouping by group-keys.
  */
 public class AggSvcGroupByMixedAccessFactory extends AggregationServiceFactoryBase {
+    protected final Class groupKeyType;
     protected final AggregationAccessorSlotPair[] accessors;
     protected final AggregationStateFactory[] accessAggregations;
     protected final boolean isJoin;
@@ -32,19 +33,22 @@ public class AggSvcGroupByMixedAccessFactory extends AggregationServiceFactoryBa
      * @param accessors          accessor definitions
      * @param accessAggregations access aggs
      * @param isJoin             true for join, false for single-stream
+     * @param groupKeyType       type of group key values or null if not known, for use of a map specialized for long, int and string keys
      */
     public AggSvcGroupByMixedAccessFactory(ExprEvaluator[] evaluators,
                                            AggregationMethodFactory[] prototypes,
                                            AggregationAccessorSlotPair[] accessors,
                                            AggregationStateFactory[] accessAggregations,
-                                           boolean isJoin) {
+                                           boolean isJoin,
+                                           Class groupKeyType) {
         super(evaluators, prototypes);
         this.accessors = accessors;
         this.accessAggregations = accessAggregations;
         this.isJoin = isJoin;
+        this.groupKeyType = groupKeyType;
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
-        return new AggSvcGroupByMixedAccessImpl(evaluators, aggregators, accessors, accessAggregations, isJoin);
+        return new AggSvcGroupByMixedAccessImpl(evaluators, aggregators, accessors, accessAggregations, isJoin, groupKeyType);
     }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@
 package com.espertech.esper.epl.agg.service;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.PrimitiveKeyHashMap;
 import com.espertech.esper.epl.agg.access.AggregationAccessorSlotPair;
 import com.espertech.esper.epl.agg.access.AggregationState;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
@@ -19,7 +20,6 @@ import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -47,17 +47,19 @@ public class AggSvcGroupByMixedAccessImpl extends AggregationServiceBaseGrouped
      * @param accessorsFactory   accessor definitions
      * @param accessAggregations access aggs
      * @param isJoin             true for join, false for single-stream
+     * @param groupKeyType       type of group key values or null if not known, for use of a map specialized for long, int and string keys
      */
     public AggSvcGroupByMixedAccessImpl(ExprEvaluator[] evaluators,
                                         AggregationMethodFactory[] prototypes,
                                         AggregationAccessorSlotPair[] accessorsFactory,
                                         AggregationStateFactory[] accessAggregations,
-                                        boolean isJoin) {
+                                        boolean isJoin,
+                                        Class groupKeyType) {
         super(evaluators, prototypes);
         this.accessorsFactory = accessorsFactory;
         this.accessAggregations = accessAggregations;
         this.isJoin = isJoin;
-        this.aggregatorsPerGroup = new HashMap<Object, AggregationRowPair>();
+        this.aggregatorsPerGroup = PrimitiveKeyHashMap.newMap(groupKeyType);
     }
 
     public void clearResults(ExprEvaluatorContext exprEvaluatorContext) {
@@ -18,17 +18,21 @@ import com.espertech.esper.epl.expression.core.ExprEvaluator;
  * Implementation for handling aggregation with grouping by group-keys.
  */
 public class AggSvcGroupByNoAccessFactory extends AggregationServiceFactoryBase {
+    protected final Class groupKeyType;
+
     /**
      * Ctor.
      *
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
+     * @param groupKeyType - type of group key values or null if not known, for use of a map specialized for long, int and string keys
      */
-    public AggSvcGroupByNoAccessFactory(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes) {
+    public AggSvcGroupByNoAccessFactory(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes, Class groupKeyType) {
         super(evaluators, prototypes);
+        this.groupKeyType = groupKeyType;
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
-        return new AggSvcGroupByNoAccessImpl(evaluators, aggregators);
+        return new AggSvcGroupByNoAccessImpl(evaluators, aggregators, groupKeyType);
     }
 }
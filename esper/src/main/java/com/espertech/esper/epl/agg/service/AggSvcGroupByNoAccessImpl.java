@@ -11,13 +11,13 @@
 package com.espertech.esper.epl.agg.service;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.PrimitiveKeyHashMap;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -38,10 +38,11 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped {
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
      *                   aggregation states for each group
+     * @param groupKeyType - type of group key values or null if not known, for use of a map specialized for long, int and string keys
      */
-    public AggSvcGroupByNoAccessImpl(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes) {
+    public AggSvcGroupByNoAccessImpl(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes, Class groupKeyType) {
         super(evaluators, prototypes);
-        this.aggregatorsPerGroup = new HashMap<Object, AggregationMethod[]>();
+        this.aggregatorsPerGroup = PrimitiveKeyHashMap.newMap(groupKeyType);
     }
 
     public void clearResults(ExprEvaluatorContext exprEvaluatorContext) {
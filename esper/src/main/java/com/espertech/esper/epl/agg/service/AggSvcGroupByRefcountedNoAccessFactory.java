@@ -18,19 +18,24 @@ import com.espertech.esper.epl.expression.core.ExprEvaluator;
  * Implementation for handling aggregation with grouping by group-keys.
  */
 public class AggSvcGroupByRefcountedNoAccessFactory extends AggregationServiceFactoryBase {
+    protected final Class groupKeyType;
+
     /**
      * Ctor.
      *
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
      *                   aggregation states for each group
+     * @param groupKeyType - type of group key values or null if not known, for use of a map specialized for long, int and string keys
      */
     public AggSvcGroupByRefcountedNoAccessFactory(ExprEvaluator[] evaluators,
-                                                  AggregationMethodFactory[] prototypes) {
+                                                  AggregationMethodFactory[] prototypes,
+                                                  Class groupKeyType) {
         super(evaluators, prototypes);
+        this.groupKeyType = groupKeyType;
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
-        return new AggSvcGroupByRefcountedNoAccessImpl(evaluators, aggregators);
+        return new AggSvcGroupByRefcountedNoAccessImpl(evaluators, aggregators, groupKeyType);
     }
 }
@@ -11,6 +11,7 @@
 package com.espertech.esper.epl.agg.service;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.PrimitiveKeyHashMap;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
@@ -38,11 +39,13 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
      *                   aggregation states for each group
+     * @param groupKeyType - type of group key values or null if not known, for use of a map specialized for long, int and string keys
      */
     public AggSvcGroupByRefcountedNoAccessImpl(ExprEvaluator[] evaluators,
-                                               AggregationMethodFactory[] prototypes) {
+                                               AggregationMethodFactory[] prototypes,
+                                               Class groupKeyType) {
         super(evaluators, prototypes);
-        this.aggregatorsPerGroup = new HashMap<Object, AggregationMethodRow>();
+        this.aggregatorsPerGroup = PrimitiveKeyHashMap.newMap(groupKeyType);
         removedKeys = new ArrayList<Object>();
     }
 
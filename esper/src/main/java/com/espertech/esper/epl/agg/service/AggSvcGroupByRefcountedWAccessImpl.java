@@ -11,6 +11,7 @@
 package com.espertech.esper.epl.agg.service;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.PrimitiveKeyHashMap;
 import com.espertech.esper.epl.agg.access.AggregationAccessorSlotPair;
 import com.espertech.esper.epl.agg.access.AggregationState;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
@@ -48,14 +49,16 @@ public class AggSvcGroupByRefcountedWAccessImpl extends AggregationServiceBaseGr
      * @param accessors          accessor definitions
      * @param accessAggregations access aggs
      * @param isJoin             true for join, false for single-stream
+     * @param groupKeyType       type of group key values or null if not known, for use of a map specialized for long, int and string keys
      */
     public AggSvcGroupByRefcountedWAccessImpl(ExprEvaluator[] evaluators,
                                               AggregationMethodFactory[] prototypes,
                                               AggregationAccessorSlotPair[] accessors,
                                               AggregationStateFactory[] accessAggregations,
-                                              boolean isJoin) {
+                                              boolean isJoin,
+                                              Class groupKeyType) {
         super(evaluators, prototypes);
-        this.aggregatorsPerGroup = new HashMap<Object, AggregationMethodPairRow>();
+        this.aggregatorsPerGroup = PrimitiveKeyHashMap.newMap(groupKeyType);
         this.accessors = accessors;
         this.accessAggregations = accessAggregations;
         this.isJoin = isJoin;
@@ -19,6 +19,7 @@ import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.table.mgmt.TableColumnMethodPair;
 import com.espertech.esper.epl.table.mgmt.TableMetadata;
+import com.espertech.esper.epl.table.mgmt.TableRowLockStripes;
 import com.espertech.esper.epl.table.mgmt.TableStateInstanceGrouped;
 import com.espertech.esper.epl.table.strategy.ExprTableEvalLockUtil;
 import com.espertech.esper.event.ObjectArrayBackedEventBean;
@@ -38,6 +39,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
     protected final int[] targetStates;
     protected final ExprNode[] accessStateExpr;
     private final AggregationAgent[] agents;
+    private final TableRowLockStripes rowLockStripes;
 
     // maintain a current row for random access into the aggregator state table
     // (row=groups, columns=expression nodes that have aggregation functions)
@@ -45,7 +47,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
     protected AggregationState[] currentAggregatorStates;
     protected Object currentGroupKey;
 
-    public AggSvcGroupByWTableBase(TableMetadata tableMetadata, TableColumnMethodPair[] methodPairs, AggregationAccessorSlotPair[] accessors, boolean join, TableStateInstanceGrouped tableStateInstance, int[] targetStates, ExprNode[] accessStateExpr, AggregationAgent[] agents) {
+    public AggSvcGroupByWTableBase(TableMetadata tableMetadata, TableColumnMethodPair[] methodPairs, AggregationAccessorSlotPair[] accessors, boolean join, TableStateInstanceGrouped tableStateInstance, int[] targetStates, ExprNode[] accessStateExpr, AggregationAgent[] agents, TableRowLockStripes rowLockStripes) {
         this.tableMetadata = tableMetadata;
         this.methodPairs = methodPairs;
         this.accessors = accessors;
@@ -54,6 +56,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
         this.targetStates = targetStates;
         this.accessStateExpr = accessStateExpr;
         this.agents = agents;
+        this.rowLockStripes = rowLockStripes;
     }
 
     public abstract void applyEnterInternal(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext);
@@ -61,18 +64,25 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
     public abstract void applyLeaveInternal(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext);
 
     public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
-        // acquire table-level write lock
-        ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        // acquire table-level write lock, unless locking rows
+        if (rowLockStripes == null) {
+            ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        }
         applyEnterInternal(eventsPerStream, groupByKey, exprEvaluatorContext);
     }
 
     public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
-        // acquire table-level write lock
-        ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        // acquire table-level write lock, unless locking rows
+        if (rowLockStripes == null) {
+            ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        }
         applyLeaveInternal(eventsPerStream, groupByKey, exprEvaluatorContext);
     }
 
     protected void applyEnterGroupKey(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        if (rowLockStripes != null) {
+            rowLockStripes.obtainRowLock(groupByKey);
+        }
         ObjectArrayBackedEventBean bean = tableStateInstance.getCreateRowIntoTable(groupByKey, exprEvaluatorContext);
         AggregationRowPair row = (AggregationRowPair) bean.getProperties()[0];
 
@@ -114,6 +124,9 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
     }
 
     protected void applyLeaveGroupKey(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        if (rowLockStripes != null) {
+            rowLockStripes.obtainRowLock(groupByKey);
+        }
         ObjectArrayBackedEventBean bean = tableStateInstance.getCreateRowIntoTable(groupByKey, exprEvaluatorContext);
         AggregationRowPair row = (AggregationRowPair) bean.getProperties()[0];
 
@@ -155,6 +168,9 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
     }
 
     public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel) {
+        if (rowLockStripes != null) {
+            rowLockStripes.obtainRowLock(groupByKey);
+        }
         ObjectArrayBackedEventBean bean = tableStateInstance.getRowForGroupKey(groupByKey);
 
         if (bean != null) {
@@ -225,13 +241,21 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
     }
 
     public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        obtainExclusiveLock();
         return tableStateInstance.getGroupKeys();
     }
 
     public void clearResults(ExprEvaluatorContext exprEvaluatorContext) {
+        obtainExclusiveLock();
         tableStateInstance.clear();
     }
 
     public void stop() {
     }
+
+    private void obtainExclusiveLock() {
+        if (tableStateInstance.getRowLockStripes() != null) {
+            tableStateInstance.getRowLockStripes().obtainExclusiveLock();
+        }
+    }
 }
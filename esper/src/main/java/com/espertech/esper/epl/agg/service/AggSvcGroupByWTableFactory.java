@@ -17,6 +17,7 @@ import com.espertech.esper.epl.core.EngineImportService;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.table.mgmt.TableColumnMethodPair;
 import com.espertech.esper.epl.table.mgmt.TableMetadata;
+import com.espertech.esper.epl.table.mgmt.TableRowLockStripes;
 import com.espertech.esper.epl.table.mgmt.TableStateInstanceGrouped;
 
 /**
@@ -46,8 +47,13 @@ public class AggSvcGroupByWTableFactory implements AggregationServiceFactory {
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
         TableStateInstanceGrouped tableState = (TableStateInstanceGrouped) agentInstanceContext.getStatementContext().getTableService().getState(tableMetadata.getTableName(), agentInstanceContext.getAgentInstanceId());
         if (groupByRollupDesc == null) {
+            TableRowLockStripes rowLockStripes = null;
+            if (tableState.getRowLockStripes() != null && !isJoin && !isSubquery &&
+                    TableRowLockStripes.isSingleRowPerEvent(agentInstanceContext.getStatementContext().getStatementSpecCompiled(), tableMetadata.getTableName())) {
+                rowLockStripes = tableState.getRowLockStripes();
+            }
             return new AggSvcGroupByWTableImpl(tableMetadata, methodPairs, accessors, isJoin,
-                    tableState, targetStates, accessStateExpr, agents);
+                    tableState, targetStates, accessStateExpr, agents, rowLockStripes);
         }
         if (tableMetadata.getKeyTypes().length > 1) {
             return new AggSvcGroupByWTableRollupMultiKeyImpl(tableMetadata, methodPairs, accessors, isJoin,
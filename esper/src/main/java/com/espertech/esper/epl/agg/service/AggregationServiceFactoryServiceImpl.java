@@ -43,15 +43,19 @@ public class AggregationServiceFactoryServiceImpl implements AggregationServiceF
     }
 
     public AggregationServiceFactory getGroupedNoReclaimNoAccess(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
-        return new AggSvcGroupByNoAccessFactory(evaluatorsArr, aggregatorsArr);
+        AggSvcGroupByColumnarKind[] columnarKinds = AggSvcGroupByColumnarFactory.getColumnarKinds(aggregatorsArr);
+        if (columnarKinds != null) {
+            return new AggSvcGroupByColumnarFactory(evaluatorsArr, aggregatorsArr, columnarKinds, false);
+        }
+        return new AggSvcGroupByNoAccessFactory(evaluatorsArr, aggregatorsArr, getGroupKeyType(groupByNodes));
     }
 
     public AggregationServiceFactory getGroupNoReclaimAccessOnly(ExprNode[] groupByNodes, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggSpecs, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
-        return new AggSvcGroupByAccessOnlyFactory(pairs, accessAggSpecs, join);
+        return new AggSvcGroupByAccessOnlyFactory(pairs, accessAggSpecs, join, getGroupKeyType(groupByNodes));
     }
 
     public AggregationServiceFactory getGroupNoReclaimMixed(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggregations, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
-        return new AggSvcGroupByMixedAccessFactory(evaluatorsArr, aggregatorsArr, pairs, accessAggregations, join);
+        return new AggSvcGroupByMixedAccessFactory(evaluatorsArr, aggregatorsArr, pairs, accessAggregations, join, getGroupKeyType(groupByNodes));
     }
 
     public AggregationServiceFactory getGroupReclaimAged(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, Hint reclaimGroupAged, Hint reclaimGroupFrequency, VariableService variableService, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggregations, boolean join, String optionalContextName, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) throws ExprValidationException {
@@ -59,11 +63,15 @@ public class AggregationServiceFactoryServiceImpl implements AggregationServiceF
     }
 
     public AggregationServiceFactory getGroupReclaimNoAccess(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggregations, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
-        return new AggSvcGroupByRefcountedNoAccessFactory(evaluatorsArr, aggregatorsArr);
+        AggSvcGroupByColumnarKind[] columnarKinds = AggSvcGroupByColumnarFactory.getColumnarKinds(aggregatorsArr);
+        if (columnarKinds != null) {
+            return new AggSvcGroupByColumnarFactory(evaluatorsArr, aggregatorsArr, columnarKinds, true);
+        }
+        return new AggSvcGroupByRefcountedNoAccessFactory(evaluatorsArr, aggregatorsArr, getGroupKeyType(groupByNodes));
     }
 
     public AggregationServiceFactory getGroupReclaimMixable(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggregations, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
-        return new AggSvcGroupByRefcountedWAccessFactory(evaluatorsArr, aggregatorsArr, pairs, accessAggregations, join);
+        return new AggSvcGroupByRefcountedWAccessFactory(evaluatorsArr, aggregatorsArr, pairs, accessAggregations, join, getGroupKeyType(groupByNodes));
     }
 
     public AggregationServiceFactory getGroupReclaimMixableRollup(ExprNode[] groupByNodes, AggregationGroupByRollupDesc byRollupDesc, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggregations, boolean join, AggregationGroupByRollupDesc groupByRollupDesc, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
@@ -85,4 +93,11 @@ public class AggregationServiceFactoryServiceImpl implements AggregationServiceF
     public AggregationServiceFactory getGroupLocalGroupBy(boolean join, AggregationLocalGroupByPlan localGroupByPlan, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
         return new AggSvcGroupByLocalGroupByFactory(join, localGroupByPlan);
     }
+
+    private static Class getGroupKeyType(ExprNode[] groupByNodes) {
+        if (groupByNodes == null || groupByNodes.length != 1) {
+            return null;
+        }
+        return groupByNodes[0].getExprEvaluator().getType();
+    }
 }
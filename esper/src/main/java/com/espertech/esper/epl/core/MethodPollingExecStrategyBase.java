@@ -87,6 +87,10 @@ public abstract class MethodPollingExecStrategyBase implements PollExecStrategy
         }
     }
 
+    public List<EventBean> pollStandalone(Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+        return poll(lookupValues, exprEvaluatorContext);
+    }
+
     private List<EventBean> invokeInternalVariable(Object[] lookupValues, VariableReader variableReader) {
         Object target = variableReader.getValue();
         if (target == null) {
@@ -17,7 +17,9 @@ import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.IterablesArrayIterator;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.epl.db.DataCache;
+import com.espertech.esper.epl.db.PollExecParallel;
 import com.espertech.esper.epl.db.PollExecStrategy;
 import com.espertech.esper.epl.expression.core.*;
 import com.espertech.esper.epl.expression.visitor.ExprNodeIdentifierVisitor;
@@ -53,6 +55,7 @@ public class MethodPollingViewable implements HistoricalEventViewable {
     private final ThreadLocal<DataCache> dataCacheThreadLocal = new ThreadLocal<DataCache>();
     private final ExprEvaluatorContext exprEvaluatorContext;
     private final MethodPollingViewableMeta metadata;
+    private final ThreadingService optionalPollThreading;
 
     private PollExecStrategy pollExecStrategy;
     private SortedSet<Integer> requiredStreams;
@@ -84,7 +87,8 @@ public class MethodPollingViewable implements HistoricalEventViewable {
             DataCache dataCache,
             EventType eventType,
             ExprEvaluatorContext exprEvaluatorContext,
-            MethodPollingViewableMeta metadata) {
+            MethodPollingViewableMeta metadata,
+            ThreadingService optionalPollThreading) {
         this.isStaticMethod = isStaticMethod;
         this.methodProviderClass = methodProviderClass;
         this.methodStreamSpec = methodStreamSpec;
@@ -93,6 +97,7 @@ public class MethodPollingViewable implements HistoricalEventViewable {
         this.eventType = eventType;
         this.exprEvaluatorContext = exprEvaluatorContext;
         this.metadata = metadata;
+        this.optionalPollThreading = optionalPollThreading;
     }
 
     public void stop() {
@@ -188,8 +193,21 @@ public class MethodPollingViewable implements HistoricalEventViewable {
 
     public EventTable[][] poll(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext) {
         DataCache localDataCache = dataCacheThreadLocal.get();
-        boolean strategyStarted = false;
 
+        // invoke concurrently for multiple rows, if configured
+        if (optionalPollThreading != null && lookupEventsPerStream.length > 1) {
+            Object[][] lookupValuesPerRow = new Object[lookupEventsPerStream.length][];
+            for (int row = 0; row < lookupEventsPerStream.length; row++) {
+                Object[] lookupValues = new Object[inputParameters.size()];
+                for (int valueNum = 0; valueNum < inputParameters.size(); valueNum++) {
+                    lookupValues[valueNum] = validatedExprNodes[valueNum].evaluate(lookupEventsPerStream[row], true, exprEvaluatorContext);
+                }
+                lookupValuesPerRow[row] = lookupValues;
+            }
+            return PollExecParallel.poll(lookupValuesPerRow, pollExecStrategy, indexingStrategy, dataCache, localDataCache, optionalPollThreading, exprEvaluatorContext, statementContext);
+        }
+
+        boolean strategyStarted = false;
         EventTable[][] resultPerInputRow = new EventTable[lookupEventsPerStream.length][];
 
         // Get input parameters for each row
@@ -17,6 +17,7 @@ import com.espertech.esper.client.EventType;
 import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.core.start.EPStatementStartMethod;
+import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.epl.db.DataCache;
 import com.espertech.esper.epl.db.DataCacheFactory;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
@@ -57,6 +58,7 @@ public class MethodPollingViewableFactory {
      * @param statementContext               statement context
      * @param contextName                    context name
      * @param dataCacheFactory               factory for cache
+     * @param optionalPollThreading          threading service for invoking concurrently, or null to invoke sequentially
      * @return pollable view
      * @throws ExprValidationException if the expressions cannot be validated or the method descriptor
      *                                 has incorrect class and method names, or parameter number and types don't match
@@ -72,7 +74,8 @@ public class MethodPollingViewableFactory {
                                                                VariableService variableService,
                                                                String contextName,
                                                                DataCacheFactory dataCacheFactory,
-                                                               StatementContext statementContext)
+                                                               StatementContext statementContext,
+                                                               ThreadingService optionalPollThreading)
             throws ExprValidationException {
         VariableMetaData variableMetaData = variableService.getVariableMetaData(methodStreamSpec.getClassName());
         MethodPollingExecStrategyEnum strategy;
@@ -197,7 +200,7 @@ public class MethodPollingViewableFactory {
 
         MethodPollingViewableMeta meta = new MethodPollingViewableMeta(declaringClass, mapType, oaType, invocationTarget, strategy, isCollection, isIterator, variableReader, variableName);
 
-        return new MethodPollingViewable(variableMetaData == null, methodReflection.getDeclaringClass(), methodStreamSpec, methodStreamSpec.getExpressions(), dataCache, eventType, exprEvaluatorContext, meta);
+        return new MethodPollingViewable(variableMetaData == null, methodReflection.getDeclaringClass(), methodStreamSpec, methodStreamSpec.getExpressions(), dataCache, eventType, exprEvaluatorContext, meta, optionalPollThreading);
     }
 
     private static MethodMetadataDesc getCheckMetadataVariable(String methodName, VariableMetaData variableMetaData, VariableReader variableReader, EngineImportService engineImportService, Class metadataClass)
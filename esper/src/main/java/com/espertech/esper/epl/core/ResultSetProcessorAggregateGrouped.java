@@ -40,8 +40,8 @@ import java.util.*;
 public class ResultSetProcessorAggregateGrouped implements ResultSetProcessor, AggregationRowRemovedCallback {
 
     protected final ResultSetProcessorAggregateGroupedFactory prototype;
-    private final SelectExprProcessor selectExprProcessor;
-    private final OrderByProcessor orderByProcessor;
+    protected final SelectExprProcessor selectExprProcessor;
+    protected final OrderByProcessor orderByProcessor;
     protected final AggregationService aggregationService;
     protected AgentInstanceContext agentInstanceContext;
 
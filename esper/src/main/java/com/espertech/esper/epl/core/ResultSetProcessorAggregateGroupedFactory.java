@@ -39,6 +39,7 @@ public class ResultSetProcessorAggregateGroupedFactory implements ResultSetProce
     private final OutputConditionPolledFactory optionalOutputFirstConditionFactory;
     private final boolean enableOutputLimitOpt;
     private final int numStreams;
+    private final boolean isCompiled;
 
     public ResultSetProcessorAggregateGroupedFactory(SelectExprProcessor selectExprProcessor,
                                                      ExprNode[] groupKeyNodeExpressions,
@@ -52,7 +53,8 @@ public class ResultSetProcessorAggregateGroupedFactory implements ResultSetProce
                                                      ResultSetProcessorHelperFactory resultSetProcessorHelperFactory,
                                                      OutputConditionPolledFactory optionalOutputFirstConditionFactory,
                                                      boolean enableOutputLimitOpt,
-                                                     int numStreams) {
+                                                     int numStreams,
+                                                     boolean isCompiled) {
         this.selectExprProcessor = selectExprProcessor;
         this.groupKeyNodeExpressions = groupKeyNodeExpressions;
         if (groupKeyNodes.length == 1) {
@@ -71,9 +73,13 @@ public class ResultSetProcessorAggregateGroupedFactory implements ResultSetProce
         this.optionalOutputFirstConditionFactory = optionalOutputFirstConditionFactory;
         this.enableOutputLimitOpt = enableOutputLimitOpt;
         this.numStreams = numStreams;
+        this.isCompiled = isCompiled;
     }
 
     public ResultSetProcessor instantiate(OrderByProcessor orderByProcessor, AggregationService aggregationService, AgentInstanceContext agentInstanceContext) {
+        if (isCompiled && outputLimitSpec == null && !isUnidirectional) {
+            return new ResultSetProcessorAggregateGroupedSingleEventFastPath(this, selectExprProcessor, orderByProcessor, aggregationService, agentInstanceContext);
+        }
         return new ResultSetProcessorAggregateGrouped(this, selectExprProcessor, orderByProcessor, aggregationService, agentInstanceContext);
     }
 
@@ -152,4 +158,8 @@ public class ResultSetProcessorAggregateGroupedFactory implements ResultSetProce
     public ResultSetProcessorHelperFactory getResultSetProcessorHelperFactory() {
         return resultSetProcessorHelperFactory;
     }
+
+    public boolean isCompiled() {
+        return isCompiled;
+    }
 }
@@ -0,0 +1,91 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.core;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.UniformPair;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.agg.service.AggregationService;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+/**
+ * Result set processor for aggregated and grouped statements, specialized for statements that
+ * have no output rate limiting and no unidirectional join, and that carry the compile-resultset hint.
+ * <p>
+ * A single arriving event with at most one remove stream event is processed without building
+ * key and output arrays for a batch.
+ */
+public class ResultSetProcessorAggregateGroupedSingleEventFastPath extends ResultSetProcessorAggregateGrouped {
+    private static final EventBean[] EMPTY_EVENTS = new EventBean[0];
+
+    private final ExprEvaluator optionalHavingEval;
+    private final boolean isSorting;
+    private final boolean isSelectRStream;
+
+    public ResultSetProcessorAggregateGroupedSingleEventFastPath(ResultSetProcessorAggregateGroupedFactory prototype, SelectExprProcessor selectExprProcessor, OrderByProcessor orderByProcessor, AggregationService aggregationService, AgentInstanceContext agentInstanceContext) {
+        super(prototype, selectExprProcessor, orderByProcessor, aggregationService, agentInstanceContext);
+        this.optionalHavingEval = prototype.getOptionalHavingNode();
+        this.isSorting = prototype.isSorting();
+        this.isSelectRStream = prototype.isSelectRStream();
+    }
+
+    public UniformPair<EventBean[]> processViewResult(EventBean[] newData, EventBean[] oldData, boolean isSynthesize) {
+        if (InstrumentationHelper.ENABLED || newData == null || newData.length != 1 || (oldData != null && oldData.length > 1)) {
+            return super.processViewResult(newData, oldData, isSynthesize);
+        }
+
+        EventBean[] newEventsPerStream = new EventBean[]{newData[0]};
+        Object newKey = generateGroupKey(newEventsPerStream, true);
+        aggregationService.applyEnter(newEventsPerStream, newKey, agentInstanceContext);
+
+        EventBean[] oldEventsPerStream = null;
+        Object oldKey = null;
+        if (oldData != null && oldData.length == 1) {
+            oldEventsPerStream = new EventBean[]{oldData[0]};
+            oldKey = generateGroupKey(oldEventsPerStream, false);
+            aggregationService.applyLeave(oldEventsPerStream, oldKey, agentInstanceContext);
+        }
+
+        EventBean[] selectOldEvents = null;
+        if (isSelectRStream && oldData != null) {
+            if (oldEventsPerStream == null) {
+                // an empty remove stream produces an empty remove stream output as in the general processing
+                selectOldEvents = isSorting ? orderByProcessor.sort(EMPTY_EVENTS, new EventBean[0][], new Object[0], false, agentInstanceContext) : EMPTY_EVENTS;
+            } else {
+                selectOldEvents = generateOutputEventSingle(oldKey, oldEventsPerStream, false, isSynthesize);
+            }
+        }
+        EventBean[] selectNewEvents = generateOutputEventSingle(newKey, newEventsPerStream, true, isSynthesize);
+
+        if ((selectNewEvents != null) || (selectOldEvents != null)) {
+            return new UniformPair<EventBean[]>(selectNewEvents, selectOldEvents);
+        }
+        return null;
+    }
+
+    private EventBean[] generateOutputEventSingle(Object groupKey, EventBean[] eventsPerStream, boolean isNewData, boolean isSynthesize) {
+        aggregationService.setCurrentAccess(groupKey, agentInstanceContext.getAgentInstanceId(), null);
+
+        if (optionalHavingEval != null) {
+            Boolean result = (Boolean) optionalHavingEval.evaluate(eventsPerStream, isNewData, agentInstanceContext);
+            if ((result == null) || (!result)) {
+                return null;
+            }
+        }
+
+        EventBean[] events = new EventBean[]{selectExprProcessor.process(eventsPerStream, isNewData, isSynthesize, agentInstanceContext)};
+        if (isSorting) {
+            return orderByProcessor.sort(events, new EventBean[][]{eventsPerStream}, new Object[]{groupKey}, isNewData, agentInstanceContext);
+        }
+        return events;
+    }
+}
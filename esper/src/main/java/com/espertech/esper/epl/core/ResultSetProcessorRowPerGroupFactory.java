@@ -40,6 +40,7 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
     private final boolean enableOutputLimitOpt;
     private final int numStreams;
     private final OutputConditionPolledFactory optionalOutputFirstConditionFactory;
+    private final boolean isCompiled;
 
     public ResultSetProcessorRowPerGroupFactory(SelectExprProcessor selectExprProcessor,
                                                 ExprNode[] groupKeyNodeExpressions,
@@ -55,7 +56,8 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
                                                 ResultSetProcessorHelperFactory resultSetProcessorHelperFactory,
                                                 boolean enableOutputLimitOpt,
                                                 int numStreams,
-                                                OutputConditionPolledFactory optionalOutputFirstConditionFactory) {
+                                                OutputConditionPolledFactory optionalOutputFirstConditionFactory,
+                                                boolean isCompiled) {
         this.groupKeyNodeExpressions = groupKeyNodeExpressions;
         this.selectExprProcessor = selectExprProcessor;
         this.groupKeyNodes = groupKeyNodes;
@@ -75,12 +77,16 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
         this.enableOutputLimitOpt = enableOutputLimitOpt;
         this.numStreams = numStreams;
         this.optionalOutputFirstConditionFactory = optionalOutputFirstConditionFactory;
+        this.isCompiled = isCompiled;
     }
 
     public ResultSetProcessor instantiate(OrderByProcessor orderByProcessor, AggregationService aggregationService, AgentInstanceContext agentInstanceContext) {
         if (noDataWindowSingleSnapshot && !isHistoricalOnly) {
             return new ResultSetProcessorRowPerGroupUnbound(this, selectExprProcessor, orderByProcessor, aggregationService, agentInstanceContext);
         }
+        if (isCompiled && outputLimitSpec == null && !isUnidirectional) {
+            return new ResultSetProcessorRowPerGroupSingleEventFastPath(this, selectExprProcessor, orderByProcessor, aggregationService, agentInstanceContext);
+        }
         return new ResultSetProcessorRowPerGroup(this, selectExprProcessor, orderByProcessor, aggregationService, agentInstanceContext);
     }
 
@@ -159,4 +165,8 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
     public ResultSetProcessorHelperFactory getResultSetProcessorHelperFactory() {
         return resultSetProcessorHelperFactory;
     }
+
+    public boolean isCompiled() {
+        return isCompiled;
+    }
 }
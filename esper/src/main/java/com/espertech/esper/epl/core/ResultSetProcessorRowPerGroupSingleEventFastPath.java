@@ -0,0 +1,111 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.core;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.UniformPair;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.agg.service.AggregationService;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Result set processor for fully-aggregated and grouped statements, specialized for statements that
+ * have no output rate limiting and no unidirectional join, and that carry the compile-resultset hint.
+ * <p>
+ * A single arriving event with at most one remove stream event, the common case for event-at-a-time processing,
+ * is processed without building the per-group map and key arrays that the general batch processing uses.
+ * When the arriving and the removed event belong to different groups the general processing is used
+ * so that output rows are ordered the same way.
+ */
+public class ResultSetProcessorRowPerGroupSingleEventFastPath extends ResultSetProcessorRowPerGroup {
+    private final ExprEvaluator optionalHavingEval;
+    private final boolean isSorting;
+    private final boolean isSelectRStream;
+
+    public ResultSetProcessorRowPerGroupSingleEventFastPath(ResultSetProcessorRowPerGroupFactory prototype, SelectExprProcessor selectExprProcessor, OrderByProcessor orderByProcessor, AggregationService aggregationService, AgentInstanceContext agentInstanceContext) {
+        super(prototype, selectExprProcessor, orderByProcessor, aggregationService, agentInstanceContext);
+        this.optionalHavingEval = prototype.getOptionalHavingNode();
+        this.isSorting = prototype.isSorting();
+        this.isSelectRStream = prototype.isSelectRStream();
+    }
+
+    public UniformPair<EventBean[]> processViewResult(EventBean[] newData, EventBean[] oldData, boolean isSynthesize) {
+        if (InstrumentationHelper.ENABLED || newData == null || newData.length != 1 || (oldData != null && oldData.length > 1)) {
+            return super.processViewResult(newData, oldData, isSynthesize);
+        }
+
+        EventBean newEvent = newData[0];
+        EventBean[] newEventsPerStream = new EventBean[]{newEvent};
+        Object newKey = generateGroupKey(newEventsPerStream, true);
+
+        EventBean oldEvent = null;
+        EventBean[] oldEventsPerStream = null;
+        Object oldKey = null;
+        if (oldData != null && oldData.length == 1) {
+            oldEvent = oldData[0];
+            oldEventsPerStream = new EventBean[]{oldEvent};
+            oldKey = generateGroupKey(oldEventsPerStream, false);
+        }
+
+        EventBean[] selectOldEvents = null;
+        EventBean[] selectNewEvents;
+        if (oldEvent != null && !(newKey == null ? oldKey == null : newKey.equals(oldKey))) {
+            // two groups: output rows in the same order as the general processing
+            Map<Object, EventBean> keysAndEvents = new HashMap<Object, EventBean>();
+            keysAndEvents.put(newKey, newEvent);
+            keysAndEvents.put(oldKey, oldEvent);
+            if (isSelectRStream) {
+                selectOldEvents = generateOutputEventsView(keysAndEvents, false, isSynthesize);
+            }
+            aggregationService.applyEnter(newEventsPerStream, newKey, agentInstanceContext);
+            aggregationService.applyLeave(oldEventsPerStream, oldKey, agentInstanceContext);
+            selectNewEvents = generateOutputEventsView(keysAndEvents, true, isSynthesize);
+        } else {
+            // single group: the removed event, if any, represents the group as in the general processing
+            EventBean representative = oldEvent != null ? oldEvent : newEvent;
+            if (isSelectRStream) {
+                selectOldEvents = generateOutputEventSingle(newKey, representative, false, isSynthesize);
+            }
+            aggregationService.applyEnter(newEventsPerStream, newKey, agentInstanceContext);
+            if (oldEvent != null) {
+                aggregationService.applyLeave(oldEventsPerStream, oldKey, agentInstanceContext);
+            }
+            selectNewEvents = generateOutputEventSingle(newKey, representative, true, isSynthesize);
+        }
+
+        if ((selectNewEvents != null) || (selectOldEvents != null)) {
+            return new UniformPair<EventBean[]>(selectNewEvents, selectOldEvents);
+        }
+        return null;
+    }
+
+    private EventBean[] generateOutputEventSingle(Object groupKey, EventBean theEvent, boolean isNewData, boolean isSynthesize) {
+        aggregationService.setCurrentAccess(groupKey, agentInstanceContext.getAgentInstanceId(), null);
+        EventBean[] eventsPerStream = new EventBean[]{theEvent};
+
+        if (optionalHavingEval != null) {
+            Boolean result = (Boolean) optionalHavingEval.evaluate(eventsPerStream, isNewData, agentInstanceContext);
+            if ((result == null) || (!result)) {
+                return null;
+            }
+        }
+
+        EventBean[] events = new EventBean[]{selectExprProcessor.process(eventsPerStream, isNewData, isSynthesize, agentInstanceContext)};
+        if (isSorting) {
+            return orderByProcessor.sort(events, new EventBean[][]{eventsPerStream}, new Object[]{groupKey}, isNewData, agentInstanceContext);
+        }
+        return events;
+    }
+}
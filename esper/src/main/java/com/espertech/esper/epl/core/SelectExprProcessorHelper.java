@@ -15,6 +15,7 @@ import com.espertech.esper.client.util.EventUnderlyingType;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.epl.agg.service.AggregationGroupByRollupLevel;
 import com.espertech.esper.epl.core.eval.*;
+import com.espertech.esper.epl.expression.codegen.ExprNodeCompiler;
 import com.espertech.esper.epl.expression.core.*;
 import com.espertech.esper.epl.named.NamedWindowMgmtService;
 import com.espertech.esper.epl.named.NamedWindowProcessor;
@@ -242,7 +243,10 @@ public class SelectExprProcessorHelper {
                 }
             }
 
-            // assign normal expected return type
+            // assign normal expected return type, compiling the expression when code generation is enabled
+            if (configuration != null && configuration.getEngineDefaults().getExpression().isCodeGeneration()) {
+                evaluator = ExprNodeCompiler.compileOrDefault(expr);
+            }
             exprEvaluators[i] = evaluator;
             expressionReturnTypes[i] = exprEvaluators[i].getType();
         }
@@ -51,6 +51,14 @@ public abstract class ConnectionCache {
      */
     public abstract void destroy();
 
+    /**
+     * Returns true if the cache returns the same connection and statement pair to every caller,
+     * or false if every call obtains a new connection and statement pair.
+     *
+     * @return indicator whether the connection and statement pair is shared
+     */
+    public abstract boolean isSharedConnection();
+
     /**
      * Ctor.
      *
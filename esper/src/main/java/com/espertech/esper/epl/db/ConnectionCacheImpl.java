@@ -48,4 +48,8 @@ public class ConnectionCacheImpl extends ConnectionCache {
         }
         cache = null;
     }
+
+    public boolean isSharedConnection() {
+        return true;
+    }
 }
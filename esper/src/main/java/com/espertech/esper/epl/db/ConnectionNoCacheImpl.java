@@ -42,4 +42,8 @@ public class ConnectionNoCacheImpl extends ConnectionCache {
     public void destroy() {
         // no resources held
     }
+
+    public boolean isSharedConnection() {
+        return false;
+    }
 }
@@ -0,0 +1,194 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.epl.join.table.EventTable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Query result data cache implementation that threads can access concurrently and that admits
+ * entries based on frequency of access.
+ * <p>
+ * Entries are divided into segments by key hash code, each segment with its own lock.
+ * Each segment keeps a small admission window of recently added entries and a main area, both ordered by access.
+ * An entry leaving the window enters the main area only if its key was accessed more frequently than the key of the
+ * least-recently-used entry of the main area, which it then replaces. Thereby keys that are accessed once do not evict
+ * frequently-accessed keys.
+ */
+public class DataCacheConcurrentImpl implements DataCache {
+    private final int cacheSize;
+    private final Segment[] segments;
+    private final DataCacheMetrics metrics;
+
+    /**
+     * Ctor.
+     *
+     * @param cacheSize   is the maximum cache size
+     * @param numSegments is the number of segments
+     * @param metrics     engine data cache metrics
+     */
+    public DataCacheConcurrentImpl(int cacheSize, int numSegments, DataCacheMetrics metrics) {
+        this.cacheSize = cacheSize;
+        this.metrics = metrics;
+        int count = Math.max(1, Math.min(numSegments, cacheSize));
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            int segmentSize = cacheSize / count + (i < cacheSize % count ? 1 : 0);
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    public EventTable[] getCached(Object[] lookupKeys) {
+        Object key = DataCacheUtil.getLookupKey(lookupKeys);
+        EventTable[] value = segmentFor(key).get(key);
+        if (value == null) {
+            metrics.miss();
+        } else {
+            metrics.hit();
+        }
+        return value;
+    }
+
+    public void put(Object[] keys, EventTable[] value) {
+        Object key = DataCacheUtil.getLookupKey(keys);
+        int evicted = segmentFor(key).put(key, value);
+        if (evicted > 0) {
+            metrics.evicted(evicted);
+        }
+    }
+
+    /**
+     * Returns the maximum cache size.
+     *
+     * @return maximum cache size
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Returns the number of segments.
+     *
+     * @return number of segments
+     */
+    public int getNumSegments() {
+        return segments.length;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public boolean isActive() {
+        return true;
+    }
+
+    public void destroy() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment segmentFor(Object key) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+        // a single lookup value may be null
+        int hash = key == null ? 0 : key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[(hash & Integer.MAX_VALUE) % segments.length];
+    }
+
+    private static class Segment {
+        private static final float HASH_TABLE_LOAD_FACTOR = 0.75f;
+
+        private final int windowCapacity;
+        private final int mainCapacity;
+        private final LinkedHashMap<Object, EventTable[]> window;
+        private final LinkedHashMap<Object, EventTable[]> main;
+        private final DataCacheFrequencySketch sketch;
+
+        Segment(int capacity) {
+            this.windowCapacity = Math.max(1, capacity / 100);
+            this.mainCapacity = Math.max(0, capacity - windowCapacity);
+            this.window = new LinkedHashMap<Object, EventTable[]>(16, HASH_TABLE_LOAD_FACTOR, true);
+            this.main = new LinkedHashMap<Object, EventTable[]>((int) Math.ceil(Math.min(mainCapacity, 1024) / HASH_TABLE_LOAD_FACTOR) + 1, HASH_TABLE_LOAD_FACTOR, true);
+            this.sketch = new DataCacheFrequencySketch(capacity);
+        }
+
+        synchronized EventTable[] get(Object key) {
+            sketch.increment(key);
+            EventTable[] value = window.get(key);
+            if (value == null) {
+                value = main.get(key);
+            }
+            return value;
+        }
+
+        synchronized int put(Object key, EventTable[] value) {
+            if (window.containsKey(key)) {
+                window.put(key, value);
+                return 0;
+            }
+            if (main.containsKey(key)) {
+                main.put(key, value);
+                return 0;
+            }
+
+            window.put(key, value);
+            if (window.size() <= windowCapacity) {
+                return 0;
+            }
+
+            // the least-recently-used entry of the window is the candidate for the main area
+            Iterator<Map.Entry<Object, EventTable[]>> windowIt = window.entrySet().iterator();
+            Map.Entry<Object, EventTable[]> candidate = windowIt.next();
+            windowIt.remove();
+            if (main.size() < mainCapacity) {
+                main.put(candidate.getKey(), candidate.getValue());
+                return 0;
+            }
+            if (mainCapacity == 0) {
+                return 1;
+            }
+
+            // admit the candidate only if accessed more frequently than the least-recently-used entry of the main area
+            Iterator<Map.Entry<Object, EventTable[]>> mainIt = main.entrySet().iterator();
+            Map.Entry<Object, EventTable[]> victim = mainIt.next();
+            if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+                mainIt.remove();
+                main.put(candidate.getKey(), candidate.getValue());
+            }
+            return 1;
+        }
+
+        synchronized int size() {
+            return window.size() + main.size();
+        }
+
+        synchronized void clear() {
+            window.clear();
+            main.clear();
+        }
+    }
+}
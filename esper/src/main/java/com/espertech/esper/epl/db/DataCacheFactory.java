@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.epl.db;
 
+import com.espertech.esper.client.ConfigurationConcurrentCache;
 import com.espertech.esper.client.ConfigurationDataCache;
 import com.espertech.esper.client.ConfigurationExpiryTimeCache;
 import com.espertech.esper.client.ConfigurationLRUCache;
@@ -22,6 +23,8 @@ import com.espertech.esper.schedule.SchedulingService;
  * Factory for data caches for use caching database query results and method invocation results.
  */
 public class DataCacheFactory {
+    private final DataCacheMetrics metrics = new DataCacheMetrics();
+
     /**
      * Creates a cache implementation for the strategy as defined by the cache descriptor.
      *
@@ -48,6 +51,11 @@ public class DataCacheFactory {
             return new DataCacheLRUImpl(lruCache.getSize());
         }
 
+        if (cacheDesc instanceof ConfigurationConcurrentCache) {
+            ConfigurationConcurrentCache concurrentCache = (ConfigurationConcurrentCache) cacheDesc;
+            return new DataCacheConcurrentImpl(concurrentCache.getSize(), concurrentCache.getNumSegments(), metrics);
+        }
+
         if (cacheDesc instanceof ConfigurationExpiryTimeCache) {
             ConfigurationExpiryTimeCache expCache = (ConfigurationExpiryTimeCache) cacheDesc;
             return makeTimeCache(expCache, statementContext, epStatementAgentInstanceHandle, schedulingService, scheduleBucket, streamNum);
@@ -56,6 +64,15 @@ public class DataCacheFactory {
         throw new IllegalStateException("Cache implementation class not configured");
     }
 
+    /**
+     * Returns the hit, miss and eviction counts of concurrent caches.
+     *
+     * @return metrics
+     */
+    public DataCacheMetrics getMetrics() {
+        return metrics;
+    }
+
     protected DataCache makeTimeCache(ConfigurationExpiryTimeCache expCache, StatementContext statementContext, EPStatementAgentInstanceHandle epStatementAgentInstanceHandle, SchedulingService schedulingService, ScheduleBucket scheduleBucket, int streamNum) {
         return new DataCacheExpiringImpl(expCache.getMaxAgeSeconds(), expCache.getPurgeIntervalSeconds(), expCache.getCacheReferenceType(),
                 schedulingService, scheduleBucket.allocateSlot(), epStatementAgentInstanceHandle, statementContext.getTimeAbacus());
@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.db;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Engine-wide hit, miss and eviction counts of data caches that report metrics.
+ */
+public class DataCacheMetrics {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Count a cache hit.
+     */
+    public void hit() {
+        hits.increment();
+    }
+
+    /**
+     * Count a cache miss.
+     */
+    public void miss() {
+        misses.increment();
+    }
+
+    /**
+     * Count evicted entries.
+     *
+     * @param count number of entries evicted
+     */
+    public void evicted(int count) {
+        evictions.add(count);
+    }
+
+    /**
+     * Returns the number of cache hits.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of cache misses.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of evicted entries.
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+}
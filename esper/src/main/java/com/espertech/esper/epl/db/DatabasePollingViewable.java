@@ -16,6 +16,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.IterablesArrayIterator;
 import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.epl.core.EngineImportService;
 import com.espertech.esper.epl.core.StreamTypeService;
 import com.espertech.esper.epl.expression.core.*;
@@ -45,6 +46,7 @@ public class DatabasePollingViewable implements HistoricalEventViewable {
     private final DataCache dataCache;
     private final EventType eventType;
     private final ThreadLocal<DataCache> dataCacheThreadLocal = new ThreadLocal<DataCache>();
+    private final ThreadingService optionalPollThreading;
 
     private ExprEvaluator[] evaluators;
     private SortedSet<Integer> subordinateStreams;
@@ -76,17 +78,20 @@ public class DatabasePollingViewable implements HistoricalEventViewable {
      * @param pollExecStrategy is the strategy to use for retrieving results
      * @param dataCache        is looked up before using the strategy
      * @param eventType        is the type of events generated by the view
+     * @param optionalPollThreading threading service for polling concurrently, or null to poll sequentially
      */
     public DatabasePollingViewable(int myStreamNumber,
                                    List<String> inputParameters,
                                    PollExecStrategy pollExecStrategy,
                                    DataCache dataCache,
-                                   EventType eventType) {
+                                   EventType eventType,
+                                   ThreadingService optionalPollThreading) {
         this.myStreamNumber = myStreamNumber;
         this.inputParameters = inputParameters;
         this.pollExecStrategy = pollExecStrategy;
         this.dataCache = dataCache;
         this.eventType = eventType;
+        this.optionalPollThreading = optionalPollThreading;
     }
 
     public void stop() {
@@ -138,8 +143,21 @@ public class DatabasePollingViewable implements HistoricalEventViewable {
 
     public EventTable[][] poll(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext) {
         DataCache localDataCache = dataCacheThreadLocal.get();
-        boolean strategyStarted = false;
 
+        // poll concurrently for multiple rows, if configured
+        if (optionalPollThreading != null && lookupEventsPerStream.length > 1) {
+            Object[][] lookupValuesPerRow = new Object[lookupEventsPerStream.length][];
+            for (int row = 0; row < lookupEventsPerStream.length; row++) {
+                Object[] lookupValues = new Object[inputParameters.size()];
+                for (int valueNum = 0; valueNum < inputParameters.size(); valueNum++) {
+                    lookupValues[valueNum] = evaluators[valueNum].evaluate(lookupEventsPerStream[row], true, exprEvaluatorContext);
+                }
+                lookupValuesPerRow[row] = lookupValues;
+            }
+            return PollExecParallel.poll(lookupValuesPerRow, pollExecStrategy, indexingStrategy, dataCache, localDataCache, optionalPollThreading, exprEvaluatorContext, statementContext);
+        }
+
+        boolean strategyStarted = false;
         EventTable[][] resultPerInputRow = new EventTable[lookupEventsPerStream.length][];
 
         // Get input parameters for each row
@@ -18,6 +18,7 @@ import com.espertech.esper.client.hook.SQLOutputRowConversion;
 import com.espertech.esper.client.hook.SQLOutputRowTypeContext;
 import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.generated.EsperEPL2GrammarLexer;
 import com.espertech.esper.epl.parse.NoCaseSensitiveStream;
@@ -61,6 +62,7 @@ public class DatabasePollingViewableFactory {
      * @param statementId                    statement id
      * @param statementContext               statement context
      * @param dataCacheFactory               factory for cache
+     * @param optionalPollThreading          threading service for polling concurrently, or null to poll sequentially
      * @return viewable providing poll functionality
      * @throws ExprValidationException if the validation failed
      */
@@ -74,7 +76,8 @@ public class DatabasePollingViewableFactory {
                                                                 SQLOutputRowConversion outputRowConversionHook,
                                                                 boolean enableJDBCLogging,
                                                                 DataCacheFactory dataCacheFactory,
-                                                                StatementContext statementContext)
+                                                                StatementContext statementContext,
+                                                                ThreadingService optionalPollThreading)
             throws ExprValidationException {
         // Parse the SQL for placeholders and text fragments
         List<PlaceholderParser.Fragment> sqlFragments;
@@ -232,7 +235,7 @@ public class DatabasePollingViewableFactory {
         PollExecStrategyDBQuery dbPollStrategy = new PollExecStrategyDBQuery(eventAdapterService,
                 eventType, connectionCache, preparedStatementText, queryMetaData.getOutputParameters(), columnTypeConversionHook, outputRowConversionHook, enableJDBCLogging);
 
-        return new DatabasePollingViewable(streamNumber, queryMetaData.getInputParameters(), dbPollStrategy, dataCache, eventType);
+        return new DatabasePollingViewable(streamNumber, queryMetaData.getInputParameters(), dbPollStrategy, dataCache, eventType, optionalPollThreading);
     }
 
     private static QueryMetaData getExampleQueryMetaData(Connection connection, String[] parameters, String sampleSQL, ColumnSettings metadataSetting, boolean isUsingMetadataSQL)
@@ -0,0 +1,160 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.collection.MultiKey;
+import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.core.thread.ThreadingService;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.join.pollindex.PollResultIndexingStrategy;
+import com.espertech.esper.epl.join.table.EventTable;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Polls a historical stream for a batch of lookup keys using the historical poll thread pool.
+ * <p>
+ * Lookup keys found in the data cache do not poll. The remaining lookup keys poll once per distinct key,
+ * each as a unit of work. Pool threads execute all but the first unit and the joining thread executes any unit
+ * that no pool thread picked up, and awaits completion of all units. The joining thread then indexes and caches the
+ * poll results in the order of the lookup keys, so that results are the same as when polling one key after the other.
+ * All units read variables at the version of the joining thread.
+ * <p>
+ * Only a batch of lookup keys polls concurrently, polls that belong to different events do not overlap.
+ */
+public class PollExecParallel {
+    /**
+     * Poll for each row of lookup keys.
+     *
+     * @param lookupValuesPerRow   lookup key values per row
+     * @param pollExecStrategy     strategy to poll
+     * @param indexingStrategy     strategy to index poll results
+     * @param dataCache            data cache
+     * @param localDataCache       thread-local iteration cache, or null if not set
+     * @param threadingService     threading service providing the historical poll thread pool
+     * @param exprEvaluatorContext context
+     * @param statementContext     statement context
+     * @return indexed poll results per row
+     */
+    public static EventTable[][] poll(Object[][] lookupValuesPerRow,
+                                      PollExecStrategy pollExecStrategy,
+                                      PollResultIndexingStrategy indexingStrategy,
+                                      DataCache dataCache,
+                                      DataCache localDataCache,
+                                      ThreadingService threadingService,
+                                      ExprEvaluatorContext exprEvaluatorContext,
+                                      StatementContext statementContext) {
+        EventTable[][] resultPerInputRow = new EventTable[lookupValuesPerRow.length][];
+        PollExecParallelUnit[] unitPerRow = new PollExecParallelUnit[lookupValuesPerRow.length];
+        Map<MultiKey<Object>, PollExecParallelUnit> units = null;
+        int variableVersion = statementContext.getVariableService().getLocalVersion();
+
+        for (int row = 0; row < lookupValuesPerRow.length; row++) {
+            Object[] lookupValues = lookupValuesPerRow[row];
+            EventTable[] result = null;
+
+            // try the threadlocal iteration cache, if set
+            if (localDataCache != null) {
+                result = localDataCache.getCached(lookupValues);
+            }
+
+            // try the connection cache
+            if (result == null) {
+                result = dataCache.getCached(lookupValues);
+                if ((result != null) && (localDataCache != null)) {
+                    localDataCache.put(lookupValues, result);
+                }
+            }
+
+            if (result != null) {
+                resultPerInputRow[row] = result;
+                continue;
+            }
+
+            // not found in cache, poll once per distinct key
+            if (units == null) {
+                units = new LinkedHashMap<MultiKey<Object>, PollExecParallelUnit>();
+            }
+            MultiKey<Object> key = new MultiKey<Object>(lookupValues);
+            PollExecParallelUnit unit = units.get(key);
+            if (unit == null) {
+                unit = new PollExecParallelUnit(pollExecStrategy, lookupValues, exprEvaluatorContext, statementContext.getVariableService(), variableVersion);
+                units.put(key, unit);
+            }
+            unitPerRow[row] = unit;
+        }
+
+        if (units == null) {
+            return resultPerInputRow;
+        }
+
+        execute(units.values(), threadingService);
+
+        for (int row = 0; row < lookupValuesPerRow.length; row++) {
+            PollExecParallelUnit unit = unitPerRow[row];
+            if (unit == null) {
+                continue;
+            }
+            if (unit.getIndexTable() == null) {
+                // index the result, if required, using an indexing strategy
+                EventTable[] indexTable = indexingStrategy.index(unit.getPollResult(), dataCache.isActive(), statementContext);
+                unit.setIndexTable(indexTable);
+
+                // save in cache
+                dataCache.put(unit.getLookupValues(), indexTable);
+                if (localDataCache != null) {
+                    localDataCache.put(unit.getLookupValues(), indexTable);
+                }
+            }
+            resultPerInputRow[row] = unit.getIndexTable();
+        }
+
+        return resultPerInputRow;
+    }
+
+    private static void execute(Collection<PollExecParallelUnit> units, ThreadingService threadingService) {
+        CountDownLatch completion = new CountDownLatch(units.size());
+        for (PollExecParallelUnit unit : units) {
+            unit.setCompletion(completion);
+        }
+
+        // the joining thread takes the first unit, the pool takes the remaining units
+        Iterator<PollExecParallelUnit> it = units.iterator();
+        it.next();
+        while (it.hasNext()) {
+            threadingService.submitHistoricalPoll(it.next());
+        }
+
+        for (PollExecParallelUnit unit : units) {
+            if (unit.claim()) {
+                unit.execute();
+            }
+        }
+
+        try {
+            completion.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EPException("Interrupted awaiting completion of historical poll", e);
+        }
+
+        for (PollExecParallelUnit unit : units) {
+            if (unit.getException() != null) {
+                throw unit.getException();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.thread.HistoricalPollUnitRunnable;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.epl.variable.VariableService;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Work unit for polling a historical stream for a single lookup key.
+ * <p>
+ * A unit executes either by a thread of the historical poll thread pool or, when no pool thread
+ * picked up the unit yet, by the joining thread.
+ */
+public class PollExecParallelUnit implements HistoricalPollUnitRunnable {
+    private final PollExecStrategy pollExecStrategy;
+    private final Object[] lookupValues;
+    private final ExprEvaluatorContext exprEvaluatorContext;
+    private final VariableService variableService;
+    private final int variableVersion;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    private CountDownLatch completion;
+    private List<EventBean> pollResult;
+    private RuntimeException exception;
+    private EventTable[] indexTable;
+
+    /**
+     * Ctor.
+     *
+     * @param pollExecStrategy     strategy to poll
+     * @param lookupValues         lookup key values
+     * @param exprEvaluatorContext context
+     * @param variableService      variable service
+     * @param variableVersion      variable version of the joining thread, so that all units read the same variable values
+     */
+    public PollExecParallelUnit(PollExecStrategy pollExecStrategy, Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext, VariableService variableService, int variableVersion) {
+        this.pollExecStrategy = pollExecStrategy;
+        this.lookupValues = lookupValues;
+        this.exprEvaluatorContext = exprEvaluatorContext;
+        this.variableService = variableService;
+        this.variableVersion = variableVersion;
+    }
+
+    public void run() {
+        if (!claim()) {
+            return;
+        }
+        execute();
+    }
+
+    /**
+     * Claims the unit for execution, returning false if the unit was already claimed.
+     *
+     * @return indicator whether claimed by the current thread
+     */
+    public boolean claim() {
+        return claimed.compareAndSet(false, true);
+    }
+
+    /**
+     * Polls and indicates completion, retaining any exception for the joining thread.
+     */
+    public void execute() {
+        try {
+            variableService.setLocalVersion(variableVersion);
+            pollResult = pollExecStrategy.pollStandalone(lookupValues, exprEvaluatorContext);
+        } catch (RuntimeException ex) {
+            exception = ex;
+        } finally {
+            completion.countDown();
+        }
+    }
+
+    /**
+     * Sets the latch to count down when the unit completed.
+     *
+     * @param completion latch
+     */
+    public void setCompletion(CountDownLatch completion) {
+        this.completion = completion;
+    }
+
+    public Object[] getLookupValues() {
+        return lookupValues;
+    }
+
+    public List<EventBean> getPollResult() {
+        return pollResult;
+    }
+
+    public RuntimeException getException() {
+        return exception;
+    }
+
+    public EventTable[] getIndexTable() {
+        return indexTable;
+    }
+
+    public void setIndexTable(EventTable[] indexTable) {
+        this.indexTable = indexTable;
+    }
+}
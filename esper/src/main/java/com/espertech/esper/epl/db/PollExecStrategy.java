@@ -35,6 +35,17 @@ public interface PollExecStrategy {
      */
     public List<EventBean> poll(Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext);
 
+    /**
+     * Poll events using the keys provided, obtaining and releasing any resources for the single poll.
+     * <p>
+     * Does not require start and done and may be called by multiple threads concurrently.
+     *
+     * @param lookupValues         is keys for exeuting a query or such
+     * @param exprEvaluatorContext context
+     * @return a list of events for the keys
+     */
+    public List<EventBean> pollStandalone(Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext);
+
     /**
      * Indicate we are done polling and can release resources.
      */
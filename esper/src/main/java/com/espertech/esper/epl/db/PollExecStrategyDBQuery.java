@@ -100,8 +100,30 @@ public class PollExecStrategyDBQuery implements PollExecStrategy {
         return result;
     }
 
+    public List<EventBean> pollStandalone(Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+        // a shared connection and statement pair allows one query at a time
+        if (connectionCache.isSharedConnection()) {
+            synchronized (this) {
+                Pair<Connection, PreparedStatement> shared = connectionCache.getConnection();
+                return executeInternal(shared.getSecond(), lookupValues);
+            }
+        }
+
+        Pair<Connection, PreparedStatement> pair = connectionCache.getConnection();
+        try {
+            return executeInternal(pair.getSecond(), lookupValues);
+        } finally {
+            connectionCache.doneWith(pair);
+        }
+    }
+
     private synchronized List<EventBean> execute(PreparedStatement preparedStatement,
                                                  Object[] lookupValuePerStream) {
+        return executeInternal(preparedStatement, lookupValuePerStream);
+    }
+
+    private List<EventBean> executeInternal(PreparedStatement preparedStatement,
+                                            Object[] lookupValuePerStream) {
         if (ExecutionPathDebugLog.isDebugEnabled && log.isInfoEnabled()) {
             log.info(".execute Executing prepared statement '" + preparedStatementText + "'");
         }
@@ -0,0 +1,595 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.codegen;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.epl.expression.core.ExprConstantNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprIdentNode;
+import com.espertech.esper.epl.expression.core.ExprIdentNodeEvaluatorImpl;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.funcs.ExprCastNode;
+import com.espertech.esper.epl.expression.ops.ExprAndNodeImpl;
+import com.espertech.esper.epl.expression.ops.ExprMathNode;
+import com.espertech.esper.epl.expression.ops.ExprNotNode;
+import com.espertech.esper.epl.expression.ops.ExprOrNode;
+import com.espertech.esper.epl.expression.ops.ExprRelationalOpNodeImpl;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.type.MathArithTypeEnum;
+import com.espertech.esper.type.RelationalOpEnum;
+import com.espertech.esper.util.CoercionException;
+import com.espertech.esper.util.JavaClassHelper;
+import net.sf.cglib.asm.$ClassWriter;
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$MethodVisitor;
+import net.sf.cglib.asm.$Opcodes;
+import net.sf.cglib.asm.$Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiles a validated expression node tree into a generated {@link ExprEvaluator} class.
+ * <p>
+ * Arithmetic, relational operators, and/or/not, numeric casts, constants and event properties are translated
+ * into bytecode computing with primitive local variables, so that evaluating the tree neither dispatches
+ * to the evaluator of each node nor boxes intermediate values. Any other node is evaluated by calling its own
+ * evaluator from the generated code. The generated evaluator returns the same values as the evaluator of the
+ * root node, including null for null operands.
+ * <p>
+ * Each compiled expression is a class defined by its own class loader, so that it is unloaded with the statement.
+ */
+public class ExprNodeCompiler {
+    private static final Logger log = LoggerFactory.getLogger(ExprNodeCompiler.class);
+
+    private static final AtomicInteger CLASS_NUMBER = new AtomicInteger();
+    private static final String PACKAGE_INTERNAL = "com/espertech/esper/epl/expression/codegen/";
+    private static final String EVALUATOR_INTERNAL = $Type.getInternalName(ExprEvaluator.class);
+    private static final String GETTER_INTERNAL = $Type.getInternalName(EventPropertyGetter.class);
+    private static final String EVALUATORS_DESC = "[" + $Type.getDescriptor(ExprEvaluator.class);
+    private static final String GETTERS_DESC = "[" + $Type.getDescriptor(EventPropertyGetter.class);
+    private static final String EVALUATE_DESC = "(" + "[" + $Type.getDescriptor(EventBean.class) + "Z" + $Type.getDescriptor(ExprEvaluatorContext.class) + ")Ljava/lang/Object;";
+    private static final String GETTER_GET_DESC = "(" + $Type.getDescriptor(EventBean.class) + ")Ljava/lang/Object;";
+    private static final String CTOR_DESC = "(" + EVALUATORS_DESC + GETTERS_DESC + "Ljava/lang/Class;)V";
+
+    private static final int LOCAL_EVENTS = 1;
+    private static final int LOCAL_ISNEWDATA = 2;
+    private static final int LOCAL_CONTEXT = 3;
+
+    private final List<ExprEvaluator> evaluators = new ArrayList<ExprEvaluator>();
+    private final List<EventPropertyGetter> getters = new ArrayList<EventPropertyGetter>();
+    private final String className;
+    private $MethodVisitor mv;
+    private int nextLocal = 4;
+
+    private ExprNodeCompiler(String className) {
+        this.className = className;
+    }
+
+    /**
+     * Compiles the expression into an evaluator, if the root node is an operator that can be compiled.
+     *
+     * @param node validated expression node
+     * @return compiled evaluator, or the node's own evaluator if the node cannot be compiled
+     */
+    public static ExprEvaluator compileOrDefault(ExprNode node) {
+        ExprEvaluator compiled = compile(node);
+        return compiled == null ? node.getExprEvaluator() : compiled;
+    }
+
+    /**
+     * Compiles the expression into an evaluator.
+     *
+     * @param node validated expression node
+     * @return compiled evaluator, or null if the root node is not an operator that can be compiled
+     * or instrumentation is enabled
+     */
+    public static ExprEvaluator compile(ExprNode node) {
+        if (InstrumentationHelper.ENABLED || !isCompilableRoot(node)) {
+            return null;
+        }
+        String className = PACKAGE_INTERNAL + "ExprEvaluatorGenerated" + CLASS_NUMBER.incrementAndGet();
+        try {
+            ExprNodeCompiler compiler = new ExprNodeCompiler(className);
+            byte[] bytes = compiler.generate(node);
+            Class clazz = new ExprNodeCompilerClassLoader(ExprNodeCompiler.class.getClassLoader()).define(className.replace('/', '.'), bytes);
+            ExprEvaluator[] evaluatorArray = compiler.evaluators.toArray(new ExprEvaluator[compiler.evaluators.size()]);
+            EventPropertyGetter[] getterArray = compiler.getters.toArray(new EventPropertyGetter[compiler.getters.size()]);
+            return (ExprEvaluator) clazz.getConstructor(ExprEvaluator[].class, EventPropertyGetter[].class, Class.class)
+                    .newInstance(evaluatorArray, getterArray, node.getExprEvaluator().getType());
+        } catch (Throwable t) {
+            log.warn("Failed to compile expression, using interpreted evaluation: " + t.getMessage(), t);
+            return null;
+        }
+    }
+
+    private static boolean isCompilableRoot(ExprNode node) {
+        return (compilableMath(node) != null) ||
+                (compilableRelationalCompareType(node) != null) ||
+                (node instanceof ExprAndNodeImpl) ||
+                (node instanceof ExprOrNode) ||
+                (node instanceof ExprNotNode) ||
+                (compilableCast(node) != null);
+    }
+
+    private byte[] generate(ExprNode node) {
+        $ClassWriter cw = new $ClassWriter($ClassWriter.COMPUTE_FRAMES | $ClassWriter.COMPUTE_MAXS) {
+            protected String getCommonSuperClass(String typeOne, String typeTwo) {
+                // locals holding references are always cast before use
+                return "java/lang/Object";
+            }
+        };
+        cw.visit($Opcodes.V1_8, $Opcodes.ACC_PUBLIC | $Opcodes.ACC_FINAL | $Opcodes.ACC_SUPER, className, null, "java/lang/Object", new String[]{EVALUATOR_INTERNAL});
+        cw.visitField($Opcodes.ACC_PRIVATE | $Opcodes.ACC_FINAL, "evaluators", EVALUATORS_DESC, null, null).visitEnd();
+        cw.visitField($Opcodes.ACC_PRIVATE | $Opcodes.ACC_FINAL, "getters", GETTERS_DESC, null, null).visitEnd();
+        cw.visitField($Opcodes.ACC_PRIVATE | $Opcodes.ACC_FINAL, "type", "Ljava/lang/Class;", null, null).visitEnd();
+
+        // constructor
+        $MethodVisitor ctor = cw.visitMethod($Opcodes.ACC_PUBLIC, "<init>", CTOR_DESC, null, null);
+        ctor.visitCode();
+        ctor.visitVarInsn($Opcodes.ALOAD, 0);
+        ctor.visitMethodInsn($Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        ctor.visitVarInsn($Opcodes.ALOAD, 0);
+        ctor.visitVarInsn($Opcodes.ALOAD, 1);
+        ctor.visitFieldInsn($Opcodes.PUTFIELD, className, "evaluators", EVALUATORS_DESC);
+        ctor.visitVarInsn($Opcodes.ALOAD, 0);
+        ctor.visitVarInsn($Opcodes.ALOAD, 2);
+        ctor.visitFieldInsn($Opcodes.PUTFIELD, className, "getters", GETTERS_DESC);
+        ctor.visitVarInsn($Opcodes.ALOAD, 0);
+        ctor.visitVarInsn($Opcodes.ALOAD, 3);
+        ctor.visitFieldInsn($Opcodes.PUTFIELD, className, "type", "Ljava/lang/Class;");
+        ctor.visitInsn($Opcodes.RETURN);
+        ctor.visitMaxs(0, 0);
+        ctor.visitEnd();
+
+        // type
+        $MethodVisitor getType = cw.visitMethod($Opcodes.ACC_PUBLIC, "getType", "()Ljava/lang/Class;", null, null);
+        getType.visitCode();
+        getType.visitVarInsn($Opcodes.ALOAD, 0);
+        getType.visitFieldInsn($Opcodes.GETFIELD, className, "type", "Ljava/lang/Class;");
+        getType.visitInsn($Opcodes.ARETURN);
+        getType.visitMaxs(0, 0);
+        getType.visitEnd();
+
+        // evaluate
+        mv = cw.visitMethod($Opcodes.ACC_PUBLIC, "evaluate", EVALUATE_DESC, null, null);
+        mv.visitCode();
+        $Label nullLabel = new $Label();
+        Value result = gen(node, nullLabel);
+        Kind resultKind = Kind.of(node.getExprEvaluator().getType());
+        if (resultKind == Kind.OBJECT) {
+            load(result);
+        } else {
+            convert(result, resultKind, nullLabel);
+            resultKind.box(mv);
+        }
+        mv.visitInsn($Opcodes.ARETURN);
+        mv.visitLabel(nullLabel);
+        mv.visitInsn($Opcodes.ACONST_NULL);
+        mv.visitInsn($Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * Generates code computing the node into a new local variable. Jumps to the null label, with an empty
+     * operand stack, when a primitive-kind result is null.
+     */
+    private Value gen(ExprNode node, $Label nullLabel) {
+        if (node.getClass() == ExprConstantNodeImpl.class) {
+            Value constant = genConstant((ExprConstantNodeImpl) node);
+            if (constant != null) {
+                return constant;
+            }
+        } else if (node instanceof ExprIdentNode && ((ExprIdentNode) node).getExprEvaluatorIdent().getClass() == ExprIdentNodeEvaluatorImpl.class) {
+            return genIdent((ExprIdentNodeEvaluatorImpl) ((ExprIdentNode) node).getExprEvaluatorIdent());
+        } else if (compilableMath(node) != null) {
+            return genMath((ExprMathNode) node, compilableMath(node), nullLabel);
+        } else if (compilableRelationalCompareType(node) != null) {
+            return genRelational((ExprRelationalOpNodeImpl) node, compilableRelationalCompareType(node), nullLabel);
+        } else if (node instanceof ExprAndNodeImpl || node instanceof ExprOrNode) {
+            return genAndOr(node, node instanceof ExprAndNodeImpl, nullLabel);
+        } else if (node instanceof ExprNotNode) {
+            Value child = gen(node.getChildNodes()[0], nullLabel);
+            convert(child, Kind.BOOLEAN, nullLabel);
+            mv.visitInsn($Opcodes.ICONST_1);
+            mv.visitInsn($Opcodes.IXOR);
+            return store(Kind.BOOLEAN);
+        } else if (compilableCast(node) != null) {
+            Value child = gen(node.getChildNodes()[0], nullLabel);
+            Kind target = compilableCast(node);
+            convert(child, target, nullLabel);
+            return store(target);
+        }
+        return genEvaluator(node.getExprEvaluator());
+    }
+
+    private Value genConstant(ExprConstantNodeImpl node) {
+        Object value = node.getConstantValue(null);
+        if (value instanceof Boolean) {
+            mv.visitInsn((Boolean) value ? $Opcodes.ICONST_1 : $Opcodes.ICONST_0);
+            return store(Kind.BOOLEAN);
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Float || value instanceof Double) {
+            mv.visitLdcInsn(value);
+            return store(Kind.of(value.getClass()));
+        }
+        if (value instanceof String) {
+            mv.visitLdcInsn(value);
+            return store(Kind.OBJECT);
+        }
+        return null;
+    }
+
+    private Value genIdent(ExprIdentNodeEvaluatorImpl evaluator) {
+        int getterNum = getters.size();
+        getters.add(evaluator.getGetter());
+
+        int eventLocal = nextLocal++;
+        $Label nullEvent = new $Label();
+        $Label done = new $Label();
+        mv.visitVarInsn($Opcodes.ALOAD, LOCAL_EVENTS);
+        pushInt(evaluator.getStreamNum());
+        mv.visitInsn($Opcodes.AALOAD);
+        mv.visitVarInsn($Opcodes.ASTORE, eventLocal);
+        mv.visitVarInsn($Opcodes.ALOAD, eventLocal);
+        mv.visitJumpInsn($Opcodes.IFNULL, nullEvent);
+        mv.visitVarInsn($Opcodes.ALOAD, 0);
+        mv.visitFieldInsn($Opcodes.GETFIELD, className, "getters", GETTERS_DESC);
+        pushInt(getterNum);
+        mv.visitInsn($Opcodes.AALOAD);
+        mv.visitVarInsn($Opcodes.ALOAD, eventLocal);
+        mv.visitMethodInsn($Opcodes.INVOKEINTERFACE, GETTER_INTERNAL, "get", GETTER_GET_DESC, true);
+        mv.visitJumpInsn($Opcodes.GOTO, done);
+        mv.visitLabel(nullEvent);
+        mv.visitInsn($Opcodes.ACONST_NULL);
+        mv.visitLabel(done);
+        return store(Kind.OBJECT);
+    }
+
+    private Value genEvaluator(ExprEvaluator evaluator) {
+        int evaluatorNum = evaluators.size();
+        evaluators.add(evaluator);
+        mv.visitVarInsn($Opcodes.ALOAD, 0);
+        mv.visitFieldInsn($Opcodes.GETFIELD, className, "evaluators", EVALUATORS_DESC);
+        pushInt(evaluatorNum);
+        mv.visitInsn($Opcodes.AALOAD);
+        mv.visitVarInsn($Opcodes.ALOAD, LOCAL_EVENTS);
+        mv.visitVarInsn($Opcodes.ILOAD, LOCAL_ISNEWDATA);
+        mv.visitVarInsn($Opcodes.ALOAD, LOCAL_CONTEXT);
+        mv.visitMethodInsn($Opcodes.INVOKEINTERFACE, EVALUATOR_INTERNAL, "evaluate", EVALUATE_DESC, true);
+        return store(Kind.OBJECT);
+    }
+
+    private Value genMath(ExprMathNode node, Kind kind, $Label nullLabel) {
+        Value left = gen(node.getChildNodes()[0], nullLabel);
+        left = convertStore(left, kind, nullLabel);
+        Value right = gen(node.getChildNodes()[1], nullLabel);
+        right = convertStore(right, kind, nullLabel);
+
+        MathArithTypeEnum op = node.getMathArithTypeEnum();
+        if (op == MathArithTypeEnum.DIVIDE) {
+            boolean zeroIsNull = kind != Kind.DOUBLE || node.isDivisionByZeroReturnsNull();
+            if (zeroIsNull) {
+                load(right);
+                kind.pushZeroCompare(mv);
+                mv.visitJumpInsn($Opcodes.IFEQ, nullLabel);
+            }
+        }
+        load(left);
+        load(right);
+        mv.visitInsn(kind.arithOpcode(op));
+        return store(kind);
+    }
+
+    private Value genRelational(ExprRelationalOpNodeImpl node, Kind kind, $Label nullLabel) {
+        Value left = gen(node.getChildNodes()[0], nullLabel);
+        left = convertStore(left, kind, nullLabel);
+        Value right = gen(node.getChildNodes()[1], nullLabel);
+        right = convertStore(right, kind, nullLabel);
+
+        RelationalOpEnum op = node.getRelationalOpEnum();
+        load(left);
+        load(right);
+        boolean greater = op == RelationalOpEnum.GT || op == RelationalOpEnum.GE;
+        if (kind == Kind.LONG) {
+            mv.visitInsn($Opcodes.LCMP);
+        } else {
+            // NaN compares false, as with Java comparison operators
+            mv.visitInsn(greater ? $Opcodes.DCMPL : $Opcodes.DCMPG);
+        }
+        $Label isFalse = new $Label();
+        $Label done = new $Label();
+        int falseJump;
+        if (op == RelationalOpEnum.GT) {
+            falseJump = $Opcodes.IFLE;
+        } else if (op == RelationalOpEnum.GE) {
+            falseJump = $Opcodes.IFLT;
+        } else if (op == RelationalOpEnum.LT) {
+            falseJump = $Opcodes.IFGE;
+        } else {
+            falseJump = $Opcodes.IFGT;
+        }
+        mv.visitJumpInsn(falseJump, isFalse);
+        mv.visitInsn($Opcodes.ICONST_1);
+        mv.visitJumpInsn($Opcodes.GOTO, done);
+        mv.visitLabel(isFalse);
+        mv.visitInsn($Opcodes.ICONST_0);
+        mv.visitLabel(done);
+        return store(Kind.BOOLEAN);
+    }
+
+    private Value genAndOr(ExprNode node, boolean isAnd, $Label nullLabel) {
+        // a child evaluating to false (and) or true (or) decides the result, else any null child makes the result null
+        int hasNullLocal = nextLocal++;
+        mv.visitInsn($Opcodes.ICONST_0);
+        mv.visitVarInsn($Opcodes.ISTORE, hasNullLocal);
+        $Label decided = new $Label();
+        for (ExprNode child : node.getChildNodes()) {
+            $Label childNull = new $Label();
+            $Label next = new $Label();
+            Value value = gen(child, childNull);
+            convert(value, Kind.BOOLEAN, childNull);
+            mv.visitJumpInsn(isAnd ? $Opcodes.IFEQ : $Opcodes.IFNE, decided);
+            mv.visitJumpInsn($Opcodes.GOTO, next);
+            mv.visitLabel(childNull);
+            mv.visitInsn($Opcodes.ICONST_1);
+            mv.visitVarInsn($Opcodes.ISTORE, hasNullLocal);
+            mv.visitLabel(next);
+        }
+        int resultLocal = nextLocal++;
+        $Label done = new $Label();
+        mv.visitVarInsn($Opcodes.ILOAD, hasNullLocal);
+        mv.visitJumpInsn($Opcodes.IFNE, nullLabel);
+        mv.visitInsn(isAnd ? $Opcodes.ICONST_1 : $Opcodes.ICONST_0);
+        mv.visitVarInsn($Opcodes.ISTORE, resultLocal);
+        mv.visitJumpInsn($Opcodes.GOTO, done);
+        mv.visitLabel(decided);
+        mv.visitInsn(isAnd ? $Opcodes.ICONST_0 : $Opcodes.ICONST_1);
+        mv.visitVarInsn($Opcodes.ISTORE, resultLocal);
+        mv.visitLabel(done);
+        return new Value(resultLocal, Kind.BOOLEAN);
+    }
+
+    private Value convertStore(Value value, Kind kind, $Label nullLabel) {
+        if (value.kind == kind) {
+            return value;
+        }
+        convert(value, kind, nullLabel);
+        return store(kind);
+    }
+
+    /**
+     * Pushes the value converted to the kind, jumping to the null label when the value is a null reference.
+     */
+    private void convert(Value value, Kind kind, $Label nullLabel) {
+        if (value.kind == Kind.OBJECT) {
+            mv.visitVarInsn($Opcodes.ALOAD, value.local);
+            mv.visitJumpInsn($Opcodes.IFNULL, nullLabel);
+            mv.visitVarInsn($Opcodes.ALOAD, value.local);
+            kind.unbox(mv);
+            return;
+        }
+        load(value);
+        value.kind.convertTo(kind, mv);
+    }
+
+    private void load(Value value) {
+        mv.visitVarInsn(value.kind.loadOpcode, value.local);
+    }
+
+    private Value store(Kind kind) {
+        int local = nextLocal;
+        nextLocal += kind.size;
+        mv.visitVarInsn(kind.storeOpcode, local);
+        return new Value(local, kind);
+    }
+
+    private void pushInt(int value) {
+        if (value <= 5) {
+            mv.visitInsn($Opcodes.ICONST_0 + value);
+        } else {
+            mv.visitIntInsn($Opcodes.SIPUSH, value);
+        }
+    }
+
+    private static Kind compilableMath(ExprNode node) {
+        if (!(node instanceof ExprMathNode)) {
+            return null;
+        }
+        ExprMathNode math = (ExprMathNode) node;
+        if (!isPrimitiveNumeric(math.getChildNodes()[0]) || !isPrimitiveNumeric(math.getChildNodes()[1])) {
+            return null;
+        }
+        Kind kind = Kind.of(math.getType());
+        if (kind != Kind.INT && kind != Kind.LONG && kind != Kind.FLOAT && kind != Kind.DOUBLE) {
+            return null;
+        }
+        if (math.getMathArithTypeEnum() == MathArithTypeEnum.DIVIDE && !math.isIntegerDivision() && kind != Kind.DOUBLE) {
+            return null;
+        }
+        return kind;
+    }
+
+    private static Kind compilableRelationalCompareType(ExprNode node) {
+        if (!(node instanceof ExprRelationalOpNodeImpl)) {
+            return null;
+        }
+        if (!isPrimitiveNumeric(node.getChildNodes()[0]) || !isPrimitiveNumeric(node.getChildNodes()[1])) {
+            return null;
+        }
+        Class compareType;
+        try {
+            compareType = JavaClassHelper.getCompareToCoercionType(JavaClassHelper.getBoxedType(node.getChildNodes()[0].getExprEvaluator().getType()),
+                    JavaClassHelper.getBoxedType(node.getChildNodes()[1].getExprEvaluator().getType()));
+        } catch (CoercionException ex) {
+            return null;
+        }
+        if (compareType == Integer.class || compareType == Long.class) {
+            return Kind.LONG;
+        }
+        if (compareType == Float.class || compareType == Double.class) {
+            return Kind.DOUBLE;
+        }
+        return null;
+    }
+
+    private static Kind compilableCast(ExprNode node) {
+        if (!(node instanceof ExprCastNode)) {
+            return null;
+        }
+        ExprCastNode cast = (ExprCastNode) node;
+        if (cast.getChildNodes().length != 1 || cast.isConstantResult() || !isPrimitiveNumeric(cast.getChildNodes()[0])) {
+            return null;
+        }
+        Kind kind = Kind.of(cast.getTargetType());
+        if (kind != Kind.INT && kind != Kind.LONG && kind != Kind.FLOAT && kind != Kind.DOUBLE) {
+            return null;
+        }
+        return kind;
+    }
+
+    private static boolean isPrimitiveNumeric(ExprNode node) {
+        Class type = node.getExprEvaluator().getType();
+        if (type == null) {
+            return false;
+        }
+        type = JavaClassHelper.getBoxedType(type);
+        return type == Integer.class || type == Long.class || type == Float.class || type == Double.class ||
+                type == Short.class || type == Byte.class;
+    }
+
+    private static class Value {
+        private final int local;
+        private final Kind kind;
+
+        private Value(int local, Kind kind) {
+            this.local = local;
+            this.kind = kind;
+        }
+    }
+
+    private enum Kind {
+        INT("intValue", "I", Integer.class, $Opcodes.ILOAD, $Opcodes.ISTORE, 1),
+        LONG("longValue", "J", Long.class, $Opcodes.LLOAD, $Opcodes.LSTORE, 2),
+        FLOAT("floatValue", "F", Float.class, $Opcodes.FLOAD, $Opcodes.FSTORE, 1),
+        DOUBLE("doubleValue", "D", Double.class, $Opcodes.DLOAD, $Opcodes.DSTORE, 2),
+        BOOLEAN("booleanValue", "Z", Boolean.class, $Opcodes.ILOAD, $Opcodes.ISTORE, 1),
+        OBJECT(null, null, Object.class, $Opcodes.ALOAD, $Opcodes.ASTORE, 1);
+
+        private final String unboxMethod;
+        private final String descriptor;
+        private final Class boxed;
+        private final int loadOpcode;
+        private final int storeOpcode;
+        private final int size;
+
+        Kind(String unboxMethod, String descriptor, Class boxed, int loadOpcode, int storeOpcode, int size) {
+            this.unboxMethod = unboxMethod;
+            this.descriptor = descriptor;
+            this.boxed = boxed;
+            this.loadOpcode = loadOpcode;
+            this.storeOpcode = storeOpcode;
+            this.size = size;
+        }
+
+        private static Kind of(Class type) {
+            type = JavaClassHelper.getBoxedType(type);
+            if (type == Integer.class) {
+                return INT;
+            }
+            if (type == Long.class) {
+                return LONG;
+            }
+            if (type == Float.class) {
+                return FLOAT;
+            }
+            if (type == Double.class) {
+                return DOUBLE;
+            }
+            if (type == Boolean.class) {
+                return BOOLEAN;
+            }
+            return OBJECT;
+        }
+
+        private void unbox($MethodVisitor mv) {
+            String owner = this == BOOLEAN ? "java/lang/Boolean" : "java/lang/Number";
+            mv.visitTypeInsn($Opcodes.CHECKCAST, owner);
+            mv.visitMethodInsn($Opcodes.INVOKEVIRTUAL, owner, unboxMethod, "()" + descriptor, false);
+        }
+
+        private void box($MethodVisitor mv) {
+            String owner = $Type.getInternalName(boxed);
+            mv.visitMethodInsn($Opcodes.INVOKESTATIC, owner, "valueOf", "(" + descriptor + ")L" + owner + ";", false);
+        }
+
+        private void convertTo(Kind target, $MethodVisitor mv) {
+            if (this == target) {
+                return;
+            }
+            if (this == BOOLEAN || target == BOOLEAN || this == OBJECT || target == OBJECT) {
+                throw new IllegalStateException("Unsupported conversion from " + this + " to " + target);
+            }
+            int[][] opcodes = new int[][]{
+                    {$Opcodes.NOP, $Opcodes.I2L, $Opcodes.I2F, $Opcodes.I2D},
+                    {$Opcodes.L2I, $Opcodes.NOP, $Opcodes.L2F, $Opcodes.L2D},
+                    {$Opcodes.F2I, $Opcodes.F2L, $Opcodes.NOP, $Opcodes.F2D},
+                    {$Opcodes.D2I, $Opcodes.D2L, $Opcodes.D2F, $Opcodes.NOP}};
+            mv.visitInsn(opcodes[ordinal()][target.ordinal()]);
+        }
+
+        private void pushZeroCompare($MethodVisitor mv) {
+            // leaves zero on the stack if the value on the stack is zero
+            if (this == LONG) {
+                mv.visitInsn($Opcodes.LCONST_0);
+                mv.visitInsn($Opcodes.LCMP);
+            } else if (this == FLOAT) {
+                mv.visitInsn($Opcodes.FCONST_0);
+                mv.visitInsn($Opcodes.FCMPL);
+            } else if (this == DOUBLE) {
+                mv.visitInsn($Opcodes.DCONST_0);
+                mv.visitInsn($Opcodes.DCMPL);
+            }
+        }
+
+        private int arithOpcode(MathArithTypeEnum op) {
+            int base;
+            switch (op) {
+                case ADD:
+                    base = $Opcodes.IADD;
+                    break;
+                case SUBTRACT:
+                    base = $Opcodes.ISUB;
+                    break;
+                case MULTIPLY:
+                    base = $Opcodes.IMUL;
+                    break;
+                case DIVIDE:
+                    base = $Opcodes.IDIV;
+                    break;
+                default:
+                    base = $Opcodes.IREM;
+                    break;
+            }
+            // the int, long, float and double variants of each instruction are consecutive
+            return base + ordinal();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.codegen;
+
+/**
+ * Class loader defining a single generated expression evaluator class.
+ */
+public class ExprNodeCompilerClassLoader extends ClassLoader {
+    /**
+     * Ctor.
+     *
+     * @param parent the loader of the engine classes that generated code refers to
+     */
+    public ExprNodeCompilerClassLoader(ClassLoader parent) {
+        super(parent);
+    }
+
+    /**
+     * Defines the class.
+     *
+     * @param name  class name
+     * @param bytes class bytes
+     * @return class
+     */
+    public Class define(String name, byte[] bytes) {
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+}
@@ -169,4 +169,22 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator {
     public MathArithTypeEnum getMathArithTypeEnum() {
         return mathArithTypeEnum;
     }
+
+    /**
+     * Returns true for Java-standard integer division, false for division returning double.
+     *
+     * @return integer division indicator
+     */
+    public boolean isIntegerDivision() {
+        return isIntegerDivision;
+    }
+
+    /**
+     * Returns true if division by zero returns null, false for infinity.
+     *
+     * @return division-by-zero indicator
+     */
+    public boolean isDivisionByZeroReturnsNull() {
+        return isDivisionByZeroReturnsNull;
+    }
 }
@@ -95,7 +95,8 @@ public class FireAndForgetQueryExec {
             if (indexHint != null) {
                 optionalIndexHintInstructions = indexHint.getInstructionsFireAndForget();
             }
-            tablePair = indexRepository.findTable(keysAvailable, rangesAvailable, optionalIndexHintInstructions);
+            boolean costBased = agentInstanceContext.getStatementContext().getConfigSnapshot().getEngineDefaults().getExecution().isFireAndForgetCostBasedPlanning();
+            tablePair = indexRepository.findTable(keysAvailable, rangesAvailable, optionalIndexHintInstructions, costBased);
         }
 
         QueryPlanIndexHook hook = QueryPlanIndexHookUtil.getHook(annotations, agentInstanceContext.getStatementContext().getEngineImportService());
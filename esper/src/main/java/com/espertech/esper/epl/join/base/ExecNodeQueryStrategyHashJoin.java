@@ -0,0 +1,46 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.join.base;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MultiKey;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.join.exec.base.TableLookupHashJoinExecNode;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Set;
+
+/**
+ * Query strategy for building a join tuple set that executes batches of lookup events as a hash join.
+ */
+public class ExecNodeQueryStrategyHashJoin extends ExecNodeQueryStrategy {
+    private final TableLookupHashJoinExecNode hashJoinExecNode;
+
+    /**
+     * Ctor.
+     *
+     * @param forStream  - stream the strategy is for
+     * @param numStreams - number of streams in total
+     * @param execNode   - execution node for building join tuple set
+     */
+    public ExecNodeQueryStrategyHashJoin(int forStream, int numStreams, TableLookupHashJoinExecNode execNode) {
+        super(forStream, numStreams, execNode);
+        this.hashJoinExecNode = execNode;
+    }
+
+    public void lookup(EventBean[] lookupEvents, Set<MultiKey<EventBean>> joinSet, ExprEvaluatorContext exprEvaluatorContext) {
+        if (lookupEvents == null || lookupEvents.length < 2 || InstrumentationHelper.ENABLED) {
+            super.lookup(lookupEvents, joinSet, exprEvaluatorContext);
+            return;
+        }
+        hashJoinExecNode.processBatch(lookupEvents, getForStream(), getNumStreams(), joinSet);
+    }
+}
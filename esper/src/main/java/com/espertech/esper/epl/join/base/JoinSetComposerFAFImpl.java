@@ -26,10 +26,24 @@ import java.util.Set;
  */
 public class JoinSetComposerFAFImpl extends JoinSetComposerImpl {
     private final boolean isOuterJoins;
+    private final boolean isDriveSmallest;
 
-    public JoinSetComposerFAFImpl(Map<TableLookupIndexReqKey, EventTable>[] repositories, QueryStrategy[] queryStrategies, boolean isPureSelfJoin, ExprEvaluatorContext exprEvaluatorContext, boolean joinRemoveStream, boolean outerJoins) {
+    /**
+     * Ctor.
+     *
+     * @param repositories         indexes per stream
+     * @param queryStrategies      query strategy per stream
+     * @param isPureSelfJoin       self-join indicator
+     * @param exprEvaluatorContext context
+     * @param joinRemoveStream     remove stream indicator
+     * @param outerJoins           outer join indicator
+     * @param driveSmallest        for inner joins, true to execute the query strategy of the stream with the fewest events
+     *                             as planned by cost-based planning, false to execute the stream with the most events
+     */
+    public JoinSetComposerFAFImpl(Map<TableLookupIndexReqKey, EventTable>[] repositories, QueryStrategy[] queryStrategies, boolean isPureSelfJoin, ExprEvaluatorContext exprEvaluatorContext, boolean joinRemoveStream, boolean outerJoins, boolean driveSmallest) {
         super(false, repositories, queryStrategies, isPureSelfJoin, exprEvaluatorContext, joinRemoveStream);
         isOuterJoins = outerJoins;
+        isDriveSmallest = driveSmallest;
     }
 
     @Override
@@ -72,7 +86,8 @@ public class JoinSetComposerFAFImpl extends JoinSetComposerImpl {
                         minStream = -1;
                         break;
                     }
-                    if (newDataPerStream[i].length > minStreamCount) {
+                    boolean better = isDriveSmallest ? minStream == -1 || newDataPerStream[i].length < minStreamCount : newDataPerStream[i].length > minStreamCount;
+                    if (better) {
                         minStream = i;
                         minStreamCount = newDataPerStream[i].length;
                     }
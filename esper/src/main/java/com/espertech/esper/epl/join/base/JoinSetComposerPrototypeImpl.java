@@ -21,6 +21,7 @@ import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.expression.ops.ExprAndNode;
 import com.espertech.esper.epl.expression.ops.ExprAndNodeImpl;
 import com.espertech.esper.epl.join.exec.base.ExecNode;
+import com.espertech.esper.epl.join.exec.base.TableLookupHashJoinExecNode;
 import com.espertech.esper.epl.join.plan.*;
 import com.espertech.esper.epl.join.table.EventTable;
 import com.espertech.esper.epl.join.table.EventTableUtil;
@@ -126,7 +127,7 @@ public class JoinSetComposerPrototypeImpl implements JoinSetComposerPrototype {
                 indexesPerStream[streamNo].put(new TableLookupIndexReqKey(metadata.getTableName(), metadata.getTableName()), index);
                 hasTable = true;
                 tableSecondaryIndexLocks[streamNo] = agentInstanceContext.getStatementContext().isWritesToTables() ?
-                        state.getTableLevelRWLock().writeLock() : state.getTableLevelRWLock().readLock();
+                        state.getTableLevelLockWrite() : state.getTableLevelLockRead();
             } else {
                 // build tables for implicit indexes
                 for (Map.Entry<TableLookupIndexReqKey, QueryPlanIndexItem> entry : items.entrySet()) {
@@ -168,7 +169,11 @@ public class JoinSetComposerPrototypeImpl implements JoinSetComposerPrototype {
                         "' : \n" + ExecNode.print(executionNode));
             }
 
-            queryStrategies[i] = new ExecNodeQueryStrategy(i, streamTypes.length, executionNode);
+            if (executionNode instanceof TableLookupHashJoinExecNode) {
+                queryStrategies[i] = new ExecNodeQueryStrategyHashJoin(i, streamTypes.length, (TableLookupHashJoinExecNode) executionNode);
+            } else {
+                queryStrategies[i] = new ExecNodeQueryStrategy(i, streamTypes.length, executionNode);
+            }
         }
 
         // Remove indexes that are from tables as these are only available to query strategies
@@ -185,7 +190,7 @@ public class JoinSetComposerPrototypeImpl implements JoinSetComposerPrototype {
                 composer = new JoinSetComposerHistoricalImpl(eventTableIndexService.allowInitIndex(isRecoveringResilient), indexesPerStream, queryStrategies, streamViews, exprEvaluatorContext);
             } else {
                 if (isFireAndForget) {
-                    composer = new JoinSetComposerFAFImpl(indexesPerStream, queryStrategies, streamJoinAnalysisResult.isPureSelfJoin(), exprEvaluatorContext, joinRemoveStream, isOuterJoins);
+                    composer = new JoinSetComposerFAFImpl(indexesPerStream, queryStrategies, streamJoinAnalysisResult.isPureSelfJoin(), exprEvaluatorContext, joinRemoveStream, isOuterJoins, streamJoinAnalysisResult.getStatistics() != null);
                 } else {
                     composer = new JoinSetComposerImpl(eventTableIndexService.allowInitIndex(isRecoveringResilient), indexesPerStream, queryStrategies, streamJoinAnalysisResult.isPureSelfJoin(), exprEvaluatorContext, joinRemoveStream);
                 }
@@ -13,6 +13,7 @@ package com.espertech.esper.epl.join.exec.base;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.epl.join.rep.Cursor;
 import com.espertech.esper.epl.join.table.PropertyIndexedEventTable;
@@ -27,7 +28,7 @@ import java.util.Set;
 /**
  * Lookup on an index using a set of properties as key values.
  */
-public class IndexedTableLookupStrategy implements JoinExecTableLookupStrategy {
+public class IndexedTableLookupStrategy implements JoinExecTableLookupStrategyKeyed {
     private final EventType eventType;
     private final String[] properties;
     private final PropertyIndexedEventTable index;
@@ -100,6 +101,14 @@ public class IndexedTableLookupStrategy implements JoinExecTableLookupStrategy {
         return index.lookup(keys);
     }
 
+    public Object getLookupKey(EventBean theEvent) {
+        return new MultiKeyUntyped(getKeys(theEvent));
+    }
+
+    public Set<EventBean> lookupByKey(Object key) {
+        return index.lookup(((MultiKeyUntyped) key).getKeys());
+    }
+
     private Object[] getKeys(EventBean theEvent) {
         return EventBeanUtility.getPropertyArray(theEvent, propertyGetters);
     }
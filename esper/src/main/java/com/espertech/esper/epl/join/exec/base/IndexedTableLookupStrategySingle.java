@@ -23,7 +23,7 @@ import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Set;
 
-public class IndexedTableLookupStrategySingle implements JoinExecTableLookupStrategy {
+public class IndexedTableLookupStrategySingle implements JoinExecTableLookupStrategyKeyed {
     private final EventType eventType;
     private final String property;
     private final PropertyIndexedEventTableSingle index;
@@ -79,6 +79,14 @@ public class IndexedTableLookupStrategySingle implements JoinExecTableLookupStra
         return index.lookup(key);
     }
 
+    public Object getLookupKey(EventBean theEvent) {
+        return getKey(theEvent);
+    }
+
+    public Set<EventBean> lookupByKey(Object key) {
+        return index.lookup(key);
+    }
+
     public LookupStrategyDesc getStrategyDesc() {
         return new LookupStrategyDesc(LookupStrategyType.SINGLEPROP, new String[]{property});
     }
@@ -0,0 +1,37 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.join.exec.base;
+
+import com.espertech.esper.client.EventBean;
+
+import java.util.Set;
+
+/**
+ * Lookup strategy that looks up by a key that depends only on the lookup event, allowing
+ * a batch of lookup events to share one lookup per distinct key.
+ */
+public interface JoinExecTableLookupStrategyKeyed extends JoinExecTableLookupStrategy {
+    /**
+     * Returns the lookup key for the event, suitable for use as a hash key.
+     *
+     * @param theEvent to look up
+     * @return key
+     */
+    public Object getLookupKey(EventBean theEvent);
+
+    /**
+     * Returns matched events for a key, or null if none matching.
+     *
+     * @param key as returned by {@link #getLookupKey(EventBean)}
+     * @return set of matching events, or null if none matching
+     */
+    public Set<EventBean> lookupByKey(Object key);
+}
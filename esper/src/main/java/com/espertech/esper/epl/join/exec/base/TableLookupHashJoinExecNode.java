@@ -0,0 +1,78 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.join.exec.base;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MultiKey;
+import com.espertech.esper.util.IndentWriter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Execution node for lookup in a hash index that can execute a batch of lookup events as a hash join:
+ * the node first computes the key of each lookup event and then probes the index once for each distinct key.
+ */
+public class TableLookupHashJoinExecNode extends TableLookupExecNode {
+    private final JoinExecTableLookupStrategyKeyed keyedStrategy;
+
+    /**
+     * Ctor.
+     *
+     * @param indexedStream  stream indexed for lookup
+     * @param lookupStrategy strategy to use for lookup (full table/indexed)
+     */
+    public TableLookupHashJoinExecNode(int indexedStream, JoinExecTableLookupStrategyKeyed lookupStrategy) {
+        super(indexedStream, lookupStrategy);
+        this.keyedStrategy = lookupStrategy;
+    }
+
+    /**
+     * Join a batch of lookup events, adding result rows in the order of lookup events.
+     *
+     * @param lookupEvents events to look up for
+     * @param lookupStream stream of lookup events
+     * @param numStreams   number of streams
+     * @param joinSet      result rows
+     */
+    public void processBatch(EventBean[] lookupEvents, int lookupStream, int numStreams, Set<MultiKey<EventBean>> joinSet) {
+        // build: compute keys and probe once per distinct key
+        Object[] keys = new Object[lookupEvents.length];
+        Map<Object, Set<EventBean>> probed = new HashMap<Object, Set<EventBean>>();
+        for (int i = 0; i < lookupEvents.length; i++) {
+            Object key = keyedStrategy.getLookupKey(lookupEvents[i]);
+            keys[i] = key;
+            if (!probed.containsKey(key)) {
+                probed.put(key, keyedStrategy.lookupByKey(key));
+            }
+        }
+
+        // produce rows in the order of lookup events
+        int indexedStream = getIndexedStream();
+        for (int i = 0; i < lookupEvents.length; i++) {
+            Set<EventBean> joinedEvents = probed.get(keys[i]);
+            if (joinedEvents == null) {
+                continue;
+            }
+            for (EventBean joinedEvent : joinedEvents) {
+                EventBean[] row = new EventBean[numStreams];
+                row[lookupStream] = lookupEvents[i];
+                row[indexedStream] = joinedEvent;
+                joinSet.add(new MultiKey<EventBean>(row));
+            }
+        }
+    }
+
+    public void print(IndentWriter writer) {
+        writer.println("TableLookupHashJoinExecNode indexedStream=" + getIndexedStream() + " lookup=" + lookupStrategy);
+    }
+}
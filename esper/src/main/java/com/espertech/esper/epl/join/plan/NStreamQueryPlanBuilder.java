@@ -14,6 +14,7 @@ import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.NumberSetPermutationEnumeration;
 import com.espertech.esper.collection.NumberSetShiftGroupEnumeration;
 import com.espertech.esper.collection.Pair;
+import com.espertech.esper.core.service.StreamJoinAnalysisResult;
 import com.espertech.esper.epl.expression.core.ExprIdentNode;
 import com.espertech.esper.epl.join.base.HistoricalViewableDesc;
 import com.espertech.esper.epl.join.table.HistoricalStreamIndexList;
@@ -112,7 +113,8 @@ public class NStreamQueryPlanBuilder {
                                      HistoricalStreamIndexList[] historicalStreamIndexLists,
                                      boolean hasForceNestedIter,
                                      String[][][] indexedStreamsUniqueProps,
-                                     TableMetadata[] tablesPerStream) {
+                                     TableMetadata[] tablesPerStream,
+                                     QueryPlanStatistics optionalStatistics) {
         if (log.isDebugEnabled()) {
             log.debug(".build queryGraph=" + queryGraph);
         }
@@ -141,7 +143,7 @@ public class NStreamQueryPlanBuilder {
                 continue;
             }
 
-            BestChainResult bestChainResult = computeBestPath(streamNo, queryGraph, dependencyGraph);
+            BestChainResult bestChainResult = computeBestPath(streamNo, queryGraph, dependencyGraph, optionalStatistics);
             int[] bestChain = bestChainResult.getChain();
             if (log.isDebugEnabled()) {
                 log.debug(".build For stream " + streamNo + " bestChain=" + Arrays.toString(bestChain));
@@ -164,6 +166,49 @@ public class NStreamQueryPlanBuilder {
         return new QueryPlan(indexSpecs, planNodeSpecs);
     }
 
+    /**
+     * Chooses hash join execution for lookups in hash indexes that are keyed by properties of the lookup event.
+     * Hash join execution computes the keys of a batch of lookup events, such as a batch of a batch data window or the
+     * contents of a named window for fire-and-forget queries, and looks up each distinct key once.
+     * Lookups into tables and virtual data windows remain per-event.
+     *
+     * @param queryPlan                plan
+     * @param streamJoinAnalysisResult stream join analysis metadata
+     */
+    public static void chooseHashJoin(QueryPlan queryPlan, StreamJoinAnalysisResult streamJoinAnalysisResult) {
+        QueryPlanNode[] execNodeSpecs = queryPlan.getExecNodeSpecs();
+        for (int streamNo = 0; streamNo < execNodeSpecs.length; streamNo++) {
+            QueryPlanNode node = execNodeSpecs[streamNo];
+            if (node == null || node.getClass() != TableLookupNode.class) {
+                continue;
+            }
+            TableLookupPlan plan = ((TableLookupNode) node).getTableLookupPlan();
+            int indexedStream = plan.getIndexedStream();
+            if (streamJoinAnalysisResult.getTablesPerStream()[indexedStream] != null || streamJoinAnalysisResult.getViewExternal()[indexedStream] != null) {
+                continue;
+            }
+            if (isHashKeyedByProperties(plan)) {
+                execNodeSpecs[streamNo] = new TableLookupHashJoinNode(plan);
+            }
+        }
+    }
+
+    private static boolean isHashKeyedByProperties(TableLookupPlan plan) {
+        if (!(plan instanceof IndexedTableLookupPlanSingle) && !(plan instanceof IndexedTableLookupPlanMulti)) {
+            return false;
+        }
+        TableLookupKeyDesc keyDesc = plan.getKeyDescriptor();
+        if (keyDesc.getHashes().isEmpty() || !keyDesc.getRanges().isEmpty()) {
+            return false;
+        }
+        for (QueryGraphValueEntryHashKeyed hashKey : keyDesc.getHashes()) {
+            if (!(hashKey instanceof QueryGraphValueEntryHashKeyedProp)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Walks the chain of lookups and constructs lookup strategy and plan specification based
      * on the index specifications.
@@ -392,6 +437,23 @@ public class NStreamQueryPlanBuilder {
      * @return chain and chain depth
      */
     protected static BestChainResult computeBestPath(int lookupStream, QueryGraph queryGraph, DependencyGraph dependencyGraph) {
+        return computeBestPath(lookupStream, queryGraph, dependencyGraph, null);
+    }
+
+    /**
+     * Compute a best chain or path for lookups to take for the lookup stream passed in and the query
+     * property relationships, considering statistics if provided.
+     * Without statistics this returns the first permutation with the greatest depth.
+     * With statistics the method runs through all permutations and returns, among those with the greatest depth,
+     * the permutation with the lowest estimated cost as computed by {@link #computePermutationCost}.
+     *
+     * @param lookupStream       - stream to start look up
+     * @param queryGraph         - navigability between streams
+     * @param dependencyGraph    - dependencies between historical streams
+     * @param optionalStatistics - cardinality statistics of a fire-and-forget join, or null to plan by rules
+     * @return chain and chain depth
+     */
+    protected static BestChainResult computeBestPath(int lookupStream, QueryGraph queryGraph, DependencyGraph dependencyGraph, QueryPlanStatistics optionalStatistics) {
         int[] defNestingorder = buildDefaultNestingOrder(queryGraph.getNumStreams(), lookupStream);
         Enumeration<int[]> streamEnum;
         if (defNestingorder.length < 6) {
@@ -401,6 +463,7 @@ public class NStreamQueryPlanBuilder {
         }
         int[] bestPermutation = null;
         int bestDepth = -1;
+        double bestCost = Double.MAX_VALUE;
 
         while (streamEnum.hasMoreElements()) {
             int[] permutation = streamEnum.nextElement();
@@ -415,6 +478,19 @@ public class NStreamQueryPlanBuilder {
 
             int permutationDepth = computeNavigableDepth(lookupStream, permutation, queryGraph);
 
+            if (optionalStatistics != null) {
+                if (permutationDepth < bestDepth) {
+                    continue;
+                }
+                double cost = computePermutationCost(lookupStream, permutation, queryGraph, optionalStatistics);
+                if (permutationDepth > bestDepth || cost < bestCost) {
+                    bestPermutation = permutation;
+                    bestDepth = permutationDepth;
+                    bestCost = cost;
+                }
+                continue;
+            }
+
             if (permutationDepth > bestDepth) {
                 bestPermutation = permutation;
                 bestDepth = permutationDepth;
@@ -429,6 +505,32 @@ public class NStreamQueryPlanBuilder {
         return new BestChainResult(bestDepth, bestPermutation);
     }
 
+    /**
+     * Estimate the cost of a lookup chain as the total number of intermediate rows produced for a single event
+     * of the lookup stream. A stream that can be looked up through an index from any stream earlier in the chain
+     * contributes its estimated rows per keyed lookup, other streams contribute a full scan.
+     *
+     * @param lookupStream - stream to start lookup for
+     * @param permutation  - list of stream numbers next in lookup
+     * @param queryGraph   - indexing information
+     * @param statistics   - cardinality statistics
+     * @return estimated cost
+     */
+    protected static double computePermutationCost(int lookupStream, int[] permutation, QueryGraph queryGraph, QueryPlanStatistics statistics) {
+        double rows = 1;
+        double cost = 0;
+        for (int i = 0; i < permutation.length; i++) {
+            int nextStream = permutation[i];
+            boolean keyed = queryGraph.isNavigableAtAll(lookupStream, nextStream);
+            for (int j = 0; j < i && !keyed; j++) {
+                keyed = queryGraph.isNavigableAtAll(permutation[j], nextStream);
+            }
+            rows = rows * statistics.estimateRowsPerLookup(nextStream, keyed);
+            cost += rows;
+        }
+        return cost;
+    }
+
     /**
      * Determine if the proposed permutation of lookups passes dependencies
      *
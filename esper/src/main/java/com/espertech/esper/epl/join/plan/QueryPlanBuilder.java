@@ -79,6 +79,7 @@ public class QueryPlanBuilder {
 
             QueryPlan queryPlan = TwoStreamQueryPlanBuilder.build(typesPerStream, queryGraph, outerJoinType, streamJoinAnalysisResult.getUniqueKeys(), streamJoinAnalysisResult.getTablesPerStream());
             removeUnidirectionalAndTable(queryPlan, streamJoinAnalysisResult);
+            NStreamQueryPlanBuilder.chooseHashJoin(queryPlan, streamJoinAnalysisResult);
 
             if (log.isDebugEnabled()) {
                 log.debug(methodName + "2-Stream queryPlan=" + queryPlan);
@@ -94,7 +95,7 @@ public class QueryPlanBuilder {
             QueryPlan queryPlan = NStreamQueryPlanBuilder.build(queryGraph, typesPerStream,
                     historicalViewableDesc, dependencyGraph, historicalStreamIndexLists,
                     hasForceNestedIter, streamJoinAnalysisResult.getUniqueKeys(),
-                    streamJoinAnalysisResult.getTablesPerStream());
+                    streamJoinAnalysisResult.getTablesPerStream(), streamJoinAnalysisResult.getStatistics());
 
             if (queryPlan != null) {
                 removeUnidirectionalAndTable(queryPlan, streamJoinAnalysisResult);
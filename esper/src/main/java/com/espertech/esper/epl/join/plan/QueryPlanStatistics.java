@@ -0,0 +1,97 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.join.plan;
+
+import java.util.Arrays;
+
+/**
+ * Cardinality statistics per stream for use in cost-based planning of fire-and-forget joins.
+ * <p>
+ * The estimates use fixed selectivities for keyed and range lookups since distinct-key counts are only
+ * known for indexes that exist at the time of planning.
+ * </p>
+ */
+public class QueryPlanStatistics {
+    /**
+     * Fraction of events assumed to be returned by a keyed lookup when the number of distinct keys is not known.
+     */
+    public final static double KEYED_LOOKUP_SELECTIVITY = 0.1;
+
+    /**
+     * Fraction of events assumed to be returned by a range lookup.
+     */
+    public final static double RANGE_LOOKUP_SELECTIVITY = 1d / 3d;
+
+    /**
+     * Factor by which a stream's number of events must grow or shrink for statistics to count as drifted.
+     */
+    public final static int DRIFT_FACTOR = 4;
+
+    /**
+     * Minimum absolute change in a stream's number of events for statistics to count as drifted.
+     */
+    public final static int DRIFT_MIN_DIFFERENCE = 100;
+
+    private final long[] cardinalityPerStream;
+
+    /**
+     * Ctor.
+     *
+     * @param cardinalityPerStream number of events per stream
+     */
+    public QueryPlanStatistics(long[] cardinalityPerStream) {
+        this.cardinalityPerStream = cardinalityPerStream;
+    }
+
+    public long[] getCardinalityPerStream() {
+        return cardinalityPerStream;
+    }
+
+    /**
+     * Returns the estimated number of rows that a lookup into the stream returns.
+     *
+     * @param stream stream number
+     * @param keyed  true for a lookup through an index, false for a full scan
+     * @return estimated rows
+     */
+    public double estimateRowsPerLookup(int stream, boolean keyed) {
+        long cardinality = cardinalityPerStream[stream];
+        if (!keyed) {
+            return cardinality;
+        }
+        return Math.min(cardinality, Math.max(1d, cardinality * KEYED_LOOKUP_SELECTIVITY));
+    }
+
+    /**
+     * Returns indicator whether the cardinalities provided differ from the planned cardinalities such that
+     * a plan should be recomputed.
+     *
+     * @param cardinalities current number of events per stream
+     * @return drift indicator
+     */
+    public boolean isDrifted(long[] cardinalities) {
+        for (int i = 0; i < cardinalityPerStream.length; i++) {
+            long planned = cardinalityPerStream[i];
+            long current = cardinalities[i];
+            if (Math.abs(current - planned) < DRIFT_MIN_DIFFERENCE) {
+                continue;
+            }
+            if (current >= planned * DRIFT_FACTOR || planned >= current * DRIFT_FACTOR) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String toString() {
+        return "QueryPlanStatistics{cardinalityPerStream=" + Arrays.toString(cardinalityPerStream) + "}";
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.join.plan;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.join.exec.base.ExecNode;
+import com.espertech.esper.epl.join.exec.base.JoinExecTableLookupStrategy;
+import com.espertech.esper.epl.join.exec.base.JoinExecTableLookupStrategyKeyed;
+import com.espertech.esper.epl.join.exec.base.TableLookupExecNode;
+import com.espertech.esper.epl.join.exec.base.TableLookupHashJoinExecNode;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.epl.join.table.HistoricalStreamIndexList;
+import com.espertech.esper.epl.virtualdw.VirtualDWView;
+import com.espertech.esper.util.IndentWriter;
+import com.espertech.esper.view.Viewable;
+
+import java.lang.annotation.Annotation;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Plan for a lookup in a hash index by key properties of the lookup event, executing batches of lookup events as a hash join.
+ */
+public class TableLookupHashJoinNode extends TableLookupNode {
+    /**
+     * Ctor.
+     *
+     * @param tableLookupPlan - plan for performing lookup
+     */
+    public TableLookupHashJoinNode(TableLookupPlan tableLookupPlan) {
+        super(tableLookupPlan);
+    }
+
+    public void print(IndentWriter writer) {
+        writer.println("TableLookupHashJoinNode " +
+                " tableLookupPlan=" + getTableLookupPlan());
+    }
+
+    public ExecNode makeExec(String statementName, int statementId, Annotation[] annotations, Map<TableLookupIndexReqKey, EventTable>[] indexesPerStream, EventType[] streamTypes, Viewable[] streamViews, HistoricalStreamIndexList[] historicalStreamIndexLists, VirtualDWView[] viewExternal, Lock[] tableSecondaryIndexLocks) {
+        int indexedStream = getTableLookupPlan().getIndexedStream();
+        if (tableSecondaryIndexLocks[indexedStream] != null) {
+            return super.makeExec(statementName, statementId, annotations, indexesPerStream, streamTypes, streamViews, historicalStreamIndexLists, viewExternal, tableSecondaryIndexLocks);
+        }
+        JoinExecTableLookupStrategy lookupStrategy = getTableLookupPlan().makeStrategy(statementName, statementId, annotations, indexesPerStream, streamTypes, viewExternal);
+        if (lookupStrategy instanceof JoinExecTableLookupStrategyKeyed) {
+            return new TableLookupHashJoinExecNode(indexedStream, (JoinExecTableLookupStrategyKeyed) lookupStrategy);
+        }
+        return new TableLookupExecNode(indexedStream, lookupStrategy);
+    }
+}
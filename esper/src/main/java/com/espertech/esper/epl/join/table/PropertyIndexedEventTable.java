@@ -47,6 +47,67 @@ public abstract class PropertyIndexedEventTable implements EventTable {
         return EventBeanUtility.getMultiKey(theEvent, propertyGetters);
     }
 
+    /**
+     * Add events using keys that the caller computed, the key at a given index being the key of the event at the same index.
+     *
+     * @param events to add
+     * @param keys   keys of events
+     */
+    public void addKeyed(EventBean[] events, MultiKeyUntyped[] keys) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qIndexAdd(this, events);
+        }
+        for (int i = 0; i < events.length; i++) {
+            addWithKey(events[i], keys[i]);
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aIndexAdd();
+        }
+    }
+
+    /**
+     * Remove events using keys that the caller computed, the key at a given index being the key of the event at the same index.
+     *
+     * @param events to remove
+     * @param keys   keys of events
+     */
+    public void removeKeyed(EventBean[] events, MultiKeyUntyped[] keys) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qIndexRemove(this, events);
+        }
+        for (int i = 0; i < events.length; i++) {
+            removeWithKey(events[i], keys[i]);
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aIndexRemove();
+        }
+    }
+
+    /**
+     * Add an event under the key provided.
+     *
+     * @param theEvent to add
+     * @param key      key of the event
+     */
+    protected abstract void addWithKey(EventBean theEvent, MultiKeyUntyped key);
+
+    /**
+     * Remove an event under the key provided.
+     *
+     * @param theEvent to remove
+     * @param key      key of the event
+     */
+    protected abstract void removeWithKey(EventBean theEvent, MultiKeyUntyped key);
+
+    /**
+     * Returns the getters for the indexed properties.
+     *
+     * @return getters
+     */
+    public EventPropertyGetter[] getPropertyGetters() {
+        return propertyGetters;
+    }
+
     public void addRemove(EventBean[] newData, EventBean[] oldData) {
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qIndexAddRemove(this, newData, oldData);
@@ -41,6 +41,67 @@ public abstract class PropertyIndexedEventTableSingle implements EventTable {
         return propertyGetter.get(theEvent);
     }
 
+    /**
+     * Add events using keys that the caller computed, the key at a given index being the key of the event at the same index.
+     *
+     * @param events to add
+     * @param keys   keys of events
+     */
+    public void addKeyed(EventBean[] events, Object[] keys) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qIndexAdd(this, events);
+        }
+        for (int i = 0; i < events.length; i++) {
+            addWithKey(events[i], keys[i]);
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aIndexAdd();
+        }
+    }
+
+    /**
+     * Remove events using keys that the caller computed, the key at a given index being the key of the event at the same index.
+     *
+     * @param events to remove
+     * @param keys   keys of events
+     */
+    public void removeKeyed(EventBean[] events, Object[] keys) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qIndexRemove(this, events);
+        }
+        for (int i = 0; i < events.length; i++) {
+            removeWithKey(events[i], keys[i]);
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aIndexRemove();
+        }
+    }
+
+    /**
+     * Add an event under the key provided.
+     *
+     * @param theEvent to add
+     * @param key      key of the event
+     */
+    protected abstract void addWithKey(EventBean theEvent, Object key);
+
+    /**
+     * Remove an event under the key provided.
+     *
+     * @param theEvent to remove
+     * @param key      key of the event
+     */
+    protected abstract void removeWithKey(EventBean theEvent, Object key);
+
+    /**
+     * Returns the getter for the indexed property.
+     *
+     * @return getter
+     */
+    public EventPropertyGetter getPropertyGetter() {
+        return propertyGetter;
+    }
+
     public void addRemove(EventBean[] newData, EventBean[] oldData) {
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qIndexAddRemove(this, newData, oldData);
@@ -20,7 +20,7 @@ public class PropertyIndexedEventTableSingleCoerceAdd extends PropertyIndexedEve
     private final Class coercionType;
 
     public PropertyIndexedEventTableSingleCoerceAdd(EventPropertyGetter propertyGetter, EventTableOrganization organization, SimpleNumberCoercer coercer, Class coercionType) {
-        super(propertyGetter, organization);
+        super(propertyGetter, organization, coercionType);
         this.coercer = coercer;
         this.coercionType = coercionType;
     }
@@ -27,6 +27,7 @@ public class PropertyIndexedEventTableSingleFactory implements EventTableFactory
     protected final String optionalIndexName;
 
     protected final EventPropertyGetter propertyGetter;
+    protected final Class propertyType;
 
     public PropertyIndexedEventTableSingleFactory(int streamNum, EventType eventType, String propertyName, boolean unique, String optionalIndexName) {
         this.streamNum = streamNum;
@@ -36,14 +37,15 @@ public class PropertyIndexedEventTableSingleFactory implements EventTableFactory
 
         // Init getters
         propertyGetter = EventBeanUtility.getAssertPropertyGetter(eventType, propertyName);
+        propertyType = eventType.getPropertyType(propertyName);
     }
 
     public EventTable[] makeEventTables(EventTableFactoryTableIdent tableIdent) {
         EventTableOrganization organization = new EventTableOrganization(optionalIndexName, unique, false, streamNum, new String[]{propertyName}, EventTableOrganizationType.HASH);
         if (unique) {
-            return new EventTable[]{new PropertyIndexedEventTableSingleUnique(propertyGetter, organization)};
+            return new EventTable[]{new PropertyIndexedEventTableSingleUnique(propertyGetter, organization, propertyType)};
         } else {
-            return new EventTable[]{new PropertyIndexedEventTableSingleUnadorned(propertyGetter, organization)};
+            return new EventTable[]{new PropertyIndexedEventTableSingleUnadorned(propertyGetter, organization, propertyType)};
         }
     }
 
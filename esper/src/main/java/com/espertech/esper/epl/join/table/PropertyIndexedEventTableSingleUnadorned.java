@@ -12,6 +12,7 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.PrimitiveKeyHashMap;
 
 import java.util.*;
 
@@ -21,10 +22,22 @@ import java.util.*;
  */
 public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEventTableSingle {
     protected final Map<Object, Set<EventBean>> propertyIndex;
+    private int numberOfEvents;
 
     public PropertyIndexedEventTableSingleUnadorned(EventPropertyGetter propertyGetter, EventTableOrganization organization) {
+        this(propertyGetter, organization, null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param propertyGetter getter
+     * @param organization   organization
+     * @param keyType        type of key values or null if not known, for use of a map specialized for long, int and string keys
+     */
+    public PropertyIndexedEventTableSingleUnadorned(EventPropertyGetter propertyGetter, EventTableOrganization organization, Class keyType) {
         super(propertyGetter, organization);
-        propertyIndex = new HashMap<Object, Set<EventBean>>();
+        propertyIndex = PrimitiveKeyHashMap.newMap(keyType);
     }
 
     /**
@@ -38,20 +51,26 @@ public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEve
     }
 
     public void add(EventBean theEvent) {
-        Object key = getKey(theEvent);
+        addWithKey(theEvent, getKey(theEvent));
+    }
 
+    public void remove(EventBean theEvent) {
+        removeWithKey(theEvent, getKey(theEvent));
+    }
+
+    protected void addWithKey(EventBean theEvent, Object key) {
         Set<EventBean> events = propertyIndex.get(key);
         if (events == null) {
             events = new LinkedHashSet<EventBean>();
             propertyIndex.put(key, events);
         }
 
-        events.add(theEvent);
+        if (events.add(theEvent)) {
+            numberOfEvents++;
+        }
     }
 
-    public void remove(EventBean theEvent) {
-        Object key = getKey(theEvent);
-
+    protected void removeWithKey(EventBean theEvent, Object key) {
         Set<EventBean> events = propertyIndex.get(key);
         if (events == null) {
             return;
@@ -62,6 +81,7 @@ public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEve
             // thus did not correspond to a new-data event raised earlier.
             return;
         }
+        numberOfEvents--;
 
         if (events.isEmpty()) {
             propertyIndex.remove(key);
@@ -78,6 +98,7 @@ public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEve
 
     public void clear() {
         propertyIndex.clear();
+        numberOfEvents = 0;
     }
 
     public void destroy() {
@@ -85,7 +106,7 @@ public class PropertyIndexedEventTableSingleUnadorned extends PropertyIndexedEve
     }
 
     public Integer getNumberOfEvents() {
-        return null;
+        return numberOfEvents;
     }
 
     public int getNumKeys() {
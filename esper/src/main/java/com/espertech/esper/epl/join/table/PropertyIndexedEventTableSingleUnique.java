@@ -12,6 +12,7 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.PrimitiveKeyHashMap;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.*;
@@ -24,8 +25,19 @@ public class PropertyIndexedEventTableSingleUnique extends PropertyIndexedEventT
     private final boolean canClear;
 
     public PropertyIndexedEventTableSingleUnique(EventPropertyGetter propertyGetter, EventTableOrganization organization) {
+        this(propertyGetter, organization, (Class) null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param propertyGetter getter
+     * @param organization   organization
+     * @param keyType        type of key values or null if not known, for use of a map specialized for long, int and string keys
+     */
+    public PropertyIndexedEventTableSingleUnique(EventPropertyGetter propertyGetter, EventTableOrganization organization, Class keyType) {
         super(propertyGetter, organization);
-        propertyIndex = new HashMap<Object, EventBean>();
+        propertyIndex = PrimitiveKeyHashMap.newMap(keyType);
         canClear = true;
     }
 
@@ -78,8 +90,10 @@ public class PropertyIndexedEventTableSingleUnique extends PropertyIndexedEventT
     }
 
     public void add(EventBean theEvent) {
-        Object key = getKey(theEvent);
+        addWithKey(theEvent, getKey(theEvent));
+    }
 
+    protected void addWithKey(EventBean theEvent, Object key) {
         EventBean existing = propertyIndex.put(key, theEvent);
         if (existing != null && !existing.equals(theEvent)) {
             throw PropertyIndexedEventTableUnique.handleUniqueIndexViolation(organization.getIndexName(), key);
@@ -87,7 +101,10 @@ public class PropertyIndexedEventTableSingleUnique extends PropertyIndexedEventT
     }
 
     public void remove(EventBean theEvent) {
-        Object key = getKey(theEvent);
+        removeWithKey(theEvent, getKey(theEvent));
+    }
+
+    protected void removeWithKey(EventBean theEvent, Object key) {
         propertyIndex.remove(key);
     }
 
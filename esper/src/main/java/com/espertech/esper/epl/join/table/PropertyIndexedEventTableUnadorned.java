@@ -18,6 +18,7 @@ import java.util.*;
 
 public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTable {
     protected final Map<MultiKeyUntyped, Set<EventBean>> propertyIndex;
+    private int numberOfEvents;
 
     public PropertyIndexedEventTableUnadorned(EventPropertyGetter[] propertyGetters, EventTableOrganization organization) {
         super(propertyGetters, organization);
@@ -36,20 +37,26 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
     }
 
     public void add(EventBean theEvent) {
-        MultiKeyUntyped key = getMultiKey(theEvent);
+        addWithKey(theEvent, getMultiKey(theEvent));
+    }
+
+    public void remove(EventBean theEvent) {
+        removeWithKey(theEvent, getMultiKey(theEvent));
+    }
 
+    protected void addWithKey(EventBean theEvent, MultiKeyUntyped key) {
         Set<EventBean> events = propertyIndex.get(key);
         if (events == null) {
             events = new LinkedHashSet<EventBean>();
             propertyIndex.put(key, events);
         }
 
-        events.add(theEvent);
+        if (events.add(theEvent)) {
+            numberOfEvents++;
+        }
     }
 
-    public void remove(EventBean theEvent) {
-        MultiKeyUntyped key = getMultiKey(theEvent);
-
+    protected void removeWithKey(EventBean theEvent, MultiKeyUntyped key) {
         Set<EventBean> events = propertyIndex.get(key);
         if (events == null) {
             return;
@@ -60,6 +67,7 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
             // thus did not correspond to a new-data event raised earlier.
             return;
         }
+        numberOfEvents--;
 
         if (events.isEmpty()) {
             propertyIndex.remove(key);
@@ -76,6 +84,7 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
 
     public void clear() {
         propertyIndex.clear();
+        numberOfEvents = 0;
     }
 
     public void destroy() {
@@ -83,7 +92,7 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
     }
 
     public Integer getNumberOfEvents() {
-        return null;
+        return numberOfEvents;
     }
 
     public int getNumKeys() {
@@ -70,8 +70,10 @@ public class PropertyIndexedEventTableUnique extends PropertyIndexedEventTable i
     }
 
     public void add(EventBean theEvent) {
-        MultiKeyUntyped key = getMultiKey(theEvent);
+        addWithKey(theEvent, getMultiKey(theEvent));
+    }
 
+    protected void addWithKey(EventBean theEvent, MultiKeyUntyped key) {
         EventBean existing = propertyIndex.put(key, theEvent);
         if (existing != null && !existing.equals(theEvent)) {
             throw handleUniqueIndexViolation(organization.getIndexName(), key);
@@ -84,7 +86,10 @@ public class PropertyIndexedEventTableUnique extends PropertyIndexedEventTable i
     }
 
     public void remove(EventBean theEvent) {
-        MultiKeyUntyped key = getMultiKey(theEvent);
+        removeWithKey(theEvent, getMultiKey(theEvent));
+    }
+
+    protected void removeWithKey(EventBean theEvent, MultiKeyUntyped key) {
         propertyIndex.remove(key);
     }
 
@@ -33,6 +33,8 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
 
     protected final HashSet<EventBean> nullKeyedValues;
 
+    private int numberOfEvents;
+
     // override in a subclass
     protected Object coerce(Object value) {
         return value;
@@ -177,7 +179,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
     }
 
     public Integer getNumberOfEvents() {
-        return null;
+        return numberOfEvents;
     }
 
     public int getNumKeys() {
@@ -194,7 +196,9 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
         key = coerce(key);
 
         if (key == null) {
-            nullKeyedValues.add(theEvent);
+            if (nullKeyedValues.add(theEvent)) {
+                numberOfEvents++;
+            }
             return;
         }
 
@@ -204,14 +208,18 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
             propertyIndex.put(key, events);
         }
 
-        events.add(theEvent);
+        if (events.add(theEvent)) {
+            numberOfEvents++;
+        }
     }
 
     public void remove(EventBean theEvent) {
         Object key = getIndexedValue(theEvent);
 
         if (key == null) {
-            nullKeyedValues.remove(theEvent);
+            if (nullKeyedValues.remove(theEvent)) {
+                numberOfEvents--;
+            }
             return;
         }
 
@@ -227,6 +235,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
             // thus did not correspond to a new-data event raised earlier.
             return;
         }
+        numberOfEvents--;
 
         if (events.isEmpty()) {
             propertyIndex.remove(key);
@@ -246,6 +255,8 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
 
     public void clear() {
         propertyIndex.clear();
+        nullKeyedValues.clear();
+        numberOfEvents = 0;
     }
 
     public void destroy() {
@@ -0,0 +1,230 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.lookup;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.epl.join.table.*;
+
+import java.util.*;
+
+/**
+ * Updates the index tables of an index repository with batches of events.
+ * <p>
+ * Hash index tables that do not coerce keys share property values and keys: for each event the updater
+ * obtains each distinct indexed property value once and builds each distinct key once, and then applies the
+ * events with their keys to one index table after the other. Other index tables receive the events as is.
+ */
+public class EventTableIndexBatchUpdater {
+    private final EventPropertyGetter[] getters;
+    private final KeyGroup[] groups;
+    private final EventTable[] others;
+
+    private EventTableIndexBatchUpdater(EventPropertyGetter[] getters, KeyGroup[] groups, EventTable[] others) {
+        this.getters = getters;
+        this.groups = groups;
+        this.others = others;
+    }
+
+    /**
+     * Analyze the index tables and return an updater.
+     *
+     * @param tables index tables
+     * @return updater
+     */
+    public static EventTableIndexBatchUpdater make(List<EventTable> tables) {
+        List<EventTable> keyed = new ArrayList<EventTable>();
+        List<EventTable> others = new ArrayList<EventTable>();
+        for (EventTable table : tables) {
+            if (isSharedKeyTable(table)) {
+                keyed.add(table);
+            } else {
+                others.add(table);
+            }
+        }
+
+        // a single hash index table has nothing to share
+        if (keyed.size() < 2) {
+            return new EventTableIndexBatchUpdater(new EventPropertyGetter[0], new KeyGroup[0], tables.toArray(new EventTable[tables.size()]));
+        }
+
+        Map<String, Integer> propertyNums = new LinkedHashMap<String, Integer>();
+        List<EventPropertyGetter> getters = new ArrayList<EventPropertyGetter>();
+        Map<List<String>, KeyGroup> groupsSingle = new LinkedHashMap<List<String>, KeyGroup>();
+        Map<List<String>, KeyGroup> groupsMulti = new LinkedHashMap<List<String>, KeyGroup>();
+        for (EventTable table : keyed) {
+            String[] expressions = table.getOrganization().getExpressions();
+            EventPropertyGetter[] tableGetters;
+            Map<List<String>, KeyGroup> groups;
+            if (table instanceof PropertyIndexedEventTableSingle) {
+                tableGetters = new EventPropertyGetter[]{((PropertyIndexedEventTableSingle) table).getPropertyGetter()};
+                groups = groupsSingle;
+            } else {
+                tableGetters = ((PropertyIndexedEventTable) table).getPropertyGetters();
+                groups = groupsMulti;
+            }
+
+            List<String> key = Arrays.asList(expressions);
+            KeyGroup group = groups.get(key);
+            if (group == null) {
+                int[] propertyNumsGroup = new int[expressions.length];
+                for (int i = 0; i < expressions.length; i++) {
+                    Integer num = propertyNums.get(expressions[i]);
+                    if (num == null) {
+                        num = getters.size();
+                        propertyNums.put(expressions[i], num);
+                        getters.add(tableGetters[i]);
+                    }
+                    propertyNumsGroup[i] = num;
+                }
+                group = new KeyGroup(groups == groupsSingle, propertyNumsGroup);
+                groups.put(key, group);
+            }
+            group.tables.add(table);
+        }
+
+        List<KeyGroup> groups = new ArrayList<KeyGroup>(groupsSingle.values());
+        groups.addAll(groupsMulti.values());
+        return new EventTableIndexBatchUpdater(getters.toArray(new EventPropertyGetter[getters.size()]),
+                groups.toArray(new KeyGroup[groups.size()]),
+                others.toArray(new EventTable[others.size()]));
+    }
+
+    /**
+     * Add events to all index tables.
+     *
+     * @param events to add, can be null
+     */
+    public void add(EventBean[] events) {
+        if (events == null || events.length == 0) {
+            return;
+        }
+        if (groups.length != 0) {
+            Object[][] values = getValues(events);
+            for (KeyGroup group : groups) {
+                if (group.single) {
+                    Object[] keys = group.getKeysSingle(values);
+                    for (EventTable table : group.tables) {
+                        ((PropertyIndexedEventTableSingle) table).addKeyed(events, keys);
+                    }
+                } else {
+                    MultiKeyUntyped[] keys = group.getKeysMulti(values, events.length);
+                    for (EventTable table : group.tables) {
+                        ((PropertyIndexedEventTable) table).addKeyed(events, keys);
+                    }
+                }
+            }
+        }
+        for (EventTable table : others) {
+            table.add(events);
+        }
+    }
+
+    /**
+     * Remove events from all index tables.
+     *
+     * @param events to remove, can be null
+     */
+    public void remove(EventBean[] events) {
+        if (events == null || events.length == 0) {
+            return;
+        }
+        if (groups.length != 0) {
+            Object[][] values = getValues(events);
+            for (KeyGroup group : groups) {
+                if (group.single) {
+                    Object[] keys = group.getKeysSingle(values);
+                    for (EventTable table : group.tables) {
+                        ((PropertyIndexedEventTableSingle) table).removeKeyed(events, keys);
+                    }
+                } else {
+                    MultiKeyUntyped[] keys = group.getKeysMulti(values, events.length);
+                    for (EventTable table : group.tables) {
+                        ((PropertyIndexedEventTable) table).removeKeyed(events, keys);
+                    }
+                }
+            }
+        }
+        for (EventTable table : others) {
+            table.remove(events);
+        }
+    }
+
+    /**
+     * Returns the number of index tables that share keys.
+     *
+     * @return number of index tables
+     */
+    public int getNumSharedKeyTables() {
+        int count = 0;
+        for (KeyGroup group : groups) {
+            count += group.tables.size();
+        }
+        return count;
+    }
+
+    private Object[][] getValues(EventBean[] events) {
+        Object[][] values = new Object[getters.length][];
+        for (int prop = 0; prop < getters.length; prop++) {
+            Object[] column = new Object[events.length];
+            EventPropertyGetter getter = getters[prop];
+            for (int i = 0; i < events.length; i++) {
+                column[i] = getter.get(events[i]);
+            }
+            values[prop] = column;
+        }
+        return values;
+    }
+
+    private static boolean isSharedKeyTable(EventTable table) {
+        Class clazz = table.getClass();
+        if (clazz != PropertyIndexedEventTableUnadorned.class && clazz != PropertyIndexedEventTableUnique.class &&
+            clazz != PropertyIndexedEventTableSingleUnadorned.class && clazz != PropertyIndexedEventTableSingleUnique.class) {
+            return false;
+        }
+        EventTableOrganization organization = table.getOrganization();
+        if (organization.isCoercing() || organization.getExpressions() == null) {
+            return false;
+        }
+        if (table instanceof PropertyIndexedEventTable) {
+            return ((PropertyIndexedEventTable) table).getPropertyGetters().length == organization.getExpressions().length;
+        }
+        return organization.getExpressions().length == 1;
+    }
+
+    private static class KeyGroup {
+        private final boolean single;
+        private final int[] propertyNums;
+        private final List<EventTable> tables = new ArrayList<EventTable>(2);
+
+        private KeyGroup(boolean single, int[] propertyNums) {
+            this.single = single;
+            this.propertyNums = propertyNums;
+        }
+
+        private Object[] getKeysSingle(Object[][] values) {
+            return values[propertyNums[0]];
+        }
+
+        private MultiKeyUntyped[] getKeysMulti(Object[][] values, int numEvents) {
+            MultiKeyUntyped[] keys = new MultiKeyUntyped[numEvents];
+            for (int i = 0; i < numEvents; i++) {
+                Object[] keyValues = new Object[propertyNums.length];
+                for (int j = 0; j < propertyNums.length; j++) {
+                    keyValues[j] = values[propertyNums[j]][i];
+                }
+                keys[i] = new MultiKeyUntyped(keyValues);
+            }
+            return keys;
+        }
+    }
+}
@@ -35,6 +35,7 @@ public class EventTableIndexRepository {
     private final List<EventTable> tables;
     private final Map<IndexMultiKey, EventTableIndexRepositoryEntry> tableIndexesRefCount;
     private final HashMap<String, EventTable> explicitIndexes;
+    private EventTableIndexBatchUpdater batchUpdater;
 
     /**
      * Ctor.
@@ -71,6 +72,7 @@ public class EventTableIndexRepository {
     public void addIndex(IndexMultiKey indexMultiKey, EventTableIndexRepositoryEntry entry) {
         tableIndexesRefCount.put(indexMultiKey, entry);
         tables.add(entry.getTable());
+        batchUpdater = null;
     }
 
     /**
@@ -82,6 +84,18 @@ public class EventTableIndexRepository {
         return tables;
     }
 
+    /**
+     * Returns the updater for applying batches of events to all index tables.
+     *
+     * @return batch updater
+     */
+    public EventTableIndexBatchUpdater getBatchUpdater() {
+        if (batchUpdater == null) {
+            batchUpdater = EventTableIndexBatchUpdater.make(tables);
+        }
+        return batchUpdater;
+    }
+
     /**
      * Destroy indexes.
      */
@@ -91,10 +105,24 @@ public class EventTableIndexRepository {
         }
         tables.clear();
         tableIndexesRefCount.clear();
+        batchUpdater = null;
     }
 
     public Pair<IndexMultiKey, EventTableAndNamePair> findTable(Set<String> keyPropertyNames, Set<String> rangePropertyNames, List<IndexHintInstruction> optionalIndexHintInstructions) {
-        Pair<IndexMultiKey, EventTableIndexEntryBase> pair = EventTableIndexUtil.findIndexBestAvailable(tableIndexesRefCount, keyPropertyNames, rangePropertyNames, optionalIndexHintInstructions);
+        return findTable(keyPropertyNames, rangePropertyNames, optionalIndexHintInstructions, false);
+    }
+
+    /**
+     * Find the best index for the lookup properties.
+     *
+     * @param keyPropertyNames              properties that are compared for equality
+     * @param rangePropertyNames            properties that are compared by range
+     * @param optionalIndexHintInstructions index hints, or null if none
+     * @param costBased                     true to choose among non-unique indexes by the estimated number of rows per lookup
+     * @return index and table, or null if no index matches
+     */
+    public Pair<IndexMultiKey, EventTableAndNamePair> findTable(Set<String> keyPropertyNames, Set<String> rangePropertyNames, List<IndexHintInstruction> optionalIndexHintInstructions, boolean costBased) {
+        Pair<IndexMultiKey, EventTableIndexEntryBase> pair = EventTableIndexUtil.findIndexBestAvailable(tableIndexesRefCount, keyPropertyNames, rangePropertyNames, optionalIndexHintInstructions, costBased);
         if (pair == null) {
             return null;
         }
@@ -165,6 +193,7 @@ public class EventTableIndexRepository {
 
         // add table
         tables.add(table);
+        batchUpdater = null;
 
         // add index, reference counted
         tableIndexesRefCount.put(indexPropKey, new EventTableIndexRepositoryEntry(indexName, table));
@@ -181,6 +210,7 @@ public class EventTableIndexRepository {
         EventTableIndexRepositoryEntry entry = tableIndexesRefCount.remove(index);
         if (entry != null) {
             tables.remove(entry.getTable());
+            batchUpdater = null;
             if (entry.getOptionalIndexName() != null) {
                 explicitIndexes.remove(entry.getOptionalIndexName());
             }
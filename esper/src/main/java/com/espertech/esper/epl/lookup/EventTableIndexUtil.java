@@ -18,6 +18,8 @@ import com.espertech.esper.epl.join.hint.IndexHintInstruction;
 import com.espertech.esper.epl.join.hint.IndexHintInstructionBust;
 import com.espertech.esper.epl.join.hint.IndexHintInstructionExplicit;
 import com.espertech.esper.epl.join.hint.IndexHintInstructionIndexName;
+import com.espertech.esper.epl.join.plan.QueryPlanStatistics;
+import com.espertech.esper.epl.join.table.EventTable;
 import com.espertech.esper.epl.spec.CreateIndexItem;
 import com.espertech.esper.epl.spec.CreateIndexType;
 import com.espertech.esper.util.JavaClassHelper;
@@ -94,13 +96,21 @@ public class EventTableIndexUtil {
             return null;
         }
 
-        return getBestCandidate((Map<IndexMultiKey, EventTableIndexEntryBase>) (Map) indexCandidates).getFirst();
+        return getBestCandidate((Map<IndexMultiKey, EventTableIndexEntryBase>) (Map) indexCandidates, false).getFirst();
     }
 
     public static Pair<IndexMultiKey, EventTableIndexEntryBase> findIndexBestAvailable(Map<IndexMultiKey, ? extends EventTableIndexEntryBase> tablesAvailable,
                                                                                        Set<String> keyPropertyNames,
                                                                                        Set<String> rangePropertyNames,
                                                                                        List<IndexHintInstruction> optionalIndexHintInstructions) {
+        return findIndexBestAvailable(tablesAvailable, keyPropertyNames, rangePropertyNames, optionalIndexHintInstructions, false);
+    }
+
+    public static Pair<IndexMultiKey, EventTableIndexEntryBase> findIndexBestAvailable(Map<IndexMultiKey, ? extends EventTableIndexEntryBase> tablesAvailable,
+                                                                                       Set<String> keyPropertyNames,
+                                                                                       Set<String> rangePropertyNames,
+                                                                                       List<IndexHintInstruction> optionalIndexHintInstructions,
+                                                                                       boolean costBased) {
         if (keyPropertyNames.isEmpty() && rangePropertyNames.isEmpty()) {
             return null;
         }
@@ -132,10 +142,10 @@ public class EventTableIndexUtil {
             return null;
         }
 
-        return getBestCandidate(indexCandidates);
+        return getBestCandidate(indexCandidates, costBased);
     }
 
-    private static Pair<IndexMultiKey, EventTableIndexEntryBase> getBestCandidate(Map<IndexMultiKey, EventTableIndexEntryBase> indexCandidates) {
+    private static Pair<IndexMultiKey, EventTableIndexEntryBase> getBestCandidate(Map<IndexMultiKey, EventTableIndexEntryBase> indexCandidates, boolean costBased) {
         // take the table that has a unique index
         List<IndexMultiKey> indexes = new ArrayList<IndexMultiKey>();
         for (Map.Entry<IndexMultiKey, EventTableIndexEntryBase> entry : indexCandidates.entrySet()) {
@@ -153,10 +163,65 @@ public class EventTableIndexUtil {
         indexes.addAll(indexCandidates.keySet());
         if (indexes.size() > 1) {
             Collections.sort(indexes, INDEX_COMPARATOR_INSTANCE);
+            if (costBased) {
+                IndexMultiKey cheapest = findLowestEstimatedRows(indexes, indexCandidates);
+                if (cheapest != null) {
+                    return getPair(indexCandidates, cheapest);
+                }
+            }
         }
         return getPair(indexCandidates, indexes.get(0));
     }
 
+    /**
+     * Returns the index that is estimated to return the fewest rows per lookup, based on the number of events
+     * and number of distinct keys of the index tables, or null when any of the candidates is not a materialized table.
+     *
+     * @param indexes         candidate indexes in rule-based order
+     * @param indexCandidates candidate entries
+     * @return cheapest index or null if the statistics are not available
+     */
+    private static IndexMultiKey findLowestEstimatedRows(List<IndexMultiKey> indexes, Map<IndexMultiKey, EventTableIndexEntryBase> indexCandidates) {
+        // all tables of a repository index the same events, any table that keeps a count provides the number of events
+        int numEvents = -1;
+        for (IndexMultiKey index : indexes) {
+            EventTableIndexEntryBase entry = indexCandidates.get(index);
+            if (!(entry instanceof EventTableIndexRepositoryEntry)) {
+                return null;
+            }
+            Integer count = ((EventTableIndexRepositoryEntry) entry).getTable().getNumberOfEvents();
+            if (count != null) {
+                numEvents = Math.max(numEvents, count);
+            }
+        }
+        if (numEvents == -1) {
+            return null;
+        }
+
+        IndexMultiKey cheapest = null;
+        double cheapestRows = Double.MAX_VALUE;
+        for (IndexMultiKey index : indexes) {
+            EventTable table = ((EventTableIndexRepositoryEntry) indexCandidates.get(index)).getTable();
+            double rows = estimateRowsPerLookup(index, table, numEvents);
+            if (rows < cheapestRows) {
+                cheapest = index;
+                cheapestRows = rows;
+            }
+        }
+        return cheapest;
+    }
+
+    private static double estimateRowsPerLookup(IndexMultiKey index, EventTable table, int numEvents) {
+        double rows = numEvents;
+        if (index.getHashIndexedProps().length > 0) {
+            rows = rows / Math.max(1, table.getNumKeys());
+        }
+        if (index.getRangeIndexedProps().length > 0) {
+            rows = rows * QueryPlanStatistics.RANGE_LOOKUP_SELECTIVITY;
+        }
+        return rows;
+    }
+
     public static IndexMultiKey findByIndexHint(Map<IndexMultiKey, ? extends EventTableIndexEntryBase> indexCandidates, List<IndexHintInstruction> instructions) {
         for (IndexHintInstruction instruction : instructions) {
             if (instruction instanceof IndexHintInstructionIndexName) {
@@ -11,6 +11,7 @@
 package com.espertech.esper.epl.metric;
 
 import com.espertech.esper.client.metric.EngineMetric;
+import com.espertech.esper.epl.db.DataCacheMetrics;
 
 /**
  * Metrics execution producing engine metric events.
@@ -41,7 +42,9 @@ public class MetricExecEngine implements MetricExec {
         long inputCount = context.getServices().getFilterService().getNumEventsEvaluated();
         long schedDepth = context.getServices().getSchedulingService().getScheduleHandleCount();
         long deltaInputCount = lastMetric == null ? inputCount : inputCount - lastMetric.getInputCount();
-        EngineMetric metric = new EngineMetric(engineURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth);
+        DataCacheMetrics cacheMetrics = context.getServices().getDataCacheFactory().getMetrics();
+        EngineMetric metric = new EngineMetric(engineURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth,
+                cacheMetrics.getHitCount(), cacheMetrics.getMissCount(), cacheMetrics.getEvictionCount());
         lastMetric = metric;
         metricEventRouter.route(metric);
         metricScheduleService.add(interval, this);
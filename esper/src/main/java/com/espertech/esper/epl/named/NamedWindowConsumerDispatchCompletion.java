@@ -0,0 +1,141 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks completion of the work units of a named window consumer dispatch that executes using the consumer dispatch thread pool.
+ * <p>
+ * The dispatching thread awaits completion of all units before it completes the named window latch. Pooled units
+ * await release by the dispatching thread before dispatching their results to listeners.
+ * Uses spin or suspend-and-notify blocking according to the named window consumer dispatch locking.
+ */
+public class NamedWindowConsumerDispatchCompletion {
+    private static final Logger log = LoggerFactory.getLogger(NamedWindowConsumerDispatchCompletion.class);
+
+    private final AtomicInteger numPending;
+    private final boolean useSpin;
+    private final long msecWait;
+    private volatile boolean isReleased;
+
+    /**
+     * Ctor.
+     *
+     * @param numUnits number of units to complete
+     * @param locking  blocking strategy
+     * @param msecWait the number of milliseconds to wait maximally
+     */
+    public NamedWindowConsumerDispatchCompletion(int numUnits, ConfigurationEngineDefaults.Threading.Locking locking, long msecWait) {
+        this.numPending = new AtomicInteger(numUnits);
+        this.useSpin = locking != ConfigurationEngineDefaults.Threading.Locking.SUSPEND;
+        this.msecWait = msecWait;
+    }
+
+    /**
+     * Called to indicate that a unit completed.
+     */
+    public void unitDone() {
+        if (numPending.decrementAndGet() == 0 && !useSpin) {
+            synchronized (this) {
+                this.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Called by the dispatching thread to indicate that pooled units can dispatch results to listeners.
+     */
+    public void release() {
+        isReleased = true;
+        if (!useSpin) {
+            synchronized (this) {
+                this.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Blocking call that returns only when all units completed.
+     */
+    public void awaitUnits() {
+        if (numPending.get() == 0) {
+            return;
+        }
+        if (useSpin) {
+            long spinStartTime = System.currentTimeMillis();
+            while (numPending.get() != 0) {
+                Thread.yield();
+                if (System.currentTimeMillis() - spinStartTime > msecWait) {
+                    log.info("Spin wait timeout exceeded in named window consumer dispatch at " + msecWait + "ms, consider increasing the named window consumer dispatch timeout");
+                    return;
+                }
+            }
+            return;
+        }
+        long waitStartTime = System.currentTimeMillis();
+        synchronized (this) {
+            while (numPending.get() != 0) {
+                if (!waitRemaining(waitStartTime)) {
+                    log.info("Wait timeout exceeded in named window consumer dispatch at " + msecWait + "ms, consider increasing the named window consumer dispatch timeout");
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Blocking call that returns only when the dispatching thread released the units.
+     */
+    public void awaitRelease() {
+        if (isReleased) {
+            return;
+        }
+        if (useSpin) {
+            long spinStartTime = System.currentTimeMillis();
+            while (!isReleased) {
+                Thread.yield();
+                if (System.currentTimeMillis() - spinStartTime > msecWait) {
+                    log.info("Spin wait timeout exceeded in named window consumer dispatch release at " + msecWait + "ms");
+                    return;
+                }
+            }
+            return;
+        }
+        long waitStartTime = System.currentTimeMillis();
+        synchronized (this) {
+            while (!isReleased) {
+                if (!waitRemaining(waitStartTime)) {
+                    log.info("Wait timeout exceeded in named window consumer dispatch release at " + msecWait + "ms");
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean waitRemaining(long waitStartTime) {
+        long remaining = msecWait - (System.currentTimeMillis() - waitStartTime);
+        if (remaining <= 0) {
+            return false;
+        }
+        try {
+            this.wait(remaining);
+        } catch (InterruptedException e) {
+            log.error("Interrupted: " + e.getMessage(), e);
+            return false;
+        }
+        return true;
+    }
+}
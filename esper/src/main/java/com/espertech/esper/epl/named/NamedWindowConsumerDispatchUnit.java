@@ -0,0 +1,146 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.core.thread.NamedWindowDispatchUnitRunnable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Work unit for dispatching named window results to a single consuming statement.
+ * <p>
+ * A unit executes either by a thread of the named window consumer dispatch thread pool or, when no pool thread
+ * picked up the unit yet, by the dispatching thread. While the unit executes, the named window latches it produces are collected
+ * by the unit. A pooled unit also takes the events routed by the consuming statement so that the dispatching thread
+ * can process them in its own work queue.
+ */
+public class NamedWindowConsumerDispatchUnit implements NamedWindowDispatchUnitRunnable {
+    private final NamedWindowDispatchServiceImpl dispatchService;
+    private final NamedWindowConsumerDispatchCompletion completion;
+    private final EPStatementAgentInstanceHandle handle;
+    private final Object perStmtObj;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    private List<CollectedLatch> latches;
+    private ArrayDeque<Object> frontItems;
+    private ArrayDeque<Object> backItems;
+
+    /**
+     * Ctor.
+     *
+     * @param dispatchService dispatch service
+     * @param completion      completion to indicate to
+     * @param handle          consuming statement handle
+     * @param perStmtObj      single latch or list of latches to dispatch to the statement
+     */
+    public NamedWindowConsumerDispatchUnit(NamedWindowDispatchServiceImpl dispatchService, NamedWindowConsumerDispatchCompletion completion, EPStatementAgentInstanceHandle handle, Object perStmtObj) {
+        this.dispatchService = dispatchService;
+        this.completion = completion;
+        this.handle = handle;
+        this.perStmtObj = perStmtObj;
+    }
+
+    public void run() {
+        if (!claim()) {
+            return;
+        }
+        dispatchService.processUnitPooled(this);
+    }
+
+    /**
+     * Claims the unit for execution, returning false if the unit was already claimed.
+     *
+     * @return indicator whether claimed by the current thread
+     */
+    public boolean claim() {
+        return claimed.compareAndSet(false, true);
+    }
+
+    /**
+     * Adds a named window latch produced by the consuming statement.
+     *
+     * @param factory  latch factory of the named window
+     * @param sequence number of the latch of the named window
+     * @param latch    latch
+     */
+    public void addLatch(NamedWindowConsumerLatchFactory factory, long sequence, NamedWindowConsumerLatch latch) {
+        if (latches == null) {
+            latches = new ArrayList<CollectedLatch>(2);
+        }
+        latches.add(new CollectedLatch(factory, sequence, latch));
+    }
+
+    /**
+     * Sets the routed events taken from the pool thread work queue.
+     *
+     * @param frontItems items of the front queue or null if none
+     * @param backItems  items of the back queue or null if none
+     */
+    public void setWorkItems(ArrayDeque<Object> frontItems, ArrayDeque<Object> backItems) {
+        this.frontItems = frontItems;
+        this.backItems = backItems;
+    }
+
+    public NamedWindowConsumerDispatchCompletion getCompletion() {
+        return completion;
+    }
+
+    public EPStatementAgentInstanceHandle getHandle() {
+        return handle;
+    }
+
+    public Object getPerStmtObj() {
+        return perStmtObj;
+    }
+
+    public List<CollectedLatch> getLatches() {
+        return latches;
+    }
+
+    public ArrayDeque<Object> getFrontItems() {
+        return frontItems;
+    }
+
+    public ArrayDeque<Object> getBackItems() {
+        return backItems;
+    }
+
+    /**
+     * Named window latch produced by a consuming statement along with the named window latch factory and sequence.
+     */
+    public static class CollectedLatch {
+        private final NamedWindowConsumerLatchFactory factory;
+        private final long sequence;
+        private final NamedWindowConsumerLatch latch;
+
+        CollectedLatch(NamedWindowConsumerLatchFactory factory, long sequence, NamedWindowConsumerLatch latch) {
+            this.factory = factory;
+            this.sequence = sequence;
+            this.latch = latch;
+        }
+
+        public NamedWindowConsumerLatchFactory getFactory() {
+            return factory;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public NamedWindowConsumerLatch getLatch() {
+            return latch;
+        }
+    }
+}
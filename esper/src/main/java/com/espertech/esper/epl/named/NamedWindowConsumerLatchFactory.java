@@ -29,6 +29,7 @@ public class NamedWindowConsumerLatchFactory {
 
     private NamedWindowConsumerLatchSpin currentLatchSpin;
     private NamedWindowConsumerLatchWait currentLatchWait;
+    private long numLatches;
 
     /**
      * Ctor.
@@ -67,6 +68,7 @@ public class NamedWindowConsumerLatchFactory {
      * @return latch
      */
     public NamedWindowConsumerLatch newLatch(NamedWindowDeltaData delta, Map<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> consumers) {
+        numLatches++;
         if (useSpin) {
             NamedWindowConsumerLatchSpin nextLatch = new NamedWindowConsumerLatchSpin(delta, consumers, this, currentLatchSpin);
             currentLatchSpin = nextLatch;
@@ -93,4 +95,13 @@ public class NamedWindowConsumerLatchFactory {
     public long getMsecWait() {
         return msecWait;
     }
+
+    /**
+     * Returns the number of latches returned by this factory, for ordering latches of the same named window.
+     *
+     * @return number of latches
+     */
+    public long getNumLatches() {
+        return numLatches;
+    }
 }
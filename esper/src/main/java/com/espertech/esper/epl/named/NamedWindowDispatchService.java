@@ -13,8 +13,10 @@ package com.espertech.esper.epl.named;
 import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.core.service.StatementResultService;
+import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.epl.metric.MetricReportingService;
 import com.espertech.esper.event.vaevent.ValueAddEventProcessor;
 import com.espertech.esper.timer.TimeSourceService;
@@ -48,6 +50,15 @@ public interface NamedWindowDispatchService {
      */
     void addDispatch(NamedWindowConsumerLatchFactory latchFactory, NamedWindowDeltaData delta, Map<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> consumers);
 
+    /**
+     * Enables dispatching to named window consumers using the named window consumer dispatch thread pool.
+     *
+     * @param threadingService threading service that provides the thread pool
+     * @param runtime          runtime for dispatching the results of consuming statements to listeners
+     * @param threadingConfig  threading configuration that provides the locking and timeout
+     */
+    void setConsumerDispatchThreading(ThreadingService threadingService, EPRuntimeImpl runtime, ConfigurationEngineDefaults.Threading threadingConfig);
+
     /**
      * Destroy service.
      */
@@ -11,14 +11,17 @@
 package com.espertech.esper.epl.named;
 
 import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.collection.DualWorkQueue;
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.hook.ExceptionHandlerExceptionType;
 import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.ExceptionHandlingService;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.core.service.StatementResultService;
+import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.epl.metric.MetricReportingPath;
 import com.espertech.esper.epl.metric.MetricReportingService;
 import com.espertech.esper.epl.table.mgmt.TableService;
@@ -29,14 +32,24 @@ import com.espertech.esper.schedule.SchedulingService;
 import com.espertech.esper.timer.TimeSourceService;
 import com.espertech.esper.util.ManagedReadWriteLock;
 import com.espertech.esper.util.MetricUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * This service hold for each named window a dedicated processor and a lock to the named window.
  * This lock is shrared between the named window and on-delete statements.
  */
 public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchService {
+    private static final Logger log = LoggerFactory.getLogger(NamedWindowDispatchServiceImpl.class);
+    private static final Comparator<NamedWindowConsumerDispatchUnit.CollectedLatch> LATCH_SEQUENCE_COMPARATOR = new Comparator<NamedWindowConsumerDispatchUnit.CollectedLatch>() {
+        public int compare(NamedWindowConsumerDispatchUnit.CollectedLatch o1, NamedWindowConsumerDispatchUnit.CollectedLatch o2) {
+            return Long.compare(o1.getSequence(), o2.getSequence());
+        }
+    };
+
     private final SchedulingService schedulingService;
     private final VariableService variableService;
     private final TableService tableService;
@@ -45,6 +58,11 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
     private final ManagedReadWriteLock eventProcessingRWLock;
     private final MetricReportingService metricReportingService;
 
+    private ThreadingService consumerDispatchThreading;
+    private EPRuntimeImpl runtime;
+    private ConfigurationEngineDefaults.Threading.Locking consumerDispatchLocking;
+    private long consumerDispatchTimeout;
+
     private ThreadLocal<List<NamedWindowConsumerLatch>> threadLocal = new ThreadLocal<List<NamedWindowConsumerLatch>>() {
         protected synchronized List<NamedWindowConsumerLatch> initialValue() {
             return new ArrayList<NamedWindowConsumerLatch>();
@@ -57,6 +75,8 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
         }
     };
 
+    private ThreadLocal<NamedWindowConsumerDispatchUnit> executingUnitTL = new ThreadLocal<NamedWindowConsumerDispatchUnit>();
+
     public NamedWindowDispatchServiceImpl(SchedulingService schedulingService,
                                           VariableService variableService,
                                           TableService tableService,
@@ -81,13 +101,30 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
         return new NamedWindowTailView(eventType, namedWindowMgmtService, namedWindowDispatchService, statementResultService, revisionProcessor, isPrioritized, parentBatchWindow, timeSourceService, threadingConfig);
     }
 
+    public void setConsumerDispatchThreading(ThreadingService threadingService, EPRuntimeImpl runtime, ConfigurationEngineDefaults.Threading threadingConfig) {
+        this.consumerDispatchThreading = threadingService;
+        this.runtime = runtime;
+        this.consumerDispatchLocking = threadingConfig.getNamedWindowConsumerDispatchLocking();
+        this.consumerDispatchTimeout = threadingConfig.getNamedWindowConsumerDispatchTimeout();
+    }
+
     public void destroy() {
         threadLocal.remove();
         dispatchesPerStmtTL.remove();
+        executingUnitTL.remove();
     }
 
     public void addDispatch(NamedWindowConsumerLatchFactory latchFactory, NamedWindowDeltaData delta, Map<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> consumers) {
         NamedWindowConsumerLatch latch = latchFactory.newLatch(delta, consumers);
+
+        // a consuming statement executing as part of a consumer dispatch unit hands its latches to the unit
+        if (consumerDispatchThreading != null) {
+            NamedWindowConsumerDispatchUnit unit = executingUnitTL.get();
+            if (unit != null) {
+                unit.addLatch(latchFactory, latchFactory.getNumLatches(), latch);
+                return;
+            }
+        }
         threadLocal.get().add(latch);
     }
 
@@ -127,6 +164,17 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
             NamedWindowConsumerLatch latch = dispatches[0];
             try {
                 latch.await();
+
+                if (isConsumerDispatchFanOut(latch.getDispatchTo().size())) {
+                    NamedWindowConsumerDispatchCompletion completion = new NamedWindowConsumerDispatchCompletion(latch.getDispatchTo().size(), consumerDispatchLocking, consumerDispatchTimeout);
+                    List<NamedWindowConsumerDispatchUnit> units = new ArrayList<NamedWindowConsumerDispatchUnit>(latch.getDispatchTo().size());
+                    for (EPStatementAgentInstanceHandle handle : latch.getDispatchTo().keySet()) {
+                        units.add(new NamedWindowConsumerDispatchUnit(this, completion, handle, latch));
+                    }
+                    processDispatchesFanOut(units, completion);
+                    return;
+                }
+
                 EventBean[] newData = latch.getDeltaData().getNewData();
                 EventBean[] oldData = latch.getDeltaData().getOldData();
 
@@ -198,6 +246,23 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
             }
         }
 
+        if (isConsumerDispatchFanOut(dispatchesPerStmt.size())) {
+            NamedWindowConsumerDispatchCompletion completion = new NamedWindowConsumerDispatchCompletion(dispatchesPerStmt.size(), consumerDispatchLocking, consumerDispatchTimeout);
+            List<NamedWindowConsumerDispatchUnit> units = new ArrayList<NamedWindowConsumerDispatchUnit>(dispatchesPerStmt.size());
+            for (Map.Entry<EPStatementAgentInstanceHandle, Object> entry : dispatchesPerStmt.entrySet()) {
+                units.add(new NamedWindowConsumerDispatchUnit(this, completion, entry.getKey(), entry.getValue()));
+            }
+            dispatchesPerStmt.clear();
+            try {
+                processDispatchesFanOut(units, completion);
+            } finally {
+                for (NamedWindowConsumerLatch latch : dispatches) {
+                    latch.done();
+                }
+            }
+            return;
+        }
+
         try {
             // Dispatch - with or without metrics reporting
             if (MetricReportingPath.isMetricsEnabled) {
@@ -297,6 +362,164 @@ public class NamedWindowDispatchServiceImpl implements NamedWindowDispatchServic
         dispatchesPerStmt.clear();
     }
 
+    private boolean isConsumerDispatchFanOut(int numStatements) {
+        return consumerDispatchThreading != null && !isPrioritized && numStatements > 1;
+    }
+
+    /**
+     * Dispatches to each consuming statement as a separate unit of work. Pool threads pick up units in order while
+     * this thread executes any units that no pool thread picked up yet, starting from the last unit.
+     * When all units completed, hands the named window latches and routed events of the units to this thread,
+     * in the order of the units, and releases the pooled units for dispatching to listeners.
+     */
+    private void processDispatchesFanOut(List<NamedWindowConsumerDispatchUnit> units, NamedWindowConsumerDispatchCompletion completion) {
+        try {
+            for (int i = 1; i < units.size(); i++) {
+                consumerDispatchThreading.submitNamedWindowDispatch(units.get(i));
+            }
+            units.get(0).claim();
+            processUnitInline(units.get(0));
+            for (int i = units.size() - 1; i > 0; i--) {
+                NamedWindowConsumerDispatchUnit unit = units.get(i);
+                if (unit.claim()) {
+                    processUnitInline(unit);
+                }
+            }
+            completion.awaitUnits();
+
+            List<NamedWindowConsumerLatch> dispatches = threadLocal.get();
+            LinkedHashMap<NamedWindowConsumerLatchFactory, List<NamedWindowConsumerDispatchUnit.CollectedLatch>> latchesPerWindow = null;
+            DualWorkQueue queues = null;
+            for (NamedWindowConsumerDispatchUnit unit : units) {
+                if (unit.getLatches() != null) {
+                    if (latchesPerWindow == null) {
+                        latchesPerWindow = new LinkedHashMap<NamedWindowConsumerLatchFactory, List<NamedWindowConsumerDispatchUnit.CollectedLatch>>();
+                    }
+                    for (NamedWindowConsumerDispatchUnit.CollectedLatch collected : unit.getLatches()) {
+                        List<NamedWindowConsumerDispatchUnit.CollectedLatch> list = latchesPerWindow.get(collected.getFactory());
+                        if (list == null) {
+                            list = new ArrayList<NamedWindowConsumerDispatchUnit.CollectedLatch>(2);
+                            latchesPerWindow.put(collected.getFactory(), list);
+                        }
+                        list.add(collected);
+                    }
+                }
+                if (unit.getFrontItems() != null || unit.getBackItems() != null) {
+                    if (queues == null) {
+                        queues = runtime.getThreadWorkQueue().getThreadQueue();
+                    }
+                    if (unit.getFrontItems() != null) {
+                        queues.getFrontQueue().addAll(unit.getFrontItems());
+                    }
+                    if (unit.getBackItems() != null) {
+                        queues.getBackQueue().addAll(unit.getBackItems());
+                    }
+                }
+            }
+
+            // latches of the same named window must be dispatched in the order the named window produced them
+            if (latchesPerWindow != null) {
+                for (List<NamedWindowConsumerDispatchUnit.CollectedLatch> list : latchesPerWindow.values()) {
+                    if (list.size() > 1) {
+                        Collections.sort(list, LATCH_SEQUENCE_COMPARATOR);
+                    }
+                    for (NamedWindowConsumerDispatchUnit.CollectedLatch collected : list) {
+                        dispatches.add(collected.getLatch());
+                    }
+                }
+            }
+        } finally {
+            completion.release();
+        }
+    }
+
+    private void processUnitInline(NamedWindowConsumerDispatchUnit unit) {
+        try {
+            processUnit(unit);
+        } finally {
+            unit.getCompletion().unitDone();
+        }
+    }
+
+    /**
+     * Executes a consumer dispatch unit by a thread of the named window consumer dispatch thread pool.
+     *
+     * @param unit to execute
+     */
+    public void processUnitPooled(NamedWindowConsumerDispatchUnit unit) {
+        // The dispatching thread holds the engine read lock until all units completed.
+        // Barge the read lock so the pool thread does not queue behind a thread waiting for the write lock.
+        ReentrantReadWriteLock.ReadLock engineReadLock = eventProcessingRWLock.getLock().readLock();
+        boolean locked = engineReadLock.tryLock();
+        try {
+            processUnit(unit);
+
+            // hand events routed by the consuming statement to the dispatching thread
+            DualWorkQueue queues = runtime.getThreadWorkQueue().getThreadQueue();
+            ArrayDeque<Object> frontItems = null;
+            ArrayDeque<Object> backItems = null;
+            if (!queues.getFrontQueue().isEmpty()) {
+                frontItems = new ArrayDeque<Object>(queues.getFrontQueue());
+                queues.getFrontQueue().clear();
+            }
+            if (!queues.getBackQueue().isEmpty()) {
+                backItems = new ArrayDeque<Object>(queues.getBackQueue());
+                queues.getBackQueue().clear();
+            }
+            unit.setWorkItems(frontItems, backItems);
+        } catch (RuntimeException ex) {
+            log.error("Unexpected error processing named window consumer dispatch: " + ex.getMessage(), ex);
+        } finally {
+            if (locked) {
+                engineReadLock.unlock();
+            }
+            unit.getCompletion().unitDone();
+        }
+
+        // dispatch results to listeners after the dispatching thread completed the named window latch
+        unit.getCompletion().awaitRelease();
+        try {
+            runtime.dispatch();
+        } catch (RuntimeException ex) {
+            log.error("Unexpected error dispatching named window consumer results: " + ex.getMessage(), ex);
+        }
+    }
+
+    private void processUnit(NamedWindowConsumerDispatchUnit unit) {
+        EPStatementAgentInstanceHandle handle = unit.getHandle();
+        executingUnitTL.set(unit);
+        try {
+            if (MetricReportingPath.isMetricsEnabled && handle.getStatementHandle().getMetricsHandle().isEnabled()) {
+                long cpuTimeBefore = MetricUtil.getCPUCurrentThread();
+                long wallTimeBefore = MetricUtil.getWall();
+
+                processPerStmt(handle, unit.getPerStmtObj());
+
+                long wallTimeAfter = MetricUtil.getWall();
+                long cpuTimeAfter = MetricUtil.getCPUCurrentThread();
+                long deltaCPU = cpuTimeAfter - cpuTimeBefore;
+                long deltaWall = wallTimeAfter - wallTimeBefore;
+                metricReportingService.accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, 1);
+            } else {
+                processPerStmt(handle, unit.getPerStmtObj());
+            }
+        } finally {
+            executingUnitTL.set(null);
+        }
+    }
+
+    private void processPerStmt(EPStatementAgentInstanceHandle handle, Object perStmtObj) {
+        if (perStmtObj instanceof NamedWindowConsumerLatch) {
+            NamedWindowConsumerLatch unit = (NamedWindowConsumerLatch) perStmtObj;
+            List<NamedWindowConsumerView> items = unit.getDispatchTo().get(handle);
+            if (items != null) {
+                processHandle(handle, items, unit.getDeltaData().getNewData(), unit.getDeltaData().getOldData());
+            }
+            return;
+        }
+        processHandleMultiple(handle, getDeltaPerConsumer(perStmtObj, handle));
+    }
+
     private void processHandleMultiple(EPStatementAgentInstanceHandle handle, Map<NamedWindowConsumerView, NamedWindowDeltaData> deltaPerConsumer) {
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qNamedWindowCPMulti(exceptionHandlingService.getEngineURI(), deltaPerConsumer, handle, schedulingService.getTime());
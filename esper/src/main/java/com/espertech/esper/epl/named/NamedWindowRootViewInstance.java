@@ -92,9 +92,7 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         if (rootView.getRevisionProcessor() != null) {
             rootView.getRevisionProcessor().removeOldData(oldData, indexRepository);
         } else {
-            for (EventTable table : indexRepository.getTables()) {
-                table.remove(oldData);
-            }
+            indexRepository.getBatchUpdater().remove(oldData);
         }
     }
 
@@ -106,9 +104,7 @@ public class NamedWindowRootViewInstance extends ViewSupport {
     public void addNewData(EventBean[] newData) {
         if (rootView.getRevisionProcessor() == null) {
             // Update indexes for fast deletion, if there are any
-            for (EventTable table : indexRepository.getTables()) {
-                table.add(newData);
-            }
+            indexRepository.getBatchUpdater().add(newData);
         }
     }
 
@@ -118,10 +114,8 @@ public class NamedWindowRootViewInstance extends ViewSupport {
             rootView.getRevisionProcessor().onUpdate(newData, oldData, this, indexRepository);
         } else {
             // Update indexes for fast deletion, if there are any
-            for (EventTable table : indexRepository.getTables()) {
-                if (rootView.isChildBatching()) {
-                    table.add(newData);
-                }
+            if (rootView.isChildBatching()) {
+                indexRepository.getBatchUpdater().add(newData);
             }
 
             // Update child views
@@ -199,9 +193,7 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         EventBean[] events = new EventBean[1];
         for (EventBean event : dataWindowContents) {
             events[0] = event;
-            for (EventTable table : indexRepository.getTables()) {
-                table.add(events);
-            }
+            indexRepository.getBatchUpdater().add(events);
         }
     }
 
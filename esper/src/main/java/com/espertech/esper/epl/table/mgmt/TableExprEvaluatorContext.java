@@ -25,6 +25,10 @@ public class TableExprEvaluatorContext {
         return threadLocal.get().add(lock);
     }
 
+    public boolean removeAcquiredLock(Lock lock) {
+        return threadLocal.get().remove(lock);
+    }
+
     public void releaseAcquiredLocks() {
         Set<Lock> locks = threadLocal.get();
         if (locks.isEmpty()) {
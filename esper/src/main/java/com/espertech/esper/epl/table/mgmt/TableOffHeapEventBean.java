@@ -0,0 +1,136 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.table.mgmt;
+
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventBeanSPI;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+
+/**
+ * Table row that keeps its fixed-size plain columns in direct memory of a {@link TableOffHeapRowStore}.
+ * <p>
+ * The property array is materialized on access and is written back by {@link #flush()}. A row that is deleted from
+ * the table is detached: it keeps its materialized property array and no longer refers to direct memory.
+ */
+public class TableOffHeapEventBean implements EventBeanSPI, ObjectArrayBackedEventBean {
+    private final TableOffHeapRowStore store;
+    private final EventType eventType;
+    private final Object[] heapColumns;
+    private int slot;
+    private volatile Object[] materialized;
+
+    /**
+     * Ctor.
+     *
+     * @param store       row store
+     * @param eventType   table internal event type
+     * @param slot        slot in store
+     * @param heapColumns on-heap columns
+     */
+    public TableOffHeapEventBean(TableOffHeapRowStore store, EventType eventType, int slot, Object[] heapColumns) {
+        this.store = store;
+        this.eventType = eventType;
+        this.slot = slot;
+        this.heapColumns = heapColumns;
+    }
+
+    public Object[] getProperties() {
+        Object[] properties = materialized;
+        if (properties == null) {
+            properties = store.read(slot, heapColumns);
+            materialized = properties;
+            store.registerMaterialized(this);
+        }
+        return properties;
+    }
+
+    public void setPropertyValues(Object[] values) {
+        if (slot == -1) {
+            materialized = values;
+            return;
+        }
+        store.write(slot, values, heapColumns);
+        materialized = null;
+    }
+
+    public void setUnderlying(Object underlying) {
+        setPropertyValues((Object[]) underlying);
+    }
+
+    /**
+     * Writes back the materialized property array, if any, and releases it.
+     */
+    public void flush() {
+        Object[] properties = materialized;
+        if (properties == null || slot == -1) {
+            return;
+        }
+        store.write(slot, properties, heapColumns);
+        materialized = null;
+    }
+
+    /**
+     * Detaches the row from direct memory, for use when the row is deleted from the table.
+     */
+    public void detach() {
+        if (slot == -1) {
+            return;
+        }
+        getProperties();
+        int freed = slot;
+        slot = -1;
+        store.freeSlot(freed);
+    }
+
+    /**
+     * Returns true if the row is detached.
+     *
+     * @return indicator
+     */
+    public boolean isDetached() {
+        return slot == -1;
+    }
+
+    /**
+     * Returns the on-heap columns.
+     *
+     * @return columns
+     */
+    protected Object[] getHeapColumns() {
+        return heapColumns;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public Object get(String property) throws PropertyAccessException {
+        EventPropertyGetter getter = eventType.getGetter(property);
+        if (getter == null) {
+            throw new PropertyAccessException("Property named '" + property + "' is not a valid property name for this type");
+        }
+        return getter.get(this);
+    }
+
+    public Object getUnderlying() {
+        return getProperties();
+    }
+
+    public Object getFragment(String propertyExpression) throws PropertyAccessException {
+        EventPropertyGetter getter = eventType.getGetter(propertyExpression);
+        if (getter == null) {
+            throw PropertyAccessException.notAValidProperty(propertyExpression);
+        }
+        return getter.getFragment(this);
+    }
+}
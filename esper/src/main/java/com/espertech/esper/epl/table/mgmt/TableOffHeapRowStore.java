@@ -0,0 +1,337 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.table.mgmt;
+
+import com.espertech.esper.client.EventPropertyDescriptor;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Row storage for tables that keeps fixed-size plain columns in direct memory.
+ * <p>
+ * Each row occupies a slot of fixed size in a chunk of direct memory, with a null indicator byte per column followed
+ * by the column value. Columns that are not of a fixed-size type, as well as the aggregation row, are held by an
+ * on-heap array per row.
+ * <p>
+ * Rows are materialized into an object array when their properties are accessed. Materialized rows are written back
+ * and released when a row update completes, and for read access, when the number of materialized rows exceeds a maximum.
+ */
+public class TableOffHeapRowStore {
+    private static final int CHUNK_SIZE_BYTES = 1024 * 1024;
+    private static final int MATERIALIZED_ROWS_MAX = 1024;
+
+    private final ObjectArrayEventType eventType;
+    private final ColumnKind[] kinds;
+    private final int[] offsets;
+    private final int[] heapIndexes;
+    private final int numHeapColumns;
+    private final int rowSize;
+    private final int rowsPerChunk;
+
+    private final List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+    private int[] freeSlots = new int[16];
+    private int numFreeSlots;
+    private int numSlots;
+
+    private final Queue<TableOffHeapEventBean> materialized = new ConcurrentLinkedQueue<TableOffHeapEventBean>();
+    private final AtomicInteger numMaterialized = new AtomicInteger();
+
+    /**
+     * Ctor.
+     *
+     * @param eventType internal event type of the table
+     */
+    public TableOffHeapRowStore(ObjectArrayEventType eventType) {
+        this.eventType = eventType;
+        EventPropertyDescriptor[] descriptors = eventType.getPropertyDescriptors();
+        kinds = new ColumnKind[descriptors.length];
+        offsets = new int[descriptors.length];
+        heapIndexes = new int[descriptors.length];
+        int offset = 0;
+        int heapCount = 0;
+        for (int i = 0; i < descriptors.length; i++) {
+            kinds[i] = getColumnKind(descriptors[i].getPropertyType());
+            if (kinds[i] == null) {
+                offsets[i] = -1;
+                heapIndexes[i] = heapCount++;
+            } else {
+                offsets[i] = offset;
+                heapIndexes[i] = -1;
+                offset += 1 + kinds[i].width;
+            }
+        }
+        numHeapColumns = heapCount;
+        rowSize = offset;
+        rowsPerChunk = Math.max(1, CHUNK_SIZE_BYTES / Math.max(1, rowSize));
+    }
+
+    /**
+     * Returns true if the event type has at least one column that can be kept in direct memory.
+     *
+     * @param eventType internal event type of the table
+     * @return indicator
+     */
+    public static boolean hasOffHeapColumns(ObjectArrayEventType eventType) {
+        for (EventPropertyDescriptor descriptor : eventType.getPropertyDescriptors()) {
+            if (getColumnKind(descriptor.getPropertyType()) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Allocates a row and stores the property values.
+     *
+     * @param values property values
+     * @return row
+     */
+    public TableOffHeapEventBean makeRow(Object[] values) {
+        int slot = allocateSlot();
+        TableOffHeapEventBean row = new TableOffHeapEventBean(this, eventType, slot, new Object[numHeapColumns]);
+        write(slot, values, row.getHeapColumns());
+        return row;
+    }
+
+    /**
+     * Writes property values to a slot.
+     *
+     * @param slot        slot
+     * @param values      property values
+     * @param heapColumns on-heap columns of the row
+     */
+    protected void write(int slot, Object[] values, Object[] heapColumns) {
+        ByteBuffer chunk = rowSize == 0 ? null : chunks.get(slot / rowsPerChunk);
+        int base = (slot % rowsPerChunk) * rowSize;
+        for (int i = 0; i < kinds.length; i++) {
+            ColumnKind kind = kinds[i];
+            if (kind == null) {
+                heapColumns[heapIndexes[i]] = values[i];
+                continue;
+            }
+            int position = base + offsets[i];
+            Object value = values[i];
+            if (value == null) {
+                chunk.put(position, (byte) 0);
+                continue;
+            }
+            chunk.put(position, (byte) 1);
+            position++;
+            switch (kind) {
+                case LONG:
+                    chunk.putLong(position, ((Number) value).longValue());
+                    break;
+                case INT:
+                    chunk.putInt(position, ((Number) value).intValue());
+                    break;
+                case DOUBLE:
+                    chunk.putDouble(position, ((Number) value).doubleValue());
+                    break;
+                case FLOAT:
+                    chunk.putFloat(position, ((Number) value).floatValue());
+                    break;
+                case SHORT:
+                    chunk.putShort(position, ((Number) value).shortValue());
+                    break;
+                case BYTE:
+                    chunk.put(position, ((Number) value).byteValue());
+                    break;
+                case CHAR:
+                    chunk.putChar(position, (Character) value);
+                    break;
+                default:
+                    chunk.put(position, ((Boolean) value) ? (byte) 1 : (byte) 0);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Reads the property values of a slot.
+     *
+     * @param slot        slot
+     * @param heapColumns on-heap columns of the row
+     * @return property values
+     */
+    protected Object[] read(int slot, Object[] heapColumns) {
+        ByteBuffer chunk = rowSize == 0 ? null : chunks.get(slot / rowsPerChunk);
+        int base = (slot % rowsPerChunk) * rowSize;
+        Object[] values = new Object[kinds.length];
+        for (int i = 0; i < kinds.length; i++) {
+            ColumnKind kind = kinds[i];
+            if (kind == null) {
+                values[i] = heapColumns[heapIndexes[i]];
+                continue;
+            }
+            int position = base + offsets[i];
+            if (chunk.get(position) == 0) {
+                continue;
+            }
+            position++;
+            switch (kind) {
+                case LONG:
+                    values[i] = chunk.getLong(position);
+                    break;
+                case INT:
+                    values[i] = chunk.getInt(position);
+                    break;
+                case DOUBLE:
+                    values[i] = chunk.getDouble(position);
+                    break;
+                case FLOAT:
+                    values[i] = chunk.getFloat(position);
+                    break;
+                case SHORT:
+                    values[i] = chunk.getShort(position);
+                    break;
+                case BYTE:
+                    values[i] = chunk.get(position);
+                    break;
+                case CHAR:
+                    values[i] = chunk.getChar(position);
+                    break;
+                default:
+                    values[i] = chunk.get(position) != 0;
+                    break;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Registers a row that was materialized for read access, releasing the oldest materialized row
+     * when the number of materialized rows exceeds the maximum.
+     *
+     * @param row materialized row
+     */
+    protected void registerMaterialized(TableOffHeapEventBean row) {
+        materialized.add(row);
+        if (numMaterialized.incrementAndGet() > MATERIALIZED_ROWS_MAX) {
+            TableOffHeapEventBean oldest = materialized.poll();
+            if (oldest != null) {
+                numMaterialized.decrementAndGet();
+                oldest.flush();
+            }
+        }
+    }
+
+    /**
+     * Frees a slot for reuse.
+     *
+     * @param slot slot
+     */
+    protected void freeSlot(int slot) {
+        if (numFreeSlots == freeSlots.length) {
+            int[] grown = new int[freeSlots.length * 2];
+            System.arraycopy(freeSlots, 0, grown, 0, numFreeSlots);
+            freeSlots = grown;
+        }
+        freeSlots[numFreeSlots++] = slot;
+    }
+
+    /**
+     * Releases all rows and direct memory.
+     */
+    public void clear() {
+        chunks.clear();
+        numSlots = 0;
+        numFreeSlots = 0;
+        materialized.clear();
+        numMaterialized.set(0);
+    }
+
+    /**
+     * Returns the number of rows in use.
+     *
+     * @return row count
+     */
+    public int getNumRows() {
+        return numSlots - numFreeSlots;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory allocated.
+     *
+     * @return bytes
+     */
+    public long getNumBytesAllocated() {
+        return (long) chunks.size() * rowsPerChunk * rowSize;
+    }
+
+    /**
+     * Returns the number of materialized rows.
+     *
+     * @return count
+     */
+    public int getNumMaterialized() {
+        return numMaterialized.get();
+    }
+
+    private int allocateSlot() {
+        if (numFreeSlots > 0) {
+            return freeSlots[--numFreeSlots];
+        }
+        if (numSlots == chunks.size() * rowsPerChunk) {
+            chunks.add(ByteBuffer.allocateDirect(rowsPerChunk * rowSize).order(ByteOrder.nativeOrder()));
+        }
+        return numSlots++;
+    }
+
+    private static ColumnKind getColumnKind(Class type) {
+        if (type == null) {
+            return null;
+        }
+        Class boxed = JavaClassHelper.getBoxedType(type);
+        if (boxed == Long.class) {
+            return ColumnKind.LONG;
+        } else if (boxed == Integer.class) {
+            return ColumnKind.INT;
+        } else if (boxed == Double.class) {
+            return ColumnKind.DOUBLE;
+        } else if (boxed == Float.class) {
+            return ColumnKind.FLOAT;
+        } else if (boxed == Short.class) {
+            return ColumnKind.SHORT;
+        } else if (boxed == Byte.class) {
+            return ColumnKind.BYTE;
+        } else if (boxed == Character.class) {
+            return ColumnKind.CHAR;
+        } else if (boxed == Boolean.class) {
+            return ColumnKind.BOOLEAN;
+        }
+        return null;
+    }
+
+    private enum ColumnKind {
+        LONG(8),
+        INT(4),
+        DOUBLE(8),
+        FLOAT(4),
+        SHORT(2),
+        BYTE(1),
+        CHAR(2),
+        BOOLEAN(1);
+
+        private final int width;
+
+        ColumnKind(int width) {
+            this.width = width;
+        }
+    }
+}
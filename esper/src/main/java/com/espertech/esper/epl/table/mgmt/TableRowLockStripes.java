@@ -0,0 +1,207 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.table.mgmt;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.epl.expression.table.ExprTableAccessNode;
+import com.espertech.esper.epl.spec.FilterStreamSpecCompiled;
+import com.espertech.esper.epl.spec.StatementSpecCompiled;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Striped row locks for a keyed table.
+ * <p>
+ * Whether a statement may use row locks is decided when the statement starts, see {@link #isSingleRowPerEvent}.
+ * Such statements address at most one row of the table per event and hold the table-level read lock and the stripe lock
+ * that the key hashes to, so that threads working on different rows do not serialize on the table-level lock.
+ * All other statements, as well as on-action statements and fire-and-forget queries, obtain the exclusive lock
+ * before touching the table. All locks are held until the end of event processing, same as the table-level lock,
+ * and no lock is ever released or upgraded while processing an event.
+ */
+public class TableRowLockStripes {
+    private final String tableName;
+    private final ReentrantReadWriteLock tableLevelRWLock;
+    private final TableExprEvaluatorContext tableExprEvaluatorContext;
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final Lock exclusiveLock = new ExclusiveLock();
+
+    /**
+     * Ctor.
+     *
+     * @param tableName                 table name
+     * @param numStripes                number of stripes, rounded up to the next power of two
+     * @param tableLevelRWLock          table-level lock
+     * @param tableExprEvaluatorContext holds locks acquired by the current thread
+     */
+    public TableRowLockStripes(String tableName, int numStripes, ReentrantReadWriteLock tableLevelRWLock, TableExprEvaluatorContext tableExprEvaluatorContext) {
+        this.tableName = tableName;
+        this.tableLevelRWLock = tableLevelRWLock;
+        this.tableExprEvaluatorContext = tableExprEvaluatorContext;
+        int size = 1;
+        while (size < numStripes) {
+            size <<= 1;
+        }
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Obtain the lock for the row of the given key, held until the end of event processing.
+     *
+     * @param groupKey primary key
+     */
+    public void obtainRowLock(Object groupKey) {
+        if (tableLevelRWLock.isWriteLockedByCurrentThread()) {
+            return;
+        }
+        ReentrantLock stripe = getStripe(groupKey);
+        if (tableExprEvaluatorContext.addAcquiredLock(tableLevelRWLock.readLock())) {
+            tableLevelRWLock.readLock().lock();
+        } else if (stripe.isHeldByCurrentThread()) {
+            return;
+        } else if (isAnyStripeHeldByCurrentThread()) {
+            throw new EPException("Failed to obtain row lock for table '" + tableName + "', a lock for another row of the table is held by the current thread");
+        }
+        if (tableExprEvaluatorContext.addAcquiredLock(stripe)) {
+            stripe.lock();
+        }
+    }
+
+    /**
+     * Obtain the exclusive lock, held until the end of event processing.
+     */
+    public void obtainExclusiveLock() {
+        if (tableExprEvaluatorContext.addAcquiredLock(exclusiveLock)) {
+            exclusiveLock.lock();
+        }
+    }
+
+    /**
+     * Returns the exclusive lock for use with the table-level lock of the table.
+     *
+     * @return lock
+     */
+    public Lock getExclusiveLock() {
+        return exclusiveLock;
+    }
+
+    public int getNumStripes() {
+        return stripes.length;
+    }
+
+    /**
+     * Determine whether the statement addresses at most one row of the table for each event it processes
+     * and may therefore use row locks instead of the exclusive lock.
+     * <p>
+     * This is the case for a single filter stream without data window, contained-event selection, subqueries, match-recognize
+     * or output rate limiting, when the statement either aggregates into the table without rollup or has a single table-access expression
+     * for the table, but not both.
+     *
+     * @param spec      compiled statement
+     * @param tableName table name
+     * @return indicator
+     */
+    public static boolean isSingleRowPerEvent(StatementSpecCompiled spec, String tableName) {
+        if (spec == null || spec.getOnTriggerDesc() != null || spec.getStreamSpecs().length != 1 ||
+                spec.getSubSelectExpressions().length > 0 || spec.getMatchRecognizeSpec() != null || spec.getOutputLimitSpec() != null) {
+            return false;
+        }
+        if (!(spec.getStreamSpecs()[0] instanceof FilterStreamSpecCompiled)) {
+            return false;
+        }
+        FilterStreamSpecCompiled filterStream = (FilterStreamSpecCompiled) spec.getStreamSpecs()[0];
+        if (filterStream.getViewSpecs().length > 0 || filterStream.getFilterSpec().getOptionalPropertyEvaluator() != null) {
+            return false;
+        }
+        int numAccess = 0;
+        if (spec.getIntoTableSpec() != null && spec.getIntoTableSpec().getName().equals(tableName)) {
+            if (spec.getGroupByExpressions() != null && spec.getGroupByExpressions().getGroupByRollupLevels() != null) {
+                return false;
+            }
+            numAccess++;
+        }
+        if (spec.getTableNodes() != null) {
+            for (ExprTableAccessNode tableNode : spec.getTableNodes()) {
+                if (tableNode.getTableName().equals(tableName)) {
+                    numAccess++;
+                }
+            }
+        }
+        return numAccess <= 1;
+    }
+
+    private ReentrantLock getStripe(Object groupKey) {
+        int h = groupKey == null ? 0 : groupKey.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private boolean isAnyStripeHeldByCurrentThread() {
+        for (ReentrantLock stripe : stripes) {
+            if (stripe.isHeldByCurrentThread()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The table-level write lock, failing instead of deadlocking when the current thread holds the table-level read lock.
+     */
+    private class ExclusiveLock implements Lock {
+        public void lock() {
+            try {
+                checkNotReadLocked();
+            } catch (EPException ex) {
+                tableExprEvaluatorContext.removeAcquiredLock(this);
+                throw ex;
+            }
+            tableLevelRWLock.writeLock().lock();
+        }
+
+        public void unlock() {
+            tableLevelRWLock.writeLock().unlock();
+        }
+
+        public void lockInterruptibly() throws InterruptedException {
+            checkNotReadLocked();
+            tableLevelRWLock.writeLock().lockInterruptibly();
+        }
+
+        public boolean tryLock() {
+            checkNotReadLocked();
+            return tableLevelRWLock.writeLock().tryLock();
+        }
+
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            checkNotReadLocked();
+            return tableLevelRWLock.writeLock().tryLock(time, unit);
+        }
+
+        public Condition newCondition() {
+            return tableLevelRWLock.writeLock().newCondition();
+        }
+
+        private void checkNotReadLocked() {
+            if (!tableLevelRWLock.isWriteLockedByCurrentThread() && tableLevelRWLock.getReadHoldCount() > 0) {
+                throw new EPException("Failed to obtain exclusive lock for table '" + tableName + "', a row lock of the table is held by the current thread");
+            }
+        }
+    }
+}
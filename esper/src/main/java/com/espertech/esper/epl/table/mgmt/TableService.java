@@ -63,5 +63,5 @@ public interface TableService {
 
     public TableMetadata addTable(String tableName, String eplExpression, String statementName, Class[] keyTypes, Map<String, TableMetadataColumn> tableColumns, TableStateRowFactory tableStateRowFactory, int numberMethodAggregations, StatementContext statementContext, ObjectArrayEventType internalEventType, ObjectArrayEventType publicEventType, TableMetadataInternalEventToPublic eventToPublic, boolean queryPlanLogging) throws ExprValidationException;
 
-    public TableAndLockProvider getStateProvider(String tableName, int agentInstanceId, boolean writesToTables);
+    public TableAndLockProvider getStateProvider(String tableName, int agentInstanceId, boolean writesToTables, boolean singleRowPerEvent);
 }
@@ -12,9 +12,12 @@ package com.espertech.esper.epl.table.mgmt;
 
 import com.espertech.esper.client.ConfigurationPlugInAggregationMultiFunction;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.LockStriping;
+import com.espertech.esper.client.annotation.OffHeap;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.epl.annotation.AnnotationUtil;
 import com.espertech.esper.epl.core.EngineImportService;
 import com.espertech.esper.epl.core.StreamTypeService;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
@@ -80,6 +83,20 @@ public class TableServiceImpl implements TableService {
     public TableMetadata addTable(String tableName, String eplExpression, String statementName, Class[] keyTypes, Map<String, TableMetadataColumn> tableColumns, TableStateRowFactory tableStateRowFactory, int numberMethodAggregations, StatementContext statementContext, ObjectArrayEventType internalEventType, ObjectArrayEventType publicEventType, TableMetadataInternalEventToPublic eventToPublic, boolean queryPlanLogging) throws ExprValidationException {
         final TableMetadata metadata = new TableMetadata(tableName, eplExpression, statementName, keyTypes, tableColumns, tableStateRowFactory, numberMethodAggregations, statementContext, internalEventType, publicEventType, eventToPublic, queryPlanLogging);
 
+        LockStriping lockStriping = (LockStriping) AnnotationUtil.findAnnotation(statementContext.getAnnotations(), LockStriping.class);
+        final int numLockStripes = lockStriping == null ? 0 : lockStriping.value();
+        if (lockStriping != null) {
+            if (numLockStripes < 1) {
+                throw new ExprValidationException("Lock striping requires a positive number of stripes but received " + numLockStripes);
+            }
+            if (keyTypes.length == 0) {
+                throw new ExprValidationException("Lock striping requires a table that has primary key columns");
+            }
+            if (AnnotationUtil.findAnnotation(statementContext.getAnnotations(), OffHeap.class) != null) {
+                throw new ExprValidationException("Lock striping is not supported in combination with off-heap rows");
+            }
+        }
+
         // determine table state factory
         TableStateFactory tableStateFactory;
         if (keyTypes.length == 0) { // ungrouped
@@ -88,10 +105,16 @@ public class TableServiceImpl implements TableService {
                     return new TableStateInstanceUngroupedImpl(metadata, agentInstanceContext);
                 }
             };
+        } else if (AnnotationUtil.findAnnotation(statementContext.getAnnotations(), OffHeap.class) != null && TableOffHeapRowStore.hasOffHeapColumns(internalEventType)) {
+            tableStateFactory = new TableStateFactory() {
+                public TableStateInstance makeTableState(AgentInstanceContext agentInstanceContext) {
+                    return new TableStateInstanceGroupedOffHeapImpl(metadata, agentInstanceContext);
+                }
+            };
         } else {
             tableStateFactory = new TableStateFactory() {
                 public TableStateInstance makeTableState(AgentInstanceContext agentInstanceContext) {
-                    return new TableStateInstanceGroupedImpl(metadata, agentInstanceContext);
+                    return new TableStateInstanceGroupedImpl(metadata, agentInstanceContext, numLockStripes);
                 }
             };
         }
@@ -201,11 +224,12 @@ public class TableServiceImpl implements TableService {
         return CollectionUtil.toArray(tables.keySet());
     }
 
-    public TableAndLockProvider getStateProvider(String tableName, int agentInstanceId, boolean writesToTables) {
+    public TableAndLockProvider getStateProvider(String tableName, int agentInstanceId, boolean writesToTables, boolean singleRowPerEvent) {
         TableStateInstance instance = assertGetState(tableName, agentInstanceId);
-        Lock lock = writesToTables ? instance.getTableLevelRWLock().writeLock() : instance.getTableLevelRWLock().readLock();
+        Lock lock = writesToTables ? instance.getTableLevelLockWrite() : instance.getTableLevelLockRead();
         if (instance instanceof TableStateInstanceGrouped) {
-            return new TableAndLockProviderGroupedImpl(new TableAndLockGrouped(lock, (TableStateInstanceGrouped) instance));
+            TableRowLockStripes rowLockStripes = singleRowPerEvent ? instance.getRowLockStripes() : null;
+            return new TableAndLockProviderGroupedImpl(new TableAndLockGrouped(lock, (TableStateInstanceGrouped) instance, rowLockStripes));
         } else {
             return new TableAndLockProviderUngroupedImpl(new TableAndLockUngrouped(lock, (TableStateInstanceUngrouped) instance));
         }
@@ -23,6 +23,7 @@ import com.espertech.esper.event.ObjectArrayBackedEventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Collection;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public abstract class TableStateInstance {
@@ -31,6 +32,7 @@ public abstract class TableStateInstance {
     protected final AgentInstanceContext agentInstanceContext;
     private final ReentrantReadWriteLock tableLevelRWLock = new ReentrantReadWriteLock();
     protected final EventTableIndexRepository indexRepository = new EventTableIndexRepository();
+    private final TableRowLockStripes rowLockStripes;
 
     public abstract Iterable<EventBean> getIterableTableScan();
 
@@ -70,8 +72,13 @@ public abstract class TableStateInstance {
     }
 
     protected TableStateInstance(TableMetadata tableMetadata, AgentInstanceContext agentInstanceContext) {
+        this(tableMetadata, agentInstanceContext, 0);
+    }
+
+    protected TableStateInstance(TableMetadata tableMetadata, AgentInstanceContext agentInstanceContext, int numLockStripes) {
         this.tableMetadata = tableMetadata;
         this.agentInstanceContext = agentInstanceContext;
+        this.rowLockStripes = numLockStripes > 0 ? new TableRowLockStripes(tableMetadata.getTableName(), numLockStripes, tableLevelRWLock, agentInstanceContext.getTableExprEvaluatorContext()) : null;
     }
 
     public TableMetadata getTableMetadata() {
@@ -86,6 +93,33 @@ public abstract class TableStateInstance {
         return tableLevelRWLock;
     }
 
+    /**
+     * Returns the lock to obtain for reading the table as a whole, which is the exclusive lock when rows are protected by striped row locks.
+     *
+     * @return lock
+     */
+    public Lock getTableLevelLockRead() {
+        return rowLockStripes == null ? tableLevelRWLock.readLock() : rowLockStripes.getExclusiveLock();
+    }
+
+    /**
+     * Returns the lock to obtain for changing the table.
+     *
+     * @return lock
+     */
+    public Lock getTableLevelLockWrite() {
+        return rowLockStripes == null ? tableLevelRWLock.writeLock() : rowLockStripes.getExclusiveLock();
+    }
+
+    /**
+     * Returns the striped row locks, or null when the table only has the table-level lock.
+     *
+     * @return row locks
+     */
+    public TableRowLockStripes getRowLockStripes() {
+        return rowLockStripes;
+    }
+
     public EventTableIndexRepository getIndexRepository() {
         return indexRepository;
     }
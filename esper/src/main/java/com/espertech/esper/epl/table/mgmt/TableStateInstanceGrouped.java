@@ -20,6 +20,8 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 public interface TableStateInstanceGrouped {
     ReentrantReadWriteLock getTableLevelRWLock();
 
+    TableRowLockStripes getRowLockStripes();
+
     ObjectArrayBackedEventBean getCreateRowIntoTable(Object groupByKey, ExprEvaluatorContext exprEvaluatorContext);
 
     void handleRowUpdated(ObjectArrayBackedEventBean row);
@@ -14,7 +14,9 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.NullKeyConcurrentHashMap;
 import com.espertech.esper.collection.Pair;
+import com.espertech.esper.collection.PrimitiveKeyHashMap;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.epl.agg.access.AggregationServicePassThru;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
@@ -32,11 +34,15 @@ import java.util.*;
 
 public class TableStateInstanceGroupedImpl extends TableStateInstance implements TableStateInstanceGrouped {
 
-    private final Map<Object, ObjectArrayBackedEventBean> rows = new HashMap<Object, ObjectArrayBackedEventBean>();
+    private final Map<Object, ObjectArrayBackedEventBean> rows;
     private final IndexMultiKey primaryIndexKey;
 
     public TableStateInstanceGroupedImpl(TableMetadata tableMetadata, AgentInstanceContext agentInstanceContext) {
-        super(tableMetadata, agentInstanceContext);
+        this(tableMetadata, agentInstanceContext, 0);
+    }
+
+    public TableStateInstanceGroupedImpl(TableMetadata tableMetadata, AgentInstanceContext agentInstanceContext, int numLockStripes) {
+        super(tableMetadata, agentInstanceContext, numLockStripes);
 
         List<EventPropertyGetter> indexGetters = new ArrayList<EventPropertyGetter>();
         List<String> keyNames = new ArrayList<String>();
@@ -47,6 +53,13 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
             }
         }
 
+        // with row locks, rows of different stripes get created and looked up concurrently
+        if (getRowLockStripes() != null) {
+            rows = new NullKeyConcurrentHashMap<Object, ObjectArrayBackedEventBean>();
+        } else {
+            rows = PrimitiveKeyHashMap.newMap(keyNames.size() == 1 ? tableMetadata.getInternalEventType().getPropertyType(keyNames.get(0)) : null);
+        }
+
         String tableName = "primary-" + tableMetadata.getTableName();
         EventTableOrganization organization = new EventTableOrganization(tableName, true, false, 0, CollectionUtil.toArray(keyNames), EventTableOrganizationType.HASH);
 
@@ -157,7 +170,14 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
             return bean;
         }
         ObjectArrayBackedEventBean row = tableMetadata.getRowFactory().makeOA(exprEvaluatorContext.getAgentInstanceId(), groupByKey, null, getAggregationServicePassThru());
-        addEvent(row);
+        if (getRowLockStripes() == null) {
+            addEvent(row);
+        } else {
+            // the row lock excludes other creators of the same row but secondary indexes are shared by all rows
+            synchronized (rows) {
+                addEvent(row);
+            }
+        }
         return row;
     }
 
@@ -0,0 +1,95 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.table.mgmt;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+
+/**
+ * Table state for tables with primary key columns that keeps rows in direct memory, see {@link TableOffHeapRowStore}.
+ */
+public class TableStateInstanceGroupedOffHeapImpl extends TableStateInstanceGroupedImpl {
+
+    private final TableOffHeapRowStore store;
+
+    public TableStateInstanceGroupedOffHeapImpl(TableMetadata tableMetadata, AgentInstanceContext agentInstanceContext) {
+        super(tableMetadata, agentInstanceContext);
+        this.store = new TableOffHeapRowStore(tableMetadata.getInternalEventType());
+    }
+
+    public void addEvent(EventBean theEvent) {
+        addRow(theEvent);
+    }
+
+    public void deleteEvent(EventBean matchingEvent) {
+        super.deleteEvent(matchingEvent);
+        if (matchingEvent instanceof TableOffHeapEventBean) {
+            ((TableOffHeapEventBean) matchingEvent).detach();
+        }
+    }
+
+    public ObjectArrayBackedEventBean getCreateRowIntoTable(Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        ObjectArrayBackedEventBean bean = getRows().get(groupByKey);
+        if (bean != null) {
+            return bean;
+        }
+        ObjectArrayBackedEventBean row = tableMetadata.getRowFactory().makeOA(exprEvaluatorContext.getAgentInstanceId(), groupByKey, null, getAggregationServicePassThru());
+        return addRow(row);
+    }
+
+    public void handleRowUpdated(ObjectArrayBackedEventBean row) {
+        super.handleRowUpdated(row);
+        flush(row);
+    }
+
+    public void handleRowUpdateKeyAfterUpdate(ObjectArrayBackedEventBean updatedEvent) {
+        super.handleRowUpdateKeyAfterUpdate(updatedEvent);
+        flush(updatedEvent);
+    }
+
+    public void clearInstance() {
+        super.clearInstance();
+        store.clear();
+    }
+
+    public TableOffHeapRowStore getStore() {
+        return store;
+    }
+
+    private TableOffHeapEventBean addRow(EventBean theEvent) {
+        TableOffHeapEventBean row;
+        if (theEvent instanceof TableOffHeapEventBean) {
+            row = (TableOffHeapEventBean) theEvent;
+            super.addEvent(row);
+            row.flush();
+            return row;
+        }
+
+        row = store.makeRow(((ObjectArrayBackedEventBean) theEvent).getProperties());
+        try {
+            super.addEvent(row);
+        } catch (EPException ex) {
+            row.detach();
+            throw ex;
+        }
+        row.flush();
+        return row;
+    }
+
+    private static void flush(ObjectArrayBackedEventBean row) {
+        if (row instanceof TableOffHeapEventBean) {
+            ((TableOffHeapEventBean) row).flush();
+        }
+    }
+}
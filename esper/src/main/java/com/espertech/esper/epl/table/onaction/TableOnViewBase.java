@@ -23,6 +23,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Iterator;
+import java.util.concurrent.locks.Lock;
 
 public abstract class TableOnViewBase extends ViewSupport implements StopCallback {
     private static final Logger log = LoggerFactory.getLogger(TableOnViewBase.class);
@@ -52,22 +53,13 @@ public abstract class TableOnViewBase extends ViewSupport implements StopCallbac
             return;
         }
 
-        if (acquireWriteLock) {
-            tableStateInstance.getTableLevelRWLock().writeLock().lock();
-            try {
-                EventBean[] eventsFound = lookupStrategy.lookup(newData, exprEvaluatorContext);
-                handleMatching(newData, eventsFound);
-            } finally {
-                tableStateInstance.getTableLevelRWLock().writeLock().unlock();
-            }
-        } else {
-            tableStateInstance.getTableLevelRWLock().readLock().lock();
-            try {
-                EventBean[] eventsFound = lookupStrategy.lookup(newData, exprEvaluatorContext);
-                handleMatching(newData, eventsFound);
-            } finally {
-                tableStateInstance.getTableLevelRWLock().readLock().unlock();
-            }
+        Lock lock = acquireWriteLock ? tableStateInstance.getTableLevelLockWrite() : tableStateInstance.getTableLevelLockRead();
+        lock.lock();
+        try {
+            EventBean[] eventsFound = lookupStrategy.lookup(newData, exprEvaluatorContext);
+            handleMatching(newData, eventsFound);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -11,6 +11,7 @@
 package com.espertech.esper.epl.table.strategy;
 
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.table.mgmt.TableRowLockStripes;
 import com.espertech.esper.epl.table.mgmt.TableStateInstanceGrouped;
 import com.espertech.esper.event.ObjectArrayBackedEventBean;
 
@@ -24,7 +25,12 @@ public abstract class ExprTableEvalStrategyGroupByBase {
 
     protected ObjectArrayBackedEventBean lockTableReadAndGet(Object group, ExprEvaluatorContext context) {
         TableAndLockGrouped tableAndLockGrouped = provider.get();
-        ExprTableEvalLockUtil.obtainLockUnless(tableAndLockGrouped.getLock(), context);
+        TableRowLockStripes rowLockStripes = tableAndLockGrouped.getRowLockStripes();
+        if (rowLockStripes == null) {
+            ExprTableEvalLockUtil.obtainLockUnless(tableAndLockGrouped.getLock(), context);
+        } else {
+            rowLockStripes.obtainRowLock(group);
+        }
         return tableAndLockGrouped.getGrouped().getRowForGroupKey(group);
     }
 
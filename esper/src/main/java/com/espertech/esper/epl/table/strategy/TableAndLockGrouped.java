@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.epl.table.strategy;
 
+import com.espertech.esper.epl.table.mgmt.TableRowLockStripes;
 import com.espertech.esper.epl.table.mgmt.TableStateInstanceGrouped;
 
 import java.util.concurrent.locks.Lock;
@@ -17,10 +18,12 @@ import java.util.concurrent.locks.Lock;
 public class TableAndLockGrouped {
     private final Lock lock;
     private final TableStateInstanceGrouped grouped;
+    private final TableRowLockStripes rowLockStripes;
 
-    public TableAndLockGrouped(Lock lock, TableStateInstanceGrouped grouped) {
+    public TableAndLockGrouped(Lock lock, TableStateInstanceGrouped grouped, TableRowLockStripes rowLockStripes) {
         this.lock = lock;
         this.grouped = grouped;
+        this.rowLockStripes = rowLockStripes;
     }
 
     public Lock getLock() {
@@ -30,4 +33,13 @@ public class TableAndLockGrouped {
     public TableStateInstanceGrouped getGrouped() {
         return grouped;
     }
+
+    /**
+     * Returns the row locks to use for addressing a row by its primary key, or null to use the table-level lock.
+     *
+     * @return row locks
+     */
+    public TableRowLockStripes getRowLockStripes() {
+        return rowLockStripes;
+    }
 }
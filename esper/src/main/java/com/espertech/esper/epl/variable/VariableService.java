@@ -29,6 +29,21 @@ public interface VariableService {
      */
     public void setLocalVersion();
 
+    /**
+     * Returns the variable version that reads by the current thread consider.
+     *
+     * @return version
+     */
+    public int getLocalVersion();
+
+    /**
+     * Sets the given variable version for subsequent reads by the current thread, for use by a thread that executes work on behalf
+     * of another thread and must read the same variable values.
+     *
+     * @param version version obtained from the other thread via getLocalVersion
+     */
+    public void setLocalVersion(int version);
+
     /**
      * Lock for use in atomic writes to the variable space.
      *
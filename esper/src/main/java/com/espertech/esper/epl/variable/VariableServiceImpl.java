@@ -190,6 +190,14 @@ public class VariableServiceImpl implements VariableService {
         versionThreadLocal.getCurrentThread().setVersion(currentVersionNumber);
     }
 
+    public int getLocalVersion() {
+        return versionThreadLocal.getCurrentThread().getVersion();
+    }
+
+    public void setLocalVersion(int version) {
+        versionThreadLocal.getCurrentThread().setVersion(version);
+    }
+
     public void registerCallback(String variableName, int agentInstanceId, VariableChangeCallback variableChangeCallback) {
         VariableMetaData metaData = variables.get(variableName);
         if (metaData == null) {
@@ -86,7 +86,7 @@ public class OutputStrategyPostProcess {
                     AuditPath.auditInsertInto(agentInstanceContext.getEngineURI(), agentInstanceContext.getStatementName(), routed);
                 }
                 if (tableStateInstance != null) {
-                    ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+                    ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelLockWrite(), exprEvaluatorContext);
                     tableStateInstance.addEventUnadorned(routed);
                 } else {
                     parent.getInternalEventRouter().route(routed, parent.getEpStatementHandle(), agentInstanceContext.getStatementContext().getInternalEventEngineRouteDest(), exprEvaluatorContext, parent.isAddToFront());
@@ -15,10 +15,12 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventSender;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.core.service.EPRuntimeEventSender;
-import com.espertech.esper.core.thread.InboundUnitSendWrapped;
+import com.espertech.esper.core.thread.InboundUnitSendWrappedBatch;
 import com.espertech.esper.core.thread.ThreadingOption;
 import com.espertech.esper.core.thread.ThreadingService;
 
+import java.util.List;
+
 /**
  * Event sender for avro-backed events.
  * <p>
@@ -46,15 +48,35 @@ public class EventSenderAvro implements EventSender {
     }
 
     public void sendEvent(Object theEvent) {
+        if (theEvent == null) {
+            throw new NullPointerException("No event object provided to sendEvent method");
+        }
         EventBean eventBean = eventAdapterService.adapterForTypedAvro(theEvent, eventType);
 
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
-            threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtimeEventSender));
+            threadingService.submitInboundWrapped(eventBean, runtimeEventSender);
         } else {
             runtimeEventSender.processWrappedEvent(eventBean);
         }
     }
 
+    public void sendEvents(List<?> events) {
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Object theEvent : events) {
+            if (theEvent == null) {
+                throw new NullPointerException("No event object provided to sendEvents method");
+            }
+            eventBeans[count++] = eventAdapterService.adapterForTypedAvro(theEvent, eventType);
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
+            threadingService.submitInbound(new InboundUnitSendWrappedBatch(eventBeans, runtimeEventSender));
+        } else {
+            runtimeEventSender.processWrappedEvents(eventBeans);
+        }
+    }
+
     public void route(Object theEvent) {
         if (!(theEvent.getClass().isArray())) {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
@@ -15,7 +15,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventSender;
 import com.espertech.esper.client.time.CurrentTimeEvent;
 import com.espertech.esper.core.service.EPRuntimeEventSender;
-import com.espertech.esper.core.thread.InboundUnitSendWrapped;
+import com.espertech.esper.core.thread.InboundUnitSendWrappedBatch;
 import com.espertech.esper.core.thread.ThreadingOption;
 import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.event.bean.BeanEventType;
@@ -25,6 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -72,12 +73,29 @@ public class EventSenderBean implements EventSender {
 
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
-            threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtime));
+            threadingService.submitInboundWrapped(eventBean, runtime);
         } else {
             runtime.processWrappedEvent(eventBean);
         }
     }
 
+    public void sendEvents(List<?> events) {
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Object theEvent : events) {
+            if (theEvent == null) {
+                throw new NullPointerException("No event object provided to sendEvents method");
+            }
+            eventBeans[count++] = getEventBean(theEvent);
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
+            threadingService.submitInbound(new InboundUnitSendWrappedBatch(eventBeans, runtime));
+        } else {
+            runtime.processWrappedEvents(eventBeans);
+        }
+    }
+
     public void route(Object theEvent) throws EPException {
         EventBean eventBean = getEventBean(theEvent);
         runtime.routeEventBean(eventBean);
@@ -14,12 +14,13 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventSender;
 import com.espertech.esper.core.service.EPRuntimeEventSender;
-import com.espertech.esper.core.thread.InboundUnitSendWrapped;
+import com.espertech.esper.core.thread.InboundUnitSendWrappedBatch;
 import com.espertech.esper.core.thread.ThreadingOption;
 import com.espertech.esper.core.thread.ThreadingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -49,14 +50,57 @@ public class EventSenderImpl implements EventSender {
     }
 
     public void sendEvent(Object theEvent) throws EPException {
+        if (theEvent == null) {
+            throw new NullPointerException("No event object provided to sendEvent method");
+        }
         sendIn(theEvent, false);
     }
 
+    public void sendEvents(List<?> events) throws EPException {
+        List<EventBean> eventBeans = new ArrayList<EventBean>(events.size());
+        for (Object theEvent : events) {
+            if (theEvent == null) {
+                throw new NullPointerException("No event object provided to sendEvents method");
+            }
+            EventBean eventBean = create(theEvent);
+            if (eventBean != null) {
+                eventBeans.add(eventBean);
+            }
+        }
+        if (eventBeans.isEmpty()) {
+            return;
+        }
+        EventBean[] eventBeanArray = eventBeans.toArray(new EventBean[eventBeans.size()]);
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
+            threadingService.submitInbound(new InboundUnitSendWrappedBatch(eventBeanArray, epRuntime));
+        } else {
+            epRuntime.processWrappedEvents(eventBeanArray);
+        }
+    }
+
     public void route(Object theEvent) throws EPException {
         sendIn(theEvent, true);
     }
 
     private void sendIn(Object theEvent, boolean isRoute) throws EPException {
+        EventBean eventBean = create(theEvent);
+        if (eventBean == null) {
+            return;
+        }
+
+        if (isRoute) {
+            epRuntime.routeEventBean(eventBean);
+        } else {
+            if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
+                threadingService.submitInboundWrapped(eventBean, epRuntime);
+            } else {
+                epRuntime.processWrappedEvent(eventBean);
+            }
+        }
+    }
+
+    private EventBean create(Object theEvent) {
         // Ask each factory in turn to take care of it
         for (EventSenderURIDesc entry : handlingFactories) {
             EventBean eventBean = null;
@@ -68,17 +112,9 @@ public class EventSenderImpl implements EventSender {
             }
 
             if (eventBean != null) {
-                if (isRoute) {
-                    epRuntime.routeEventBean(eventBean);
-                } else {
-                    if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
-                        threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, epRuntime));
-                    } else {
-                        epRuntime.processWrappedEvent(eventBean);
-                    }
-                }
-                return;
+                return eventBean;
             }
         }
+        return null;
     }
 }
@@ -14,11 +14,12 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventSender;
 import com.espertech.esper.core.service.EPRuntimeEventSender;
-import com.espertech.esper.core.thread.InboundUnitSendWrapped;
+import com.espertech.esper.core.thread.InboundUnitSendWrappedBatch;
 import com.espertech.esper.core.thread.ThreadingOption;
 import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.event.map.MapEventType;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -48,26 +49,45 @@ public class EventSenderMap implements EventSender {
     }
 
     public void sendEvent(Object theEvent) {
-        if (!(theEvent instanceof Map)) {
-            throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
+        if (theEvent == null) {
+            throw new NullPointerException("No event object provided to sendEvent method");
         }
-
-        Map<String, Object> map = (Map<String, Object>) theEvent;
-        EventBean mapEvent = eventAdapterService.adapterForTypedMap(map, mapEventType);
+        EventBean mapEvent = getEventBean(theEvent);
 
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
-            threadingService.submitInbound(new InboundUnitSendWrapped(mapEvent, runtimeEventSender));
+            threadingService.submitInboundWrapped(mapEvent, runtimeEventSender);
         } else {
             runtimeEventSender.processWrappedEvent(mapEvent);
         }
     }
 
+    public void sendEvents(List<?> events) {
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Object theEvent : events) {
+            if (theEvent == null) {
+                throw new NullPointerException("No event object provided to sendEvents method");
+            }
+            eventBeans[count++] = getEventBean(theEvent);
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
+            threadingService.submitInbound(new InboundUnitSendWrappedBatch(eventBeans, runtimeEventSender));
+        } else {
+            runtimeEventSender.processWrappedEvents(eventBeans);
+        }
+    }
+
     public void route(Object theEvent) {
+        EventBean mapEvent = getEventBean(theEvent);
+        runtimeEventSender.routeEventBean(mapEvent);
+    }
+
+    private EventBean getEventBean(Object theEvent) {
         if (!(theEvent instanceof Map)) {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
         }
         Map<String, Object> map = (Map<String, Object>) theEvent;
-        EventBean mapEvent = eventAdapterService.adapterForTypedMap(map, mapEventType);
-        runtimeEventSender.routeEventBean(mapEvent);
+        return eventAdapterService.adapterForTypedMap(map, mapEventType);
     }
 }
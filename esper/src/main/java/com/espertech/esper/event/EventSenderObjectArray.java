@@ -14,11 +14,13 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventSender;
 import com.espertech.esper.core.service.EPRuntimeEventSender;
-import com.espertech.esper.core.thread.InboundUnitSendWrapped;
+import com.espertech.esper.core.thread.InboundUnitSendWrappedBatch;
 import com.espertech.esper.core.thread.ThreadingOption;
 import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.event.arr.ObjectArrayEventType;
 
+import java.util.List;
+
 /**
  * Event sender for map-backed events.
  * <p>
@@ -46,26 +48,45 @@ public class EventSenderObjectArray implements EventSender {
     }
 
     public void sendEvent(Object theEvent) {
-        if (!(theEvent.getClass().isArray())) {
-            throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
+        if (theEvent == null) {
+            throw new NullPointerException("No event object provided to sendEvent method");
         }
-
-        Object[] arr = (Object[]) theEvent;
-        EventBean objectArrayEvent = eventAdapterService.adapterForTypedObjectArray(arr, objectArrayEventType);
+        EventBean objectArrayEvent = getEventBean(theEvent);
 
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
-            threadingService.submitInbound(new InboundUnitSendWrapped(objectArrayEvent, runtimeEventSender));
+            threadingService.submitInboundWrapped(objectArrayEvent, runtimeEventSender);
         } else {
             runtimeEventSender.processWrappedEvent(objectArrayEvent);
         }
     }
 
+    public void sendEvents(List<?> events) {
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Object theEvent : events) {
+            if (theEvent == null) {
+                throw new NullPointerException("No event object provided to sendEvents method");
+            }
+            eventBeans[count++] = getEventBean(theEvent);
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
+            threadingService.submitInbound(new InboundUnitSendWrappedBatch(eventBeans, runtimeEventSender));
+        } else {
+            runtimeEventSender.processWrappedEvents(eventBeans);
+        }
+    }
+
     public void route(Object theEvent) {
+        EventBean objectArrayEvent = getEventBean(theEvent);
+        runtimeEventSender.routeEventBean(objectArrayEvent);
+    }
+
+    private EventBean getEventBean(Object theEvent) {
         if (!(theEvent.getClass().isArray())) {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
         }
         Object[] arr = (Object[]) theEvent;
-        EventBean objectArrayEvent = eventAdapterService.adapterForTypedObjectArray(arr, objectArrayEventType);
-        runtimeEventSender.routeEventBean(objectArrayEvent);
+        return eventAdapterService.adapterForTypedObjectArray(arr, objectArrayEventType);
     }
 }
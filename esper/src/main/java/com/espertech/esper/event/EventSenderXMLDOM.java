@@ -14,7 +14,7 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventSender;
 import com.espertech.esper.core.service.EPRuntimeEventSender;
-import com.espertech.esper.core.thread.InboundUnitSendWrapped;
+import com.espertech.esper.core.thread.InboundUnitSendWrappedBatch;
 import com.espertech.esper.core.thread.ThreadingOption;
 import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.event.xml.BaseXMLEventType;
@@ -22,6 +22,8 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
+import java.util.List;
+
 /**
  * Event sender for XML DOM-backed events.
  * <p>
@@ -52,14 +54,47 @@ public class EventSenderXMLDOM implements EventSender {
     }
 
     public void sendEvent(Object theEvent) throws EPException {
+        if (theEvent == null) {
+            throw new NullPointerException("No event object provided to sendEvent method");
+        }
         sendEvent(theEvent, false);
     }
 
+    public void sendEvents(List<?> events) throws EPException {
+        EventBean[] eventBeans = new EventBean[events.size()];
+        int count = 0;
+        for (Object theEvent : events) {
+            if (theEvent == null) {
+                throw new NullPointerException("No event object provided to sendEvents method");
+            }
+            eventBeans[count++] = getEventBean(theEvent);
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
+            threadingService.submitInbound(new InboundUnitSendWrappedBatch(eventBeans, runtimeEventSender));
+        } else {
+            runtimeEventSender.processWrappedEvents(eventBeans);
+        }
+    }
+
     public void route(Object theEvent) throws EPException {
         sendEvent(theEvent, true);
     }
 
     private void sendEvent(Object node, boolean isRoute) throws EPException {
+        EventBean theEvent = getEventBean(node);
+        if (isRoute) {
+            runtimeEventSender.routeEventBean(theEvent);
+        } else {
+            if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
+                threadingService.submitInboundWrapped(theEvent, runtimeEventSender);
+            } else {
+                runtimeEventSender.processWrappedEvent(theEvent);
+            }
+        }
+    }
+
+    private EventBean getEventBean(Object node) throws EPException {
         Node namedNode;
         if (node instanceof Document) {
             namedNode = ((Document) node).getDocumentElement();
@@ -80,15 +115,6 @@ public class EventSenderXMLDOM implements EventSender {
             }
         }
 
-        EventBean theEvent = eventAdapterService.adapterForTypedDOM(namedNode, baseXMLEventType);
-        if (isRoute) {
-            runtimeEventSender.routeEventBean(theEvent);
-        } else {
-            if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
-                threadingService.submitInbound(new InboundUnitSendWrapped(theEvent, runtimeEventSender));
-            } else {
-                runtimeEventSender.processWrappedEvent(theEvent);
-            }
-        }
+        return eventAdapterService.adapterForTypedDOM(namedNode, baseXMLEventType);
     }
 }
@@ -36,6 +36,7 @@ public class BeanEventAdapter implements BeanEventTypeFactory {
     private Map<String, ConfigurationEventTypeLegacy> classToLegacyConfigs;
     private Configuration.PropertyResolutionStyle defaultPropertyResolutionStyle;
     private ConfigurationEventTypeLegacy.AccessorStyle defaultAccessorStyle = ConfigurationEventTypeLegacy.AccessorStyle.JAVABEAN;
+    private ConfigurationEventTypeLegacy.CodeGeneration defaultCodeGeneration = ConfigurationEventTypeLegacy.CodeGeneration.ENABLED;
 
     /**
      * Ctor.
@@ -68,6 +69,24 @@ public class BeanEventAdapter implements BeanEventTypeFactory {
         this.defaultAccessorStyle = defaultAccessorStyle;
     }
 
+    /**
+     * Sets the default code generation.
+     *
+     * @param defaultCodeGeneration code generation to set
+     */
+    public void setDefaultCodeGeneration(ConfigurationEventTypeLegacy.CodeGeneration defaultCodeGeneration) {
+        this.defaultCodeGeneration = defaultCodeGeneration;
+    }
+
+    /**
+     * Gets the default code generation for Java classes.
+     *
+     * @return code generation
+     */
+    public ConfigurationEventTypeLegacy.CodeGeneration getDefaultCodeGeneration() {
+        return defaultCodeGeneration;
+    }
+
     /**
      * Set the additional mappings for legacy classes.
      *
@@ -134,6 +153,7 @@ public class BeanEventAdapter implements BeanEventTypeFactory {
             if ((legacyDef == null) && (defaultAccessorStyle != ConfigurationEventTypeLegacy.AccessorStyle.JAVABEAN)) {
                 legacyDef = new ConfigurationEventTypeLegacy();
                 legacyDef.setAccessorStyle(defaultAccessorStyle);
+                legacyDef.setCodeGeneration(defaultCodeGeneration);
             }
 
             int typeId = eventTypeIdGenerator.getTypeId(name);
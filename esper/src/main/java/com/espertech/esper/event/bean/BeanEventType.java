@@ -320,8 +320,8 @@ public class BeanEventType implements EventTypeSPI, NativeEventType {
             indexedSmartPropertyTable = new HashMap<String, List<SimplePropertyInfo>>();
         }
 
-        if ((optionalLegacyDef == null) ||
-                (optionalLegacyDef.getCodeGeneration() != ConfigurationEventTypeLegacy.CodeGeneration.DISABLED)) {
+        ConfigurationEventTypeLegacy.CodeGeneration codeGeneration = optionalLegacyDef != null ? optionalLegacyDef.getCodeGeneration() : eventAdapterService.getBeanEventTypeFactory().getDefaultCodeGeneration();
+        if (codeGeneration != ConfigurationEventTypeLegacy.CodeGeneration.DISABLED) {
             // get CGLib fast class using current thread class loader
             fastClass = null;
             try {
@@ -354,7 +354,11 @@ public class BeanEventType implements EventTypeSPI, NativeEventType {
                 EventPropertyGetter getter;
                 Class type;
                 if (desc.getReadMethod() != null) {
-                    getter = PropertyHelper.getGetter(desc.getReadMethod(), fastClass, eventAdapterService);
+                    if (codeGeneration == ConfigurationEventTypeLegacy.CodeGeneration.LAMBDA) {
+                        getter = PropertyHelper.getLambdaGetter(desc.getReadMethod(), fastClass, eventAdapterService);
+                    } else {
+                        getter = PropertyHelper.getGetter(desc.getReadMethod(), fastClass, eventAdapterService);
+                    }
                     type = desc.getReadMethod().getReturnType();
                 } else {
                     if (desc.getAccessorField() == null) {
@@ -11,6 +11,7 @@
 package com.espertech.esper.event.bean;
 
 import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.ConfigurationEventTypeLegacy;
 
 /**
  * Interface for a factory for obtaining {@link BeanEventType} instances.
@@ -43,5 +44,12 @@ public interface BeanEventTypeFactory {
      */
     public Configuration.PropertyResolutionStyle getDefaultPropertyResolutionStyle();
 
+    /**
+     * Returns the default code generation.
+     *
+     * @return code generation
+     */
+    public ConfigurationEventTypeLegacy.CodeGeneration getDefaultCodeGeneration();
+
     public BeanEventType[] getCachedTypes();
 }
@@ -0,0 +1,73 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.vaevent.PropertyUtility;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+/**
+ * Property getter invoking the read method through a function generated by the JVM's lambda metafactory.
+ * <p>
+ * The function calls the read method directly, without an argument array, which allows the JIT compiler
+ * to inline the accessor.
+ */
+public class LambdaPropertyGetter extends BaseNativePropertyGetter implements BeanEventPropertyGetter {
+    private final Method method;
+    private final Function<Object, Object> function;
+
+    /**
+     * Constructor.
+     *
+     * @param method              the underlying method
+     * @param function            function invoking the method
+     * @param eventAdapterService factory for event beans and event types
+     */
+    public LambdaPropertyGetter(Method method, Function<Object, Object> function, EventAdapterService eventAdapterService) {
+        super(eventAdapterService, method.getReturnType(), JavaClassHelper.getGenericReturnType(method, true));
+        this.method = method;
+        this.function = function;
+    }
+
+    public Object getBeanProp(Object object) throws PropertyAccessException {
+        try {
+            return function.apply(object);
+        } catch (RuntimeException e) {
+            if (e instanceof ClassCastException && object != null && !method.getDeclaringClass().isInstance(object)) {
+                throw PropertyUtility.getMismatchException(method, object, (ClassCastException) e);
+            }
+            throw PropertyUtility.getInvocationTargetException(method, new InvocationTargetException(e));
+        }
+    }
+
+    public boolean isBeanExistsProperty(Object object) {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    public final Object get(EventBean obj) throws PropertyAccessException {
+        return getBeanProp(obj.getUnderlying());
+    }
+
+    public String toString() {
+        return "LambdaPropertyGetter " +
+                "method=" + method.toString();
+    }
+
+    public boolean isExistsProperty(EventBean eventBean) {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+}
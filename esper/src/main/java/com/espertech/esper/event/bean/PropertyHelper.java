@@ -14,6 +14,7 @@ import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.EventPropertyType;
 import com.espertech.esper.event.WriteablePropertyDescriptor;
+import com.espertech.esper.util.JavaClassHelper;
 import net.sf.cglib.reflect.FastClass;
 import net.sf.cglib.reflect.FastMethod;
 import org.slf4j.Logger;
@@ -21,8 +22,15 @@ import org.slf4j.LoggerFactory;
 
 import java.beans.*;
 import java.io.StringWriter;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * This class offers utililty methods around introspection and CGLIB interaction.
@@ -58,6 +66,65 @@ public class PropertyHelper {
         return getter;
     }
 
+    /**
+     * Return getter for the given method that invokes the method through a function generated by the
+     * lambda metafactory, falling back to the CGLIB or reflection getter when the method is not accessible
+     * or its class is not visible to the engine class loader.
+     *
+     * @param method              to return getter for
+     * @param fastClass           is the CGLIB fast classs to make FastMethod for, for use as a fallback
+     * @param eventAdapterService factory for event beans and event types
+     * @return property getter
+     */
+    public static EventPropertyGetter getLambdaGetter(Method method, FastClass fastClass, EventAdapterService eventAdapterService) {
+        Function<Object, Object> function = null;
+        try {
+            function = makeFunction(method);
+        } catch (Throwable ex) {
+            log.debug(".getLambdaGetter Unable to obtain lambda function for method " + method + ", msg=" + ex.getMessage());
+        }
+        if (function == null) {
+            return getGetter(method, fastClass, eventAdapterService);
+        }
+        return new LambdaPropertyGetter(method, function, eventAdapterService);
+    }
+
+    private static Function<Object, Object> makeFunction(Method method) throws Throwable {
+        Class declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaringClass.getModifiers()) ||
+                Modifier.isStatic(method.getModifiers()) || method.getParameterTypes().length != 0 || method.getReturnType() == void.class) {
+            return null;
+        }
+
+        // the generated function class is defined by the engine class loader, which must resolve the same classes
+        if (!isVisible(declaringClass) || !isVisible(method.getReturnType())) {
+            return null;
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle = lookup.unreflect(method);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                handle,
+                MethodType.methodType(JavaClassHelper.getBoxedType(method.getReturnType()), declaringClass));
+        return (Function<Object, Object>) site.getTarget().invoke();
+    }
+
+    private static boolean isVisible(Class clazz) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+        if (clazz.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(clazz.getName(), false, PropertyHelper.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
     /**
      * Introspects the given class and returns event property descriptors for each property found
      * in the class itself, it's superclasses and all interfaces this class and the superclasses implements.
@@ -0,0 +1,314 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+
+import java.util.Collection;
+
+/**
+ * Augmented interval tree holding the event evaluators of double range filter constants.
+ * <p>
+ * Ranges are kept in a height-balanced binary tree sorted the same way as {@link DoubleRangeComparator}, i.e. by
+ * minimum ascending and then by maximum ascending. Each node additionally carries, for its subtree, the largest range
+ * maximum, the smallest range maximum and the largest range minimum. Matching uses these bounds to descend only into
+ * subtrees that can hold a matching range, so that a lookup costs about the depth of the tree plus the number
+ * of ranges matched, regardless of how many ranges overlap.
+ * <p>
+ * Evaluators are invoked in ascending range order. Ranges must have non-null endpoints.
+ * <p>
+ * Not thread-safe, the index owning the tree is responsible for locking.
+ */
+public final class DoubleRangeIntervalTree {
+    private Node root;
+    private int size;
+
+    /**
+     * Returns the evaluator for the range, or null if the range is not in the tree.
+     *
+     * @param range to look up
+     * @return evaluator or null
+     */
+    public EventEvaluator get(DoubleRange range) {
+        Node node = find(range.getMin(), range.getMax());
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Adds or replaces the evaluator for a range.
+     *
+     * @param range     range with non-null endpoints
+     * @param evaluator to add
+     * @return prior evaluator for the same range or null if the range was not in the tree
+     */
+    public EventEvaluator put(DoubleRange range, EventEvaluator evaluator) {
+        Node existing = find(range.getMin(), range.getMax());
+        if (existing != null) {
+            EventEvaluator prior = existing.value;
+            existing.value = evaluator;
+            return prior;
+        }
+        root = insert(root, new Node(range, evaluator));
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes a range.
+     *
+     * @param range to remove
+     * @return removed evaluator or null if the range was not in the tree
+     */
+    public EventEvaluator remove(DoubleRange range) {
+        Node existing = find(range.getMin(), range.getMax());
+        if (existing == null) {
+            return null;
+        }
+        root = delete(root, existing.min, existing.max);
+        size--;
+        return existing.value;
+    }
+
+    /**
+     * Returns the number of ranges.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the tree holds no ranges.
+     *
+     * @return empty indicator
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Match the event against all ranges that contain the value.
+     *
+     * @param value      to look up
+     * @param includeMin true to match a value equal to the range minimum
+     * @param includeMax true to match a value equal to the range maximum
+     * @param theEvent   event to match
+     * @param matches    to add matching filter handles to
+     */
+    public void matchContaining(double value, boolean includeMin, boolean includeMax, EventBean theEvent, Collection<FilterHandle> matches) {
+        matchContaining(root, value, includeMin, includeMax, theEvent, matches);
+    }
+
+    /**
+     * Match the event against all ranges that do not contain the value.
+     *
+     * @param value      to look up
+     * @param includeMin true if a value equal to the range minimum is considered inside the range
+     * @param includeMax true if a value equal to the range maximum is considered inside the range
+     * @param theEvent   event to match
+     * @param matches    to add matching filter handles to
+     */
+    public void matchNotContaining(double value, boolean includeMin, boolean includeMax, EventBean theEvent, Collection<FilterHandle> matches) {
+        matchNotContaining(root, value, includeMin, includeMax, theEvent, matches);
+    }
+
+    private static void matchContaining(Node node, double value, boolean includeMin, boolean includeMax, EventBean theEvent, Collection<FilterHandle> matches) {
+        while (node != null) {
+            // no range in this subtree extends up to the value
+            if (node.subtreeMaxOfMax < value) {
+                return;
+            }
+            matchContaining(node.left, value, includeMin, includeMax, theEvent, matches);
+
+            // this node and its right subtree start after the value
+            if (node.min > value) {
+                return;
+            }
+            if (((value > node.min) || (includeMin && value == node.min)) &&
+                    ((value < node.max) || (includeMax && value == node.max))) {
+                node.value.matchEvent(theEvent, matches);
+            }
+            node = node.right;
+        }
+    }
+
+    private static void matchNotContaining(Node node, double value, boolean includeMin, boolean includeMax, EventBean theEvent, Collection<FilterHandle> matches) {
+        if (node == null) {
+            return;
+        }
+        // every range in this subtree starts at or below the value and ends at or above the value
+        if ((node.subtreeMaxOfMin < value) && (node.subtreeMinOfMax > value)) {
+            return;
+        }
+        matchNotContaining(node.left, value, includeMin, includeMax, theEvent, matches);
+        if ((value < node.min) || (!includeMin && value == node.min) ||
+                (value > node.max) || (!includeMax && value == node.max)) {
+            node.value.matchEvent(theEvent, matches);
+        }
+        matchNotContaining(node.right, value, includeMin, includeMax, theEvent, matches);
+    }
+
+    private Node find(double min, double max) {
+        Node node = root;
+        while (node != null) {
+            int comparison = compare(min, max, node);
+            if (comparison == 0) {
+                return node;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.min, added.max, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, double min, double max) {
+        int comparison = compare(min, max, node);
+        if (comparison < 0) {
+            node.left = delete(node.left, min, max);
+            return balance(node);
+        }
+        if (comparison > 0) {
+            node.right = delete(node.right, min, max);
+            return balance(node);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        successor.right = deleteMin(node.right);
+        successor.left = node.left;
+        return balance(successor);
+    }
+
+    private static Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        int diff = height(node.left) - height(node.right);
+        if (diff > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (diff < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        double maxOfMax = node.max;
+        double minOfMax = node.max;
+        double maxOfMin = node.min;
+        if (node.left != null) {
+            maxOfMax = Math.max(maxOfMax, node.left.subtreeMaxOfMax);
+            minOfMax = Math.min(minOfMax, node.left.subtreeMinOfMax);
+        }
+        if (node.right != null) {
+            maxOfMax = Math.max(maxOfMax, node.right.subtreeMaxOfMax);
+            minOfMax = Math.min(minOfMax, node.right.subtreeMinOfMax);
+            maxOfMin = Math.max(maxOfMin, node.right.subtreeMaxOfMin);
+        }
+        node.subtreeMaxOfMax = maxOfMax;
+        node.subtreeMinOfMax = minOfMax;
+        node.subtreeMaxOfMin = maxOfMin;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    // same ordering as DoubleRangeComparator
+    private static int compare(double min, double max, Node node) {
+        if (min < node.min) {
+            return -1;
+        }
+        if (min > node.min) {
+            return 1;
+        }
+        if (max < node.max) {
+            return -1;
+        }
+        if (max > node.max) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static class Node {
+        private final double min;
+        private final double max;
+        private EventEvaluator value;
+        private Node left;
+        private Node right;
+        private int height;
+        private double subtreeMaxOfMax;
+        private double subtreeMinOfMax;
+        private double subtreeMaxOfMin;
+
+        private Node(DoubleRange range, EventEvaluator value) {
+            this.min = range.getMin();
+            this.max = range.getMax();
+            this.value = value;
+            this.height = 1;
+            this.subtreeMaxOfMax = max;
+            this.subtreeMinOfMax = max;
+            this.subtreeMaxOfMin = min;
+        }
+    }
+}
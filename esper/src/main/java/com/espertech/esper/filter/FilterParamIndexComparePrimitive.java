@@ -0,0 +1,151 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.SortedLongKeyMap;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants for the comparison operators (less, greater, etc) for properties
+ * that are of a primitive numeric type or its boxed counterpart.
+ * <p>
+ * Constants are kept as primitive long keys in a {@link SortedLongKeyMap}, avoiding boxing and sub-map views
+ * when matching. Integral constants are keyed by their long value. Floating-point constants are keyed by
+ * a transform of their bits that sorts the same as {@link Double#compareTo(Double)}, which
+ * is the ordering the {@link FilterParamIndexCompare} index uses.
+ */
+public final class FilterParamIndexComparePrimitive extends FilterParamIndexLookupableBase {
+    private final SortedLongKeyMap<EventEvaluator> constantsMap;
+    private final ReadWriteLock constantsMapRWLock;
+    private final boolean floatingPoint;
+
+    public FilterParamIndexComparePrimitive(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean floatingPoint) {
+        super(filterOperator, lookupable);
+
+        constantsMap = new SortedLongKeyMap<EventEvaluator>();
+        constantsMapRWLock = readWriteLock;
+        this.floatingPoint = floatingPoint;
+
+        if ((filterOperator != FilterOperator.GREATER) &&
+                (filterOperator != FilterOperator.GREATER_OR_EQUAL) &&
+                (filterOperator != FilterOperator.LESS) &&
+                (filterOperator != FilterOperator.LESS_OR_EQUAL)) {
+            throw new IllegalArgumentException("Invalid filter operator for index of " + filterOperator);
+        }
+    }
+
+    public final EventEvaluator get(Object filterConstant) {
+        return constantsMap.get(toKey((Number) filterConstant));
+    }
+
+    public final void put(Object filterConstant, EventEvaluator matcher) {
+        constantsMap.put(toKey((Number) filterConstant), matcher);
+    }
+
+    public final boolean remove(Object filterConstant) {
+        return constantsMap.remove(toKey((Number) filterConstant)) != null;
+    }
+
+    public final int size() {
+        return constantsMap.size();
+    }
+
+    public final ReadWriteLock getReadWriteLock() {
+        return constantsMapRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        Object propertyValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterReverseIndex(this, propertyValue);
+        }
+
+        // An empty index matches nothing
+        if (propertyValue == null || constantsMap.isEmpty()) {
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        long key = toKey((Number) propertyValue);
+        FilterOperator filterOperator = this.getFilterOperator();
+
+        constantsMapRWLock.readLock().lock();
+        try {
+            if (filterOperator == FilterOperator.GREATER) {
+                matchBelow(key, false, theEvent, matches);
+            } else if (filterOperator == FilterOperator.GREATER_OR_EQUAL) {
+                matchBelow(key, true, theEvent, matches);
+            } else if (filterOperator == FilterOperator.LESS) {
+                matchAbove(key, false, theEvent, matches);
+            } else {
+                matchAbove(key, true, theEvent, matches);
+            }
+        } finally {
+            constantsMapRWLock.readLock().unlock();
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterReverseIndex(null);
+        }
+    }
+
+    // match constants below the value, in ascending order
+    private void matchBelow(long key, boolean inclusive, EventBean theEvent, Collection<FilterHandle> matches) {
+        int blockCount = constantsMap.getBlockCount();
+        for (int block = 0; block < blockCount; block++) {
+            long[] keys = constantsMap.getBlockKeys(block);
+            Object[] evaluators = constantsMap.getBlockValues(block);
+            int size = constantsMap.getBlockSize(block);
+            for (int i = 0; i < size; i++) {
+                if (keys[i] > key || (!inclusive && keys[i] == key)) {
+                    return;
+                }
+                ((EventEvaluator) evaluators[i]).matchEvent(theEvent, matches);
+            }
+        }
+    }
+
+    // match constants above the value, in ascending order
+    private void matchAbove(long key, boolean inclusive, EventBean theEvent, Collection<FilterHandle> matches) {
+        if (constantsMap.lastKey() < key || (!inclusive && constantsMap.lastKey() == key)) {
+            return;
+        }
+        int startBlock = constantsMap.findBlock(key);
+        int start = constantsMap.findInBlock(startBlock, key);
+        if (start < 0) {
+            start = -(start + 1);
+        } else if (!inclusive) {
+            start++;
+        }
+
+        int blockCount = constantsMap.getBlockCount();
+        for (int block = startBlock; block < blockCount; block++) {
+            Object[] evaluators = constantsMap.getBlockValues(block);
+            int size = constantsMap.getBlockSize(block);
+            for (int i = block == startBlock ? start : 0; i < size; i++) {
+                ((EventEvaluator) evaluators[i]).matchEvent(theEvent, matches);
+            }
+        }
+    }
+
+    private long toKey(Number number) {
+        if (!floatingPoint) {
+            return number.longValue();
+        }
+        long bits = Double.doubleToLongBits(number.doubleValue());
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+}
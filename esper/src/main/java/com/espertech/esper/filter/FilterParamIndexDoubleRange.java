@@ -16,21 +16,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
-import java.util.Map;
-import java.util.SortedMap;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * Index for filter parameter constants for the range operators (range open/closed/half).
- * The implementation is based on the SortedMap implementation of TreeMap and stores only expression
- * parameter values of type DoubleRange.
+ * The implementation is based on an augmented interval tree and stores only expression
+ * parameter values of type DoubleRange, matching only those ranges that contain the value.
  */
 public final class FilterParamIndexDoubleRange extends FilterParamIndexDoubleRangeBase {
+    private final boolean includeMin;
+    private final boolean includeMax;
+
     public FilterParamIndexDoubleRange(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
         super(lookupable, readWriteLock, filterOperator);
         if (!(filterOperator.isRangeOperator())) {
             throw new IllegalArgumentException("Invalid filter operator " + filterOperator);
         }
+        includeMin = filterOperator == FilterOperator.RANGE_CLOSED || filterOperator == FilterOperator.RANGE_HALF_OPEN;
+        includeMax = filterOperator == FilterOperator.RANGE_CLOSED || filterOperator == FilterOperator.RANGE_HALF_CLOSED;
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
@@ -48,49 +51,8 @@ public final class FilterParamIndexDoubleRange extends FilterParamIndexDoubleRan
 
         double attributeValue = ((Number) objAttributeValue).doubleValue();
 
-        DoubleRange rangeStart = new DoubleRange(attributeValue - largestRangeValueDouble, attributeValue);
-        DoubleRange rangeEnd = new DoubleRange(attributeValue, Double.MAX_VALUE);
-
-        SortedMap<DoubleRange, EventEvaluator> subMap = ranges.subMap(rangeStart, rangeEnd);
+        ranges.matchContaining(attributeValue, includeMin, includeMax, theEvent, matches);
 
-        // For not including either endpoint
-        // A bit awkward to duplicate the loop code, however better than checking the boolean many times over
-        // This may be a bit of an early performance optimization - the optimizer after all may do this better
-        if (this.getFilterOperator() == FilterOperator.RANGE_OPEN) {
-            // include neither endpoint
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : subMap.entrySet()) {
-                if ((attributeValue > entry.getKey().getMin()) &&
-                        (attributeValue < entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches);
-                }
-            }
-        } else if (this.getFilterOperator() == FilterOperator.RANGE_CLOSED) {
-            // include all endpoints
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : subMap.entrySet()) {
-                if ((attributeValue >= entry.getKey().getMin()) &&
-                        (attributeValue <= entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches);
-                }
-            }
-        } else if (this.getFilterOperator() == FilterOperator.RANGE_HALF_CLOSED) {
-            // include high endpoint not low endpoint
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : subMap.entrySet()) {
-                if ((attributeValue > entry.getKey().getMin()) &&
-                        (attributeValue <= entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches);
-                }
-            }
-        } else if (this.getFilterOperator() == FilterOperator.RANGE_HALF_OPEN) {
-            // include low endpoint not high endpoint
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : subMap.entrySet()) {
-                if ((attributeValue >= entry.getKey().getMin()) &&
-                        (attributeValue < entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches);
-                }
-            }
-        } else {
-            throw new IllegalStateException("Invalid filter operator " + this.getFilterOperator());
-        }
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().aFilterReverseIndex(null);
         }
@@ -12,6 +12,7 @@ package com.espertech.esper.filter;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.metrics.jmx.JmxGetter;
 import com.espertech.esper.metrics.jmx.JmxOperation;
@@ -76,11 +77,10 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
             InstrumentationHelper.get().qFilter(theEvent);
         }
 
-        long version = filtersVersion;
         numEventsEvaluated.incrementAndGet();
 
         // Finds all matching filters and return their callbacks.
-        retryableMatchEvent(theEvent, matches);
+        long version = retryableMatchEvent(theEvent, matches);
 
         if ((AuditPath.isAuditEnabled) && (!filterServiceListeners.isEmpty())) {
             for (FilterServiceListener listener : filterServiceListeners) {
@@ -96,13 +96,12 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
     }
 
     protected long evaluateInternal(EventBean theEvent, Collection<FilterHandle> matches, int statementId) {
-        long version = filtersVersion;
         numEventsEvaluated.incrementAndGet();
 
         ArrayDeque<FilterHandle> allMatches = new ArrayDeque<FilterHandle>();
 
         // Finds all matching filters
-        retryableMatchEvent(theEvent, allMatches);
+        long version = retryableMatchEvent(theEvent, allMatches);
 
         // Add statement matches to collection passed
         for (FilterHandle match : allMatches) {
@@ -162,14 +161,43 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
         // no initialization required
     }
 
+    public void beginDeferredChanges(EPStatementAgentInstanceHandle handle) {
+        // changes take effect immediately
+    }
+
+    public void endDeferredChanges() {
+        // changes take effect immediately
+    }
+
     protected void removeTypeInternal(EventType type) {
         eventTypeIndex.removeType(type);
     }
 
-    private void retryableMatchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+    protected EventTypeIndex getEventTypeIndex() {
+        return eventTypeIndex;
+    }
+
+    protected EventTypeIndexBuilder getIndexBuilder() {
+        return indexBuilder;
+    }
+
+    /**
+     * Finds all matching filters and adds their callbacks to the collection passed.
+     *
+     * @param theEvent event to match
+     * @param matches  matching filter handles
+     * @return filters version matched against
+     */
+    protected long matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        long version = filtersVersion;
+        eventTypeIndex.matchEvent(theEvent, matches);
+        return version;
+    }
+
+    private long retryableMatchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
         // Install lock backoff exception handler that retries the evaluation.
         try {
-            eventTypeIndex.matchEvent(theEvent, matches);
+            return matchEvent(theEvent, matches);
         } catch (FilterLockBackoffException ex) {
             // retry on lock back-off
             // lock-backoff may occur when stateful evaluations take place such as boolean expressions that are subqueries
@@ -192,8 +220,7 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
 
                     // evaluate
                     matches.clear();
-                    eventTypeIndex.matchEvent(theEvent, matches);
-                    break;
+                    return matchEvent(theEvent, matches);
                 } catch (FilterLockBackoffException ex2) {
                     // retried
                 }
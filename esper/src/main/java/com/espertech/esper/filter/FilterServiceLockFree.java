@@ -0,0 +1,421 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+import com.espertech.esper.core.service.StatementAgentInstanceFilterVersion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Filter service that evaluates events without taking locks.
+ * <p>
+ * Keeps two copies of the filter index tree. Events are evaluated against the published copy.
+ * Filter changes are made to the other copy, which is then published in a single step. The changes
+ * are replayed onto the previously-published copy by the next writer, once all evaluations
+ * against that copy have completed.
+ * <p>
+ * Changes made while holding the write lock ({@link #acquireWriteLock()}) are published together
+ * when the write lock is released, and are visible only to the thread holding the write lock until then.
+ * <p>
+ * Additions and removals that a thread makes for the statement agent instance it is processing, such as those of
+ * pattern filter nodes, are deferred between {@link #beginDeferredChanges} and {@link #endDeferredChanges()} and
+ * published together. An addition that is removed again before the end is never published.
+ * <p>
+ * Evaluations register as readers of a copy on a counter stripe selected by thread, so that concurrent
+ * evaluations do not contend on a single counter.
+ */
+public final class FilterServiceLockFree extends FilterServiceBase {
+    // number of longs per reader counter stripe, keeping stripes on separate cache lines
+    private static final int READER_STRIPE_STRIDE = 16;
+    private static final int READER_STRIPES = computeReaderStripes();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ThreadLocal<DeferredChanges> deferredChanges = new ThreadLocal<DeferredChanges>() {
+        protected synchronized DeferredChanges initialValue() {
+            return new DeferredChanges();
+        }
+    };
+    private final Copy[] copies = new Copy[2];
+    private volatile Copy published;
+
+    // guarded by the write lock
+    private Copy unpublished;
+    private int writeDepth;
+    private long unpublishedVersion;
+    private List<Change> changes = new ArrayList<Change>();
+    private List<Change> replay = new ArrayList<Change>();
+
+    public FilterServiceLockFree(boolean allowIsolation) {
+        super(FilterServiceGranularLockFactoryNone.INSTANCE, allowIsolation);
+        copies[0] = new Copy(0, getEventTypeIndex(), getIndexBuilder());
+        EventTypeIndex eventTypeIndex = new EventTypeIndex(FilterServiceGranularLockFactoryNone.INSTANCE);
+        copies[1] = new Copy(1, eventTypeIndex, new EventTypeIndexBuilder(eventTypeIndex, allowIsolation));
+        published = copies[0];
+        unpublished = copies[1];
+        published.version = super.getFiltersVersion();
+        unpublishedVersion = published.version;
+    }
+
+    public long getFiltersVersion() {
+        // the thread holding the write lock obtains the version its changes are published with
+        if (writeDepth != 0 && writeLock.isHeldByCurrentThread()) {
+            return unpublishedVersion;
+        }
+        return published.version;
+    }
+
+    public void destroy() {
+        super.destroy();
+        copies[1].indexBuilder.destroy();
+    }
+
+    public int getFilterCountApprox() {
+        return published.eventTypeIndex.getFilterCountApprox();
+    }
+
+    public int getCountTypes() {
+        return published.eventTypeIndex.size();
+    }
+
+    public void acquireWriteLock() {
+        writeLock.lock();
+        if (writeDepth++ == 0) {
+            prepareUnpublished();
+        }
+    }
+
+    public void releaseWriteLock() {
+        try {
+            if (--writeDepth == 0) {
+                publish();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public FilterSet take(Set<Integer> statementIds) {
+        ChangeTake change = new ChangeTake(statementIds);
+        write(change);
+        return change.filterSet;
+    }
+
+    public void apply(FilterSet filterSet) {
+        write(new ChangeApply(filterSet));
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches) {
+        return super.evaluateInternal(theEvent, matches);
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches, int statementId) {
+        return super.evaluateInternal(theEvent, matches, statementId);
+    }
+
+    public FilterServiceEntry add(FilterValueSet filterValueSet, FilterHandle callback) {
+        ChangeAdd change = new ChangeAdd(filterValueSet, callback);
+        DeferredChanges deferred = getDeferred(callback);
+        if (deferred != null) {
+            deferred.changes.add(change);
+        } else {
+            write(change);
+        }
+        return change.entry;
+    }
+
+    public void remove(FilterHandle callback, FilterServiceEntry filterServiceEntry) {
+        FilterServiceLockFreeEntry entry = (FilterServiceLockFreeEntry) filterServiceEntry;
+        DeferredChanges deferred = getDeferred(callback);
+        if (deferred != null) {
+            deferred.remove(callback, entry);
+        } else {
+            write(new ChangeRemove(callback, entry));
+        }
+    }
+
+    public void beginDeferredChanges(EPStatementAgentInstanceHandle handle) {
+        DeferredChanges deferred = deferredChanges.get();
+        if (deferred.depth++ == 0) {
+            deferred.owner = handle;
+        }
+    }
+
+    public void endDeferredChanges() {
+        DeferredChanges deferred = deferredChanges.get();
+        if (--deferred.depth == 0) {
+            try {
+                flush(deferred);
+            } finally {
+                deferred.owner = null;
+            }
+        }
+    }
+
+    public void removeType(EventType type) {
+        write(new ChangeRemoveType(type));
+    }
+
+    protected long matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        // the thread deferring changes, such as when a context partition evaluates its triggering event, sees its changes
+        DeferredChanges deferred = deferredChanges.get();
+        if (!deferred.changes.isEmpty()) {
+            flush(deferred);
+        }
+
+        // the thread holding the write lock sees its own unpublished changes
+        if (writeDepth != 0 && writeLock.isHeldByCurrentThread()) {
+            unpublished.eventTypeIndex.matchEvent(theEvent, matches);
+            return unpublishedVersion;
+        }
+
+        // register as a reader of the published copy, and retry if the copy was unpublished meanwhile
+        int stripe = ((int) Thread.currentThread().getId() & (READER_STRIPES - 1)) * READER_STRIPE_STRIDE;
+        Copy copy;
+        while (true) {
+            copy = published;
+            copy.readers.incrementAndGet(stripe);
+            if (copy == published) {
+                break;
+            }
+            copy.readers.decrementAndGet(stripe);
+        }
+
+        try {
+            copy.eventTypeIndex.matchEvent(theEvent, matches);
+            return copy.version;
+        } finally {
+            copy.readers.decrementAndGet(stripe);
+        }
+    }
+
+    private DeferredChanges getDeferred(FilterHandle callback) {
+        DeferredChanges deferred = deferredChanges.get();
+        if (deferred.depth == 0 || !(callback instanceof EPStatementHandleCallback)) {
+            return null;
+        }
+        if (((EPStatementHandleCallback) callback).getAgentInstanceHandle() != deferred.owner) {
+            return null;
+        }
+        return deferred;
+    }
+
+    private void flush(DeferredChanges deferred) {
+        if (deferred.changes.isEmpty()) {
+            return;
+        }
+
+        long version;
+        acquireWriteLock();
+        try {
+            for (Change change : deferred.changes) {
+                change.apply(unpublished);
+                changes.add(change);
+                unpublishedVersion++;
+            }
+            version = unpublishedVersion;
+        } finally {
+            deferred.changes.clear();
+            releaseWriteLock();
+        }
+
+        // the owner may have been matched against a copy without the changes, which its filter version now detects;
+        // the version is only raised, as a stopped agent instance carries the maximum version
+        StatementAgentInstanceFilterVersion filterVersion = deferred.owner.getStatementFilterVersion();
+        if (filterVersion.getStmtFilterVersion() < version) {
+            filterVersion.setStmtFilterVersion(version);
+        }
+    }
+
+    private void write(Change change) {
+        // changes must be published in order, therefore publish any deferred changes first
+        DeferredChanges deferred = deferredChanges.get();
+        if (!deferred.changes.isEmpty()) {
+            flush(deferred);
+        }
+
+        acquireWriteLock();
+        try {
+            change.apply(unpublished);
+            changes.add(change);
+            unpublishedVersion++;
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    private void prepareUnpublished() {
+        if (replay.isEmpty()) {
+            return;
+        }
+
+        // wait for evaluations that started before the copy was unpublished;
+        // an evaluation that registers on a stripe after it was seen at zero finds the copy unpublished and backs off
+        for (int stripe = 0; stripe < READER_STRIPES * READER_STRIPE_STRIDE; stripe += READER_STRIPE_STRIDE) {
+            long delayNs = 10;
+            while (unpublished.readers.get(stripe) != 0) {
+                LockSupport.parkNanos(delayNs);
+                if (delayNs < 1000000) {
+                    delayNs = delayNs * 2;
+                }
+            }
+        }
+
+        for (Change change : replay) {
+            change.apply(unpublished);
+        }
+        replay.clear();
+    }
+
+    private void publish() {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        // the version travels with the copy so that evaluations report the version of the copy they matched against
+        Copy copy = published;
+        unpublished.version = unpublishedVersion;
+        published = unpublished;
+        unpublished = copy;
+
+        List<Change> applied = changes;
+        changes = replay;
+        replay = applied;
+    }
+
+    private static class Copy {
+        private final int num;
+        private final EventTypeIndex eventTypeIndex;
+        private final EventTypeIndexBuilder indexBuilder;
+        private final AtomicLongArray readers = new AtomicLongArray(READER_STRIPES * READER_STRIPE_STRIDE);
+        private long version;
+
+        private Copy(int num, EventTypeIndex eventTypeIndex, EventTypeIndexBuilder indexBuilder) {
+            this.num = num;
+            this.eventTypeIndex = eventTypeIndex;
+            this.indexBuilder = indexBuilder;
+        }
+    }
+
+    private static int computeReaderStripes() {
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors() * 2 && stripes < 256) {
+            stripes = stripes << 1;
+        }
+        return stripes;
+    }
+
+    private static class DeferredChanges {
+        private final List<Change> changes = new ArrayList<Change>();
+        private EPStatementAgentInstanceHandle owner;
+        private int depth;
+
+        private void remove(FilterHandle callback, FilterServiceLockFreeEntry entry) {
+            // an addition that was not yet published is simply dropped
+            if (entry != null) {
+                for (int i = changes.size() - 1; i >= 0; i--) {
+                    Change change = changes.get(i);
+                    if (change instanceof ChangeAdd && ((ChangeAdd) change).entry == entry) {
+                        changes.remove(i);
+                        return;
+                    }
+                }
+            }
+            changes.add(new ChangeRemove(callback, entry));
+        }
+    }
+
+    private static class FilterServiceLockFreeEntry implements FilterServiceEntry {
+        private final FilterServiceEntry[] entries = new FilterServiceEntry[2];
+    }
+
+    private interface Change {
+        void apply(Copy copy);
+    }
+
+    private static class ChangeAdd implements Change {
+        private final FilterValueSet filterValueSet;
+        private final FilterHandle callback;
+        private final FilterServiceLockFreeEntry entry = new FilterServiceLockFreeEntry();
+
+        private ChangeAdd(FilterValueSet filterValueSet, FilterHandle callback) {
+            this.filterValueSet = filterValueSet;
+            this.callback = callback;
+        }
+
+        public void apply(Copy copy) {
+            entry.entries[copy.num] = copy.indexBuilder.add(filterValueSet, callback, FilterServiceGranularLockFactoryNone.INSTANCE);
+        }
+    }
+
+    private static class ChangeRemove implements Change {
+        private final FilterHandle callback;
+        private final FilterServiceLockFreeEntry entry;
+
+        private ChangeRemove(FilterHandle callback, FilterServiceLockFreeEntry entry) {
+            this.callback = callback;
+            this.entry = entry;
+        }
+
+        public void apply(Copy copy) {
+            copy.indexBuilder.remove(callback, entry == null ? null : entry.entries[copy.num]);
+        }
+    }
+
+    private static class ChangeTake implements Change {
+        private final Set<Integer> statementIds;
+        private FilterSet filterSet;
+
+        private ChangeTake(Set<Integer> statementIds) {
+            this.statementIds = statementIds;
+        }
+
+        public void apply(Copy copy) {
+            FilterSet taken = copy.indexBuilder.take(statementIds);
+            if (filterSet == null) {
+                filterSet = taken;
+            }
+        }
+    }
+
+    private static class ChangeApply implements Change {
+        private final FilterSet filterSet;
+
+        private ChangeApply(FilterSet filterSet) {
+            this.filterSet = filterSet;
+        }
+
+        public void apply(Copy copy) {
+            copy.indexBuilder.apply(filterSet, FilterServiceGranularLockFactoryNone.INSTANCE);
+        }
+    }
+
+    private static class ChangeRemoveType implements Change {
+        private final EventType eventType;
+
+        private ChangeRemoveType(EventType eventType) {
+            this.eventType = eventType;
+        }
+
+        public void apply(Copy copy) {
+            copy.eventTypeIndex.removeType(eventType);
+        }
+    }
+}
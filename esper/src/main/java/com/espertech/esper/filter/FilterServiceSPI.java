@@ -10,6 +10,8 @@
  */
 package com.espertech.esper.filter;
 
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
+
 import java.util.Set;
 
 /**
@@ -55,6 +57,20 @@ public interface FilterServiceSPI extends FilterService {
 
     public void releaseWriteLock();
 
+    /**
+     * Defers filter additions and removals that the current thread makes for the given statement agent instance,
+     * until {@link #endDeferredChanges()}. The caller holds the statement agent instance lock throughout.
+     *
+     * @param handle statement agent instance whose filter changes may be deferred
+     */
+    public void beginDeferredChanges(EPStatementAgentInstanceHandle handle);
+
+    /**
+     * Ends deferring filter changes, making deferred changes visible and updating the filter version
+     * of the statement agent instance, before the caller releases the statement agent instance lock.
+     */
+    public void endDeferredChanges();
+
     /**
      * Initialization is optional and provides a chance to preload things after statements are available.
      */
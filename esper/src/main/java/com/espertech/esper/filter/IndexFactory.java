@@ -10,6 +10,8 @@
  */
 package com.espertech.esper.filter;
 
+import com.espertech.esper.util.JavaClassHelper;
+
 /**
  * Factory for {@link FilterParamIndexBase} instances based on event property name and filter operator type.
  */
@@ -55,7 +57,12 @@ public class IndexFactory {
                 (filterOperator == FilterOperator.GREATER_OR_EQUAL) ||
                 (filterOperator == FilterOperator.LESS) ||
                 (filterOperator == FilterOperator.LESS_OR_EQUAL)) {
-            if (returnValueType != String.class) {
+            Class boxed = JavaClassHelper.getBoxedType(returnValueType);
+            if ((boxed == Double.class) || (boxed == Float.class)) {
+                index = new FilterParamIndexComparePrimitive(lookupable, lockFactory.obtainNew(), filterOperator, true);
+            } else if ((boxed == Long.class) || (boxed == Integer.class) || (boxed == Short.class) || (boxed == Byte.class)) {
+                index = new FilterParamIndexComparePrimitive(lookupable, lockFactory.obtainNew(), filterOperator, false);
+            } else if (returnValueType != String.class) {
                 index = new FilterParamIndexCompare(lookupable, lockFactory.obtainNew(), filterOperator);
             } else {
                 index = new FilterParamIndexCompareString(lookupable, lockFactory.obtainNew(), filterOperator);
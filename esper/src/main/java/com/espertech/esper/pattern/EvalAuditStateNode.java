@@ -131,9 +131,9 @@ public final class EvalAuditStateNode extends EvalStateNode implements Evaluator
 
         writer.write(" map: {");
         String delimiter = "";
-        Object[] data = matchEvent.getMatchingEvents();
-        for (int i = 0; i < data.length; i++) {
-            String name = matchEvent.getMeta().getTagsPerIndex()[i];
+        String[] tags = matchEvent.getMeta().getTagsPerIndex();
+        for (int i = 0; i < tags.length; i++) {
+            String name = tags[i];
             Object value = matchEvent.getMatchingEventAsObject(i);
             writer.write(delimiter);
             writer.write(name);
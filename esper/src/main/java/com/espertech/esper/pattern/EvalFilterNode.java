@@ -10,6 +10,8 @@
  */
 package com.espertech.esper.pattern;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.filter.FilterSpecParam;
 import com.espertech.esper.filter.FilterValueSetParam;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +22,7 @@ import org.slf4j.LoggerFactory;
 public class EvalFilterNode extends EvalNodeBase {
     protected final EvalFilterFactoryNode factoryNode;
     private final FilterValueSetParam[][] addendumFilters;
+    private final EvalFilterSharedGroup sharedGroup;
 
     public EvalFilterNode(PatternAgentInstanceContext context, EvalFilterFactoryNode factoryNode) {
         super(context);
@@ -29,6 +32,19 @@ public class EvalFilterNode extends EvalNodeBase {
         } else {
             this.addendumFilters = null;
         }
+        EvalFilterSharedGroup group = null;
+        if (context.getConsumptionHandler() == null) {
+            ConfigurationEngineDefaults.Patterns patterns = context.getStatementContext().getConfigSnapshot().getEngineDefaults().getPatterns();
+            if (patterns.isShareFilters() && EvalFilterSharedGroup.isShareable(factoryNode.getFilterSpec())) {
+                group = new EvalFilterSharedGroup(this, null);
+            } else if (patterns.isCorrelationIndex()) {
+                FilterSpecParam[] correlatedParams = EvalFilterSharedGroup.getCorrelatedParams(factoryNode.getFilterSpec());
+                if (correlatedParams != null) {
+                    group = new EvalFilterSharedGroup(this, correlatedParams);
+                }
+            }
+        }
+        this.sharedGroup = group;
     }
 
     public EvalFilterFactoryNode getFactoryNode() {
@@ -39,6 +55,15 @@ public class EvalFilterNode extends EvalNodeBase {
         return addendumFilters;
     }
 
+    /**
+     * Returns the filter registration shared by all state nodes, or null if each state node registers its own filter.
+     *
+     * @return shared group
+     */
+    public EvalFilterSharedGroup getSharedGroup() {
+        return sharedGroup;
+    }
+
     public EvalStateNode newState(Evaluator parentNode,
                                   EvalStateNodeNumber stateNodeNumber, long stateNodeId) {
         if (getContext().getConsumptionHandler() != null) {
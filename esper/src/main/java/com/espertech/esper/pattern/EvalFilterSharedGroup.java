@@ -0,0 +1,311 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+import com.espertech.esper.epl.expression.visitor.ExprNodeStreamRequiredVisitor;
+import com.espertech.esper.filter.*;
+
+import java.util.*;
+
+/**
+ * Shares a single filter service registration among all filter state nodes of the same
+ * filter factory node and agent instance, for filters that do not depend on prior matching events.
+ * <p>
+ * The first member to start registers the filter and the last member to stop removes it,
+ * all other starts and stops only change the member set. Matching events are dispatched
+ * to the members in the order they started.
+ * <p>
+ * A member that starts while an event is being dispatched to the statement does not receive that event,
+ * the same as a filter that is newly registered with the filter service would not.
+ * <p>
+ * For filters that compare event properties for equality to properties of prior tagged events,
+ * such as "b=B(id=a.id)", the group may instead be correlated: the shared filter leaves out the
+ * equals-comparisons and members are kept in a hash index by the values of the tagged event properties.
+ * A matching event is dispatched only to the members found by a single lookup using the event's property values.
+ */
+public class EvalFilterSharedGroup implements FilterHandleCallback {
+    private final EvalFilterNode evalFilterNode;
+    private final EPStatementHandleCallback handle;
+    private final FilterSpecCompiled filterSpec;
+    private final FilterSpecParam[] correlatedParams;
+    private final LinkedHashMap<EvalFilterStateNode, EventBean> members;
+    private final Map<Object, LinkedHashMap<EvalFilterStateNode, EventBean>> index;
+    private final Map<EvalFilterStateNode, Object> memberKeys;
+    private FilterServiceEntry filterServiceEntry;
+
+    /**
+     * Ctor.
+     *
+     * @param evalFilterNode   filter node that owns the group
+     * @param correlatedParams equals-parameters to index members by, or null when not correlated
+     */
+    public EvalFilterSharedGroup(EvalFilterNode evalFilterNode, FilterSpecParam[] correlatedParams) {
+        this.evalFilterNode = evalFilterNode;
+        this.handle = new EPStatementHandleCallback(evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle(), this);
+        this.correlatedParams = correlatedParams;
+        FilterSpecCompiled spec = evalFilterNode.getFactoryNode().getFilterSpec();
+        if (correlatedParams == null) {
+            this.filterSpec = spec;
+            this.members = new LinkedHashMap<EvalFilterStateNode, EventBean>();
+            this.index = null;
+            this.memberKeys = null;
+        } else {
+            List<FilterSpecParam> remaining = new ArrayList<FilterSpecParam>();
+            for (FilterSpecParam param : spec.getParameters()[0]) {
+                boolean correlated = false;
+                for (FilterSpecParam correlatedParam : correlatedParams) {
+                    correlated |= correlatedParam == param;
+                }
+                if (!correlated) {
+                    remaining.add(param);
+                }
+            }
+            this.filterSpec = new FilterSpecCompiled(spec.getFilterForEventType(), spec.getFilterForEventTypeName(), new List[]{remaining}, spec.getOptionalPropertyEvaluator());
+            this.members = null;
+            this.index = new HashMap<Object, LinkedHashMap<EvalFilterStateNode, EventBean>>();
+            this.memberKeys = new HashMap<EvalFilterStateNode, Object>();
+        }
+    }
+
+    /**
+     * Adds a member, registering the shared filter if this is the first member.
+     *
+     * @param member     state node to add
+     * @param beginState matching events of the member
+     */
+    public void add(EvalFilterStateNode member, MatchedEventMap beginState) {
+        boolean first = size() == 0;
+        EventBean lastFilterEvent = evalFilterNode.getContext().getLastFilterEvent();
+        if (correlatedParams == null) {
+            members.put(member, lastFilterEvent);
+        } else {
+            Object key = getMemberKey(beginState);
+            LinkedHashMap<EvalFilterStateNode, EventBean> keyMembers = index.get(key);
+            if (keyMembers == null) {
+                keyMembers = new LinkedHashMap<EvalFilterStateNode, EventBean>();
+                index.put(key, keyMembers);
+            }
+            keyMembers.put(member, lastFilterEvent);
+            memberKeys.put(member, key);
+        }
+
+        // register after adding the member as the filter may match as soon as it is added
+        if (first) {
+            FilterValueSet filterValues = filterSpec.getValueSet(beginState, evalFilterNode.getContext().getAgentInstanceContext(), evalFilterNode.getAddendumFilters());
+            filterServiceEntry = evalFilterNode.getContext().getPatternContext().getFilterService().add(filterValues, handle);
+        }
+    }
+
+    /**
+     * Removes a member, removing the shared filter if there are no more members.
+     *
+     * @param member state node to remove
+     */
+    public void remove(EvalFilterStateNode member) {
+        if (correlatedParams == null) {
+            if (!members.containsKey(member)) {
+                return;
+            }
+            members.remove(member);
+        } else {
+            if (!memberKeys.containsKey(member)) {
+                return;
+            }
+            Object key = memberKeys.remove(member);
+            LinkedHashMap<EvalFilterStateNode, EventBean> keyMembers = index.get(key);
+            keyMembers.remove(member);
+            if (keyMembers.isEmpty()) {
+                index.remove(key);
+            }
+        }
+        if (size() == 0) {
+            evalFilterNode.getContext().getPatternContext().getFilterService().remove(handle, filterServiceEntry);
+            filterServiceEntry = null;
+        }
+    }
+
+    public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
+        evalFilterNode.getContext().setLastFilterEvent(theEvent);
+        LinkedHashMap<EvalFilterStateNode, EventBean> matching;
+        if (correlatedParams == null) {
+            matching = members;
+        } else {
+            Object key = getEventKey(theEvent);
+            matching = key == null ? null : index.get(key);
+        }
+        if (matching == null || matching.isEmpty()) {
+            return;
+        }
+
+        // members started or stopped as a result of this match do not change the dispatch
+        EvalFilterStateNode[] snapshot = new EvalFilterStateNode[matching.size()];
+        int count = 0;
+        for (Map.Entry<EvalFilterStateNode, EventBean> entry : matching.entrySet()) {
+            if (entry.getValue() != theEvent) {
+                snapshot[count++] = entry.getKey();
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            snapshot[i].matchFound(theEvent, allStmtMatches);
+        }
+    }
+
+    public boolean isSubSelect() {
+        return false;
+    }
+
+    public int getStatementId() {
+        return evalFilterNode.getContext().getPatternContext().getStatementId();
+    }
+
+    /**
+     * Returns the handle registered with the filter service.
+     *
+     * @return handle
+     */
+    public EPStatementHandleCallback getHandle() {
+        return handle;
+    }
+
+    /**
+     * Returns the number of members.
+     *
+     * @return members
+     */
+    public int size() {
+        return correlatedParams == null ? members.size() : memberKeys.size();
+    }
+
+    /**
+     * Returns the number of distinct correlation keys, or zero when not correlated.
+     *
+     * @return number of keys
+     */
+    public int getNumKeys() {
+        return index == null ? 0 : index.size();
+    }
+
+    /**
+     * Returns the equals-parameters that compare to properties of tagged events, for a filter specification
+     * that may be shared using a correlation index, or null if the filter cannot use a correlation index.
+     *
+     * @param filterSpec filter specification
+     * @return correlated parameters or null
+     */
+    public static FilterSpecParam[] getCorrelatedParams(FilterSpecCompiled filterSpec) {
+        if (filterSpec.getParameters().length != 1 || filterSpec.getOptionalPropertyEvaluator() != null) {
+            return null;
+        }
+        List<FilterSpecParam> correlated = new ArrayList<FilterSpecParam>(2);
+        for (FilterSpecParam param : filterSpec.getParameters()[0]) {
+            if (isShareable(param)) {
+                continue;
+            }
+            if ((param instanceof FilterSpecParamEventProp || param instanceof FilterSpecParamEventPropIndexed) &&
+                    param.getFilterOperator() == FilterOperator.EQUAL) {
+                correlated.add(param);
+                continue;
+            }
+            return null;
+        }
+        return correlated.isEmpty() ? null : correlated.toArray(new FilterSpecParam[correlated.size()]);
+    }
+
+    private Object getMemberKey(MatchedEventMap beginState) {
+        if (correlatedParams.length == 1) {
+            return correlatedParams[0].getFilterValue(beginState, evalFilterNode.getContext().getAgentInstanceContext());
+        }
+        Object[] keys = new Object[correlatedParams.length];
+        for (int i = 0; i < correlatedParams.length; i++) {
+            keys[i] = correlatedParams[i].getFilterValue(beginState, evalFilterNode.getContext().getAgentInstanceContext());
+        }
+        return new MultiKeyUntyped(keys);
+    }
+
+    private Object getEventKey(EventBean theEvent) {
+        // same as the equals-index of the filter service, a null value does not match
+        if (correlatedParams.length == 1) {
+            return correlatedParams[0].getLookupable().getGetter().get(theEvent);
+        }
+        Object[] keys = new Object[correlatedParams.length];
+        for (int i = 0; i < correlatedParams.length; i++) {
+            keys[i] = correlatedParams[i].getLookupable().getGetter().get(theEvent);
+            if (keys[i] == null) {
+                return null;
+            }
+        }
+        return new MultiKeyUntyped(keys);
+    }
+
+    /**
+     * Returns true when the filter specification does not depend on prior matching events
+     * and all filter state nodes may therefore share the same registration.
+     *
+     * @param filterSpec filter specification
+     * @return indicator
+     */
+    public static boolean isShareable(FilterSpecCompiled filterSpec) {
+        for (FilterSpecParam[] path : filterSpec.getParameters()) {
+            for (FilterSpecParam param : path) {
+                if (!isShareable(param)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isShareable(FilterSpecParam param) {
+        if (param instanceof FilterSpecParamConstant || param instanceof FilterSpecParamContextProp) {
+            return true;
+        }
+        if (param instanceof FilterSpecParamRange) {
+            FilterSpecParamRange range = (FilterSpecParamRange) param;
+            return isShareable(range.getMin()) && isShareable(range.getMax());
+        }
+        if (param instanceof FilterSpecParamIn) {
+            for (FilterSpecParamInValue value : ((FilterSpecParamIn) param).getListOfValues()) {
+                if (!(value instanceof InSetOfValuesConstant) && !(value instanceof InSetOfValuesContextProp)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (param instanceof FilterSpecParamExprNode) {
+            FilterSpecParamExprNode exprParam = (FilterSpecParamExprNode) param;
+            boolean hasTags = (exprParam.getTaggedEventTypes() != null && !exprParam.getTaggedEventTypes().isEmpty()) ||
+                    (exprParam.getArrayEventTypes() != null && !exprParam.getArrayEventTypes().isEmpty());
+            if (!hasTags) {
+                return true;
+            }
+            if (exprParam.isHasFilterStreamSubquery()) {
+                return false;
+            }
+            // tags are provided to all filter expressions, the expression may not actually refer to any
+            ExprNodeStreamRequiredVisitor visitor = new ExprNodeStreamRequiredVisitor();
+            exprParam.getExprNode().accept(visitor);
+            for (int stream : visitor.getStreamsRequired()) {
+                if (stream != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isShareable(FilterSpecParamRangeValue value) {
+        return value instanceof RangeValueDouble || value instanceof RangeValueString || value instanceof RangeValueContextProp;
+    }
+}
@@ -95,6 +95,7 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qPatternFilterMatch(evalFilterNode, theEvent);
         }
+        evalFilterNode.getContext().setLastFilterEvent(theEvent);
 
         if (!isStarted) {
             if (InstrumentationHelper.ENABLED) {
@@ -182,9 +183,15 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
 
     protected void startFiltering() {
         FilterService filterService = evalFilterNode.getContext().getPatternContext().getFilterService();
-        handle = new EPStatementHandleCallback(evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle(), this);
-        FilterValueSet filterValues = evalFilterNode.getFactoryNode().getFilterSpec().getValueSet(beginState, evalFilterNode.getContext().getAgentInstanceContext(), evalFilterNode.getAddendumFilters());
-        filterServiceEntry = filterService.add(filterValues, handle);
+        EvalFilterSharedGroup sharedGroup = evalFilterNode.getSharedGroup();
+        if (sharedGroup != null) {
+            handle = sharedGroup.getHandle();
+            sharedGroup.add(this, beginState);
+        } else {
+            handle = new EPStatementHandleCallback(evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle(), this);
+            FilterValueSet filterValues = evalFilterNode.getFactoryNode().getFilterSpec().getValueSet(beginState, evalFilterNode.getContext().getAgentInstanceContext(), evalFilterNode.getAddendumFilters());
+            filterServiceEntry = filterService.add(filterValues, handle);
+        }
         long filtersVersion = filterService.getFiltersVersion();
         evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
     }
@@ -192,7 +199,12 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
     private void stopFiltering() {
         PatternContext context = evalFilterNode.getContext().getPatternContext();
         if (handle != null) {
-            context.getFilterService().remove(handle, filterServiceEntry);
+            EvalFilterSharedGroup sharedGroup = evalFilterNode.getSharedGroup();
+            if (sharedGroup != null) {
+                sharedGroup.remove(this);
+            } else {
+                context.getFilterService().remove(handle, filterServiceEntry);
+            }
         }
         handle = null;
         filterServiceEntry = null;
@@ -78,6 +78,9 @@ public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
             }
             return;
         }
+        if (isQuitted) {
+            recycle(fromNode);
+        }
 
         // If the match came from the very last filter, need to escalate
         int numChildNodes = evalFollowedByNode.getChildNodes().length;
@@ -105,7 +108,9 @@ public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
             InstrumentationHelper.get().qPatternFollowedByEvalFalse(evalFollowedByNode);
         }
         fromNode.quit();
-        nodes.remove(fromNode);
+        if (nodes.remove(fromNode) != null) {
+            recycle(fromNode);
+        }
 
         if (nodes.isEmpty()) {
             this.getParentEvaluator().evaluateFalse(this, true);
@@ -159,7 +164,14 @@ public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
     private final void quitInternal() {
         for (EvalStateNode child : nodes.keySet()) {
             child.quit();
+            recycle(child);
         }
         nodes.clear();
     }
+
+    private static void recycle(EvalStateNode child) {
+        if (child instanceof EvalGuardStateNode) {
+            ((EvalGuardStateNode) child).recycle();
+        }
+    }
 }
@@ -10,6 +10,9 @@
  */
 package com.espertech.esper.pattern;
 
+import com.espertech.esper.pattern.guard.TimerWithinGuardFactory;
+import com.espertech.esper.pattern.pool.PatternStateNodeRecycler;
+import com.espertech.esper.pattern.pool.PatternSubexpressionPoolStmtSvc;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,11 +22,21 @@ import org.slf4j.LoggerFactory;
 public class EvalGuardNode extends EvalNodeBase {
     protected final EvalGuardFactoryNode factoryNode;
     private final EvalNode childNode;
+    private final PatternStateNodeRecycler recycler;
 
     public EvalGuardNode(PatternAgentInstanceContext context, EvalGuardFactoryNode factoryNode, EvalNode childNode) {
         super(context);
         this.factoryNode = factoryNode;
         this.childNode = childNode;
+
+        // a timer-within guard ignores its timer once stopped and a filter ignores matches once quit,
+        // so a node of this shape no longer receives callbacks after its owner dropped it
+        PatternSubexpressionPoolStmtSvc poolSvc = context.getStatementContext().getPatternSubexpressionPoolSvc();
+        if (poolSvc != null && childNode instanceof EvalFilterNode && factoryNode.getGuardFactory() instanceof TimerWithinGuardFactory) {
+            this.recycler = poolSvc.getStateNodeRecycler();
+        } else {
+            this.recycler = null;
+        }
     }
 
     public EvalGuardFactoryNode getFactoryNode() {
@@ -34,8 +47,25 @@ public class EvalGuardNode extends EvalNodeBase {
         return childNode;
     }
 
+    /**
+     * Returns the free list that state nodes of this guard return to, or null if the state nodes cannot be recycled.
+     *
+     * @return recycler or null
+     */
+    public PatternStateNodeRecycler getRecycler() {
+        return recycler;
+    }
+
     public EvalStateNode newState(Evaluator parentNode,
                                   EvalStateNodeNumber stateNodeNumber, long stateNodeId) {
+        if (recycler != null) {
+            EvalGuardStateNode node = recycler.acquireGuardNode();
+            if (node != null) {
+                node.setParentEvaluator(parentNode);
+                node.evalGuardNode = this;
+                return node;
+            }
+        }
         return new EvalGuardStateNode(parentNode, this);
     }
 
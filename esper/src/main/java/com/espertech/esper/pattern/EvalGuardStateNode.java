@@ -14,6 +14,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.pattern.guard.Guard;
 import com.espertech.esper.pattern.guard.Quitable;
+import com.espertech.esper.pattern.pool.PatternStateNodeRecycler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,10 +85,11 @@ public class EvalGuardStateNode extends EvalStateNode implements Evaluator, Quit
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qPatternGuardEvaluateTrue(evalGuardNode, matchEvent);
         }
-        boolean haveQuitted = activeChildNode == null;
+        // a child that quit earlier may still report, also after this node was recycled and started a new child
+        boolean haveQuitted = activeChildNode == null || fromNode != activeChildNode;
 
         // If one of the children quits, remove the child
-        if (isQuitted) {
+        if (isQuitted && !haveQuitted) {
             activeChildNode = null;
 
             // Stop guard, since associated subexpression is gone
@@ -106,6 +108,9 @@ public class EvalGuardStateNode extends EvalStateNode implements Evaluator, Quit
     }
 
     public final void evaluateFalse(EvalStateNode fromNode, boolean restartable) {
+        if (activeChildNode != null) {
+            guard.stopGuard();
+        }
         activeChildNode = null;
         this.getParentEvaluator().evaluateFalse(this, true);
     }
@@ -175,5 +180,20 @@ public class EvalGuardStateNode extends EvalStateNode implements Evaluator, Quit
         }
     }
 
+    /**
+     * Returns this node to the statement's free list, for use by the owner after it dropped this node.
+     * Nodes that are still active or whose guard node does not allow recycling are left alone.
+     */
+    public void recycle() {
+        PatternStateNodeRecycler recycler = evalGuardNode.getRecycler();
+        if (recycler == null || activeChildNode != null) {
+            return;
+        }
+        guard = null;
+        beginState = null;
+        setParentEvaluator(null);
+        recycler.releaseGuardNode(this);
+    }
+
     private static final Logger log = LoggerFactory.getLogger(EvalGuardStateNode.class);
 }
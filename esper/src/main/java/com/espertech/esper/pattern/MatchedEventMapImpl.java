@@ -20,10 +20,22 @@ import java.util.Map;
  * that holds the one or more events that could match any defined event expressions.
  * The optional tag value supplied when an event expression is created is used as a key for placing
  * matching event objects into this collection.
+ * <p>
+ * Tags are assigned slots at compile time. Copies share the slot array with the collection they were
+ * copied from and only copy it when a change would become visible to the other. For up to 64 slots each
+ * collection tracks the slots it owns in a bit mask: adding an event to a slot that no collection sharing the
+ * array has assigned writes into the shared array without copying, so that a chain of followed-by
+ * transitions, each adding one tag, does not copy the array at every step. A shared array may therefore
+ * reference events that only some of the collections sharing it can see.
+ * </p>
  */
 public final class MatchedEventMapImpl implements MatchedEventMap {
+    private static final int MAX_SLOTS_TRACKED = 64;
+
     private final MatchedEventMapMeta meta;
-    private final Object[] matches;
+    private Object[] matches;
+    private long assigned;
+    private boolean shared;
 
     /**
      * Constructor creates an empty collection of events.
@@ -38,6 +50,20 @@ public final class MatchedEventMapImpl implements MatchedEventMap {
     public MatchedEventMapImpl(MatchedEventMapMeta meta, Object[] matches) {
         this.meta = meta;
         this.matches = matches;
+        if (matches.length <= MAX_SLOTS_TRACKED) {
+            for (int i = 0; i < matches.length; i++) {
+                if (matches[i] != null) {
+                    assigned |= 1L << i;
+                }
+            }
+        }
+    }
+
+    private MatchedEventMapImpl(MatchedEventMapMeta meta, Object[] matches, long assigned) {
+        this.meta = meta;
+        this.matches = matches;
+        this.assigned = assigned;
+        this.shared = true;
     }
 
     /**
@@ -47,7 +73,29 @@ public final class MatchedEventMapImpl implements MatchedEventMap {
      * @param theEvent is the event object or array of event object to be added
      */
     public void add(final int tag, final Object theEvent) {
+        if (matches.length > MAX_SLOTS_TRACKED) {
+            if (shared) {
+                unshare();
+            }
+            matches[tag] = theEvent;
+            return;
+        }
+
+        long bit = 1L << tag;
+        if (theEvent == null) {
+            assigned &= ~bit;
+            if (!shared) {
+                matches[tag] = null;
+            }
+            return;
+        }
+
+        // the slot can be written in place if no other collection can see it
+        if (shared && matches[tag] != null && matches[tag] != theEvent) {
+            unshare();
+        }
         matches[tag] = theEvent;
+        assigned |= bit;
     }
 
     /**
@@ -57,6 +105,9 @@ public final class MatchedEventMapImpl implements MatchedEventMap {
      * @return Hashtable containing event instances
      */
     public Object[] getMatchingEvents() {
+        if (shared) {
+            unshare();
+        }
         return matches;
     }
 
@@ -67,10 +118,13 @@ public final class MatchedEventMapImpl implements MatchedEventMap {
      * @return event instances for the tag
      */
     public EventBean getMatchingEvent(final int tag) {
-        return (EventBean) matches[tag];
+        return (EventBean) getMatchingEventAsObject(tag);
     }
 
     public Object getMatchingEventAsObject(final int tag) {
+        if (matches.length <= MAX_SLOTS_TRACKED && (assigned & (1L << tag)) == 0) {
+            return null;
+        }
         return matches[tag];
     }
 
@@ -85,7 +139,7 @@ public final class MatchedEventMapImpl implements MatchedEventMap {
             buffer.append("tag=");
             buffer.append(meta.getTagsPerIndex()[i]);
             buffer.append("  event=");
-            buffer.append(matches[i]);
+            buffer.append(getMatchingEventAsObject(i));
         }
 
         return buffer.toString();
@@ -100,14 +154,8 @@ public final class MatchedEventMapImpl implements MatchedEventMap {
         if (matches.length == 0) {
             return this;
         }
-
-        Object[] copy = new Object[matches.length];
-        if (matches.length > 1) {
-            System.arraycopy(matches, 0, copy, 0, matches.length);
-        } else {
-            copy[0] = matches[0];
-        }
-        return new MatchedEventMapImpl(meta, copy);
+        shared = true;
+        return new MatchedEventMapImpl(meta, matches, assigned);
     }
 
     /**
@@ -122,20 +170,22 @@ public final class MatchedEventMapImpl implements MatchedEventMap {
         }
         MatchedEventMapImpl otherImpl = (MatchedEventMapImpl) other;
         for (int i = 0; i < matches.length; i++) {
-            if (otherImpl.matches[i] == null) {
+            Object value = otherImpl.getMatchingEventAsObject(i);
+            if (value == null) {
                 continue;
             }
-            matches[i] = otherImpl.matches[i];
+            add(i, value);
         }
     }
 
     public Map<String, Object> getMatchingEventsAsMap() {
         Map<String, Object> map = new HashMap<String, Object>();
         for (int i = 0; i < meta.getTagsPerIndex().length; i++) {
-            if (matches[i] == null) {
+            Object value = getMatchingEventAsObject(i);
+            if (value == null) {
                 continue;
             }
-            map.put(meta.getTagsPerIndex()[i], matches[i]);
+            map.put(meta.getTagsPerIndex()[i], value);
         }
         return map;
     }
@@ -154,6 +204,21 @@ public final class MatchedEventMapImpl implements MatchedEventMap {
         if (index == -1) {
             return null;
         }
-        return matches[index];
+        return getMatchingEventAsObject(index);
+    }
+
+    private void unshare() {
+        Object[] copy = new Object[matches.length];
+        if (matches.length > MAX_SLOTS_TRACKED) {
+            System.arraycopy(matches, 0, copy, 0, matches.length);
+        } else {
+            for (int i = 0; i < matches.length; i++) {
+                if ((assigned & (1L << i)) != 0) {
+                    copy[i] = matches[i];
+                }
+            }
+        }
+        matches = copy;
+        shared = false;
     }
 }
@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.pattern;
 
+import com.espertech.esper.client.EventBean;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.core.service.StatementContext;
 
@@ -20,6 +21,7 @@ public class PatternAgentInstanceContext {
     private final PatternContext patternContext;
     private final AgentInstanceContext agentInstanceContext;
     private final EvalFilterConsumptionHandler consumptionHandler;
+    private EventBean lastFilterEvent;
 
     public PatternAgentInstanceContext(PatternContext patternContext, AgentInstanceContext agentInstanceContext, boolean hasConsumingFilter) {
         this.patternContext = patternContext;
@@ -47,4 +49,22 @@ public class PatternAgentInstanceContext {
     public StatementContext getStatementContext() {
         return agentInstanceContext.getStatementContext();
     }
+
+    /**
+     * Returns the event last dispatched to a pattern filter of this agent instance.
+     *
+     * @return event or null if none was dispatched
+     */
+    public EventBean getLastFilterEvent() {
+        return lastFilterEvent;
+    }
+
+    /**
+     * Sets the event currently dispatched to a pattern filter of this agent instance.
+     *
+     * @param lastFilterEvent event
+     */
+    public void setLastFilterEvent(EventBean lastFilterEvent) {
+        this.lastFilterEvent = lastFilterEvent;
+    }
 }
@@ -21,9 +21,10 @@ public class PatternConsumptionUtil {
         if (beginState == null) {
             return false;
         }
-        Object[] partial = beginState.getMatchingEvents();
+        int numTags = beginState.getMeta().getTagsPerIndex().length;
         boolean quit = false;
-        for (Object aPartial : partial) {
+        for (int i = 0; i < numTags; i++) {
+            Object aPartial = beginState.getMatchingEventAsObject(i);
             if (aPartial == null) {
                 continue;
             } else if (aPartial instanceof EventBean) {
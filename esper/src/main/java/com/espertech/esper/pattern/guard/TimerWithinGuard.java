@@ -65,6 +65,11 @@ public class TimerWithinGuard implements Guard, ScheduleHandleCallback {
     }
 
     public final void scheduledTrigger(EngineLevelExtensionServicesContext engineLevelExtensionServicesContext) {
+        // a callback that was already due when the guard stopped must not quit the guard node,
+        // which may have been recycled by then
+        if (!isTimerActive) {
+            return;
+        }
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qPatternGuardScheduledEval();
         }
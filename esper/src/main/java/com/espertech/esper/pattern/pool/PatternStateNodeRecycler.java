@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern.pool;
+
+import com.espertech.esper.pattern.EvalGuardStateNode;
+
+import java.util.ArrayDeque;
+
+/**
+ * Per-statement free list of pattern state nodes that have a single owner and that can no longer receive callbacks
+ * once their owner dropped them.
+ * <p>
+ * Only guard state nodes directly under a followed-by are recycled: the followed-by removes the node from its
+ * child map before releasing it and the guard and the child filter are always stopped at that time.
+ * The free list is bounded, all context partitions of a statement share it.
+ */
+public class PatternStateNodeRecycler {
+
+    /**
+     * Maximum number of free state nodes held per statement.
+     */
+    public final static int MAX_FREE_NODES = 1024;
+
+    private final ArrayDeque<EvalGuardStateNode> freeGuardNodes = new ArrayDeque<EvalGuardStateNode>();
+    private long numReused;
+    private long numReleased;
+
+    /**
+     * Returns a free guard state node or null if there is none.
+     *
+     * @return free node or null
+     */
+    public synchronized EvalGuardStateNode acquireGuardNode() {
+        EvalGuardStateNode node = freeGuardNodes.pollLast();
+        if (node != null) {
+            numReused++;
+        }
+        return node;
+    }
+
+    /**
+     * Returns a guard state node that its owner dropped.
+     *
+     * @param node dropped node
+     */
+    public synchronized void releaseGuardNode(EvalGuardStateNode node) {
+        numReleased++;
+        if (freeGuardNodes.size() < MAX_FREE_NODES) {
+            freeGuardNodes.addLast(node);
+        }
+    }
+
+    public synchronized int getNumFree() {
+        return freeGuardNodes.size();
+    }
+
+    public synchronized long getNumReused() {
+        return numReused;
+    }
+
+    public synchronized long getNumReleased() {
+        return numReleased;
+    }
+}
@@ -14,10 +14,19 @@ public class PatternSubexpressionPoolStmtSvc {
 
     private final PatternSubexpressionPoolEngineSvc engineSvc;
     private final PatternSubexpressionPoolStmtHandler stmtHandler;
+    private final PatternStateNodeRecycler stateNodeRecycler;
 
-    public PatternSubexpressionPoolStmtSvc(PatternSubexpressionPoolEngineSvc engineSvc, PatternSubexpressionPoolStmtHandler stmtHandler) {
+    /**
+     * Ctor.
+     *
+     * @param engineSvc         engine-wide subexpression count or null if no maximum is configured
+     * @param stmtHandler       statement subexpression count or null if no maximum is configured
+     * @param stateNodeRecycler free list of state nodes
+     */
+    public PatternSubexpressionPoolStmtSvc(PatternSubexpressionPoolEngineSvc engineSvc, PatternSubexpressionPoolStmtHandler stmtHandler, PatternStateNodeRecycler stateNodeRecycler) {
         this.engineSvc = engineSvc;
         this.stmtHandler = stmtHandler;
+        this.stateNodeRecycler = stateNodeRecycler;
     }
 
     public PatternSubexpressionPoolEngineSvc getEngineSvc() {
@@ -27,4 +36,8 @@ public class PatternSubexpressionPoolStmtSvc {
     public PatternSubexpressionPoolStmtHandler getStmtHandler() {
         return stmtHandler;
     }
+
+    public PatternStateNodeRecycler getStateNodeRecycler() {
+        return stateNodeRecycler;
+    }
 }
@@ -78,6 +78,13 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
     private final RegexPartitionStateRandomAccessGetter prevGetter;
     private final ObjectArrayBackedEventBean compositeEventBean;
 
+    // conditions that only look at the current event are evaluated once per event, for all partial matches
+    private final boolean[] isExprCurrentEventOnly;
+    private final EventBean[] currentEventEventsPerStream;
+    private final long[] currentEventEvalStep;
+    private final boolean[] currentEventEvalResult;
+    private long currentStep;
+
     // state
     protected RegexPartitionStateRepo regexPartitionStateRepo;
     private LinkedHashSet<EventBean> windowMatchedEventset; // this is NOT per partition - some optimizations are done for batch-processing (minus is out-of-sequence in partition) 
@@ -95,6 +102,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                                 boolean isDefineAsksMultimatches,
                                 ObjectArrayBackedEventBean defineMultimatchEventBean,
                                 boolean[] isExprRequiresMultimatchState,
+                                boolean[] isExprCurrentEventOnly,
                                 boolean isUnbound,
                                 boolean isIterateOnly,
                                 boolean isCollectMultimatches,
@@ -140,6 +148,10 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
         this.isIterateOnly = isIterateOnly;
         this.agentInstanceContext = agentInstanceContext;
         this.isCollectMultimatches = isCollectMultimatches;
+        this.isExprCurrentEventOnly = isExprCurrentEventOnly;
+        this.currentEventEventsPerStream = new EventBean[numEventsEventsPerStreamDefine];
+        this.currentEventEvalStep = new long[isExprCurrentEventOnly.length];
+        this.currentEventEvalResult = new boolean[isExprCurrentEventOnly.length];
 
         if (matchRecognizeSpec.getInterval() != null) {
             agentInstanceContext.addTerminationCallback(this);
@@ -787,6 +799,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                                           int currentEventSequenceNumber,
                                           Object partitionKey) {
         List<RegexNFAStateEntry> terminationStates = null;  // always null or a list of entries (no singleton list)
+        currentStep++;
 
         // handle current state matching
         for (; currentStatesIterator.hasNext(); ) {
@@ -808,7 +821,14 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                 eventsPerStream[numEventsEventsPerStreamDefine - 1] = getMultimatchState(currentState);
             }
 
-            if (currentState.getState().matches(eventsPerStream, agentInstanceContext)) {
+            boolean matches;
+            if (isExprCurrentEventOnly[currentStateStreamNum]) {
+                matches = matchesCurrentEvent(currentState.getState(), theEvent);
+            } else {
+                matches = currentState.getState().matches(eventsPerStream, agentInstanceContext);
+            }
+
+            if (matches) {
                 if (isRetainEventSet) {
                     this.windowMatchedEventset.add(theEvent);
                 }
@@ -843,7 +863,13 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                         greedyCounts[currentState.getState().getNodeNumFlat()]++;
                     }
 
-                    RegexNFAStateEntry entry = new RegexNFAStateEntry(currentState.getMatchBeginEventSeqNo(), currentState.getMatchBeginEventTime(), currentState.getState(), eventsForState, greedyCounts, multimatches, partitionKey);
+                    // the single successor shares all state with the current entry, so the entry moves on instead of being copied
+                    RegexNFAStateEntry entry;
+                    if (!copy && multimatches == currentState.getOptionalMultiMatches()) {
+                        entry = currentState;
+                    } else {
+                        entry = new RegexNFAStateEntry(currentState.getMatchBeginEventSeqNo(), currentState.getMatchBeginEventTime(), currentState.getState(), eventsForState, greedyCounts, multimatches, partitionKey);
+                    }
                     if (next instanceof RegexNFAStateEnd) {
                         entry.setMatchEndEventSeqNo(currentEventSequenceNumber);
                         endStates.add(entry);
@@ -900,11 +926,22 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                 InstrumentationHelper.get().qRegExStateStart(startState, variableStreams, multimatchStreamNumToVariable);
             }
 
-            EventBean[] eventsPerStream = new EventBean[numEventsEventsPerStreamDefine];
             int currentStateStreamNum = startState.getStreamNum();
-            eventsPerStream[currentStateStreamNum] = theEvent;
+            EventBean[] eventsPerStream = null;
+            boolean matches;
+            if (isExprCurrentEventOnly[currentStateStreamNum]) {
+                matches = matchesCurrentEvent(startState, theEvent);
+            } else {
+                eventsPerStream = new EventBean[numEventsEventsPerStreamDefine];
+                eventsPerStream[currentStateStreamNum] = theEvent;
+                matches = startState.matches(eventsPerStream, agentInstanceContext);
+            }
 
-            if (startState.matches(eventsPerStream, agentInstanceContext)) {
+            if (matches) {
+                if (eventsPerStream == null) {
+                    eventsPerStream = new EventBean[numEventsEventsPerStreamDefine];
+                    eventsPerStream[currentStateStreamNum] = theEvent;
+                }
                 if (isRetainEventSet) {
                     this.windowMatchedEventset.add(theEvent);
                 }
@@ -969,6 +1006,17 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
         return terminationStates;   // only for immediate use, not for scheduled use as no copy of state
     }
 
+    private boolean matchesCurrentEvent(RegexNFAState state, EventBean theEvent) {
+        int streamNum = state.getStreamNum();
+        if (currentEventEvalStep[streamNum] != currentStep) {
+            currentEventEventsPerStream[streamNum] = theEvent;
+            currentEventEvalResult[streamNum] = state.matches(currentEventEventsPerStream, agentInstanceContext);
+            currentEventEventsPerStream[streamNum] = null;
+            currentEventEvalStep[streamNum] = currentStep;
+        }
+        return currentEventEvalResult[streamNum];
+    }
+
     private ObjectArrayBackedEventBean getMultimatchState(RegexNFAStateEntry currentState) {
         if (currentState.getOptionalMultiMatches() == null || !currentState.getState().isExprRequiresMultimatchState()) {
             return null;
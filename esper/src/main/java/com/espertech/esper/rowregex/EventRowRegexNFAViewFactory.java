@@ -33,6 +33,7 @@ import com.espertech.esper.epl.expression.visitor.ExprNodeIdentifierVisitor;
 import com.espertech.esper.epl.expression.visitor.ExprNodePreviousVisitorWParent;
 import com.espertech.esper.epl.expression.visitor.ExprNodeStreamRequiredVisitor;
 import com.espertech.esper.epl.expression.visitor.ExprNodeStreamUseCollectVisitor;
+import com.espertech.esper.epl.expression.visitor.ExprNodeSubselectDeclaredDotVisitor;
 import com.espertech.esper.epl.spec.MatchRecognizeDefineItem;
 import com.espertech.esper.epl.spec.MatchRecognizeMeasureItem;
 import com.espertech.esper.epl.spec.MatchRecognizeSpec;
@@ -63,6 +64,7 @@ public class EventRowRegexNFAViewFactory extends ViewFactorySupport {
     protected final boolean isDefineAsksMultimatches;
     protected final ObjectArrayBackedEventBean defineMultimatchEventBean;
     protected final boolean[] isExprRequiresMultimatchState;
+    protected final boolean[] isExprCurrentEventOnly;
     protected final RowRegexExprNode expandedPatternNode;
     protected final ConfigurationEngineDefaults.MatchRecognize matchRecognizeConfig;
 
@@ -137,6 +139,7 @@ public class EventRowRegexNFAViewFactory extends ViewFactorySupport {
         List<ExprAggregateNode> aggregateNodes = new ArrayList<ExprAggregateNode>();
         ExprEvaluatorContextStatement exprEvaluatorContext = new ExprEvaluatorContextStatement(statementContext, false);
         this.isExprRequiresMultimatchState = new boolean[variableStreams.size()];
+        this.isExprCurrentEventOnly = new boolean[variableStreams.size()];
 
         for (int defineIndex = 0; defineIndex < matchRecognizeSpec.getDefines().size(); defineIndex++) {
             MatchRecognizeDefineItem defineItem = matchRecognizeSpec.getDefines().get(defineIndex);
@@ -170,13 +173,24 @@ public class EventRowRegexNFAViewFactory extends ViewFactorySupport {
             ExprNodeStreamRequiredVisitor visitor = new ExprNodeStreamRequiredVisitor();
             validated.accept(visitor);
             Set<Integer> streamsRequired = visitor.getStreamsRequired();
+            int streamNumIdent = variableStreams.get(defineItem.getIdentifier()).getFirst();
             for (int streamRequired : streamsRequired) {
                 if (streamRequired >= variableStreams.size()) {
-                    int streamNumIdent = variableStreams.get(defineItem.getIdentifier()).getFirst();
                     isExprRequiresMultimatchState[streamNumIdent] = true;
                     break;
                 }
             }
+
+            // determine whether the condition only looks at the current event and can be evaluated once per event for all partial matches
+            ExprNodeSubselectDeclaredDotVisitor subselectVisitor = new ExprNodeSubselectDeclaredDotVisitor();
+            validated.accept(subselectVisitor);
+            boolean currentEventOnly = !isExprRequiresMultimatchState[streamNumIdent] && subselectVisitor.getSubselects().isEmpty() && subselectVisitor.getDeclaredExpressions().isEmpty();
+            for (int streamRequired : streamsRequired) {
+                if (streamRequired != streamNumIdent) {
+                    currentEventOnly = false;
+                }
+            }
+            isExprCurrentEventOnly[streamNumIdent] = currentEventOnly;
         }
         isDefineAsksMultimatches = CollectionUtil.isAnySet(isExprRequiresMultimatchState);
         defineMultimatchEventBean = isDefineAsksMultimatches ? EventRowRegexNFAViewFactoryHelper.getDefineMultimatchBean(statementContext, variableStreams, parentViewType) : null;
@@ -428,6 +442,7 @@ public class EventRowRegexNFAViewFactory extends ViewFactorySupport {
                 isDefineAsksMultimatches,
                 defineMultimatchEventBean,
                 isExprRequiresMultimatchState,
+                isExprCurrentEventOnly,
                 isUnbound,
                 isIterateOnly,
                 isCollectMultimatches,
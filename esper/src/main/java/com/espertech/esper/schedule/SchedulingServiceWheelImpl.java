@@ -0,0 +1,454 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.client.util.DateTime;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.timer.TimeSourceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Implements the schedule service as a hierarchical timing wheel.
+ * <p>
+ * Each level of the wheel has 64 buckets and covers 6 bits of the time value. A handle is placed at the level
+ * of the most significant 6-bit group in which its trigger time differs from the time up to which the wheel has been evaluated,
+ * so that adding and removing a handle is constant-time and does not box time or slot values.
+ * Advancing time moves buckets that are entirely due to the due-list and redistributes the entries of the one
+ * bucket per level that straddles the new time to lower levels. Due handles are returned ordered by time and slot,
+ * same as {@link SchedulingServiceImpl}.
+ * <p>
+ * Synchronized since statement creation and event evaluation by multiple (event send) threads
+ * can lead to callbacks added/removed asynchronously.
+ */
+public final class SchedulingServiceWheelImpl implements SchedulingServiceSPI {
+    private static final int BITS = 6;
+    private static final int BUCKETS = 1 << BITS;
+    private static final long MASK = BUCKETS - 1;
+    private static final int LEVELS = (Long.SIZE + BITS - 1) / BITS;
+    private static final int LEVEL_DUE = -1;
+
+    // Buckets per level, each a doubly-linked list of entries, and a bit set of occupied buckets per level
+    private final Entry[][] buckets;
+    private final long[] occupied;
+
+    // Entries that are due for the next evaluation
+    private Entry due;
+
+    // Map of handle and entry for removal
+    private final Map<ScheduleHandle, Entry> handleEntryMap;
+
+    // Reusable buffer for sorting due entries
+    private final ArrayList<Entry> evaluateBuffer;
+
+    // Time up to which entries have been evaluated or placed into the due-list
+    private long wheelTime;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    /**
+     * Constructor.
+     *
+     * @param timeSourceService time source provider
+     */
+    public SchedulingServiceWheelImpl(TimeSourceService timeSourceService) {
+        this.buckets = new Entry[LEVELS][BUCKETS];
+        this.occupied = new long[LEVELS];
+        this.handleEntryMap = new HashMap<ScheduleHandle, Entry>();
+        this.evaluateBuffer = new ArrayList<Entry>();
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+        this.wheelTime = currentTime;
+    }
+
+    public void destroy() {
+        log.debug("Destroying scheduling service");
+        clear();
+        handleEntryMap.clear();
+    }
+
+    public long getTime() {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public synchronized final void setTime(long currentTime) {
+        if (currentTime < wheelTime) {
+            rebuild(currentTime);
+        }
+        this.currentTime = currentTime;
+    }
+
+    public synchronized final void add(long afterTime, ScheduleHandle handle, long slot)
+            throws ScheduleServiceException {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleAdd(currentTime, afterTime, handle, slot);
+        }
+        Entry existing = handleEntryMap.get(handle);
+        if (existing != null) {
+            unlink(existing);
+        } else {
+            existing = new Entry(handle);
+            handleEntryMap.put(handle, existing);
+        }
+
+        existing.time = currentTime + afterTime;
+        existing.slot = slot;
+        place(existing);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleAdd();
+        }
+    }
+
+    public synchronized final void remove(ScheduleHandle handle, long slot) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleRemove(handle, slot);
+        }
+        // If it already has been removed then that's fine;
+        // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+        Entry entry = handleEntryMap.remove(handle);
+        if (entry != null) {
+            unlink(entry);
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleRemove();
+        }
+    }
+
+    public synchronized final void evaluate(Collection<ScheduleHandle> handles) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleEval(currentTime);
+        }
+        if (currentTime > wheelTime) {
+            advance(currentTime);
+        }
+
+        if (due == null) {
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aScheduleEval(Collections.<ScheduleHandle>emptyList());
+            }
+            return;
+        }
+
+        // Order by time and slot
+        ArrayList<Entry> sorted = evaluateBuffer;
+        for (Entry entry = due; entry != null; entry = entry.next) {
+            sorted.add(entry);
+        }
+        due = null;
+        if (sorted.size() > 1) {
+            Collections.sort(sorted, EntryComparator.INSTANCE);
+        }
+        for (Entry entry : sorted) {
+            handleEntryMap.remove(entry.handle);
+            handles.add(entry.handle);
+        }
+        sorted.clear();
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleEval(handles);
+        }
+    }
+
+    public synchronized ScheduleSet take(Set<Integer> statementIds) {
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>();
+        long currentTime = getTime();
+        for (Entry entry : sortedEntries()) {
+            if (statementIds.contains(entry.handle.getStatementId())) {
+                long relative = entry.time - currentTime;
+                list.add(new ScheduleSetEntry(relative, entry.slot, entry.handle));
+            }
+        }
+
+        for (ScheduleSetEntry entry : list) {
+            remove(entry.getHandle(), entry.getScheduleSlot());
+        }
+
+        return new ScheduleSet(list);
+    }
+
+    public void apply(ScheduleSet scheduleSet) {
+        for (ScheduleSetEntry entry : scheduleSet.getList()) {
+            add(entry.getTime(), entry.getHandle(), entry.getScheduleSlot());
+        }
+    }
+
+    public void init() {
+        // no action required
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public synchronized int getTimeHandleCount() {
+        int count = 0;
+        Entry last = null;
+        for (Entry entry : sortedEntries()) {
+            if (last == null || last.time != entry.time) {
+                count++;
+            }
+            last = entry;
+        }
+        return count;
+    }
+
+    @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
+    public String getFurthestTimeHandleDate() {
+        Long handle = getFurthestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    @JmxGetter(name = "NearestTimeHandle", description = "Nearest outstanding time evaluation")
+    public String getNearestTimeHandleDate() {
+        Long handle = getNearestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    public synchronized Long getFurthestTimeHandle() {
+        // entries at a higher level are always later than entries at a lower level or in the due-list
+        for (int level = LEVELS - 1; level >= 0; level--) {
+            if (occupied[level] != 0) {
+                int bucket = Long.SIZE - 1 - Long.numberOfLeadingZeros(occupied[level]);
+                return maxTime(buckets[level][bucket]);
+            }
+        }
+        if (due != null) {
+            return maxTime(due);
+        }
+        return null;
+    }
+
+    public int getScheduleHandleCount() {
+        return handleEntryMap.size();
+    }
+
+    public boolean isScheduled(ScheduleHandle handle) {
+        return handleEntryMap.containsKey(handle);
+    }
+
+    public synchronized Long getNearestTimeHandle() {
+        if (due != null) {
+            return minTime(due);
+        }
+        // entries at a lower level are always earlier than entries at a higher level
+        for (int level = 0; level < LEVELS; level++) {
+            if (occupied[level] != 0) {
+                int bucket = Long.numberOfTrailingZeros(occupied[level]);
+                return minTime(buckets[level][bucket]);
+            }
+        }
+        return null;
+    }
+
+    public synchronized void visitSchedules(ScheduleVisitor visitor) {
+        ScheduleVisit visit = new ScheduleVisit();
+        for (Entry entry : sortedEntries()) {
+            visit.setTimestamp(entry.time);
+            visit.setStatementId(entry.handle.getStatementId());
+            visit.setAgentInstanceId(entry.handle.getAgentInstanceId());
+            visitor.visit(visit);
+        }
+    }
+
+    private void place(Entry entry) {
+        if (entry.time <= wheelTime) {
+            entry.level = LEVEL_DUE;
+            entry.prev = null;
+            entry.next = due;
+            if (due != null) {
+                due.prev = entry;
+            }
+            due = entry;
+            return;
+        }
+
+        // the level is the most significant group of bits that differs from the wheel time
+        long diff = entry.time ^ wheelTime;
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(diff)) / BITS;
+        int bucket = (int) ((key(entry.time) >>> (BITS * level)) & MASK);
+        Entry head = buckets[level][bucket];
+        entry.level = level;
+        entry.bucket = bucket;
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        buckets[level][bucket] = entry;
+        occupied[level] |= 1L << bucket;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else if (entry.level == LEVEL_DUE) {
+            due = entry.next;
+        } else {
+            buckets[entry.level][entry.bucket] = entry.next;
+            if (entry.next == null) {
+                occupied[entry.level] &= ~(1L << entry.bucket);
+            }
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private void advance(long newTime) {
+        long wheelKey = key(wheelTime);
+        long newKey = key(newTime);
+        Entry cascade = null;
+
+        for (int level = 0; level < LEVELS; level++) {
+            long occupiedBits = occupied[level];
+            if (occupiedBits == 0) {
+                continue;
+            }
+
+            // when the new time differs from the wheel time in a more significant group, the whole level is due
+            int shiftUpper = BITS * (level + 1);
+            if (shiftUpper < Long.SIZE && (newKey >>> shiftUpper) != (wheelKey >>> shiftUpper)) {
+                moveToDue(level, occupiedBits);
+                continue;
+            }
+
+            // buckets before the new time's bucket are due, the new time's bucket straddles the new time unless at the lowest level
+            int current = (int) ((newKey >>> (BITS * level)) & MASK);
+            long dueBits = occupiedBits & ((1L << current) - 1);
+            if (level == 0) {
+                dueBits = occupiedBits & (current == BUCKETS - 1 ? -1L : (1L << (current + 1)) - 1);
+            }
+            moveToDue(level, dueBits);
+
+            if (level != 0 && (occupiedBits & (1L << current)) != 0) {
+                Entry entry = buckets[level][current];
+                while (entry != null) {
+                    Entry next = entry.next;
+                    entry.next = cascade;
+                    cascade = entry;
+                    entry = next;
+                }
+                buckets[level][current] = null;
+                occupied[level] &= ~(1L << current);
+            }
+        }
+
+        wheelTime = newTime;
+        while (cascade != null) {
+            Entry next = cascade.next;
+            place(cascade);
+            cascade = next;
+        }
+    }
+
+    private void moveToDue(int level, long bucketBits) {
+        while (bucketBits != 0) {
+            int bucket = Long.numberOfTrailingZeros(bucketBits);
+            bucketBits &= bucketBits - 1;
+            Entry entry = buckets[level][bucket];
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.level = LEVEL_DUE;
+                entry.prev = null;
+                entry.next = due;
+                if (due != null) {
+                    due.prev = entry;
+                }
+                due = entry;
+                entry = next;
+            }
+            buckets[level][bucket] = null;
+            occupied[level] &= ~(1L << bucket);
+        }
+    }
+
+    private void rebuild(long newTime) {
+        Collection<Entry> entries = handleEntryMap.values();
+        clear();
+        wheelTime = newTime;
+        for (Entry entry : entries) {
+            place(entry);
+        }
+    }
+
+    private void clear() {
+        for (int level = 0; level < LEVELS; level++) {
+            Arrays.fill(buckets[level], null);
+            occupied[level] = 0;
+        }
+        due = null;
+    }
+
+    private List<Entry> sortedEntries() {
+        List<Entry> entries = new ArrayList<Entry>(handleEntryMap.values());
+        Collections.sort(entries, EntryComparator.INSTANCE);
+        return entries;
+    }
+
+    // flips the sign bit so that unsigned order of keys is the signed order of times
+    private static long key(long time) {
+        return time ^ Long.MIN_VALUE;
+    }
+
+    private static long minTime(Entry head) {
+        long min = head.time;
+        for (Entry entry = head.next; entry != null; entry = entry.next) {
+            min = Math.min(min, entry.time);
+        }
+        return min;
+    }
+
+    private static long maxTime(Entry head) {
+        long max = head.time;
+        for (Entry entry = head.next; entry != null; entry = entry.next) {
+            max = Math.max(max, entry.time);
+        }
+        return max;
+    }
+
+    private static final class Entry {
+        private final ScheduleHandle handle;
+        private long time;
+        private long slot;
+        private int level;
+        private int bucket;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(ScheduleHandle handle) {
+            this.handle = handle;
+        }
+    }
+
+    private static final class EntryComparator implements Comparator<Entry> {
+        private static final EntryComparator INSTANCE = new EntryComparator();
+
+        public int compare(Entry o1, Entry o2) {
+            int compared = Long.compare(o1.time, o2.time);
+            if (compared != 0) {
+                return compared;
+            }
+            return Long.compare(o1.slot, o2.slot);
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingServiceWheelImpl.class);
+}
@@ -15,6 +15,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.Pair;
+import com.espertech.esper.collection.PrimitiveKeyHashMap;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
@@ -51,7 +52,7 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
     private EventBean[] eventsPerStream = new EventBean[1];
 
     protected String[] propertyNames;
-    protected final Map<Object, Object> subViewsPerKey = new HashMap<Object, Object>();
+    protected final Map<Object, Object> subViewsPerKey;
 
     private final HashMap<Object, Pair<Object, Object>> groupedEvents = new HashMap<Object, Pair<Object, Object>>();
 
@@ -66,6 +67,7 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
         this.agentInstanceContext = agentInstanceContext;
         this.criteriaExpressions = criteriaExpressions;
         this.criteriaEvaluators = criteriaEvaluators;
+        this.subViewsPerKey = PrimitiveKeyHashMap.newMap(criteriaEvaluators != null && criteriaEvaluators.length == 1 ? criteriaEvaluators[0].getType() : null);
 
         propertyNames = new String[criteriaExpressions.length];
         for (int i = 0; i < criteriaExpressions.length; i++) {
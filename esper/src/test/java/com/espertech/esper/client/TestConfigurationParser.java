@@ -54,9 +54,17 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(2, config.getEngineDefaults().getThreading().getThreadPoolRouteExecNumThreads());
         assertEquals(2, config.getEngineDefaults().getThreading().getThreadPoolTimerExecNumThreads());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolInboundCapacity());
+        assertNull(config.getEngineDefaults().getThreading().getThreadPoolInboundKeyProperty());
+        assertEquals(ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.BLOCKING, config.getEngineDefaults().getThreading().getThreadPoolWaitStrategy());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolNamedWindowDispatch());
+        assertEquals(2, config.getEngineDefaults().getThreading().getThreadPoolNamedWindowDispatchNumThreads());
+        assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolNamedWindowDispatchCapacity());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolHistoricalPoll());
+        assertEquals(2, config.getEngineDefaults().getThreading().getThreadPoolHistoricalPollNumThreads());
+        assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolHistoricalPollCapacity());
         assertFalse(config.getEngineDefaults().getThreading().isEngineFairlock());
         assertFalse(config.getEngineDefaults().getMetricsReporting().isJmxEngineMetrics());
         assertTrue(config.getEngineDefaults().getThreading().isNamedWindowConsumerDispatchPreserveOrder());
@@ -65,6 +73,7 @@ public class TestConfigurationParser extends TestCase {
 
         assertEquals(Configuration.PropertyResolutionStyle.CASE_SENSITIVE, config.getEngineDefaults().getEventMeta().getClassPropertyResolutionStyle());
         assertEquals(ConfigurationEventTypeLegacy.AccessorStyle.JAVABEAN, config.getEngineDefaults().getEventMeta().getDefaultAccessorStyle());
+        assertEquals(ConfigurationEventTypeLegacy.CodeGeneration.ENABLED, config.getEngineDefaults().getEventMeta().getDefaultCodeGeneration());
         assertEquals(EventUnderlyingType.MAP, config.getEngineDefaults().getEventMeta().getDefaultEventRepresentation());
         assertEquals(5, config.getEngineDefaults().getEventMeta().getAnonymousCacheSize());
         assertTrue(config.getEngineDefaults().getEventMeta().getAvroSettings().isEnableAvro());
@@ -84,6 +93,8 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(15000, config.getEngineDefaults().getVariables().getMsecVersionRelease());
         assertEquals(null, config.getEngineDefaults().getPatterns().getMaxSubexpressions());
         assertEquals(true, config.getEngineDefaults().getPatterns().isMaxSubexpressionPreventStart());
+        assertFalse(config.getEngineDefaults().getPatterns().isShareFilters());
+        assertFalse(config.getEngineDefaults().getPatterns().isCorrelationIndex());
         assertEquals(null, config.getEngineDefaults().getMatchRecognize().getMaxStates());
         assertEquals(true, config.getEngineDefaults().getMatchRecognize().isMaxStatesPreventStart());
         assertEquals(ConfigurationEngineDefaults.TimeSourceType.MILLI, config.getEngineDefaults().getTimeSource().getTimeSourceType());
@@ -93,8 +104,10 @@ public class TestConfigurationParser extends TestCase {
         assertFalse(config.getEngineDefaults().getExecution().isAllowIsolatedService());
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.NORMAL, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY, config.getEngineDefaults().getExecution().getFilterServiceProfile());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.SORTED, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(16, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
         assertEquals(1, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
+        assertFalse(config.getEngineDefaults().getExecution().isFireAndForgetCostBasedPlanning());
 
         assertEquals(StreamSelector.ISTREAM_ONLY, config.getEngineDefaults().getStreamSelection().getDefaultStreamSelector());
         assertFalse(config.getEngineDefaults().getLanguage().isSortUsingCollator());
@@ -104,6 +117,7 @@ public class TestConfigurationParser extends TestCase {
         assertTrue(config.getEngineDefaults().getExpression().isUdfCache());
         assertTrue(config.getEngineDefaults().getExpression().isExtendedAggregation());
         assertFalse(config.getEngineDefaults().getExpression().isDuckTyping());
+        assertFalse(config.getEngineDefaults().getExpression().isCodeGeneration());
         assertNull(config.getEngineDefaults().getExpression().getMathContext());
         assertEquals(TimeZone.getDefault(), config.getEngineDefaults().getExpression().getTimeZone());
         assertNull(config.getEngineDefaults().getExceptionHandling().getHandlerFactories());
@@ -286,6 +300,9 @@ public class TestConfigurationParser extends TestCase {
         assertEquals("mypassword", dsFactory.getProperties().getProperty("password"));
         assertEquals("com.mysql.jdbc.Driver", dsFactory.getProperties().getProperty("driverClassName"));
         assertEquals("2", dsFactory.getProperties().getProperty("initialSize"));
+        ConfigurationConcurrentCache concurrentCache = (ConfigurationConcurrentCache) configDBRef.getDataCacheDesc();
+        assertEquals(1000, concurrentCache.getSize());
+        assertEquals(8, concurrentCache.getNumSegments());
 
         // assert custom view implementations
         List<ConfigurationPlugInView> configViews = config.getPlugInViews();
@@ -403,9 +420,17 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(3, config.getEngineDefaults().getThreading().getThreadPoolTimerExecNumThreads());
         assertEquals(4, config.getEngineDefaults().getThreading().getThreadPoolRouteExecNumThreads());
         assertEquals(1000, (int) config.getEngineDefaults().getThreading().getThreadPoolInboundCapacity());
+        assertEquals("symbol", config.getEngineDefaults().getThreading().getThreadPoolInboundKeyProperty());
+        assertEquals(ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.PARK, config.getEngineDefaults().getThreading().getThreadPoolWaitStrategy());
         assertEquals(1500, (int) config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
         assertEquals(2000, (int) config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolNamedWindowDispatch());
+        assertEquals(5, config.getEngineDefaults().getThreading().getThreadPoolNamedWindowDispatchNumThreads());
+        assertEquals(2500, (int) config.getEngineDefaults().getThreading().getThreadPoolNamedWindowDispatchCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolHistoricalPoll());
+        assertEquals(3, config.getEngineDefaults().getThreading().getThreadPoolHistoricalPollNumThreads());
+        assertEquals(1500, (int) config.getEngineDefaults().getThreading().getThreadPoolHistoricalPollCapacity());
 
         assertFalse(config.getEngineDefaults().getThreading().isInternalTimerEnabled());
         assertEquals(1234567, config.getEngineDefaults().getThreading().getInternalTimerMsecResolution());
@@ -414,6 +439,7 @@ public class TestConfigurationParser extends TestCase {
         assertTrue(config.getEngineDefaults().getViewResources().isIterableUnbound());
         assertEquals(Configuration.PropertyResolutionStyle.DISTINCT_CASE_INSENSITIVE, config.getEngineDefaults().getEventMeta().getClassPropertyResolutionStyle());
         assertEquals(ConfigurationEventTypeLegacy.AccessorStyle.PUBLIC, config.getEngineDefaults().getEventMeta().getDefaultAccessorStyle());
+        assertEquals(ConfigurationEventTypeLegacy.CodeGeneration.LAMBDA, config.getEngineDefaults().getEventMeta().getDefaultCodeGeneration());
         assertEquals(EventUnderlyingType.MAP, config.getEngineDefaults().getEventMeta().getDefaultEventRepresentation());
         assertEquals(100, config.getEngineDefaults().getEventMeta().getAnonymousCacheSize());
         assertFalse(config.getEngineDefaults().getEventMeta().getAvroSettings().isEnableAvro());
@@ -429,6 +455,8 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(30000, config.getEngineDefaults().getVariables().getMsecVersionRelease());
         assertEquals(3L, (long) config.getEngineDefaults().getPatterns().getMaxSubexpressions());
         assertEquals(false, config.getEngineDefaults().getPatterns().isMaxSubexpressionPreventStart());
+        assertTrue(config.getEngineDefaults().getPatterns().isShareFilters());
+        assertTrue(config.getEngineDefaults().getPatterns().isCorrelationIndex());
         assertEquals(3L, (long) config.getEngineDefaults().getMatchRecognize().getMaxStates());
         assertEquals(false, config.getEngineDefaults().getMatchRecognize().isMaxStatesPreventStart());
         assertEquals(StreamSelector.RSTREAM_ISTREAM_BOTH, config.getEngineDefaults().getStreamSelection().getDefaultStreamSelector());
@@ -441,8 +469,10 @@ public class TestConfigurationParser extends TestCase {
         assertTrue(config.getEngineDefaults().getExecution().isAllowIsolatedService());
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.LARGE, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE, config.getEngineDefaults().getExecution().getFilterServiceProfile());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(100, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
         assertEquals(101, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
+        assertTrue(config.getEngineDefaults().getExecution().isFireAndForgetCostBasedPlanning());
 
         ConfigurationMetricsReporting metrics = config.getEngineDefaults().getMetricsReporting();
         assertTrue(metrics.isEnableMetricsReporting());
@@ -475,6 +505,7 @@ public class TestConfigurationParser extends TestCase {
         assertFalse(config.getEngineDefaults().getExpression().isUdfCache());
         assertFalse(config.getEngineDefaults().getExpression().isExtendedAggregation());
         assertTrue(config.getEngineDefaults().getExpression().isDuckTyping());
+        assertTrue(config.getEngineDefaults().getExpression().isCodeGeneration());
         assertEquals(2, config.getEngineDefaults().getExpression().getMathContext().getPrecision());
         assertEquals(RoundingMode.CEILING, config.getEngineDefaults().getExpression().getMathContext().getRoundingMode());
         assertEquals(TimeZone.getTimeZone("GMT-4:00"), config.getEngineDefaults().getExpression().getTimeZone());
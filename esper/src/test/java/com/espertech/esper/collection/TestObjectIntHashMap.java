@@ -0,0 +1,82 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+public class TestObjectIntHashMap extends TestCase {
+
+    public void testPutGetRemove() {
+        ObjectIntHashMap map = new ObjectIntHashMap();
+        assertTrue(map.isEmpty());
+        assertEquals(-1, map.get("a", -1));
+
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put(null, 3);
+        assertEquals(3, map.size());
+        assertEquals(1, map.get("a", -1));
+        assertEquals(2, map.get("b", -1));
+        assertEquals(3, map.get(null, -1));
+        assertTrue(map.containsKey(null));
+
+        map.put("a", 10);
+        assertEquals(3, map.size());
+        assertEquals(10, map.get("a", -1));
+
+        assertEquals(3, map.remove(null, -1));
+        assertEquals(-1, map.remove(null, -1));
+        assertFalse(map.containsKey(null));
+        assertEquals(2, map.size());
+        assertEquals(new HashSet<Object>(map.keyList()), new HashSet<Object>(Arrays.asList("a", "b")));
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(-1, map.get("a", -1));
+    }
+
+    public void testRandomized() {
+        Random random = new Random(1);
+        ObjectIntHashMap map = new ObjectIntHashMap();
+        Map<Object, Integer> reference = new HashMap<Object, Integer>();
+        for (int i = 0; i < 100000; i++) {
+            // small key range with colliding hash codes to exercise probing and backward-shift removal
+            Object key = new MultiKeyUntyped(new Object[] {random.nextInt(500), random.nextInt(2)});
+            int op = random.nextInt(3);
+            if (op == 0) {
+                map.put(key, i);
+                reference.put(key, i);
+            } else if (op == 1) {
+                Integer expected = reference.remove(key);
+                assertEquals(expected == null ? -1 : expected, map.remove(key, -1));
+            } else {
+                Integer expected = reference.get(key);
+                assertEquals(expected == null ? -1 : expected, map.get(key, -1));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+
+        int count = 0;
+        for (int i = 0; i < map.slotCount(); i++) {
+            if (map.isSlotUsed(i)) {
+                assertEquals((int) reference.get(map.keyAt(i)), map.valueAt(i));
+                count++;
+            }
+        }
+        assertEquals(reference.size(), count);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+public class TestPrimitiveKeyHashMap extends TestCase {
+
+    public void testNewMap() {
+        assertTrue(PrimitiveKeyHashMap.newMap(long.class) instanceof PrimitiveKeyHashMapLong);
+        assertTrue(PrimitiveKeyHashMap.newMap(Long.class) instanceof PrimitiveKeyHashMapLong);
+        assertTrue(PrimitiveKeyHashMap.newMap(Integer.class) instanceof PrimitiveKeyHashMapInt);
+        assertTrue(PrimitiveKeyHashMap.newMap(String.class) instanceof PrimitiveKeyHashMapString);
+        assertTrue(PrimitiveKeyHashMap.newMap(Double.class) instanceof HashMap);
+        assertTrue(PrimitiveKeyHashMap.newMap(null) instanceof HashMap);
+    }
+
+    public void testOtherKeys() {
+        Map<Object, String> map = new PrimitiveKeyHashMapLong<String>();
+        map.put(1L, "a");
+        map.put(1, "b");
+        map.put(null, "c");
+        map.put(2L, null);
+        assertEquals(4, map.size());
+        assertEquals("a", map.get(1L));
+        assertEquals("b", map.get(1));
+        assertEquals("c", map.get(null));
+        assertNull(map.get(2L));
+        assertTrue(map.containsKey(2L));
+        assertFalse(map.containsKey(3L));
+
+        Map<Object, String> expected = new HashMap<Object, String>();
+        expected.put(1L, "a");
+        expected.put(1, "b");
+        expected.put(null, "c");
+        expected.put(2L, null);
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+
+        assertEquals("b", map.remove(1));
+        assertEquals("c", map.remove(null));
+        assertEquals(2, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1L));
+    }
+
+    public void testIteratorRemoveAndSetValue() {
+        Map<Object, Integer> map = new PrimitiveKeyHashMapString<Integer>();
+        for (int i = 0; i < 100; i++) {
+            map.put("k" + i, i);
+        }
+        map.put(5, 5);
+        for (Iterator<Map.Entry<Object, Integer>> it = map.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Object, Integer> entry = it.next();
+            if (entry.getValue() % 2 == 0) {
+                it.remove();
+            } else {
+                entry.setValue(-entry.getValue());
+            }
+        }
+        assertEquals(51, map.size());
+        assertEquals(-1, (int) map.get("k1"));
+        assertEquals(-5, (int) map.get(5));
+        assertFalse(map.containsKey("k2"));
+        assertEquals(51, map.keySet().size());
+    }
+
+    public void testIteratorRemoveAfterHasNext() {
+        Map<Object, String> map = new PrimitiveKeyHashMapLong<String>();
+        map.put(1L, "a");
+        map.put("x", "b");
+
+        // hasNext after the last native key moves on to the other keys, remove must still remove the native key
+        Iterator<Map.Entry<Object, String>> it = map.entrySet().iterator();
+        assertEquals(1L, it.next().getKey());
+        assertTrue(it.hasNext());
+        it.remove();
+        assertFalse(map.containsKey(1L));
+        assertEquals("x", it.next().getKey());
+        it.remove();
+        assertFalse(it.hasNext());
+        assertTrue(map.isEmpty());
+
+        try {
+            it.remove();
+            fail();
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+    }
+
+    public void testIteratorFailFast() {
+        Map<Object, String> map = new PrimitiveKeyHashMapInt<String>();
+        map.put(1, "a");
+        map.put(2, "b");
+        Iterator<Map.Entry<Object, String>> it = map.entrySet().iterator();
+        it.next();
+        map.put(3, "c");
+        try {
+            it.next();
+            fail();
+        } catch (ConcurrentModificationException ex) {
+            // expected
+        }
+
+        // replacing a value is not a structural modification
+        it = map.entrySet().iterator();
+        it.next();
+        map.put(1, "x");
+        it.next();
+
+        it = map.entrySet().iterator();
+        it.next();
+        map.put("other", "y");
+        try {
+            it.remove();
+            fail();
+        } catch (ConcurrentModificationException ex) {
+            // expected
+        }
+    }
+
+    public void testEntryAfterRehash() {
+        Map<Object, String> map = new PrimitiveKeyHashMapLong<String>();
+        map.put(1L, "a");
+        Map.Entry<Object, String> entry = map.entrySet().iterator().next();
+        for (long i = 2; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+        assertEquals(1L, entry.getKey());
+        assertEquals("a", entry.getValue());
+        map.remove(1L);
+        map.put(1L, "b");
+        assertEquals("a", entry.getValue());
+        assertEquals("a", entry.setValue("c"));
+        assertEquals("b", map.get(1L));
+    }
+
+    public void testRandomized() {
+        Random random = new Random(1);
+        runRandomized(new PrimitiveKeyHashMapLong<Integer>(), random, new KeySupplier() {
+            public Object next(Random random) {
+                return (long) random.nextInt(2000) - 1000;
+            }
+        });
+        runRandomized(new PrimitiveKeyHashMapInt<Integer>(), random, new KeySupplier() {
+            public Object next(Random random) {
+                return random.nextInt(2000) << 8;
+            }
+        });
+        runRandomized(new PrimitiveKeyHashMapString<Integer>(), random, new KeySupplier() {
+            public Object next(Random random) {
+                return new String("s" + random.nextInt(2000));
+            }
+        });
+    }
+
+    private void runRandomized(Map<Object, Integer> map, Random random, KeySupplier keys) {
+        Map<Object, Integer> expected = new HashMap<Object, Integer>();
+        for (int i = 0; i < 50000; i++) {
+            Object key = keys.next(random);
+            int op = random.nextInt(10);
+            if (op < 5) {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            } else if (op < 8) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.get(key), map.get(key));
+                assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    private interface KeySupplier {
+        Object next(Random random);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class TestSortedLongKeyMap extends TestCase {
+    public void testPutGetRemove() {
+        SortedLongKeyMap<String> map = new SortedLongKeyMap<String>();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+        assertNull(map.remove(1));
+
+        assertNull(map.put(5, "a"));
+        assertNull(map.put(-5, "b"));
+        assertEquals("a", map.put(5, "c"));
+        assertEquals(2, map.size());
+        assertEquals(-5, map.firstKey());
+        assertEquals(5, map.lastKey());
+        assertEquals("c", map.get(5));
+        assertNull(map.get(0));
+
+        assertEquals("b", map.remove(-5));
+        assertEquals(5, map.firstKey());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.getBlockCount());
+    }
+
+    public void testCompareTreeMap() {
+        Random random = new Random(1);
+        SortedLongKeyMap<Long> map = new SortedLongKeyMap<Long>();
+        TreeMap<Long, Long> expected = new TreeMap<Long, Long>();
+
+        for (int i = 0; i < 100000; i++) {
+            long key = random.nextInt(5000) - 2500;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.size(), map.size());
+            if (i % 1000 == 0) {
+                assertContents(expected, map);
+            }
+        }
+        assertContents(expected, map);
+    }
+
+    private void assertContents(TreeMap<Long, Long> expected, SortedLongKeyMap<Long> map) {
+        List<Long> keys = new ArrayList<Long>();
+        List<Object> values = new ArrayList<Object>();
+        for (int block = 0; block < map.getBlockCount(); block++) {
+            assertTrue(map.getBlockSize(block) > 0);
+            for (int i = 0; i < map.getBlockSize(block); i++) {
+                keys.add(map.getBlockKeys(block)[i]);
+                values.add(map.getBlockValues(block)[i]);
+            }
+        }
+        assertEquals(new ArrayList<Long>(expected.keySet()), keys);
+        assertEquals(new ArrayList<Object>(expected.values()), values);
+        if (!expected.isEmpty()) {
+            assertEquals((long) expected.firstKey(), map.firstKey());
+            assertEquals((long) expected.lastKey(), map.lastKey());
+            for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+                int block = map.findBlock(entry.getKey());
+                int index = map.findInBlock(block, entry.getKey());
+                assertEquals(entry.getValue(), map.getBlockValues(block)[index]);
+            }
+        }
+    }
+}
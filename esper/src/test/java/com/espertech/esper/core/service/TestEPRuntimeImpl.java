@@ -0,0 +1,94 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.core.service.multimatch.MultiMatchHandlerFactoryImpl;
+import com.espertech.esper.filter.*;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
+import com.espertech.esper.supportunit.filter.SupportFilterSpecBuilder;
+import junit.framework.TestCase;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class TestEPRuntimeImpl extends TestCase {
+
+    public void testDeferredChangeFailureReleasesLock() throws Exception {
+        final EventType eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        FilterValueSet filterHello = SupportFilterSpecBuilder.build(eventType, new Object[]{"theString", FilterOperator.EQUAL, "HELLO"}).getValueSet(null, null, null);
+        FilterValueSet filterFailing = new FilterValueSet() {
+            public EventType getEventType() {
+                return eventType;
+            }
+
+            public FilterValueSetParam[][] getParameters() {
+                throw new IllegalStateException("Failed to read filter parameters");
+            }
+
+            public void appendTo(StringWriter writer) {
+                writer.append("failing");
+            }
+        };
+
+        final FilterServiceLockFree filterService = new FilterServiceLockFree(false);
+        EPStatementHandle stmtHandle = new EPStatementHandle(1, "name", "text", StatementType.SELECT, "text", false, null, 1, false, false, new MultiMatchHandlerFactoryImpl().getDefaultHandler());
+        final StatementAgentInstanceLock lock = new StatementAgentInstanceRWLockImpl(false);
+        EPStatementAgentInstanceHandle agentHandle = new EPStatementAgentInstanceHandle(stmtHandle, lock, -1, new StatementAgentInstanceFilterVersion(), null);
+        EPStatementHandleCallback handleOne = new EPStatementHandleCallback(agentHandle, (FilterHandleCallback) null);
+        EPStatementHandleCallback handleTwo = new EPStatementHandleCallback(agentHandle, (FilterHandleCallback) null);
+
+        // the deferred change fails when published at the end of statement processing
+        lock.acquireWriteLock();
+        filterService.beginDeferredChanges(agentHandle);
+        filterService.add(filterFailing, handleOne);
+        try {
+            EPRuntimeImpl.endDeferredChangesAndRelease(filterService, lock);
+            fail();
+        } catch (IllegalStateException ex) {
+            assertEquals("Failed to read filter parameters", ex.getMessage());
+        }
+
+        // the statement lock and the filter service lock are free for other threads
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Boolean> future = executor.submit(new Callable<Boolean>() {
+            public Boolean call() throws Exception {
+                boolean acquired = lock.acquireWriteLock(1000);
+                if (acquired) {
+                    filterService.acquireWriteLock();
+                    filterService.releaseWriteLock();
+                    lock.releaseWriteLock();
+                }
+                return acquired;
+            }
+        });
+        executor.shutdown();
+        assertTrue(future.get(10, TimeUnit.SECONDS));
+
+        // the next statement processing defers and publishes as before
+        lock.acquireWriteLock();
+        filterService.beginDeferredChanges(agentHandle);
+        filterService.add(filterHello, handleTwo);
+        EPRuntimeImpl.endDeferredChangesAndRelease(filterService, lock);
+
+        EventBean eventHello = SupportEventBeanFactory.createObject(new SupportBean("HELLO", 5));
+        List<FilterHandle> matches = new ArrayList<FilterHandle>();
+        filterService.evaluate(eventHello, matches);
+        EPAssertionUtil.assertEqualsAnyOrder(new Object[]{handleTwo}, matches.toArray());
+    }
+}
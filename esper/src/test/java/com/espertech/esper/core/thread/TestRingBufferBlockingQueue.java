@@ -0,0 +1,202 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class TestRingBufferBlockingQueue extends TestCase {
+
+    public void testOfferPoll() throws Exception {
+        RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<Integer>(3, ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.YIELD);
+        assertEquals(4, queue.getCapacity());
+        assertEquals(0, queue.size());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(queue.offer(i));
+            }
+            assertFalse(queue.offer(99));
+            assertFalse(queue.offer(99, 1, TimeUnit.MILLISECONDS));
+            assertEquals(4, queue.size());
+            assertEquals(0, queue.remainingCapacity());
+            assertEquals(0, (int) queue.peek());
+
+            List<Integer> values = new ArrayList<Integer>();
+            for (Integer value : queue) {
+                values.add(value);
+            }
+            assertEquals("[0, 1, 2, 3]", values.toString());
+
+            assertEquals(0, (int) queue.poll());
+            assertEquals(1, (int) queue.take());
+            assertEquals(2, (int) queue.poll(1, TimeUnit.MILLISECONDS));
+            assertEquals(1, queue.size());
+            queue.clear();
+            assertEquals(0, queue.size());
+            assertNull(queue.poll(1, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    public void testSlotUnits() throws Exception {
+        final List<String> processed = new ArrayList<String>();
+        RingBufferBlockingQueue<Runnable> queue = new RingBufferBlockingQueue<Runnable>(2, ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.YIELD, new Supplier<RingBufferSlotUnit>() {
+            public RingBufferSlotUnit get() {
+                return new SupportSlotUnit(processed);
+            }
+        });
+
+        SupportSlotUnit first = (SupportSlotUnit) queue.claim();
+        first.value = "A";
+        queue.publish(first);
+        SupportSlotUnit second = (SupportSlotUnit) queue.claim();
+        second.value = "B";
+        queue.publish(second);
+        assertNotSame(first, second);
+        assertEquals(2, queue.size());
+
+        // the slot of a taken unit is not free until the unit has run
+        assertSame(first, queue.poll());
+        assertFalse(queue.offer(new SupportSlotUnit(processed)));
+        first.run();
+        assertEquals("[A]", processed.toString());
+        assertNull(first.value);
+
+        // the unit is reused for the next element of its slot
+        SupportSlotUnit third = (SupportSlotUnit) queue.claim();
+        assertSame(first, third);
+        third.value = "C";
+        queue.publish(third);
+        assertSame(second, queue.take());
+        second.run();
+        assertSame(third, queue.take());
+        third.run();
+        assertEquals("[A, B, C]", processed.toString());
+
+        // clearing releases the slots of units that did not run
+        for (int i = 0; i < 2; i++) {
+            SupportSlotUnit unit = (SupportSlotUnit) queue.claim();
+            unit.value = "X";
+            queue.publish(unit);
+        }
+        queue.clear();
+        assertEquals(0, queue.size());
+        SupportSlotUnit unit = (SupportSlotUnit) queue.claim();
+        assertNull(unit.value);
+        assertEquals("[A, B, C]", processed.toString());
+    }
+
+    public void testTakeInterrupted() throws Exception {
+        final RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<Integer>(2, ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.PARK);
+        final CountDownLatch latch = new CountDownLatch(1);
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    queue.take();
+                } catch (InterruptedException e) {
+                    latch.countDown();
+                }
+            }
+        });
+        thread.start();
+        Thread.sleep(50);
+        thread.interrupt();
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    public void testMultiProducerConsumer() throws Exception {
+        for (ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy strategy : new ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy[]{
+            ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.BUSY_SPIN,
+            ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.YIELD,
+            ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy.PARK}) {
+            runMultiProducerConsumer(strategy);
+        }
+    }
+
+    private void runMultiProducerConsumer(ConfigurationEngineDefaults.Threading.ThreadPoolWaitStrategy strategy) throws Exception {
+        final RingBufferBlockingQueue<Long> queue = new RingBufferBlockingQueue<Long>(64, strategy);
+        final int numProducers = 2;
+        final int numConsumers = 2;
+        final int numPerProducer = 5000;
+        final AtomicLong sum = new AtomicLong();
+        final AtomicLong count = new AtomicLong();
+
+        Thread[] threads = new Thread[numProducers + numConsumers];
+        for (int i = 0; i < numProducers; i++) {
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (long j = 1; j <= numPerProducer; j++) {
+                            queue.put(j);
+                        }
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+        }
+        for (int i = 0; i < numConsumers; i++) {
+            threads[numProducers + i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        while (true) {
+                            Long value = queue.poll(100, TimeUnit.MILLISECONDS);
+                            if (value == null) {
+                                return;
+                            }
+                            sum.addAndGet(value);
+                            count.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(20000);
+        }
+
+        long expectedSum = numProducers * ((long) numPerProducer * (numPerProducer + 1) / 2);
+        assertEquals(strategy.name(), numProducers * numPerProducer, count.get());
+        assertEquals(strategy.name(), expectedSum, sum.get());
+        assertEquals(0, queue.size());
+    }
+
+    private static class SupportSlotUnit extends RingBufferSlotUnit {
+        private final List<String> processed;
+        private String value;
+
+        private SupportSlotUnit(List<String> processed) {
+            this.processed = processed;
+        }
+
+        protected void process() {
+            processed.add(value);
+        }
+
+        protected void clear() {
+            value = null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.support.SupportStatementContextFactory;
+import com.espertech.esper.epl.agg.service.AggSvcGroupByColumnarFactory;
+import com.espertech.esper.epl.agg.service.AggSvcGroupByColumnarImpl;
+import com.espertech.esper.epl.agg.service.AggSvcGroupByColumnarKind;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.supportunit.epl.SupportAggregatorFactory;
+import com.espertech.esper.supportunit.epl.SupportExprNode;
+import junit.framework.TestCase;
+
+public class TestAggregationServiceGroupByColumnar extends TestCase {
+
+    public void testGetValue() {
+        AggSvcGroupByColumnarImpl service = makeService(false);
+        ExprEvaluatorContext exprEvaluatorContext = SupportStatementContextFactory.makeEvaluatorContext();
+
+        service.setCurrentAccess("G1", -1, null);
+        assertEmpty(service);
+
+        service.applyEnter(new EventBean[1], "G1", exprEvaluatorContext);
+        service.applyEnter(new EventBean[1], "G1", exprEvaluatorContext);
+        service.applyEnter(new EventBean[1], "G2", exprEvaluatorContext);
+
+        service.setCurrentAccess("G1", -1, null);
+        assertValues(service, 10, 2L, 5d, 5);
+        service.setCurrentAccess("G2", -1, null);
+        assertValues(service, 5, 1L, 5d, 5);
+
+        service.applyLeave(new EventBean[1], "G1", exprEvaluatorContext);
+        service.setCurrentAccess("G1", -1, null);
+        assertValues(service, 5, 1L, 5d, 5);
+
+        service.applyLeave(new EventBean[1], "G1", exprEvaluatorContext);
+        service.setCurrentAccess("G1", -1, null);
+        assertEquals(null, service.getValue(0, -1, null, true, null));
+        assertEquals(0L, service.getValue(1, -1, null, true, null));
+        assertEquals(null, service.getValue(2, -1, null, true, null));
+        assertEquals(5, service.getValue(3, -1, null, true, null));
+        assertEquals(2, service.getNumGroups());
+    }
+
+    public void testRefcounted() {
+        AggSvcGroupByColumnarImpl service = makeService(true);
+        ExprEvaluatorContext exprEvaluatorContext = SupportStatementContextFactory.makeEvaluatorContext();
+
+        for (int i = 0; i < 100; i++) {
+            service.applyEnter(new EventBean[1], "G" + i, exprEvaluatorContext);
+        }
+        assertEquals(100, service.getNumGroups());
+        for (int i = 0; i < 100; i++) {
+            service.applyLeave(new EventBean[1], "G" + i, exprEvaluatorContext);
+        }
+        assertEquals(0, service.getGroupKeys(exprEvaluatorContext).size());
+
+        // reused slots start out empty
+        service.applyEnter(new EventBean[1], "X", exprEvaluatorContext);
+        service.setCurrentAccess("X", -1, null);
+        assertValues(service, 5, 1L, 5d, 5);
+        service.setCurrentAccess("G0", -1, null);
+        assertEmpty(service);
+        assertEquals(1, service.getNumGroups());
+    }
+
+    public void testColumnarKinds() {
+        assertNull(AggSvcGroupByColumnarFactory.getColumnarKinds(new AggregationMethodFactory[] {new SupportAggregatorFactory()}));
+        assertNull(AggSvcGroupByColumnarFactory.getColumnarKinds(new AggregationMethodFactory[0]));
+    }
+
+    private AggSvcGroupByColumnarImpl makeService(boolean refcounted) {
+        AggregationMethodFactory[] aggregators = new AggregationMethodFactory[4];
+        for (int i = 0; i < aggregators.length; i++) {
+            aggregators[i] = new SupportAggregatorFactory();
+        }
+        ExprEvaluator constant = new SupportExprNode(5).getExprEvaluator();
+        ExprEvaluator[] evaluators = new ExprEvaluator[]{constant, constant, constant, constant};
+        AggSvcGroupByColumnarKind[] kinds = new AggSvcGroupByColumnarKind[]{AggSvcGroupByColumnarKind.SUM_INTEGER,
+            AggSvcGroupByColumnarKind.COUNT, AggSvcGroupByColumnarKind.AVG, AggSvcGroupByColumnarKind.MAX_EVER_INTEGRAL};
+        Class[] resultTypes = new Class[]{Integer.class, Long.class, Double.class, Integer.class};
+        return new AggSvcGroupByColumnarImpl(evaluators, aggregators, kinds, resultTypes, refcounted);
+    }
+
+    private void assertValues(AggSvcGroupByColumnarImpl service, Object sum, Object count, Object avg, Object max) {
+        assertEquals(sum, service.getValue(0, -1, null, true, null));
+        assertEquals(count, service.getValue(1, -1, null, true, null));
+        assertEquals(avg, service.getValue(2, -1, null, true, null));
+        assertEquals(max, service.getValue(3, -1, null, true, null));
+    }
+
+    private void assertEmpty(AggSvcGroupByColumnarImpl service) {
+        assertValues(service, null, 0L, null, null);
+    }
+}
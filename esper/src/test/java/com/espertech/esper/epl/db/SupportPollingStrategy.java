@@ -32,6 +32,10 @@ public class SupportPollingStrategy implements PollExecStrategy {
         return results.get(new MultiKey<Object>(lookupValues));
     }
 
+    public List<EventBean> pollStandalone(Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+        return poll(lookupValues, exprEvaluatorContext);
+    }
+
     public void done() {
 
     }
@@ -0,0 +1,170 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.epl.join.table.UnindexedEventTableImpl;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestDataCacheConcurrentImpl extends TestCase {
+    private DataCacheMetrics metrics;
+    private EventTable[] lists = new EventTable[10];
+
+    public void setUp() {
+        metrics = new DataCacheMetrics();
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new UnindexedEventTableImpl(0);
+        }
+    }
+
+    public void testGet() {
+        DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(3, 1, metrics);
+        assertNull(cache.getCached(make("a")));
+        assertTrue(cache.isActive());
+
+        cache.put(make("a"), new EventTable[]{lists[0]});     // window a
+        cache.put(make("b"), new EventTable[]{lists[1]});     // window b, main a
+        cache.put(make("c"), new EventTable[]{lists[2]});     // window c, main a b
+        assertSame(lists[0], cache.getCached(make("a"))[0]);
+        assertSame(lists[0], cache.getCached(make("a"))[0]);
+        assertSame(lists[1], cache.getCached(make("b"))[0]);
+        assertSame(lists[2], cache.getCached(make("c"))[0]);
+        assertEquals(0, metrics.getEvictionCount());
+
+        // c leaves the window and is not accessed more often than the least-recently-used a
+        cache.put(make("d"), new EventTable[]{lists[3]});     // window d, main a b (c rejected)
+        assertNull(cache.getCached(make("c")));
+        assertEquals(1, metrics.getEvictionCount());
+
+        // c accessed more often than a replaces a
+        assertNull(cache.getCached(make("c")));
+        assertNull(cache.getCached(make("c")));
+        cache.put(make("c"), new EventTable[]{lists[2]});     // window c, main a b (d rejected)
+        cache.put(make("e"), new EventTable[]{lists[4]});     // window e, main b c (a evicted)
+        assertEquals(3, metrics.getEvictionCount());
+        assertEquals(3, cache.size());
+
+        assertSame(lists[1], cache.getCached(make("b"))[0]);
+        assertSame(lists[2], cache.getCached(make("c"))[0]);
+        assertSame(lists[4], cache.getCached(make("e"))[0]);
+        assertNull(cache.getCached(make("a")));
+        assertNull(cache.getCached(make("d")));
+
+        assertEquals(7, metrics.getHitCount());
+        assertEquals(6, metrics.getMissCount());
+
+        cache.destroy();
+        assertEquals(0, cache.size());
+    }
+
+    public void testSegments() {
+        DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(100, 8, metrics);
+        assertEquals(8, cache.getNumSegments());
+        for (int i = 0; i < 1000; i++) {
+            cache.put(new Object[]{i}, new EventTable[]{lists[0]});
+        }
+        assertEquals(100, cache.size());
+        assertEquals(900, metrics.getEvictionCount());
+
+        cache = new DataCacheConcurrentImpl(2, 8, metrics);
+        assertEquals(2, cache.getNumSegments());
+        assertEquals(2, cache.getCacheSize());
+    }
+
+    public void testFrequentKeysRetained() {
+        DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(100, 1, metrics);
+        for (int i = 0; i < 50; i++) {
+            cache.put(new Object[]{"hot" + i}, new EventTable[]{lists[0]});
+        }
+        for (int count = 0; count < 10; count++) {
+            for (int i = 0; i < 50; i++) {
+                assertNotNull(cache.getCached(new Object[]{"hot" + i}));
+            }
+        }
+
+        // a scan of keys that are accessed once does not evict frequently-accessed keys
+        for (int i = 0; i < 1000; i++) {
+            Object[] key = new Object[]{"cold" + i};
+            assertNull(cache.getCached(key));
+            cache.put(key, new EventTable[]{lists[1]});
+        }
+        for (int i = 0; i < 50; i++) {
+            assertNotNull(cache.getCached(new Object[]{"hot" + i}));
+        }
+        assertEquals(100, cache.size());
+    }
+
+    public void testMultiKey() {
+        DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(10, 2, metrics);
+        cache.put(new Object[]{"a", 1}, new EventTable[]{lists[0]});
+        cache.put(new Object[]{}, new EventTable[]{lists[1]});
+        assertSame(lists[0], cache.getCached(new Object[]{"a", 1})[0]);
+        assertSame(lists[1], cache.getCached(new Object[]{})[0]);
+        assertNull(cache.getCached(new Object[]{"a", 2}));
+    }
+
+    public void testNullKey() {
+        DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(4, 2, metrics);
+        assertNull(cache.getCached(new Object[]{null}));
+        cache.put(new Object[]{null}, new EventTable[]{lists[0]});
+        assertSame(lists[0], cache.getCached(new Object[]{null})[0]);
+        cache.put(new Object[]{null}, new EventTable[]{lists[1]});
+        assertSame(lists[1], cache.getCached(new Object[]{null})[0]);
+
+        // the null key takes part in admission like any other key, and is accessed more often than the keys put after it
+        for (int i = 0; i < 10; i++) {
+            cache.put(new Object[]{i}, new EventTable[]{lists[2]});
+        }
+        assertSame(lists[1], cache.getCached(new Object[]{null})[0]);
+        assertEquals(4, cache.size());
+        assertEquals(3, metrics.getHitCount());
+        assertEquals(1, metrics.getMissCount());
+    }
+
+    public void testConcurrentAccess() throws Exception {
+        final DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(500, 4, metrics);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final int offset = t * 1000;
+            Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < 5000; i++) {
+                            Object[] key = new Object[]{offset + (i % 1000)};
+                            if (cache.getCached(key) == null) {
+                                cache.put(key, new EventTable[]{lists[0]});
+                            }
+                        }
+                    } catch (Throwable ex) {
+                        failure.set(ex);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+        assertEquals(500, cache.size());
+        assertEquals(20000, metrics.getHitCount() + metrics.getMissCount());
+    }
+
+    private Object[] make(String key) {
+        return new Object[]{key};
+    }
+}
@@ -28,7 +28,7 @@ public class TestPollingViewableFactory extends TestCase {
 
         EventCollection eventCollection = DatabasePollingViewableFactory.createDBStatementView(1, 1, spec,
                 SupportDatabaseService.makeService(),
-                SupportEventAdapterService.getService(), null, null, null, true, new DataCacheFactory(), SupportStatementContextFactory.makeContext());
+                SupportEventAdapterService.getService(), null, null, null, true, new DataCacheFactory(), SupportStatementContextFactory.makeContext(), null);
 
         assertEquals(Long.class, eventCollection.getEventType().getPropertyType("mybigint"));
         assertEquals(String.class, eventCollection.getEventType().getPropertyType("myvarchar"));
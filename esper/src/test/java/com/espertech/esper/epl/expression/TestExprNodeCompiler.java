@@ -0,0 +1,318 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.core.StreamTypeService;
+import com.espertech.esper.epl.core.StreamTypeServiceImpl;
+import com.espertech.esper.epl.expression.codegen.ExprNodeCompiler;
+import com.espertech.esper.epl.expression.core.ExprConstantNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeOrigin;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.funcs.ExprCastNode;
+import com.espertech.esper.epl.expression.ops.ExprAndNodeImpl;
+import com.espertech.esper.epl.expression.ops.ExprMathNode;
+import com.espertech.esper.epl.expression.ops.ExprNotNode;
+import com.espertech.esper.epl.expression.ops.ExprOrNode;
+import com.espertech.esper.epl.expression.ops.ExprRelationalOpNodeImpl;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.epl.SupportExprNode;
+import com.espertech.esper.supportunit.epl.SupportExprNodeFactory;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
+import com.espertech.esper.type.MathArithTypeEnum;
+import com.espertech.esper.type.RelationalOpEnum;
+import com.espertech.esper.util.support.SupportExprEvaluatorContext;
+import com.espertech.esper.util.support.SupportExprValidationContextFactory;
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class TestExprNodeCompiler extends TestCase {
+    private static final Logger log = LoggerFactory.getLogger(TestExprNodeCompiler.class);
+
+    private static final Class[] TYPES = new Class[]{Integer.class, Long.class, Float.class, Double.class, Short.class, int.class};
+    private static final Object[][] VALUES = new Object[][]{
+            {null, 0, 1, -7, 10, Integer.MAX_VALUE},
+            {null, 0L, 3L, -5L, Long.MIN_VALUE},
+            {null, 0f, -0f, 2.5f, -1.25f, Float.NaN},
+            {null, 0d, -0d, 4.75d, -3d, Double.NaN, Double.POSITIVE_INFINITY},
+            {null, (short) 0, (short) 3, (short) -2},
+            {0, 2, -9}
+    };
+
+    public void testMath() throws Exception {
+        for (MathArithTypeEnum op : MathArithTypeEnum.values()) {
+            for (boolean integerDivision : new boolean[]{false, true}) {
+                for (boolean divByZeroNull : new boolean[]{false, true}) {
+                    for (int left = 0; left < TYPES.length; left++) {
+                        for (int right = 0; right < TYPES.length; right++) {
+                            SupportExprNode nodeLeft = new SupportExprNode(TYPES[left]);
+                            SupportExprNode nodeRight = new SupportExprNode(TYPES[right]);
+                            ExprMathNode math = new ExprMathNode(op, integerDivision, divByZeroNull);
+                            math.addChildNode(nodeLeft);
+                            math.addChildNode(nodeRight);
+                            validate(math);
+                            ExprEvaluator compiled = ExprNodeCompiler.compile(math);
+                            assertNotNull(compiled);
+                            assertEquals(math.getType(), compiled.getType());
+                            for (Object valueLeft : VALUES[left]) {
+                                for (Object valueRight : VALUES[right]) {
+                                    if (op == MathArithTypeEnum.MODULO && isIntegral(math.getType()) && valueRight != null && ((Number) valueRight).longValue() == 0) {
+                                        continue;
+                                    }
+                                    nodeLeft.setValue(valueLeft);
+                                    nodeRight.setValue(valueRight);
+                                    assertSame(math, compiled, null);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public void testRelational() throws Exception {
+        for (RelationalOpEnum op : RelationalOpEnum.values()) {
+            for (int left = 0; left < TYPES.length; left++) {
+                for (int right = 0; right < TYPES.length; right++) {
+                    if (TYPES[left] == Short.class && TYPES[right] == Short.class) {
+                        continue;
+                    }
+                    SupportExprNode nodeLeft = new SupportExprNode(TYPES[left]);
+                    SupportExprNode nodeRight = new SupportExprNode(TYPES[right]);
+                    ExprRelationalOpNodeImpl relational = new ExprRelationalOpNodeImpl(op);
+                    relational.addChildNode(nodeLeft);
+                    relational.addChildNode(nodeRight);
+                    validate(relational);
+                    ExprEvaluator compiled = ExprNodeCompiler.compile(relational);
+                    assertNotNull(compiled);
+                    for (Object valueLeft : VALUES[left]) {
+                        for (Object valueRight : VALUES[right]) {
+                            nodeLeft.setValue(valueLeft);
+                            nodeRight.setValue(valueRight);
+                            assertSame(relational, compiled, null);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public void testAndOrNot() throws Exception {
+        Boolean[] values = new Boolean[]{null, true, false};
+        for (int form = 0; form < 3; form++) {
+            SupportExprNode[] children = new SupportExprNode[]{new SupportExprNode(Boolean.class), new SupportExprNode(Boolean.class), new SupportExprNode(Boolean.class)};
+            ExprNode node;
+            if (form == 0) {
+                node = new ExprAndNodeImpl();
+            } else if (form == 1) {
+                node = new ExprOrNode();
+            } else {
+                node = new ExprNotNode();
+            }
+            int numChildren = form == 2 ? 1 : 3;
+            for (int i = 0; i < numChildren; i++) {
+                node.addChildNode(children[i]);
+            }
+            validate(node);
+            ExprEvaluator compiled = ExprNodeCompiler.compile(node);
+            assertNotNull(compiled);
+            assertEquals(Boolean.class, compiled.getType());
+            for (Boolean a : values) {
+                for (Boolean b : values) {
+                    for (Boolean c : values) {
+                        children[0].setValue(a);
+                        children[1].setValue(b);
+                        children[2].setValue(c);
+                        assertSame(node, compiled, null);
+                    }
+                }
+            }
+        }
+    }
+
+    public void testCast() throws Exception {
+        String[] targets = new String[]{"int", "long", "float", "double"};
+        for (String target : targets) {
+            for (int i = 0; i < TYPES.length; i++) {
+                SupportExprNode child = new SupportExprNode(TYPES[i]);
+                ExprCastNode cast = new ExprCastNode(target);
+                cast.addChildNode(child);
+                validate(cast);
+                ExprEvaluator compiled = ExprNodeCompiler.compile(cast);
+                assertNotNull(compiled);
+                for (Object value : VALUES[i]) {
+                    child.setValue(value);
+                    assertSame(cast, compiled, null);
+                }
+            }
+        }
+
+        // string-typed casts are not compiled
+        ExprCastNode cast = new ExprCastNode("int");
+        cast.addChildNode(new SupportExprNode("10"));
+        validate(cast);
+        assertNull(ExprNodeCompiler.compile(cast));
+    }
+
+    public void testNestedWithPropertiesAndConstants() throws Exception {
+        // (intPrimitive * 2 + longBoxed) / doubleBoxed >= 1.5 and not (intBoxed < 0)
+        ExprMathNode multiply = new ExprMathNode(MathArithTypeEnum.MULTIPLY, false, false);
+        multiply.addChildNode(SupportExprNodeFactory.makeIdentNodeNoValid("intPrimitive"));
+        multiply.addChildNode(new ExprConstantNodeImpl(2));
+        ExprMathNode add = new ExprMathNode(MathArithTypeEnum.ADD, false, false);
+        add.addChildNode(multiply);
+        add.addChildNode(SupportExprNodeFactory.makeIdentNodeNoValid("longBoxed"));
+        ExprMathNode divide = new ExprMathNode(MathArithTypeEnum.DIVIDE, false, true);
+        divide.addChildNode(add);
+        divide.addChildNode(SupportExprNodeFactory.makeIdentNodeNoValid("doubleBoxed"));
+        ExprRelationalOpNodeImpl greater = new ExprRelationalOpNodeImpl(RelationalOpEnum.GE);
+        greater.addChildNode(divide);
+        greater.addChildNode(new ExprConstantNodeImpl(1.5d));
+        ExprRelationalOpNodeImpl less = new ExprRelationalOpNodeImpl(RelationalOpEnum.LT);
+        less.addChildNode(SupportExprNodeFactory.makeIdentNodeNoValid("intBoxed"));
+        less.addChildNode(new ExprConstantNodeImpl(0));
+        ExprNotNode not = new ExprNotNode();
+        not.addChildNode(less);
+        ExprAndNodeImpl and = new ExprAndNodeImpl();
+        and.addChildNode(greater);
+        and.addChildNode(not);
+        validateBean(and);
+
+        ExprEvaluator compiled = ExprNodeCompiler.compile(and);
+        assertNotNull(compiled);
+
+        Integer[] intBoxedValues = new Integer[]{null, -1, 1};
+        Long[] longBoxedValues = new Long[]{null, -10L, 0L, 10L};
+        Double[] doubleBoxedValues = new Double[]{null, 0d, 2d, -4d};
+        for (int intPrimitive = -2; intPrimitive <= 2; intPrimitive++) {
+            for (Integer intBoxed : intBoxedValues) {
+                for (Long longBoxed : longBoxedValues) {
+                    for (Double doubleBoxed : doubleBoxedValues) {
+                        SupportBean bean = new SupportBean("E", intPrimitive);
+                        bean.setIntBoxed(intBoxed);
+                        bean.setLongBoxed(longBoxed);
+                        bean.setDoubleBoxed(doubleBoxed);
+                        assertSame(and, compiled, new EventBean[]{SupportEventBeanFactory.createObject(bean)});
+                    }
+                }
+            }
+        }
+
+        // a missing event evaluates properties to null
+        assertNull(compiled.evaluate(new EventBean[1], true, null));
+    }
+
+    public void testNotCompiled() throws Exception {
+        assertNull(ExprNodeCompiler.compile(new SupportExprNode(1)));
+        assertNull(ExprNodeCompiler.compile(SupportExprNodeFactory.makeIdentNodeBean("intPrimitive")));
+    }
+
+    public void testPerformance() throws Exception {
+        // intPrimitive * 3 + longPrimitive > doublePrimitive - 1 or intBoxed < 0
+        ExprMathNode multiply = new ExprMathNode(MathArithTypeEnum.MULTIPLY, false, false);
+        multiply.addChildNode(SupportExprNodeFactory.makeIdentNodeNoValid("intPrimitive"));
+        multiply.addChildNode(new ExprConstantNodeImpl(3));
+        ExprMathNode add = new ExprMathNode(MathArithTypeEnum.ADD, false, false);
+        add.addChildNode(multiply);
+        add.addChildNode(SupportExprNodeFactory.makeIdentNodeNoValid("longPrimitive"));
+        ExprMathNode subtract = new ExprMathNode(MathArithTypeEnum.SUBTRACT, false, false);
+        subtract.addChildNode(SupportExprNodeFactory.makeIdentNodeNoValid("doublePrimitive"));
+        subtract.addChildNode(new ExprConstantNodeImpl(1));
+        ExprRelationalOpNodeImpl greater = new ExprRelationalOpNodeImpl(RelationalOpEnum.GT);
+        greater.addChildNode(add);
+        greater.addChildNode(subtract);
+        ExprRelationalOpNodeImpl less = new ExprRelationalOpNodeImpl(RelationalOpEnum.LT);
+        less.addChildNode(SupportExprNodeFactory.makeIdentNodeNoValid("intBoxed"));
+        less.addChildNode(new ExprConstantNodeImpl(0));
+        ExprOrNode or = new ExprOrNode();
+        or.addChildNode(greater);
+        or.addChildNode(less);
+        validateBean(or);
+
+        ExprEvaluator interpreted = or.getExprEvaluator();
+        ExprEvaluator compiled = ExprNodeCompiler.compile(or);
+
+        EventBean[][] events = new EventBean[1000][];
+        for (int i = 0; i < events.length; i++) {
+            SupportBean bean = new SupportBean("E", i);
+            bean.setLongPrimitive(i * 2);
+            // every third event fails the comparison, odd events have a negative or positive intBoxed, even events none
+            bean.setDoublePrimitive(i % 3 == 0 ? i * 6 + 10 : i * 5);
+            bean.setIntBoxed(i % 2 == 0 ? null : (i % 4 == 1 ? -i : i));
+            events[i] = new EventBean[]{SupportEventBeanFactory.createObject(bean)};
+        }
+
+        // compiled and interpreted evaluation give the same result for every event, including null results
+        Set<Object> results = new HashSet<Object>();
+        for (EventBean[] eventsPerStream : events) {
+            Object expected = interpreted.evaluate(eventsPerStream, true, null);
+            assertEquals(expected, compiled.evaluate(eventsPerStream, true, null));
+            results.add(expected);
+        }
+        assertEquals(new HashSet<Object>(Arrays.asList(true, false, null)), results);
+
+        long deltaInterpreted = 0;
+        long deltaCompiled = 0;
+        for (int repeat = 0; repeat < 2; repeat++) {
+            long start = System.currentTimeMillis();
+            evaluateLoop(interpreted, events);
+            long middle = System.currentTimeMillis();
+            evaluateLoop(compiled, events);
+            long end = System.currentTimeMillis();
+            deltaInterpreted = middle - start;
+            deltaCompiled = end - middle;
+        }
+        log.info("Delta interpreted " + deltaInterpreted + " compiled " + deltaCompiled);
+    }
+
+    private static int evaluateLoop(ExprEvaluator evaluator, EventBean[][] events) {
+        int count = 0;
+        for (int loop = 0; loop < 2000; loop++) {
+            for (EventBean[] eventsPerStream : events) {
+                if (Boolean.TRUE.equals(evaluator.evaluate(eventsPerStream, true, null))) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static void assertSame(ExprNode node, ExprEvaluator compiled, EventBean[] eventsPerStream) {
+        Object expected = node.getExprEvaluator().evaluate(eventsPerStream, true, null);
+        Object received = compiled.evaluate(eventsPerStream, true, null);
+        assertEquals("Mismatch for " + ExprNodeUtility.toExpressionStringMinPrecedenceSafe(node), expected, received);
+    }
+
+    private static void validate(ExprNode node) throws Exception {
+        ExprNodeUtility.getValidatedSubtree(ExprNodeOrigin.SELECT, node, SupportExprValidationContextFactory.makeEmpty());
+    }
+
+    private static void validateBean(ExprNode node) throws Exception {
+        StreamTypeService streamTypeService = new StreamTypeServiceImpl(SupportEventTypeFactory.createBeanType(SupportBean.class), "s0", false, "uri");
+        ExprValidationContext empty = SupportExprValidationContextFactory.makeEmpty();
+        ExprValidationContext validationContext = new ExprValidationContext(streamTypeService, empty.getEngineImportService(), null, null, null, null, null, new SupportExprEvaluatorContext(null), null, null, 1, null, null, false, false, false, false, null, false);
+        ExprNodeUtility.getValidatedSubtree(ExprNodeOrigin.SELECT, node, validationContext);
+    }
+
+    private static boolean isIntegral(Class type) {
+        return type == Integer.class || type == Long.class;
+    }
+}
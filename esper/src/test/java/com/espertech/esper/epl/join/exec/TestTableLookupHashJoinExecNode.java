@@ -0,0 +1,85 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.join.exec;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.MultiKey;
+import com.espertech.esper.epl.join.exec.base.IndexedTableLookupStrategy;
+import com.espertech.esper.epl.join.exec.base.IndexedTableLookupStrategySingle;
+import com.espertech.esper.epl.join.exec.base.TableLookupHashJoinExecNode;
+import com.espertech.esper.epl.join.table.PropertyIndexedEventTable;
+import com.espertech.esper.epl.join.table.PropertyIndexedEventTableFactory;
+import com.espertech.esper.epl.join.table.PropertyIndexedEventTableSingle;
+import com.espertech.esper.epl.join.table.PropertyIndexedEventTableSingleFactory;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.bean.SupportMarketDataBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+public class TestTableLookupHashJoinExecNode extends TestCase {
+    private EventType eventTypeIndex;
+    private EventType eventTypeKeyGen;
+
+    public void setUp() {
+        eventTypeIndex = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        eventTypeKeyGen = SupportEventTypeFactory.createBeanType(SupportMarketDataBean.class);
+    }
+
+    public void testBatchMulti() {
+        PropertyIndexedEventTable index = (PropertyIndexedEventTable) new PropertyIndexedEventTableFactory(0, eventTypeIndex, new String[]{"theString"}, false, null).makeEventTables(null)[0];
+        EventBean[] indexEvents = SupportEventBeanFactory.makeEvents(new String[]{"a1", "a2", "a2"});
+        index.add(indexEvents);
+
+        TableLookupHashJoinExecNode exec = new TableLookupHashJoinExecNode(1, new IndexedTableLookupStrategy(eventTypeKeyGen, new String[]{"symbol"}, index));
+        assertBatchSameAsPerEvent(exec);
+    }
+
+    public void testBatchSingle() {
+        PropertyIndexedEventTableSingle index = (PropertyIndexedEventTableSingle) new PropertyIndexedEventTableSingleFactory(0, eventTypeIndex, "theString", false, null).makeEventTables(null)[0];
+        EventBean[] indexEvents = SupportEventBeanFactory.makeEvents(new String[]{"a1", "a2", "a2"});
+        index.add(indexEvents);
+
+        TableLookupHashJoinExecNode exec = new TableLookupHashJoinExecNode(1, new IndexedTableLookupStrategySingle(eventTypeKeyGen, "symbol", index));
+        assertBatchSameAsPerEvent(exec);
+    }
+
+    private void assertBatchSameAsPerEvent(TableLookupHashJoinExecNode exec) {
+        EventBean[] lookupEvents = SupportEventBeanFactory.makeMarketDataEvents(new String[]{"a2", "a3", "a2", "a1"});
+
+        Set<MultiKey<EventBean>> batch = new LinkedHashSet<MultiKey<EventBean>>();
+        exec.processBatch(lookupEvents, 0, 2, batch);
+        assertEquals(5, batch.size());
+
+        List<EventBean[]> perEvent = new ArrayList<EventBean[]>();
+        for (EventBean lookupEvent : lookupEvents) {
+            List<EventBean[]> result = new LinkedList<EventBean[]>();
+            exec.process(lookupEvent, new EventBean[]{lookupEvent, null}, result, null);
+            perEvent.addAll(result);
+        }
+
+        Iterator<MultiKey<EventBean>> it = batch.iterator();
+        for (EventBean[] expected : perEvent) {
+            MultiKey<EventBean> row = it.next();
+            assertSame(expected[0], row.get(0));
+            assertSame(expected[1], row.get(1));
+        }
+        assertFalse(it.hasNext());
+    }
+}
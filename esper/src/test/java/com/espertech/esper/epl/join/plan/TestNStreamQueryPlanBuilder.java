@@ -49,7 +49,7 @@ public class TestNStreamQueryPlanBuilder extends TestCase {
     }
 
     public void testBuild() {
-        QueryPlan plan = NStreamQueryPlanBuilder.build(queryGraph, typesPerStream, new HistoricalViewableDesc(6), dependencyGraph, null, false, new String[queryGraph.getNumStreams()][][], new TableMetadata[queryGraph.getNumStreams()]);
+        QueryPlan plan = NStreamQueryPlanBuilder.build(queryGraph, typesPerStream, new HistoricalViewableDesc(6), dependencyGraph, null, false, new String[queryGraph.getNumStreams()][][], new TableMetadata[queryGraph.getNumStreams()], null);
 
         log.debug(".testBuild plan=" + plan);
     }
@@ -99,6 +99,31 @@ public class TestNStreamQueryPlanBuilder extends TestCase {
         assertTrue(Arrays.equals(bestChain.getChain(), new int[]{0, 1, 2, 3, 4}));
     }
 
+    public void testComputeBestPathStatistics() {
+        QueryGraph graph = new QueryGraph(3, null, false);
+        graph.addStrictEquals(0, "p00", make(0, "p00"), 1, "p10", make(1, "p10"));
+        graph.addStrictEquals(0, "p01", make(0, "p01"), 2, "p20", make(2, "p20"));
+        DependencyGraph dependencies = new DependencyGraph(3, false);
+
+        NStreamQueryPlanBuilder.BestChainResult bestChain = NStreamQueryPlanBuilder.computeBestPath(0, graph, dependencies);
+        assertTrue(Arrays.equals(bestChain.getChain(), new int[]{1, 2}));
+
+        QueryPlanStatistics statistics = new QueryPlanStatistics(new long[]{1, 1000, 10});
+        bestChain = NStreamQueryPlanBuilder.computeBestPath(0, graph, dependencies, statistics);
+        assertEquals(1, bestChain.getDepth());
+        assertTrue(Arrays.equals(bestChain.getChain(), new int[]{2, 1}));
+
+        // depth takes precedence over cost
+        bestChain = NStreamQueryPlanBuilder.computeBestPath(1, graph, dependencies, statistics);
+        assertEquals(2, bestChain.getDepth());
+        assertTrue(Arrays.equals(bestChain.getChain(), new int[]{0, 2}));
+
+        assertFalse(statistics.isDrifted(new long[]{1, 1000, 10}));
+        assertFalse(statistics.isDrifted(new long[]{50, 1000, 100}));
+        assertTrue(statistics.isDrifted(new long[]{1, 4000, 10}));
+        assertTrue(statistics.isDrifted(new long[]{1, 1000, 110}));
+    }
+
     public void testComputeNavigableDepth() {
         queryGraph.addStrictEquals(3, "p30", null, 2, "p20", null);
         queryGraph.addStrictEquals(2, "p30", null, 1, "p20", null);
@@ -0,0 +1,106 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.lookup;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.join.table.*;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestEventTableIndexBatchUpdater extends TestCase {
+    private EventType eventType;
+    private PropertyIndexedEventTable indexMulti;
+    private PropertyIndexedEventTable indexMultiUnique;
+    private PropertyIndexedEventTableSingle indexSingle;
+    private PropertyIndexedEventTableSingle indexSingleOther;
+    private PropertyIndexedEventTableSingle indexCoerce;
+    private PropertySortedEventTable indexSorted;
+    private List<EventTable> tables;
+
+    public void setUp() {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        indexMulti = (PropertyIndexedEventTable) new PropertyIndexedEventTableFactory(0, eventType, new String[]{"intPrimitive", "theString"}, false, null).makeEventTables(null)[0];
+        indexMultiUnique = (PropertyIndexedEventTable) new PropertyIndexedEventTableFactory(0, eventType, new String[]{"theString", "longPrimitive"}, true, null).makeEventTables(null)[0];
+        indexSingle = (PropertyIndexedEventTableSingle) new PropertyIndexedEventTableSingleFactory(0, eventType, "theString", false, null).makeEventTables(null)[0];
+        indexSingleOther = (PropertyIndexedEventTableSingle) new PropertyIndexedEventTableSingleFactory(0, eventType, "theString", false, null).makeEventTables(null)[0];
+        indexCoerce = (PropertyIndexedEventTableSingle) new PropertyIndexedEventTableSingleCoerceAllFactory(0, eventType, "intPrimitive", Long.class).makeEventTables(null)[0];
+        indexSorted = (PropertySortedEventTable) new PropertySortedEventTableFactory(0, eventType, "intPrimitive").makeEventTables(null)[0];
+
+        tables = new ArrayList<EventTable>();
+        tables.add(indexMulti);
+        tables.add(indexMultiUnique);
+        tables.add(indexSingle);
+        tables.add(indexSingleOther);
+        tables.add(indexCoerce);
+        tables.add(indexSorted);
+    }
+
+    public void testAddRemove() {
+        EventTableIndexBatchUpdater updater = EventTableIndexBatchUpdater.make(tables);
+        assertEquals(4, updater.getNumSharedKeyTables());
+
+        EventBean[] events = new EventBean[]{makeEvent("E1", 1, 10), makeEvent("E2", 2, 20), makeEvent("E1", 1, 30)};
+        updater.add(events);
+        updater.add(null);
+        updater.add(new EventBean[0]);
+
+        assertEquals(2, indexMulti.lookup(new Object[]{1, "E1"}).size());
+        assertTrue(indexMultiUnique.lookup(new Object[]{"E2", 20L}).contains(events[1]));
+        assertEquals(2, indexSingle.lookup("E1").size());
+        assertEquals(1, indexSingleOther.lookup("E2").size());
+        assertEquals(2, indexCoerce.lookup(1L).size());
+        assertEquals(3, indexSorted.lookupRange(0, true, 5, true, false).size());
+
+        updater.remove(new EventBean[]{events[0], events[1]});
+        assertEquals(1, indexMulti.lookup(new Object[]{1, "E1"}).size());
+        assertNull(indexMultiUnique.lookup(new Object[]{"E2", 20L}));
+        assertTrue(indexSingle.lookup("E1").contains(events[2]));
+        assertNull(indexSingleOther.lookup("E2"));
+        assertEquals(1, indexCoerce.lookup(1L).size());
+        assertEquals(1, indexSorted.lookupRange(0, true, 5, true, false).size());
+        for (EventTable table : tables) {
+            assertEquals(1, count(table));
+            assertEquals(1, (int) table.getNumberOfEvents());
+        }
+    }
+
+    public void testNoSharing() {
+        List<EventTable> single = new ArrayList<EventTable>();
+        single.add(indexSingle);
+        single.add(indexSorted);
+        EventTableIndexBatchUpdater updater = EventTableIndexBatchUpdater.make(single);
+        assertEquals(0, updater.getNumSharedKeyTables());
+
+        updater.add(new EventBean[]{makeEvent("E1", 1, 10)});
+        assertEquals(1, indexSingle.lookup("E1").size());
+        assertEquals(1, count(indexSorted));
+    }
+
+    private static int count(EventTable table) {
+        int count = 0;
+        for (EventBean ignored : table) {
+            count++;
+        }
+        return count;
+    }
+
+    private static EventBean makeEvent(String theString, int intPrimitive, long longPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        return SupportEventBeanFactory.createObject(bean);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.lookup;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.Pair;
+import com.espertech.esper.epl.join.table.*;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestEventTableIndexUtil extends TestCase {
+    private IndexMultiKey keyString;
+    private IndexMultiKey keyInt;
+    private Map<IndexMultiKey, EventTableIndexRepositoryEntry> tables;
+
+    public void setUp() {
+        EventType eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        EventTable indexString = new PropertyIndexedEventTableSingleFactory(0, eventType, "theString", false, null).makeEventTables(null)[0];
+        EventTable indexInt = new PropertyIndexedEventTableSingleFactory(0, eventType, "intPrimitive", false, null).makeEventTables(null)[0];
+
+        EventBean[] events = new EventBean[10];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = SupportEventBeanFactory.createObject(new SupportBean("E" + (i % 2), i));
+        }
+        indexString.add(events);
+        indexInt.add(events);
+
+        keyString = new IndexMultiKey(false, Collections.singletonList(new IndexedPropDesc("theString", String.class)), Collections.<IndexedPropDesc>emptyList());
+        keyInt = new IndexMultiKey(false, Collections.singletonList(new IndexedPropDesc("intPrimitive", int.class)), Collections.<IndexedPropDesc>emptyList());
+        tables = new LinkedHashMap<IndexMultiKey, EventTableIndexRepositoryEntry>();
+        tables.put(keyString, new EventTableIndexRepositoryEntry(null, indexString));
+        tables.put(keyInt, new EventTableIndexRepositoryEntry(null, indexInt));
+    }
+
+    public void testFindIndexCostBased() {
+        Set<String> keys = new HashSet<String>(Arrays.asList("theString", "intPrimitive"));
+
+        // 10 events in 2 keys for theString, 10 keys for intPrimitive
+        Pair<IndexMultiKey, EventTableIndexEntryBase> pair = EventTableIndexUtil.findIndexBestAvailable(tables, keys, Collections.<String>emptySet(), null, true);
+        assertEquals(keyInt, pair.getFirst());
+
+        // a single matching index is taken regardless of statistics
+        pair = EventTableIndexUtil.findIndexBestAvailable(tables, Collections.singleton("theString"), Collections.<String>emptySet(), null, true);
+        assertEquals(keyString, pair.getFirst());
+    }
+}
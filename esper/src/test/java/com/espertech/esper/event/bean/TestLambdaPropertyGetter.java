@@ -0,0 +1,140 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.ConfigurationEventTypeLegacy;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.core.support.SupportEventAdapterService;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+import net.sf.cglib.reflect.FastClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+
+public class TestLambdaPropertyGetter extends TestCase {
+    private SupportBean testEvent;
+    private EventBean unitTestBean;
+
+    public void setUp() {
+        testEvent = new SupportBean();
+        testEvent.setIntPrimitive(10);
+        testEvent.setTheString("a");
+        testEvent.setDoubleBoxed(null);
+
+        unitTestBean = SupportEventBeanFactory.createObject(testEvent);
+    }
+
+    public void testGetter() throws Exception {
+        EventPropertyGetter getter = makeGetter(SupportBean.class, "getIntPrimitive");
+        assertTrue(getter instanceof LambdaPropertyGetter);
+        assertEquals(10, getter.get(unitTestBean));
+
+        getter = makeGetter(SupportBean.class, "getTheString");
+        assertEquals("a", getter.get(unitTestBean));
+
+        getter = makeGetter(SupportBean.class, "getDoubleBoxed");
+        assertEquals(null, getter.get(unitTestBean));
+
+        try {
+            EventBean eventBean = SupportEventBeanFactory.createObject(new Object());
+            getter.get(eventBean);
+            fail();
+        } catch (PropertyAccessException ex) {
+            assertTrue(ex.getMessage().startsWith("Mismatched getter instance to event bean type"));
+        }
+
+        getter = makeGetter(SupportThrowingBean.class, "getValue");
+        try {
+            getter.get(SupportEventBeanFactory.createObject(new SupportThrowingBean()));
+            fail();
+        } catch (PropertyAccessException ex) {
+            assertEquals("Failed to invoke method getValue on class " + SupportThrowingBean.class.getName() + ": failed", ex.getMessage());
+        }
+    }
+
+    public void testFallback() throws Exception {
+        Method method = SupportNonPublicBean.class.getMethod("getValue");
+        EventPropertyGetter getter = PropertyHelper.getLambdaGetter(method, null, SupportEventAdapterService.getService());
+        assertTrue(getter instanceof ReflectionPropMethodGetter);
+        assertEquals(5, getter.get(SupportEventBeanFactory.createObject(new SupportNonPublicBean())));
+    }
+
+    public void testEventType() {
+        ConfigurationEventTypeLegacy config = new ConfigurationEventTypeLegacy();
+        config.setCodeGeneration(ConfigurationEventTypeLegacy.CodeGeneration.LAMBDA);
+        BeanEventType eventType = new BeanEventType(null, 0, SupportBean.class, SupportEventAdapterService.getService(), config);
+        assertTrue(eventType.getGetter("intPrimitive") instanceof LambdaPropertyGetter);
+        assertEquals(10, eventType.getGetter("intPrimitive").get(unitTestBean));
+        assertNotNull(eventType.getFastClass());
+
+        eventType = new BeanEventType(null, 0, SupportBean.class, SupportEventAdapterService.getService(), null);
+        assertTrue(eventType.getGetter("intPrimitive") instanceof CGLibPropertyGetter);
+    }
+
+    public void testPerfCompareCGLibReflection() throws Exception {
+        Method method = SupportBean.class.getMethod("getIntPrimitive");
+        FastClass fastClass = FastClass.create(Thread.currentThread().getContextClassLoader(), SupportBean.class);
+        EventPropertyGetter reflection = new ReflectionPropMethodGetter(method, SupportEventAdapterService.getService());
+        EventPropertyGetter cglib = new CGLibPropertyGetter(method, fastClass.getMethod(method), SupportEventAdapterService.getService());
+        EventPropertyGetter lambda = PropertyHelper.getLambdaGetter(method, fastClass, SupportEventAdapterService.getService());
+
+        long[] deltas = new long[3];
+        for (int repeat = 0; repeat < 3; repeat++) {
+            EventPropertyGetter[] getters = new EventPropertyGetter[]{reflection, cglib, lambda};
+            long[] sums = new long[getters.length];
+            for (int i = 0; i < getters.length; i++) {
+                long startTime = System.currentTimeMillis();
+                sums[i] = runGetter(getters[i]);
+                deltas[i] = System.currentTimeMillis() - startTime;
+            }
+
+            // timing is left to the log, all getters must however return the same values
+            assertTrue(sums[0] > 0);
+            assertEquals(sums[0], sums[1]);
+            assertEquals(sums[0], sums[2]);
+        }
+        log.info(".testPerfCompareCGLibReflection reflection=" + deltas[0] + " cglib=" + deltas[1] + " lambda=" + deltas[2]);
+    }
+
+    private long runGetter(EventPropertyGetter getter) {
+        long sum = 0;
+        for (int i = 0; i < 10000000; i++) {
+            testEvent.setIntPrimitive(i);
+            sum += (Integer) getter.get(unitTestBean);
+        }
+        return sum;
+    }
+
+    private EventPropertyGetter makeGetter(Class clazz, String methodName) throws Exception {
+        FastClass fastClass = FastClass.create(Thread.currentThread().getContextClassLoader(), clazz);
+        Method method = clazz.getMethod(methodName);
+        return PropertyHelper.getLambdaGetter(method, fastClass, SupportEventAdapterService.getService());
+    }
+
+    public static class SupportThrowingBean {
+        public String getValue() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    static class SupportNonPublicBean {
+        public int getValue() {
+            return 5;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(TestLambdaPropertyGetter.class);
+}
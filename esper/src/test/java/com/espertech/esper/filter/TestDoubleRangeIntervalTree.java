@@ -0,0 +1,199 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class TestDoubleRangeIntervalTree extends TestCase {
+    private final static boolean[][] INCLUSIVE = new boolean[][]{{true, true}, {false, false}, {true, false}, {false, true}};
+
+    private List<EventEvaluator> invoked;
+
+    public void setUp() {
+        invoked = new ArrayList<EventEvaluator>();
+    }
+
+    public void testPutGetRemove() {
+        DoubleRangeIntervalTree tree = new DoubleRangeIntervalTree();
+        assertTrue(tree.isEmpty());
+
+        EventEvaluator evalOne = new RecordingEvaluator();
+        EventEvaluator evalTwo = new RecordingEvaluator();
+        assertNull(tree.put(new DoubleRange(1d, 5d), evalOne));
+        assertNull(tree.put(new DoubleRange(1d, 3d), evalTwo));
+        assertEquals(2, tree.size());
+        assertSame(evalOne, tree.get(new DoubleRange(5d, 1d)));
+        assertSame(evalTwo, tree.get(new DoubleRange(1d, 3d)));
+        assertNull(tree.get(new DoubleRange(1d, 4d)));
+
+        assertSame(evalOne, tree.put(new DoubleRange(1d, 5d), evalTwo));
+        assertEquals(2, tree.size());
+
+        assertSame(evalTwo, tree.remove(new DoubleRange(1d, 5d)));
+        assertNull(tree.remove(new DoubleRange(1d, 5d)));
+        assertEquals(1, tree.size());
+        assertSame(evalTwo, tree.remove(new DoubleRange(1d, 3d)));
+        assertTrue(tree.isEmpty());
+    }
+
+    public void testMatch() {
+        DoubleRangeIntervalTree tree = new DoubleRangeIntervalTree();
+        EventEvaluator evalOne = new RecordingEvaluator();
+        EventEvaluator evalTwo = new RecordingEvaluator();
+        EventEvaluator evalThree = new RecordingEvaluator();
+        tree.put(new DoubleRange(1d, 5d), evalOne);
+        tree.put(new DoubleRange(5d, 5d), evalTwo);
+        tree.put(new DoubleRange(0d, 10d), evalThree);
+
+        assertMatchContaining(tree, 5, true, true, evalThree, evalOne, evalTwo);
+        assertMatchContaining(tree, 5, true, false, evalThree);
+        assertMatchContaining(tree, 5, false, true, evalThree, evalOne);
+        assertMatchContaining(tree, 1, false, false, evalThree);
+        assertMatchContaining(tree, 11, true, true);
+
+        assertMatchNotContaining(tree, 5, true, true);
+        assertMatchNotContaining(tree, 5, false, false, evalOne, evalTwo);
+        assertMatchNotContaining(tree, 0, true, true, evalOne, evalTwo);
+        assertMatchNotContaining(tree, 10, true, false, evalThree, evalOne, evalTwo);
+    }
+
+    public void testCompareTreeMap() {
+        Random random = new Random(1);
+        DoubleRangeIntervalTree tree = new DoubleRangeIntervalTree();
+        TreeMap<DoubleRange, EventEvaluator> treeMap = new TreeMap<DoubleRange, EventEvaluator>(new DoubleRangeComparator());
+
+        for (int i = 0; i < 20000; i++) {
+            DoubleRange range = new DoubleRange((double) random.nextInt(200), (double) random.nextInt(200));
+            if (random.nextInt(3) == 0) {
+                assertSame(treeMap.remove(range), tree.remove(range));
+            } else {
+                EventEvaluator evaluator = new RecordingEvaluator();
+                assertSame(treeMap.put(range, evaluator), tree.put(range, evaluator));
+            }
+            assertEquals(treeMap.size(), tree.size());
+
+            if (i % 10 == 0) {
+                double value = random.nextInt(400) / 2d - 5;
+                for (boolean[] inclusive : INCLUSIVE) {
+                    List<EventEvaluator> expectedContaining = new ArrayList<EventEvaluator>();
+                    List<EventEvaluator> expectedNotContaining = new ArrayList<EventEvaluator>();
+                    for (Map.Entry<DoubleRange, EventEvaluator> entry : treeMap.entrySet()) {
+                        if (isContained(value, entry.getKey(), inclusive[0], inclusive[1])) {
+                            expectedContaining.add(entry.getValue());
+                        } else {
+                            expectedNotContaining.add(entry.getValue());
+                        }
+                    }
+
+                    tree.matchContaining(value, inclusive[0], inclusive[1], null, null);
+                    assertEquals(expectedContaining, invoked);
+                    invoked.clear();
+
+                    tree.matchNotContaining(value, inclusive[0], inclusive[1], null, null);
+                    assertEquals(expectedNotContaining, invoked);
+                    invoked.clear();
+                }
+            }
+        }
+    }
+
+    public void testPerfOverlapping() {
+        Random random = new Random(1);
+        DoubleRangeIntervalTree tree = new DoubleRangeIntervalTree();
+        TreeMap<DoubleRange, EventEvaluator> treeMap = new TreeMap<DoubleRange, EventEvaluator>(new DoubleRangeComparator());
+
+        // many narrow bands and a few wide ones, as geofence and price-band filters produce
+        CountingEvaluator[] treeEvaluators = new CountingEvaluator[10000];
+        CountingEvaluator[] scanEvaluators = new CountingEvaluator[treeEvaluators.length];
+        for (int i = 0; i < treeEvaluators.length; i++) {
+            double min = random.nextInt(100000);
+            double width = i % 1000 == 0 ? 100000 : 1 + random.nextInt(10);
+            treeEvaluators[i] = new CountingEvaluator();
+            scanEvaluators[i] = new CountingEvaluator();
+            tree.put(new DoubleRange(min, min + width), treeEvaluators[i]);
+            treeMap.put(new DoubleRange(min, min + width), scanEvaluators[i]);
+        }
+        double[] values = new double[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(100000);
+        }
+
+        long startTime = System.currentTimeMillis();
+        for (double value : values) {
+            tree.matchContaining(value, true, true, null, null);
+        }
+        long deltaTree = System.currentTimeMillis() - startTime;
+
+        startTime = System.currentTimeMillis();
+        for (double value : values) {
+            for (Map.Entry<DoubleRange, EventEvaluator> entry : treeMap.headMap(new DoubleRange(value, Double.MAX_VALUE)).entrySet()) {
+                if (isContained(value, entry.getKey(), true, true)) {
+                    entry.getValue().matchEvent(null, null);
+                }
+            }
+        }
+        long deltaScan = System.currentTimeMillis() - startTime;
+
+        log.info(".testPerfOverlapping tree=" + deltaTree + " scan=" + deltaScan);
+
+        // the tree matches exactly the ranges that the scan matches, for the same values
+        int total = 0;
+        for (int i = 0; i < treeEvaluators.length; i++) {
+            assertEquals("range " + i, scanEvaluators[i].count, treeEvaluators[i].count);
+            total += treeEvaluators[i].count;
+        }
+        assertTrue(total > values.length);
+    }
+
+    private void assertMatchContaining(DoubleRangeIntervalTree tree, double value, boolean includeMin, boolean includeMax, EventEvaluator... expected) {
+        tree.matchContaining(value, includeMin, includeMax, null, null);
+        assertEquals(Arrays.asList(expected), invoked);
+        invoked.clear();
+    }
+
+    private void assertMatchNotContaining(DoubleRangeIntervalTree tree, double value, boolean includeMin, boolean includeMax, EventEvaluator... expected) {
+        tree.matchNotContaining(value, includeMin, includeMax, null, null);
+        assertEquals(Arrays.asList(expected), invoked);
+        invoked.clear();
+    }
+
+    private static boolean isContained(double value, DoubleRange range, boolean includeMin, boolean includeMax) {
+        return ((value > range.getMin()) || (includeMin && value == range.getMin())) &&
+                ((value < range.getMax()) || (includeMax && value == range.getMax()));
+    }
+
+    private class RecordingEvaluator implements EventEvaluator {
+        public void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+            invoked.add(this);
+        }
+    }
+
+    private static class CountingEvaluator implements EventEvaluator {
+        private int count;
+
+        public void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+            count++;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(TestDoubleRangeIntervalTree.class);
+}
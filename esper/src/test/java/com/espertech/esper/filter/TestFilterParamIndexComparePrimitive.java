@@ -0,0 +1,215 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.filter.SupportEventEvaluator;
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TestFilterParamIndexComparePrimitive extends TestCase {
+    private SupportEventEvaluator testEvaluator;
+    private SupportBean testBean;
+    private EventBean testEventBean;
+    private EventType testEventType;
+    private List<FilterHandle> matchesList;
+
+    public void setUp() {
+        testEvaluator = new SupportEventEvaluator();
+        testBean = new SupportBean();
+        testEventBean = SupportEventBeanFactory.createObject(testBean);
+        testEventType = testEventBean.getEventType();
+        matchesList = new LinkedList<FilterHandle>();
+    }
+
+    public void testMatchDoubleAndGreater() {
+        FilterParamIndexComparePrimitive index = makeOne("doublePrimitive", FilterOperator.GREATER);
+
+        index.put(Double.valueOf(1.5), testEvaluator);
+        index.put(Double.valueOf(2.1), testEvaluator);
+        index.put(Double.valueOf(2.2), testEvaluator);
+
+        verifyDoublePrimitive(index, 1.5, 0);
+        verifyDoublePrimitive(index, 1.7, 1);
+        verifyDoublePrimitive(index, 2.2, 2);
+        verifyDoublePrimitive(index, 2.1999999, 2);
+        verifyDoublePrimitive(index, -1, 0);
+        verifyDoublePrimitive(index, 99, 3);
+
+        assertEquals(testEvaluator, index.get(1.5d));
+        assertTrue(index.getReadWriteLock() != null);
+        assertTrue(index.remove(1.5d));
+        assertFalse(index.remove(1.5d));
+        assertEquals(null, index.get(1.5d));
+
+        try {
+            index.put("a", testEvaluator);
+            assertTrue(false);
+        } catch (ClassCastException ex) {
+            // Expected
+        }
+    }
+
+    public void testMatchLongAndGreaterEquals() {
+        FilterParamIndexComparePrimitive index = makeOne("longBoxed", FilterOperator.GREATER_OR_EQUAL);
+
+        index.put(Long.valueOf(1), testEvaluator);
+        index.put(Long.valueOf(2), testEvaluator);
+        index.put(Long.valueOf(4), testEvaluator);
+
+        // Should not match with null
+        verifyLongBoxed(index, null, 0);
+
+        verifyLongBoxed(index, 0L, 0);
+        verifyLongBoxed(index, 1L, 1);
+        verifyLongBoxed(index, 2L, 2);
+        verifyLongBoxed(index, 3L, 2);
+        verifyLongBoxed(index, 4L, 3);
+        verifyLongBoxed(index, 10L, 3);
+    }
+
+    public void testMatchLongAndLessThan() {
+        FilterParamIndexComparePrimitive index = makeOne("longPrimitive", FilterOperator.LESS);
+
+        index.put(Long.valueOf(1), testEvaluator);
+        index.put(Long.valueOf(10), testEvaluator);
+        index.put(Long.valueOf(100), testEvaluator);
+
+        verifyLongPrimitive(index, 100, 0);
+        verifyLongPrimitive(index, 101, 0);
+        verifyLongPrimitive(index, 99, 1);
+        verifyLongPrimitive(index, 11, 1);
+        verifyLongPrimitive(index, 10, 1);
+        verifyLongPrimitive(index, 9, 2);
+        verifyLongPrimitive(index, 2, 2);
+        verifyLongPrimitive(index, 1, 2);
+        verifyLongPrimitive(index, 0, 3);
+    }
+
+    public void testMatchDoubleAndLessOrEqualThan() {
+        FilterParamIndexComparePrimitive index = makeOne("doubleBoxed", FilterOperator.LESS_OR_EQUAL);
+
+        index.put(7.4D, testEvaluator);
+        index.put(7.5D, testEvaluator);
+        index.put(7.6D, testEvaluator);
+        index.put(-0.0D, testEvaluator);
+
+        verifyDoubleBoxed(index, 7.39, 3);
+        verifyDoubleBoxed(index, 7.4, 3);
+        verifyDoubleBoxed(index, 7.41, 2);
+        verifyDoubleBoxed(index, 7.5, 2);
+        verifyDoubleBoxed(index, 7.51, 1);
+        verifyDoubleBoxed(index, 7.6, 1);
+        verifyDoubleBoxed(index, 7.61, 0);
+        verifyDoubleBoxed(index, -1d, 4);
+    }
+
+    public void testCompareTreeMapIndex() {
+        Random random = new Random(1);
+        FilterOperator[] operators = new FilterOperator[]{FilterOperator.GREATER, FilterOperator.GREATER_OR_EQUAL, FilterOperator.LESS, FilterOperator.LESS_OR_EQUAL};
+        for (FilterOperator operator : operators) {
+            FilterParamIndexComparePrimitive indexPrimitive = makeOne("doublePrimitive", operator);
+            FilterParamIndexCompare indexTreeMap = new FilterParamIndexCompare(makeLookupable("doublePrimitive"), new ReentrantReadWriteLock(), operator);
+            for (int i = 0; i < 2000; i++) {
+                double constant = random.nextInt(1000) / 10d - 50;
+                if (random.nextInt(4) == 0) {
+                    assertEquals(indexTreeMap.remove(constant), indexPrimitive.remove(constant));
+                } else {
+                    indexTreeMap.put(constant, testEvaluator);
+                    indexPrimitive.put(constant, testEvaluator);
+                }
+                assertEquals(indexTreeMap.size(), indexPrimitive.size());
+
+                testBean.setDoublePrimitive(random.nextInt(1200) / 10d - 60);
+                indexTreeMap.matchEvent(testEventBean, matchesList);
+                int expected = testEvaluator.getAndResetCountInvoked();
+                indexPrimitive.matchEvent(testEventBean, matchesList);
+                assertEquals(expected, testEvaluator.getAndResetCountInvoked());
+            }
+        }
+    }
+
+    public void testPerfCompareTreeMapIndex() {
+        for (int numFilters : new int[]{10000, 100000}) {
+            long startTime = System.currentTimeMillis();
+            int matchedTreeMap = runPerf(new FilterParamIndexCompare(makeLookupable("doublePrimitive"), new ReentrantReadWriteLock(), FilterOperator.LESS), numFilters);
+            long deltaTreeMap = System.currentTimeMillis() - startTime;
+
+            startTime = System.currentTimeMillis();
+            int matchedPrimitive = runPerf(makeOne("doublePrimitive", FilterOperator.LESS), numFilters);
+            long deltaPrimitive = System.currentTimeMillis() - startTime;
+            log.info(".testPerfCompareTreeMapIndex numFilters=" + numFilters + " treemap=" + deltaTreeMap + " primitive=" + deltaPrimitive);
+
+            // timing is left to the log, both indexes must however match the same filters
+            assertTrue(matchedTreeMap > 0);
+            assertEquals(matchedTreeMap, matchedPrimitive);
+        }
+    }
+
+    private int runPerf(FilterParamIndexLookupableBase index, int numFilters) {
+        for (int i = 0; i < numFilters; i++) {
+            index.put((double) i, testEvaluator);
+        }
+
+        // each event matches about 10 filters
+        Random random = new Random(1);
+        for (int i = 0; i < 1000000; i++) {
+            testBean.setDoublePrimitive(numFilters - 10.5 + random.nextDouble());
+            index.matchEvent(testEventBean, matchesList);
+        }
+        return testEvaluator.getAndResetCountInvoked();
+    }
+
+    private FilterParamIndexComparePrimitive makeOne(String field, FilterOperator op) {
+        Class type = testEventType.getPropertyType(field);
+        boolean floatingPoint = type == double.class || type == Double.class;
+        return new FilterParamIndexComparePrimitive(makeLookupable(field), new ReentrantReadWriteLock(), op, floatingPoint);
+    }
+
+    private void verifyDoublePrimitive(FilterParamIndexBase index, double testValue, int numExpected) {
+        testBean.setDoublePrimitive(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyDoubleBoxed(FilterParamIndexBase index, Double testValue, int numExpected) {
+        testBean.setDoubleBoxed(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyLongBoxed(FilterParamIndexBase index, Long testValue, int numExpected) {
+        testBean.setLongBoxed(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyLongPrimitive(FilterParamIndexBase index, long testValue, int numExpected) {
+        testBean.setLongPrimitive(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private FilterSpecLookupable makeLookupable(String fieldName) {
+        return new FilterSpecLookupable(fieldName, testEventType.getGetter(fieldName), testEventType.getPropertyType(fieldName), false);
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(TestFilterParamIndexComparePrimitive.class);
+}
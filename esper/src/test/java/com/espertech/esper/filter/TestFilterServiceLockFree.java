@@ -0,0 +1,229 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.core.service.EPStatementHandle;
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+import com.espertech.esper.core.service.StatementAgentInstanceFilterVersion;
+import com.espertech.esper.core.service.StatementAgentInstanceRWLockImpl;
+import com.espertech.esper.core.service.StatementType;
+import com.espertech.esper.core.service.multimatch.MultiMatchHandlerFactoryImpl;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
+import com.espertech.esper.supportunit.filter.SupportFilterHandle;
+import com.espertech.esper.supportunit.filter.SupportFilterSpecBuilder;
+import junit.framework.TestCase;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TestFilterServiceLockFree extends TestCase {
+    private EventType eventType;
+    private FilterValueSet filterHello;
+    private FilterValueSet filterRange;
+    private EventBean eventHello;
+
+    public void setUp() {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        filterHello = SupportFilterSpecBuilder.build(eventType, new Object[]{"theString", FilterOperator.EQUAL, "HELLO"}).getValueSet(null, null, null);
+        filterRange = SupportFilterSpecBuilder.build(eventType, new Object[]{"intPrimitive", FilterOperator.RANGE_CLOSED, 1, 10}).getValueSet(null, null, null);
+        eventHello = SupportEventBeanFactory.createObject(new SupportBean("HELLO", 5));
+    }
+
+    public void testAddRemove() {
+        FilterServiceLockFree service = new FilterServiceLockFree(false);
+        SupportFilterHandle handleOne = new SupportFilterHandle();
+        SupportFilterHandle handleTwo = new SupportFilterHandle();
+
+        long version = service.getFiltersVersion();
+        FilterServiceEntry entryOne = service.add(filterHello, handleOne);
+        assertTrue(service.getFiltersVersion() > version);
+        assertMatches(service, handleOne);
+
+        FilterServiceEntry entryTwo = service.add(filterRange, handleTwo);
+        assertMatches(service, handleOne, handleTwo);
+
+        // changes are replayed onto both copies
+        service.remove(handleOne, entryOne);
+        assertMatches(service, handleTwo);
+        service.add(filterHello, handleOne);
+        assertMatches(service, handleOne, handleTwo);
+        service.remove(handleTwo, entryTwo);
+        assertMatches(service, handleOne);
+        assertMatches(service, handleOne);
+
+        service.removeType(eventType);
+        assertMatches(service);
+    }
+
+    public void testWriteLockPublishesOnRelease() throws Exception {
+        final FilterServiceLockFree service = new FilterServiceLockFree(false);
+        SupportFilterHandle handleOne = new SupportFilterHandle();
+        SupportFilterHandle handleTwo = new SupportFilterHandle();
+        FilterServiceEntry entryOne = service.add(filterHello, handleOne);
+
+        service.acquireWriteLock();
+        service.remove(handleOne, entryOne);
+        service.add(filterRange, handleTwo);
+
+        // the writing thread sees its own changes, other threads see the previous filters until released
+        assertMatches(service, handleTwo);
+        assertEquals(1, evaluateOtherThread(service).size());
+        assertTrue(evaluateOtherThread(service).contains(handleOne));
+
+        service.releaseWriteLock();
+        Collection<FilterHandle> matches = evaluateOtherThread(service);
+        assertEquals(1, matches.size());
+        assertTrue(matches.contains(handleTwo));
+    }
+
+    public void testTakeApply() {
+        FilterServiceLockFree service = new FilterServiceLockFree(true);
+        assertTrue(service.isSupportsTakeApply());
+        SupportFilterHandle handle = new SupportFilterHandle();
+        service.add(filterHello, handle);
+
+        FilterSet taken = service.take(Collections.singleton(handle.getStatementId()));
+        assertEquals(1, taken.getFilters().size());
+        assertMatches(service);
+        assertMatches(service);
+
+        service.apply(taken);
+        assertMatches(service, handle);
+        assertMatches(service, handle);
+
+        service.remove(handle, null);
+        assertMatches(service);
+    }
+
+    public void testDeferredChanges() throws Exception {
+        FilterServiceLockFree service = new FilterServiceLockFree(false);
+        EPStatementHandle stmtHandle = new EPStatementHandle(1, "name", "text", StatementType.SELECT, "text", false, null, 1, false, false, new MultiMatchHandlerFactoryImpl().getDefaultHandler());
+        EPStatementAgentInstanceHandle agentHandle = new EPStatementAgentInstanceHandle(stmtHandle, new StatementAgentInstanceRWLockImpl(false), -1, new StatementAgentInstanceFilterVersion(), null);
+        EPStatementHandleCallback handleOne = new EPStatementHandleCallback(agentHandle, (FilterHandleCallback) null);
+        EPStatementHandleCallback handleTwo = new EPStatementHandleCallback(agentHandle, (FilterHandleCallback) null);
+        EPStatementHandleCallback handleThree = new EPStatementHandleCallback(agentHandle, (FilterHandleCallback) null);
+        FilterServiceEntry entryOne = service.add(filterHello, handleOne);
+        long version = service.getFiltersVersion();
+
+        // changes for the statement are deferred, an addition removed again is dropped
+        service.beginDeferredChanges(agentHandle);
+        service.remove(handleOne, entryOne);
+        FilterServiceEntry entryTwo = service.add(filterRange, handleTwo);
+        service.remove(handleThree, service.add(filterHello, handleThree));
+        EPAssertionUtil.assertEqualsAnyOrder(new Object[]{handleOne}, evaluateOtherThread(service).toArray());
+        assertEquals(version, service.getFiltersVersion());
+
+        service.endDeferredChanges();
+        assertMatches(service, handleTwo);
+        assertEquals(version + 2, service.getFiltersVersion());
+        assertEquals(version + 2, agentHandle.getStatementFilterVersion().getStmtFilterVersion());
+
+        // a change for another handle publishes deferred changes first
+        SupportFilterHandle handleOther = new SupportFilterHandle();
+        service.beginDeferredChanges(agentHandle);
+        service.remove(handleTwo, entryTwo);
+        EPAssertionUtil.assertEqualsAnyOrder(new Object[]{handleTwo}, evaluateOtherThread(service).toArray());
+        service.add(filterHello, handleOther);
+        assertMatches(service, handleOther);
+        assertEquals(version + 3, agentHandle.getStatementFilterVersion().getStmtFilterVersion());
+        service.endDeferredChanges();
+        assertEquals(version + 4, service.getFiltersVersion());
+
+        // an evaluation by the deferring thread publishes deferred changes first
+        service.beginDeferredChanges(agentHandle);
+        FilterServiceEntry entryThree = service.add(filterHello, handleThree);
+        assertMatches(service, handleOther, handleThree);
+        service.remove(handleThree, entryThree);
+        service.endDeferredChanges();
+        assertMatches(service, handleOther);
+
+        // both copies hold the same filters
+        service.add(filterRange, handleOne);
+        assertMatches(service, handleOne, handleOther);
+        service.removeType(eventType);
+        assertMatches(service);
+    }
+
+    public void testEvaluateWhileChanging() throws Exception {
+        final FilterServiceLockFree service = new FilterServiceLockFree(false);
+        final SupportFilterHandle stable = new SupportFilterHandle();
+        service.add(filterHello, stable);
+        final AtomicBoolean done = new AtomicBoolean();
+
+        Callable[] callables = new Callable[6];
+        for (int i = 0; i < callables.length; i++) {
+            final boolean writer = i % 2 == 0;
+            callables[i] = new Callable() {
+                public Object call() throws Exception {
+                    if (writer) {
+                        SupportFilterHandle handle = new SupportFilterHandle();
+                        for (int i = 0; i < 10000; i++) {
+                            FilterServiceEntry entry = service.add(i % 2 == 0 ? filterHello : filterRange, handle);
+                            service.remove(handle, entry);
+                        }
+                        done.set(true);
+                        return true;
+                    }
+                    List<FilterHandle> matches = new ArrayList<FilterHandle>();
+                    while (!done.get()) {
+                        matches.clear();
+                        service.evaluate(eventHello, matches);
+                        if (!matches.contains(stable) || matches.size() > 4) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            };
+        }
+
+        ExecutorService threadPool = Executors.newFixedThreadPool(callables.length);
+        Future[] futures = new Future[callables.length];
+        for (int i = 0; i < callables.length; i++) {
+            futures[i] = threadPool.submit(callables[i]);
+        }
+        threadPool.shutdown();
+        threadPool.awaitTermination(10, TimeUnit.SECONDS);
+
+        Object[] results = new Object[futures.length];
+        for (int i = 0; i < futures.length; i++) {
+            results[i] = futures[i].get();
+        }
+        EPAssertionUtil.assertAllBooleanTrue(results);
+        assertMatches(service, stable);
+    }
+
+    private void assertMatches(FilterService service, FilterHandle... expected) {
+        List<FilterHandle> matches = new ArrayList<FilterHandle>();
+        service.evaluate(eventHello, matches);
+        EPAssertionUtil.assertEqualsAnyOrder(expected, matches.toArray());
+    }
+
+    private Collection<FilterHandle> evaluateOtherThread(final FilterService service) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Collection<FilterHandle>> future = executor.submit(new Callable<Collection<FilterHandle>>() {
+            public Collection<FilterHandle> call() throws Exception {
+                List<FilterHandle> matches = new ArrayList<FilterHandle>();
+                service.evaluate(eventHello, matches);
+                return matches;
+            }
+        });
+        executor.shutdown();
+        return future.get(10, TimeUnit.SECONDS);
+    }
+}
@@ -20,5 +20,7 @@ public class TestFilterServiceProvider extends TestCase {
 
         assertTrue(serviceOne != null);
         assertTrue(serviceOne != serviceTwo);
+
+        assertTrue(FilterServiceProvider.newService(ConfigurationEngineDefaults.FilterServiceProfile.LOCKFREE, false) instanceof FilterServiceLockFree);
     }
 }
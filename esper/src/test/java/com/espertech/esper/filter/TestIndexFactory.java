@@ -28,10 +28,14 @@ public class TestIndexFactory extends TestCase {
         FilterParamIndexBase index = IndexFactory.createIndex(makeLookupable("intPrimitive"), lockFactory, FilterOperator.GREATER);
 
         assertTrue(index != null);
-        assertTrue(index instanceof FilterParamIndexCompare);
+        assertTrue(index instanceof FilterParamIndexComparePrimitive);
         assertTrue(getPropName(index).equals("intPrimitive"));
         assertTrue(index.getFilterOperator() == FilterOperator.GREATER);
 
+        // Create a "greater" index for a non-primitive numeric type
+        index = IndexFactory.createIndex(makeLookupable("bigDecimal"), lockFactory, FilterOperator.GREATER);
+        assertTrue(index instanceof FilterParamIndexCompare);
+
         // Create an "equals" index
         index = IndexFactory.createIndex(makeLookupable("string"), lockFactory, FilterOperator.EQUAL);
 
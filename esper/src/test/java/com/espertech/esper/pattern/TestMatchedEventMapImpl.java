@@ -0,0 +1,92 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.supportunit.bean.SupportBean_A;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+public class TestMatchedEventMapImpl extends TestCase {
+    private MatchedEventMapMeta meta;
+    private EventBean[] events;
+
+    public void setUp() {
+        meta = new MatchedEventMapMeta(new String[]{"a", "b", "c"}, false);
+        events = new EventBean[6];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = SupportEventBeanFactory.createObject(new SupportBean_A("E" + i));
+        }
+    }
+
+    public void testCopyIsolation() {
+        MatchedEventMapImpl parent = new MatchedEventMapImpl(meta);
+        parent.add(0, events[0]);
+
+        // child writes an unassigned slot, the parent must not see it
+        MatchedEventMapImpl child = parent.shallowCopy();
+        child.add(1, events[1]);
+        assertMatches(parent, events[0], null, null);
+        assertMatches(child, events[0], events[1], null);
+
+        // a sibling writes the same slot, neither must see the other
+        MatchedEventMapImpl sibling = parent.shallowCopy();
+        sibling.add(1, events[2]);
+        assertMatches(sibling, events[0], events[2], null);
+        assertMatches(child, events[0], events[1], null);
+
+        // the parent changes a slot it shares with the children
+        parent.add(0, events[3]);
+        parent.add(1, events[4]);
+        assertMatches(parent, events[3], events[4], null);
+        assertMatches(child, events[0], events[1], null);
+        assertMatches(sibling, events[0], events[2], null);
+
+        // the child removes its own entry
+        child.add(1, null);
+        assertMatches(child, events[0], null, null);
+        assertMatches(sibling, events[0], events[2], null);
+    }
+
+    public void testChainAndMerge() {
+        MatchedEventMapImpl current = new MatchedEventMapImpl(meta);
+        MatchedEventMapImpl[] steps = new MatchedEventMapImpl[3];
+        for (int i = 0; i < 3; i++) {
+            current = current.shallowCopy();
+            current.add(i, events[i]);
+            steps[i] = current;
+        }
+        assertMatches(steps[0], events[0], null, null);
+        assertMatches(steps[1], events[0], events[1], null);
+        assertMatches(steps[2], events[0], events[1], events[2]);
+        assertEquals(3, steps[2].getMatchingEventsAsMap().size());
+        assertSame(events[1], steps[2].getMatchingEventAsObjectByTag("b"));
+
+        MatchedEventMapImpl other = new MatchedEventMapImpl(meta);
+        other.add(2, events[5]);
+        MatchedEventMapImpl merged = steps[0].shallowCopy();
+        merged.merge(other);
+        assertMatches(merged, events[0], null, events[5]);
+        assertMatches(steps[2], events[0], events[1], events[2]);
+
+        // the array returned only holds the entries of the collection asked
+        Object[] array = steps[1].getMatchingEvents();
+        assertSame(events[0], array[0]);
+        assertSame(events[1], array[1]);
+        assertNull(array[2]);
+    }
+
+    private void assertMatches(MatchedEventMap map, EventBean a, EventBean b, EventBean c) {
+        assertSame(a, map.getMatchingEvent(0));
+        assertSame(b, map.getMatchingEvent(1));
+        assertSame(c, map.getMatchingEvent(2));
+    }
+}
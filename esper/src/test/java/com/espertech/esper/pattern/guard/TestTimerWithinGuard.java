@@ -69,6 +69,18 @@ public class TestTimerWithinGuard extends TestCase {
         assertEquals(0, quitable.getAndResetQuitCounter());
     }
 
+    public void testStopWhenDue() {
+        scheduleService.setTime(0);
+
+        guard.startGuard();
+        guard.stopGuard();
+
+        // callback that was collected for the same time before the guard stopped
+        guard.scheduledTrigger(null);
+
+        assertEquals(0, quitable.getAndResetQuitCounter());
+    }
+
     public void testInvalid() {
         try {
             guard.startGuard();
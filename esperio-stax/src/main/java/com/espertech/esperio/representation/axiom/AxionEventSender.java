@@ -16,6 +16,8 @@ import com.espertech.esper.core.service.EPRuntimeEventSender;
 import org.apache.axiom.om.OMDocument;
 import org.apache.axiom.om.OMElement;
 
+import java.util.List;
+
 /**
  * A event sender implementation that understands Apache Axiom OMNode events
  * and checks that the root element name matches the expected event type's root element name.
@@ -41,6 +43,12 @@ public class AxionEventSender implements EventSender {
         processEvent(theEvent, false);
     }
 
+    public void sendEvents(List<?> events) {
+        for (Object theEvent : events) {
+            processEvent(theEvent, false);
+        }
+    }
+
     public void route(Object theEvent) {
         processEvent(theEvent, true);
     }